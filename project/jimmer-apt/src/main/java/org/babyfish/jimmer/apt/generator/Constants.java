@@ -215,6 +215,25 @@ class Constants {
                     "EntityManager"
             );
 
+    public static final ClassName ENTITY_ROW_READER_CLASS_NAME =
+            ClassName.get(
+                    "org.babyfish.jimmer.sql.runtime",
+                    "EntityRowReader"
+            );
+
+    public static final ClassName READER_CLASS_NAME =
+            ClassName.get(
+                    "org.babyfish.jimmer.sql.runtime",
+                    "Reader"
+            );
+
+    public static final ClassName READER_COL_CLASS_NAME =
+            ClassName.get(
+                    "org.babyfish.jimmer.sql.runtime",
+                    "Reader",
+                    "Col"
+            );
+
     public static final ClassName CLASS_CLASS_NAME =
             ClassName.get(Class.class);
 
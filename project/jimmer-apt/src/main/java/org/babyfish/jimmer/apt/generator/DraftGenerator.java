@@ -75,6 +75,7 @@ public class DraftGenerator {
             addUtilMethod(prop, true);
         }
         new ProducerGenerator(type).generate(typeBuilder);
+        new RowReaderGenerator(type).generate(typeBuilder);
         new MapStructGenerator(type).generate(typeBuilder);
     }
 
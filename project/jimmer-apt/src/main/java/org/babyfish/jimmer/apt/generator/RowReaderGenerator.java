@@ -0,0 +1,142 @@
+package org.babyfish.jimmer.apt.generator;
+
+import com.squareup.javapoet.*;
+import org.babyfish.jimmer.apt.meta.ImmutableProp;
+import org.babyfish.jimmer.apt.meta.ImmutableType;
+import org.babyfish.jimmer.runtime.DraftSpi;
+
+import javax.lang.model.element.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.babyfish.jimmer.apt.generator.Constants.*;
+
+public class RowReaderGenerator {
+
+    private static final TypeName STRING_TYPE_NAME = ClassName.get(String.class);
+
+    private static final TypeName BIG_DECIMAL_TYPE_NAME = ClassName.get(BigDecimal.class);
+
+    private static final TypeName BYTE_ARRAY_TYPE_NAME = ArrayTypeName.of(TypeName.BYTE);
+
+    private final ImmutableType type;
+
+    private TypeSpec.Builder typeBuilder;
+
+    RowReaderGenerator(ImmutableType type) {
+        this.type = type;
+    }
+
+    public void generate(TypeSpec.Builder parentBuilder) {
+        if (!type.isEntity()) {
+            return;
+        }
+        typeBuilder = TypeSpec
+                .classBuilder("RowReader")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addSuperinterface(ENTITY_ROW_READER_CLASS_NAME);
+        addRead();
+        parentBuilder.addType(typeBuilder.build());
+    }
+
+    private void addRead() {
+        MethodSpec.Builder builder = MethodSpec
+                .methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addParameter(DraftSpi.class, "draft")
+                .addParameter(int[].class, "propIds")
+                .addParameter(ArrayTypeName.of(ParameterizedTypeName.get(READER_CLASS_NAME, WildcardTypeName.subtypeOf(Object.class))), "readers")
+                .addParameter(ResultSet.class, "rs")
+                .addParameter(READER_COL_CLASS_NAME, "col")
+                .addException(SQLException.class);
+        builder.addStatement("$T __draft = ($T)draft", type.getDraftClassName(), type.getDraftClassName());
+        builder.beginControlFlow("for (int i = 0; i < propIds.length; i++)");
+        builder.beginControlFlow("switch (propIds[i])");
+        CaseAppender appender = new CaseAppender(builder, type, int.class);
+        for (ImmutableProp prop : type.getPropsOrderById()) {
+            String getterName = getterName(prop);
+            if (getterName == null) {
+                continue;
+            }
+            appender.addCase(prop);
+            TypeName typeName = prop.getTypeName().withoutAnnotations();
+            if (typeName.isPrimitive() || typeName.isBoxedPrimitive()) {
+                builder.addCode("{\n$>");
+                builder.addStatement("$T __value = rs.$L(col.get())", typeName.unbox(), getterName);
+                if (typeName.isPrimitive()) {
+                    builder.beginControlFlow("if (rs.wasNull())");
+                    builder.addStatement("draft.__set(propIds[i], null)");
+                    builder.nextControlFlow("else");
+                    builder.addStatement("__draft.$L(__value)", prop.getSetterName());
+                    builder.endControlFlow();
+                } else {
+                    builder.addStatement(
+                            "__draft.$L(rs.wasNull() ? null : ($T)__value)",
+                            prop.getSetterName(),
+                            typeName
+                    );
+                }
+                builder.addStatement("break");
+                builder.addCode("$<}\n");
+            } else {
+                builder.addStatement("__draft.$L(rs.$L(col.get()))", prop.getSetterName(), getterName);
+                builder.addStatement("break");
+            }
+        }
+        builder.addCode("default:\n$>");
+        builder.addStatement("draft.__set(propIds[i], readers[i].read(rs, col))");
+        builder.addCode("$<");
+        builder.endControlFlow();
+        builder.endControlFlow();
+        typeBuilder.addMethod(builder.build());
+    }
+
+    private String getterName(ImmutableProp prop) {
+        if (prop == type.getIdProp() ||
+                prop.isList() ||
+                prop.isAssociation(false) ||
+                prop.isTransient() ||
+                prop.isJavaFormula() ||
+                prop.getIdViewBaseProp() != null ||
+                prop.getManyToManyViewBaseProp() != null) {
+            return null;
+        }
+        TypeName typeName = prop.getTypeName().withoutAnnotations();
+        if (typeName.isBoxedPrimitive()) {
+            typeName = typeName.unbox();
+        }
+        if (typeName.equals(TypeName.BOOLEAN)) {
+            return "getBoolean";
+        }
+        if (typeName.equals(TypeName.BYTE)) {
+            return "getByte";
+        }
+        if (typeName.equals(TypeName.SHORT)) {
+            return "getShort";
+        }
+        if (typeName.equals(TypeName.INT)) {
+            return "getInt";
+        }
+        if (typeName.equals(TypeName.LONG)) {
+            return "getLong";
+        }
+        if (typeName.equals(TypeName.FLOAT)) {
+            return "getFloat";
+        }
+        if (typeName.equals(TypeName.DOUBLE)) {
+            return "getDouble";
+        }
+        if (typeName.equals(STRING_TYPE_NAME)) {
+            return "getString";
+        }
+        if (typeName.equals(BIG_DECIMAL_TYPE_NAME)) {
+            return "getBigDecimal";
+        }
+        if (typeName.equals(BYTE_ARRAY_TYPE_NAME)) {
+            return "getBytes";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+// Micro benchmarks of the internals of this build, such as StaticCache and ObjectReader.
+//
+// The ORM comparison under the top-level `benchmark` directory is a standalone
+// project which depends on the published jimmer artifacts, so it measures
+// released versions only and cannot reach internal classes. This module
+// depends on the sibling projects directly and measures the current sources.
+plugins {
+    java
+    id("me.champeau.jmh") version "0.6.8"
+}
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    jmh(project(":jimmer-core"))
+    jmh(project(":jimmer-sql"))
+    jmhAnnotationProcessor(project(":jimmer-apt"))
+    jmh("com.h2database:h2:2.1.212")
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    // For example: ./gradlew :jimmer-benchmark:jmh -PjmhIncludes=StaticCache
+    if (project.hasProperty("jmhIncludes")) {
+        includes.add(project.property("jmhIncludes").toString())
+    }
+}
@@ -0,0 +1,75 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.impl.util.StaticCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link StaticCache} with the previous read-write lock based
+ * implementation under multi-threaded reading, which is the typical
+ * usage of metadata lookup.
+ *
+ * <p>Keys less than {@link #NEGATIVE_KEY_COUNT} are mapped to null,
+ * so that the mixed benchmarks also read the negative cache.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class StaticCacheBenchmark {
+
+    private static final int KEY_COUNT = 256;
+
+    private static final int NEGATIVE_KEY_COUNT = 16;
+
+    private LockedStaticCache<Integer, String> lockedCache;
+
+    private StaticCache<Integer, String> lockFreeCache;
+
+    @Setup
+    public void setup() {
+        lockedCache = new LockedStaticCache<>(StaticCacheBenchmark::create);
+        lockFreeCache = new StaticCache<>(StaticCacheBenchmark::create);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            lockedCache.get(i);
+            lockFreeCache.get(i);
+        }
+    }
+
+    @Benchmark
+    public String lockedPositive() {
+        return lockedCache.get(positiveKey());
+    }
+
+    @Benchmark
+    public String lockFreePositive() {
+        return lockFreeCache.get(positiveKey());
+    }
+
+    @Benchmark
+    public String lockedMixed() {
+        return lockedCache.get(anyKey());
+    }
+
+    @Benchmark
+    public String lockFreeMixed() {
+        return lockFreeCache.get(anyKey());
+    }
+
+    private static int positiveKey() {
+        return ThreadLocalRandom.current().nextInt(NEGATIVE_KEY_COUNT, KEY_COUNT);
+    }
+
+    private static int anyKey() {
+        return ThreadLocalRandom.current().nextInt(KEY_COUNT);
+    }
+
+    private static String create(Integer key) {
+        return key < NEGATIVE_KEY_COUNT ? null : "Value-" + key;
+    }
+}
@@ -0,0 +1,33 @@
+package org.babyfish.jimmer.benchmark.model;
+
+import org.babyfish.jimmer.sql.Entity;
+import org.babyfish.jimmer.sql.Id;
+
+/**
+ * The same shape as the entity of the ORM comparison under the
+ * top-level `benchmark` directory.
+ */
+@Entity
+public interface BenchmarkData {
+
+    @Id
+    long id();
+
+    int value1();
+
+    int value2();
+
+    int value3();
+
+    int value4();
+
+    int value5();
+
+    int value6();
+
+    int value7();
+
+    int value8();
+
+    int value9();
+}
@@ -0,0 +1,122 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.benchmark.model.BenchmarkData;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.h2.Driver;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ObjectReader} with and without the row reader generated
+ * by jimmer-apt, by reading all rows of the same table as the ORM
+ * comparison under the top-level `benchmark` directory.
+ *
+ * <p>It is declared in the package of {@link ObjectReader} because
+ * that class is package-private.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectReaderBenchmark {
+
+    private static final String SQL =
+            "select ID, VALUE1, VALUE2, VALUE3, VALUE4, VALUE5, VALUE6, VALUE7, VALUE8, VALUE9 from BENCHMARK_DATA";
+
+    @Param({"10", "100", "1000"})
+    private int dataCount;
+
+    private Connection con;
+
+    private PreparedStatement stmt;
+
+    private Reader<?> generatedReader;
+
+    private Reader<?> fallbackReader;
+
+    @Setup
+    public void setup() throws SQLException {
+        con = new Driver().connect("jdbc:h2:mem:object_reader_benchmark", null);
+        try (Statement stmt = con.createStatement()) {
+            stmt.execute(
+                    "create table BENCHMARK_DATA(" +
+                            "ID bigint not null primary key, " +
+                            "VALUE1 int not null, VALUE2 int not null, VALUE3 int not null, " +
+                            "VALUE4 int not null, VALUE5 int not null, VALUE6 int not null, " +
+                            "VALUE7 int not null, VALUE8 int not null, VALUE9 int not null" +
+                            ")"
+            );
+        }
+        try (PreparedStatement stmt = con.prepareStatement(
+                "insert into BENCHMARK_DATA values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        )) {
+            for (int row = 1; row <= dataCount; row++) {
+                stmt.setLong(1, row);
+                for (int col = 2; col <= 10; col++) {
+                    stmt.setInt(col, ThreadLocalRandom.current().nextInt(100));
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        stmt = con.prepareStatement(SQL);
+
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) JSqlClient.newBuilder().build();
+        ImmutableType type = ImmutableType.get(BenchmarkData.class);
+        Map<ImmutableProp, Reader<?>> nonIdReaderMap = new LinkedHashMap<>();
+        for (ImmutableProp prop : type.getSelectableProps().values()) {
+            if (!prop.isId()) {
+                nonIdReaderMap.put(prop, sqlClient.getReader(prop));
+            }
+        }
+        Reader<?> idReader = sqlClient.getReader(type.getIdProp());
+        generatedReader = new ObjectReader(type, idReader, nonIdReaderMap);
+        fallbackReader = new ObjectReader(type, idReader, nonIdReaderMap, null);
+        if (EntityRowReaders.get(type) == null) {
+            throw new IllegalStateException("The row reader of \"" + type + "\" is not generated");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        stmt.close();
+        con.close();
+    }
+
+    @Benchmark
+    public List<Object> generated() throws SQLException {
+        return read(generatedReader);
+    }
+
+    @Benchmark
+    public List<Object> fallback() throws SQLException {
+        return read(fallbackReader);
+    }
+
+    private List<Object> read(Reader<?> reader) throws SQLException {
+        List<Object> rows = new ArrayList<>(dataCount);
+        try (ResultSet rs = stmt.executeQuery()) {
+            Reader.Col col = new Reader.Col();
+            while (rs.next()) {
+                rows.add(reader.read(rs, col));
+                col.reset();
+            }
+        }
+        return rows;
+    }
+}
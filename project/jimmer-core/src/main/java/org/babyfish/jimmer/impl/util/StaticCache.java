@@ -1,28 +1,40 @@
 package org.babyfish.jimmer.impl.util;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.ArrayDeque;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 /**
  * Internal until class, it should not be used by programmer directly.
  *
+ * <p>Reading is lock-free, the lock is only used to create the value
+ * of a key which is not cached, so that the creator is called only once
+ * for each key and can access this cache recursively.</p>
+ *
  * @param <K> Key Type
  * @param <V> Value Type
  */
 public class StaticCache<K, V> {
 
+    private static final int NEGATIVE_CACHE_SIZE = 128;
+
+    private static final Object NULL = new Object();
+
     private final Function<K, V> creator;
 
-    private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-    
-    private final Map<K, V> positiveCacheMap = new HashMap<>();
+    private final boolean nullable;
 
-    private Map<K, Void> negativeCacheMap;
+    private final Lock createLock = new ReentrantLock();
+
+    // Value is `NULL` for negative cache
+    private final Map<K, Object> cacheMap = new ConcurrentHashMap<>();
+
+    // Guarded by `createLock`, the oldest negative key is evicted first
+    private final Queue<K> negativeKeys;
 
     public StaticCache(Function<K, V> creator) {
         this(creator, true);
@@ -30,61 +42,48 @@ public class StaticCache<K, V> {
 
     public StaticCache(Function<K, V> creator, boolean nullable) {
         this.creator = creator;
-        if (nullable) {
-             negativeCacheMap = new LRUMap<>();
-        }
+        this.nullable = nullable;
+        this.negativeKeys = nullable ? new ArrayDeque<>() : null;
     }
-    
-    public V get(K key) {
 
-        V value;
-        Lock lock;
+    public V get(K key) {
+        Object value = cacheMap.get(key);
+        if (value == null) {
+            value = create(key);
+        }
+        return unwrap(value);
+    }
 
-        (lock = cacheLock.readLock()).lock();
+    private Object create(K key) {
+        createLock.lock();
         try {
-            if (negativeCacheMap != null && negativeCacheMap.containsKey(key)) {
-                return null;
+            Object value = cacheMap.get(key);
+            if (value != null) {
+                return value;
             }
-            value = positiveCacheMap.get(key);
-        } finally {
-            lock.unlock();
-        }
-
-        if (value == null) {
-            (lock = cacheLock.writeLock()).lock();
-            try {
-                if (negativeCacheMap != null && negativeCacheMap.containsKey(key)) {
-                    return null;
-                }
-                value = positiveCacheMap.get(key);
-                if (value == null) {
-                    value = creator.apply(key);
-                    if (value != null) {
-                        positiveCacheMap.put(key, value);
-                    } else if (negativeCacheMap != null) {
-                        negativeCacheMap.put(key, null);
-                    } else {
-                        throw new IllegalStateException(
-                                "The creator cannot return null because current static cache does not accept null values"
-                        );
-                    }
+            value = creator.apply(key);
+            if (value != null) {
+                cacheMap.put(key, value);
+            } else if (nullable) {
+                cacheMap.put(key, NULL);
+                negativeKeys.offer(key);
+                if (negativeKeys.size() > NEGATIVE_CACHE_SIZE) {
+                    cacheMap.remove(negativeKeys.poll());
                 }
-            } finally {
-                lock.unlock();
+                value = NULL;
+            } else {
+                throw new IllegalStateException(
+                        "The creator cannot return null because current static cache does not accept null values"
+                );
             }
+            return value;
+        } finally {
+            createLock.unlock();
         }
-        return value;
     }
 
-    private static class LRUMap<K, V> extends LinkedHashMap<K, V> {
-
-        LRUMap() {
-            super((128 * 4 + 2) / 3, .75F, true);
-        }
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry eldest) {
-            return true;
-        }
+    @SuppressWarnings("unchecked")
+    private static <V> V unwrap(Object value) {
+        return value == NULL ? null : (V) value;
     }
 }
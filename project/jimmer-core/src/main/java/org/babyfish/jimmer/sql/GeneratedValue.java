@@ -15,4 +15,12 @@ public @interface GeneratedValue {
     Class<? extends IdGenerator> generatorType() default IdGenerator.None.class;
 
     String sequenceName() default "";
+
+    /**
+     * Only for sequence, how many ids are reserved by one sequence query.
+     *
+     * <p>If it is greater than 1, the `INCREMENT BY` of the database sequence
+     * must be equal to it</p>
+     */
+    int allocationSize() default 1;
 }
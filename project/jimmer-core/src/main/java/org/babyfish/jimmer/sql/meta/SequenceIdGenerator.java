@@ -1,14 +1,92 @@
 package org.babyfish.jimmer.sql.meta;
 
+import java.util.function.LongSupplier;
+
+/**
+ * Id generator based on database sequence.
+ *
+ * <p>If `allocationSize` is greater than 1, the generator works as hi/lo allocator,
+ * each value fetched from database sequence reserves a block of ids
+ * `[value, value + allocationSize)`, these ids are handed out from local pool
+ * so that only one sequence query is required for `allocationSize` insertions.
+ * In this case, the `INCREMENT BY` of database sequence must be equal to `allocationSize`.</p>
+ *
+ * <p>The local pool belongs to this generator object and is shared by all the
+ * save commands using it, it is thread safe. The pool must not be shared by
+ * different databases, so the pooled generator declared by
+ * {@link org.babyfish.jimmer.sql.GeneratedValue} is created for each sql client.</p>
+ */
 public class SequenceIdGenerator implements IdGenerator {
 
-    private String sequenceName;
+    private final String sequenceName;
+
+    private final int allocationSize;
+
+    private long nextId;
+
+    private int remainingCount;
+
+    private long refillCount;
+
+    private long allocatedCount;
 
     public SequenceIdGenerator(String sequenceName) {
+        this(sequenceName, 1);
+    }
+
+    public SequenceIdGenerator(String sequenceName, int allocationSize) {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("allocationSize cannot be less than 1");
+        }
         this.sequenceName = sequenceName;
+        this.allocationSize = allocationSize;
     }
 
     public String getSequenceName() {
         return sequenceName;
     }
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    /**
+     * Get next id from the local pool.
+     *
+     * @param sequenceValueSupplier Query next value of the database sequence,
+     *                              it is only called when the local pool is exhausted
+     * @return The allocated id
+     */
+    public synchronized long allocate(LongSupplier sequenceValueSupplier) {
+        if (remainingCount == 0) {
+            nextId = sequenceValueSupplier.getAsLong();
+            remainingCount = allocationSize;
+            refillCount++;
+        }
+        remainingCount--;
+        allocatedCount++;
+        return nextId++;
+    }
+
+    /**
+     * Get how many times the local pool is refilled from the database sequence
+     */
+    public synchronized long getRefillCount() {
+        return refillCount;
+    }
+
+    /**
+     * Get how many ids are handed out by this generator
+     */
+    public synchronized long getAllocatedCount() {
+        return allocatedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SequenceIdGenerator{" +
+                "sequenceName='" + sequenceName + '\'' +
+                ", allocationSize=" + allocationSize +
+                '}';
+    }
 }
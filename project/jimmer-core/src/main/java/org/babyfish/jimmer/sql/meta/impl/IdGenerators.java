@@ -178,7 +178,16 @@ public class IdGenerators {
             if (sequenceName.isEmpty()) {
                 sequenceName = databaseNamingStrategy.sequenceName(idProp.getDeclaringType());
             }
-            idGenerator = new SequenceIdGenerator(sequenceName);
+            if (generatedValue.allocationSize() < 1) {
+                throw new ModelException(
+                        "Illegal property \"" +
+                                idProp +
+                                "\", it's decorated by the annotation @" +
+                                GeneratedValue.class.getName() +
+                                " but the attribute 'allocationSize' of that annotation is less than 1"
+                );
+            }
+            idGenerator = new SequenceIdGenerator(sequenceName, generatedValue.allocationSize());
         }
         return idGenerator;
     }
@@ -0,0 +1,77 @@
+package org.babyfish.jimmer;
+
+import org.babyfish.jimmer.impl.util.StaticCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StaticCacheTest {
+
+    @Test
+    public void testPositive() {
+        AtomicInteger createCount = new AtomicInteger();
+        StaticCache<Integer, String> cache = new StaticCache<>(key -> {
+            createCount.incrementAndGet();
+            return "Value-" + key;
+        });
+        Assertions.assertEquals("Value-1", cache.get(1));
+        Assertions.assertSame(cache.get(1), cache.get(1));
+        Assertions.assertEquals(1, createCount.get());
+    }
+
+    @Test
+    public void testBoundedNegative() {
+        AtomicInteger createCount = new AtomicInteger();
+        StaticCache<Integer, String> cache = new StaticCache<>(key -> {
+            createCount.incrementAndGet();
+            return null;
+        });
+        Assertions.assertNull(cache.get(0));
+        Assertions.assertNull(cache.get(0));
+        Assertions.assertEquals(1, createCount.get());
+        for (int i = 1; i <= 128; i++) {
+            cache.get(i);
+        }
+        Assertions.assertEquals(129, createCount.get());
+        // The oldest negative key has been evicted
+        Assertions.assertNull(cache.get(0));
+        Assertions.assertEquals(130, createCount.get());
+    }
+
+    @Test
+    public void testNonNullable() {
+        StaticCache<Integer, String> cache = new StaticCache<>(key -> null, false);
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get(1));
+    }
+
+    @Test
+    public void testRecursiveCreation() {
+        StaticCache<Integer, Integer>[] cacheRef = new StaticCache[1];
+        cacheRef[0] = new StaticCache<>(key -> key == 0 ? 0 : cacheRef[0].get(key - 1) + key);
+        Assertions.assertEquals(55, cacheRef[0].get(10));
+    }
+
+    @Test
+    public void testConcurrentCreation() throws InterruptedException {
+        AtomicInteger createCount = new AtomicInteger();
+        StaticCache<Integer, Object> cache = new StaticCache<>(key -> {
+            createCount.incrementAndGet();
+            return new Object();
+        });
+        Object[] values = new Object[8];
+        Thread[] threads = new Thread[values.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> values[index] = cache.get(1));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(1, createCount.get());
+        for (Object value : values) {
+            Assertions.assertSame(values[0], value);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.babyfish.jimmer.impl.validation.Validator
 import org.babyfish.jimmer.sql.collection.ManyToManyViewList
 import java.math.BigDecimal
 import java.math.BigInteger
+import java.sql.ResultSet
 import java.util.regex.Pattern
 
 internal const val DRAFT = "Draft"
@@ -23,6 +24,7 @@ internal const val DRAFT_FIELD_EMAIL_PATTERN = "__email_pattern"
 internal const val PROPS = "Props"
 internal const val FETCHER = "Fetcher"
 internal const val FETCHER_DSL = "FetcherDsl"
+internal const val ROW_READER = "RowReader"
 
 internal val CLONEABLE_CLASS_NAME = Cloneable::class.asClassName()
 internal val JVM_STATIC_CLASS_NAME = JvmStatic::class.asClassName()
@@ -163,6 +165,23 @@ internal val ENTITY_MANAGER_CLASS_NAME =
         "org.babyfish.jimmer.sql.runtime",
         "EntityManager"
     )
+internal val ENTITY_ROW_READER_CLASS_NAME =
+    ClassName(
+        "org.babyfish.jimmer.sql.runtime",
+        "EntityRowReader"
+    )
+internal val READER_CLASS_NAME =
+    ClassName(
+        "org.babyfish.jimmer.sql.runtime",
+        "Reader"
+    )
+internal val READER_COL_CLASS_NAME =
+    ClassName(
+        "org.babyfish.jimmer.sql.runtime",
+        "Reader",
+        "Col"
+    )
+internal val RESULT_SET_CLASS_NAME = ResultSet::class.asClassName()
 
 internal const val KEY_FULL_NAME = "org.babyfish.jimmer.sql.Key"
 internal const val JIMMER_MODULE = "JimmerModule"
@@ -80,6 +80,7 @@ class DraftGenerator(
                         }
                     }
                     ProducerGenerator(type, this).generate()
+                    RowReaderGenerator(type, this).generate()
                     MapStructGenerator(type, this).generate()
                 }
                 .build()
@@ -0,0 +1,118 @@
+package org.babyfish.jimmer.ksp.generator
+
+import com.squareup.kotlinpoet.*
+import com.squareup.kotlinpoet.ParameterizedTypeName.Companion.parameterizedBy
+import org.babyfish.jimmer.ksp.meta.ImmutableProp
+import org.babyfish.jimmer.ksp.meta.ImmutableType
+
+class RowReaderGenerator(
+    private val type: ImmutableType,
+    private val parent: TypeSpec.Builder
+) {
+    fun generate() {
+        if (!type.isEntity) {
+            return
+        }
+        parent.addType(
+            TypeSpec
+                .classBuilder(ROW_READER)
+                .addSuperinterface(ENTITY_ROW_READER_CLASS_NAME)
+                .apply {
+                    addReadFun()
+                }
+                .build()
+        )
+    }
+
+    private fun TypeSpec.Builder.addReadFun() {
+        addFunction(
+            FunSpec
+                .builder("read")
+                .addModifiers(KModifier.OVERRIDE)
+                .addParameter("draft", DRAFT_SPI_CLASS_NAME)
+                .addParameter("propIds", INT_ARRAY)
+                .addParameter("readers", ARRAY.parameterizedBy(READER_CLASS_NAME.parameterizedBy(STAR)))
+                .addParameter("rs", RESULT_SET_CLASS_NAME)
+                .addParameter("col", READER_COL_CLASS_NAME)
+                .addCode(
+                    CodeBlock
+                        .builder()
+                        .apply {
+                            addStatement("val __draft = draft as %T", type.draftClassName)
+                            beginControlFlow("for (i in propIds.indices)")
+                            beginControlFlow("when (propIds[i])")
+                            val appender = CaseAppender(this, type, Int::class)
+                            for (prop in type.propsOrderById) {
+                                val getterName = getterName(prop) ?: continue
+                                appender.addCase(prop)
+                                add("{\n")
+                                indent()
+                                addRead(prop, getterName)
+                                unindent()
+                                add("}\n")
+                            }
+                            add("else ->\n\t")
+                            addStatement("draft.__set(propIds[i], readers[i].read(rs, col))")
+                            endControlFlow()
+                            endControlFlow()
+                        }
+                        .build()
+                )
+                .build()
+        )
+    }
+
+    private fun CodeBlock.Builder.addRead(prop: ImmutableProp, getterName: String) {
+        addStatement("val __value = rs.%L(col.get())", getterName)
+        val isPrimitiveGetter = when (prop.typeName(overrideNullable = false)) {
+            STRING, BIG_DECIMAL_CLASS_NAME, BYTE_ARRAY -> false
+            else -> true
+        }
+        when {
+            isPrimitiveGetter && prop.isNullable ->
+                addStatement("__draft.%N = if (rs.wasNull()) null else __value", prop.name)
+            isPrimitiveGetter -> {
+                beginControlFlow("if (rs.wasNull())")
+                addStatement("draft.__set(propIds[i], null)")
+                nextControlFlow("else")
+                addStatement("__draft.%N = __value", prop.name)
+                endControlFlow()
+            }
+            prop.isNullable ->
+                addStatement("__draft.%N = __value", prop.name)
+            else -> {
+                beginControlFlow("if (__value === null)")
+                addStatement("draft.__set(propIds[i], null)")
+                nextControlFlow("else")
+                addStatement("__draft.%N = __value", prop.name)
+                endControlFlow()
+            }
+        }
+    }
+
+    private fun getterName(prop: ImmutableProp): String? {
+        if (prop.isId ||
+            prop.isList ||
+            prop.isAssociation(false) ||
+            prop.isTransient ||
+            prop.isKotlinFormula ||
+            prop.idViewBaseProp !== null ||
+            prop.manyToManyViewBaseProp !== null
+        ) {
+            return null
+        }
+        return when (prop.typeName(overrideNullable = false)) {
+            BOOLEAN -> "getBoolean"
+            BYTE -> "getByte"
+            SHORT -> "getShort"
+            INT -> "getInt"
+            LONG -> "getLong"
+            FLOAT -> "getFloat"
+            DOUBLE -> "getDouble"
+            STRING -> "getString"
+            BIG_DECIMAL_CLASS_NAME -> "getBigDecimal"
+            BYTE_ARRAY -> "getBytes"
+            else -> null
+        }
+    }
+}
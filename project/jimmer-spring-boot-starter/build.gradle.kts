@@ -28,6 +28,7 @@ dependencies {
 
     compileOnly("org.springframework.boot:spring-boot-starter-web:2.7.0")
     compileOnly("org.springframework.data:spring-data-redis:2.7.0")
+    compileOnly("io.micrometer:micrometer-core:1.9.0")
     compileOnly( "com.github.ben-manes.caffeine:caffeine:2.9.1")
     compileOnly("org.springframework.graphql:spring-graphql:1.0.0")
     compileOnly("io.swagger.core.v3:swagger-annotations:2.2.2")
@@ -44,6 +45,7 @@ dependencies {
     testImplementation("com.h2database:h2:2.1.212")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
     testImplementation("org.springframework.boot:spring-boot-starter-web:2.7.0")
+    testImplementation("org.springframework.graphql:spring-graphql:1.0.0")
 }
 
 kotlin {
@@ -6,13 +6,14 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.babyfish.jimmer.lang.Ref;
 import org.babyfish.jimmer.sql.cache.chain.CacheChain;
 import org.babyfish.jimmer.sql.cache.chain.LoadingBinder;
+import org.babyfish.jimmer.sql.cache.chain.LocalBinder;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class CaffeineBinder<K, V> implements LoadingBinder<K, V> {
+public class CaffeineBinder<K, V> implements LoadingBinder<K, V>, LocalBinder {
 
     private final int maximumSize;
 
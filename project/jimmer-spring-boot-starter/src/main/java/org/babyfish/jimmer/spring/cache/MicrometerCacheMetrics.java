@@ -0,0 +1,157 @@
+package org.babyfish.jimmer.spring.cache;
+
+import io.micrometer.core.instrument.*;
+import org.babyfish.jimmer.sql.cache.CacheInvalidationBroadcaster;
+import org.babyfish.jimmer.sql.cache.CacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes cache metrics to micrometer, all meters are tagged by `cache`.
+ *
+ * <ul>
+ *     <li>jimmer.cache.gets: counter, tagged by `result`(hit/miss)</li>
+ *     <li>jimmer.cache.loads: timer of batch loading</li>
+ *     <li>jimmer.cache.load.keys: distribution summary of batch size</li>
+ *     <li>jimmer.cache.evictions: counter, tagged by `reason`(none/broadcast/other),
+ *     the arbitrary deletion reasons are not used as tag values so that the number
+ *     of series is bounded</li>
+ *     <li>jimmer.cache.payload.bytes: distribution summary, tagged by `operation`(serialize/deserialize)</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * cfg.setMetrics(new MicrometerCacheMetrics(meterRegistry));
+ * }</pre>
+ */
+public class MicrometerCacheMetrics implements CacheMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Meters> metersMap = new ConcurrentHashMap<>();
+
+    public MicrometerCacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordHits(@NotNull String cacheName, int count) {
+        if (count != 0) {
+            meters(cacheName).hits.increment(count);
+        }
+    }
+
+    @Override
+    public void recordMisses(@NotNull String cacheName, int count) {
+        if (count != 0) {
+            meters(cacheName).misses.increment(count);
+        }
+    }
+
+    @Override
+    public void recordLoad(@NotNull String cacheName, int keyCount, long nanos) {
+        Meters meters = meters(cacheName);
+        meters.loads.record(nanos, TimeUnit.NANOSECONDS);
+        meters.loadKeys.record(keyCount);
+    }
+
+    @Override
+    public void recordEviction(@NotNull String cacheName, int keyCount, @Nullable Object reason) {
+        if (keyCount == 0) {
+            return;
+        }
+        Meters meters = meters(cacheName);
+        Counter evictions;
+        if (reason == null) {
+            evictions = meters.evictions;
+        } else if (CacheInvalidationBroadcaster.REASON.equals(reason)) {
+            evictions = meters.broadcastEvictions;
+        } else {
+            evictions = meters.otherEvictions;
+        }
+        evictions.increment(keyCount);
+    }
+
+    @Override
+    public void recordSerialization(@NotNull String cacheName, int byteCount) {
+        meters(cacheName).serializedBytes.record(byteCount);
+    }
+
+    @Override
+    public void recordDeserialization(@NotNull String cacheName, int byteCount) {
+        meters(cacheName).deserializedBytes.record(byteCount);
+    }
+
+    private Meters meters(String cacheName) {
+        return metersMap.computeIfAbsent(cacheName, it -> new Meters(registry, it));
+    }
+
+    private static class Meters {
+
+        final Counter hits;
+
+        final Counter misses;
+
+        final Timer loads;
+
+        final DistributionSummary loadKeys;
+
+        final Counter evictions;
+
+        final Counter broadcastEvictions;
+
+        final Counter otherEvictions;
+
+        final DistributionSummary serializedBytes;
+
+        final DistributionSummary deserializedBytes;
+
+        Meters(MeterRegistry registry, String cacheName) {
+            hits = Counter.builder("jimmer.cache.gets")
+                    .description("The number of keys found or not found in cache")
+                    .tag("cache", cacheName)
+                    .tag("result", "hit")
+                    .register(registry);
+            misses = Counter.builder("jimmer.cache.gets")
+                    .description("The number of keys found or not found in cache")
+                    .tag("cache", cacheName)
+                    .tag("result", "miss")
+                    .register(registry);
+            loads = Timer.builder("jimmer.cache.loads")
+                    .description("The time of loading missed keys from database")
+                    .tag("cache", cacheName)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            loadKeys = DistributionSummary.builder("jimmer.cache.load.keys")
+                    .description("The number of keys loaded by one batch")
+                    .tag("cache", cacheName)
+                    .register(registry);
+            evictions = evictionCounter(registry, cacheName, "none");
+            broadcastEvictions = evictionCounter(registry, cacheName, "broadcast");
+            otherEvictions = evictionCounter(registry, cacheName, "other");
+            serializedBytes = DistributionSummary.builder("jimmer.cache.payload.bytes")
+                    .description("The size of serialized cache value")
+                    .baseUnit("bytes")
+                    .tag("cache", cacheName)
+                    .tag("operation", "serialize")
+                    .register(registry);
+            deserializedBytes = DistributionSummary.builder("jimmer.cache.payload.bytes")
+                    .description("The size of serialized cache value")
+                    .baseUnit("bytes")
+                    .tag("cache", cacheName)
+                    .tag("operation", "deserialize")
+                    .register(registry);
+        }
+
+        private static Counter evictionCounter(MeterRegistry registry, String cacheName, String reason) {
+            return Counter.builder("jimmer.cache.evictions")
+                    .description("The number of keys deleted from cache")
+                    .tag("cache", cacheName)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+    }
+}
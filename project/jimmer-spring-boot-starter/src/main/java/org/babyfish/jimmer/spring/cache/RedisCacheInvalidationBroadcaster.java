@@ -0,0 +1,64 @@
+package org.babyfish.jimmer.spring.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.babyfish.jimmer.sql.cache.spi.AbstractCacheInvalidationBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+/**
+ * Broadcasts cache invalidation by redis pub/sub.
+ *
+ * <pre>{@code
+ * RedisCacheInvalidationBroadcaster broadcaster =
+ *     new RedisCacheInvalidationBroadcaster(
+ *         redisTemplate,
+ *         listenerContainer,
+ *         "jimmer-cache-invalidation",
+ *         objectMapper,
+ *         Duration.ofMillis(10),
+ *         1000
+ *     );
+ * cfg.setInvalidationBroadcaster(broadcaster);
+ * }</pre>
+ */
+public class RedisCacheInvalidationBroadcaster extends AbstractCacheInvalidationBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCacheInvalidationBroadcaster.class);
+
+    private final RedisOperations<String, byte[]> operations;
+
+    private final String channel;
+
+    public RedisCacheInvalidationBroadcaster(
+            RedisOperations<String, byte[]> operations,
+            RedisMessageListenerContainer listenerContainer,
+            String channel,
+            ObjectMapper objectMapper,
+            Duration flushDelay,
+            int maxBatchSize
+    ) {
+        super(objectMapper, flushDelay, maxBatchSize);
+        this.operations = operations;
+        this.channel = channel;
+        listenerContainer.addMessageListener(
+                (message, pattern) -> {
+                    try {
+                        receive(message.getBody());
+                    } catch (RuntimeException ex) {
+                        LOGGER.error("Cannot apply cache invalidation message from redis", ex);
+                    }
+                },
+                new ChannelTopic(channel)
+        );
+    }
+
+    @Override
+    protected void send(byte[] message) {
+        operations.convertAndSend(channel, message);
+    }
+}
@@ -32,6 +32,29 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
         this.operations = operations;
     }
 
+    public RedisHashBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            Duration duration,
+            boolean binary
+    ) {
+        super(objectMapper, type, null, duration, 30, binary);
+        this.operations = operations;
+    }
+
+    public RedisHashBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            Duration duration,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, type, null, duration, 30, binary, refreshAheadBeta);
+        this.operations = operations;
+    }
+
     public RedisHashBinder(
             RedisOperations<String, byte[]> operations,
             ObjectMapper objectMapper,
@@ -42,6 +65,29 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
         this.operations = operations;
     }
 
+    public RedisHashBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableProp prop,
+            Duration duration,
+            boolean binary
+    ) {
+        super(objectMapper, null, prop, duration, 30, binary);
+        this.operations = operations;
+    }
+
+    public RedisHashBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableProp prop,
+            Duration duration,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, null, prop, duration, 30, binary, refreshAheadBeta);
+        this.operations = operations;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     protected List<byte[]> read(Collection<String> keys, String hashKey) {
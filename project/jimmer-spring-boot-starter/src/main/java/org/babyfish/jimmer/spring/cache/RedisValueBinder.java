@@ -30,6 +30,29 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
         this.operations = operations;
     }
 
+    public RedisValueBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            Duration duration,
+            boolean binary
+    ) {
+        super(objectMapper, type, null, duration, 30, binary);
+        this.operations = operations;
+    }
+
+    public RedisValueBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            Duration duration,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, type, null, duration, 30, binary, refreshAheadBeta);
+        this.operations = operations;
+    }
+
     public RedisValueBinder(
             RedisOperations<String, byte[]> operations,
             ObjectMapper objectMapper,
@@ -40,6 +63,29 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
         this.operations = operations;
     }
 
+    public RedisValueBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableProp prop,
+            Duration duration,
+            boolean binary
+    ) {
+        super(objectMapper, null, prop, duration, 30, binary);
+        this.operations = operations;
+    }
+
+    public RedisValueBinder(
+            RedisOperations<String, byte[]> operations,
+            ObjectMapper objectMapper,
+            ImmutableProp prop,
+            Duration duration,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, null, prop, duration, 30, binary, refreshAheadBeta);
+        this.operations = operations;
+    }
+
     @Override
     protected List<byte[]> read(Collection<String> keys) {
         return operations.opsForValue().multiGet(keys);
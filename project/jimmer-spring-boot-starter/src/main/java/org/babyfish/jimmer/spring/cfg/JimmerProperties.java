@@ -58,6 +58,9 @@ public class JimmerProperties {
 
     private final Map<String, Client> clients;
 
+    @NotNull
+    private final GraphQLLoader graphqlLoader;
+
     public JimmerProperties(
             @Nullable String language,
             @Nullable String dialect,
@@ -74,7 +77,8 @@ public class JimmerProperties {
             @Nullable Collection<String> executorContextPrefixes,
             @Nullable String microServiceName,
             @Nullable Client client,
-            @Nullable Map<String, Client> clients
+            @Nullable Map<String, Client> clients,
+            @Nullable GraphQLLoader graphqlLoader
     ) {
         if (language == null) {
             this.language = "java";
@@ -173,6 +177,11 @@ public class JimmerProperties {
             this.client = client;
         }
         this.clients = clients;
+        if (graphqlLoader == null) {
+            this.graphqlLoader = new GraphQLLoader(0, 0, 0, 0, false);
+        } else {
+            this.graphqlLoader = graphqlLoader;
+        }
     }
 
     @NotNull
@@ -294,6 +303,14 @@ public class JimmerProperties {
         return client;
     }
 
+    /**
+     * The execution of the batch loaders registered for spring-graphql
+     */
+    @NotNull
+    public GraphQLLoader getGraphqlLoader() {
+        return graphqlLoader;
+    }
+
     @Override
     public String toString() {
         return "JimmerProperties{" +
@@ -310,6 +327,7 @@ public class JimmerProperties {
                 ", microServiceName='" + microServiceName + '\'' +
                 ", client=" + client +
                 ", clients=" + clients +
+                ", graphqlLoader=" + graphqlLoader +
                 '}';
     }
 
@@ -508,4 +526,98 @@ public class JimmerProperties {
             }
         }
     }
+
+    @ConstructorBinding
+    public static class GraphQLLoader {
+
+        private final int maxConcurrencyPerRequest;
+
+        private final int batchSize;
+
+        private final int threadCap;
+
+        private final int queuedTaskCap;
+
+        private final boolean virtualThreads;
+
+        public GraphQLLoader(
+                int maxConcurrencyPerRequest,
+                int batchSize,
+                int threadCap,
+                int queuedTaskCap,
+                boolean virtualThreads
+        ) {
+            if (maxConcurrencyPerRequest < 0) {
+                throw new IllegalArgumentException(
+                        "`jimmer.graphql-loader.max-concurrency-per-request` cannot be negative"
+                );
+            }
+            if (batchSize < 0) {
+                throw new IllegalArgumentException("`jimmer.graphql-loader.batch-size` cannot be negative");
+            }
+            if (threadCap < 0) {
+                throw new IllegalArgumentException("`jimmer.graphql-loader.thread-cap` cannot be negative");
+            }
+            if (queuedTaskCap < 0) {
+                throw new IllegalArgumentException("`jimmer.graphql-loader.queued-task-cap` cannot be negative");
+            }
+            this.maxConcurrencyPerRequest = maxConcurrencyPerRequest != 0 ? maxConcurrencyPerRequest : 4;
+            this.batchSize = batchSize;
+            this.threadCap = threadCap;
+            this.queuedTaskCap = queuedTaskCap;
+            this.virtualThreads = virtualThreads;
+        }
+
+        /**
+         * How many batches of one GraphQL request can be executed
+         * at the same time, others wait without blocking any thread.
+         */
+        public int getMaxConcurrencyPerRequest() {
+            return maxConcurrencyPerRequest;
+        }
+
+        /**
+         * The max batch size of data loaders, 0 means
+         * `defaultBatchSize` for reference and transient properties
+         * and `defaultListBatchSize` for list properties.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * The thread cap of the bounded elastic scheduler,
+         * 0 means the default value of reactor.
+         */
+        public int getThreadCap() {
+            return threadCap;
+        }
+
+        /**
+         * The queued task cap of the bounded elastic scheduler,
+         * 0 means the default value of reactor.
+         */
+        public int getQueuedTaskCap() {
+            return queuedTaskCap;
+        }
+
+        /**
+         * Use virtual threads instead of bounded elastic scheduler,
+         * it requires Java 21 or later.
+         */
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        @Override
+        public String toString() {
+            return "GraphQLLoader{" +
+                    "maxConcurrencyPerRequest=" + maxConcurrencyPerRequest +
+                    ", batchSize=" + batchSize +
+                    ", threadCap=" + threadCap +
+                    ", queuedTaskCap=" + queuedTaskCap +
+                    ", virtualThreads=" + virtualThreads +
+                    '}';
+        }
+    }
 }
@@ -10,74 +10,137 @@ import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.TargetLevel;
 import org.babyfish.jimmer.meta.impl.TypedPropImpl;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.spring.graphql.BatchLoaderExecutor;
+import org.babyfish.jimmer.spring.graphql.BatchLoaderMetrics;
+import org.babyfish.jimmer.spring.graphql.DataFetchingEnvironments;
 import org.babyfish.jimmer.sql.JSqlClient;
 import org.babyfish.jimmer.sql.kt.KSqlClient;
 import org.babyfish.jimmer.sql.runtime.EntityManager;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.dataloader.DataLoader;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.graphql.execution.GraphQlSource;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
-import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @ConditionalOnClass({GraphQL.class, GraphQlSource.class})
-public class JimmerSpringGraphQLAutoConfiguration {
+public class JimmerSpringGraphQLAutoConfiguration implements DisposableBean {
+
+    /**
+     * The bean name of optional {@link Scheduler} which executes
+     * the batch loaders, it overrides the configuration of
+     * `jimmer.graphql-loader.thread-cap`, `jimmer.graphql-loader.queued-task-cap`
+     * and `jimmer.graphql-loader.virtual-threads`.
+     */
+    public static final String LOADER_SCHEDULER_BEAN_NAME = "jimmerGraphQLLoaderScheduler";
+
+    private final Scheduler ownedScheduler;
+
+    private final BatchLoaderExecutor batchLoaderExecutor;
 
     @SuppressWarnings("unchecked")
     public JimmerSpringGraphQLAutoConfiguration(
             BatchLoaderRegistry registry,
+            JimmerProperties properties,
+            @Qualifier(LOADER_SCHEDULER_BEAN_NAME) ObjectProvider<Scheduler> schedulerProvider,
             @Autowired(required = false) JSqlClient jSqlClient,
             @Autowired(required = false) KSqlClient kSqlClient
     ) {
         JSqlClientImplementor sqlClient = sqlClient(jSqlClient, kSqlClient);
+        JimmerProperties.GraphQLLoader loaderProperties = properties.getGraphqlLoader();
+        Scheduler scheduler = schedulerProvider.getIfAvailable();
+        if (scheduler == null) {
+            scheduler = ownedScheduler = createScheduler(loaderProperties);
+        } else {
+            ownedScheduler = null;
+        }
+        BatchLoaderExecutor executor = new BatchLoaderExecutor(
+                scheduler,
+                loaderProperties.getMaxConcurrencyPerRequest()
+        );
+        this.batchLoaderExecutor = executor;
+        int batchSize = loaderProperties.getBatchSize() != 0 ?
+                loaderProperties.getBatchSize() :
+                sqlClient.getDefaultBatchSize();
+        int listBatchSize = loaderProperties.getBatchSize() != 0 ?
+                loaderProperties.getBatchSize() :
+                sqlClient.getDefaultListBatchSize();
         for (ImmutableType type : sqlClient.getEntityManager().getAllTypes(sqlClient.getMicroServiceName())) {
             if (type.isEntity()) {
                 for (ImmutableProp prop : type.getProps().values()) {
                     if (prop.isReference(TargetLevel.ENTITY)) {
-                        registry.forName(prop.toString()).registerMappedBatchLoader((sources, env) -> {
-                            return Mono.just(
-                                    sqlClient
-                                            .getLoaders()
-                                            .reference(
-                                                    new TypedPropImpl.Reference<>(prop)
-                                            )
-                                            .batchLoad(sources)
-                            );
-                        });
+                        registry
+                                .forName(prop.toString())
+                                .withOptions(options -> options.setMaxBatchSize(batchSize))
+                                .registerMappedBatchLoader((sources, env) -> {
+                                    return executor.execute(sources, env, keys ->
+                                            sqlClient
+                                                    .getLoaders()
+                                                    .reference(
+                                                            new TypedPropImpl.Reference<>(prop)
+                                                    )
+                                                    .batchLoad(keys)
+                                    );
+                                });
                     } else if (prop.isReferenceList(TargetLevel.ENTITY)) {
-                        registry.forName(prop.toString()).registerMappedBatchLoader((sources, env) -> {
-                            return Mono.just(
-                                    (Map<Object, Object>) (Map<?, ?>)sqlClient
-                                            .getLoaders()
-                                            .list(
-                                                    new TypedPropImpl.ReferenceList<>(prop)
-                                            )
-                                            .batchLoad(sources)
-                            );
-                        });
+                        registry
+                                .forName(prop.toString())
+                                .withOptions(options -> options.setMaxBatchSize(listBatchSize))
+                                .registerMappedBatchLoader((sources, env) -> {
+                                    return executor.execute(sources, env, keys ->
+                                            (Map<Object, Object>) (Map<?, ?>)sqlClient
+                                                    .getLoaders()
+                                                    .list(
+                                                            new TypedPropImpl.ReferenceList<>(prop)
+                                                    )
+                                                    .batchLoad(keys)
+                                    );
+                                });
                     } else if (prop.hasTransientResolver()) {
-                        registry.forName(prop.toString()).registerMappedBatchLoader((sources, env) -> {
-                            return Mono.just(
-                                    sqlClient
-                                            .getLoaders()
-                                            .value(
-                                                    // Temporary solution, jimmer change graphql solution in next version
-                                                    new TypedPropImpl.Scalar<>(prop)
-                                            )
-                                            .batchLoad(sources)
-                            );
-                        });
+                        registry
+                                .forName(prop.toString())
+                                .withOptions(options -> options.setMaxBatchSize(batchSize))
+                                .registerMappedBatchLoader((sources, env) -> {
+                                    return executor.execute(sources, env, keys ->
+                                            sqlClient
+                                                    .getLoaders()
+                                                    .value(
+                                                            // Temporary solution, jimmer change graphql solution in next version
+                                                            new TypedPropImpl.Scalar<>(prop)
+                                                    )
+                                                    .batchLoad(keys)
+                                    );
+                                });
                     }
                 }
             }
         }
     }
 
+    @Bean
+    public BatchLoaderMetrics jimmerBatchLoaderMetrics() {
+        return batchLoaderExecutor.getMetrics();
+    }
+
+    @Override
+    public void destroy() {
+        if (ownedScheduler != null) {
+            ownedScheduler.dispose();
+        }
+    }
+
     @Bean
     public RuntimeWiringConfigurer jimmerRuntimeWiringConfigurer(
             @Autowired(required = false) JSqlClient jSqlClient,
@@ -109,6 +172,34 @@ public class JimmerSpringGraphQLAutoConfiguration {
         }
     }
 
+    private static Scheduler createScheduler(JimmerProperties.GraphQLLoader properties) {
+        if (properties.isVirtualThreads()) {
+            ExecutorService executorService;
+            try {
+                executorService = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(
+                        "`jimmer.graphql-loader.virtual-threads` requires Java 21 or later",
+                        ex
+                );
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new IllegalStateException("Cannot create virtual thread executor", ex);
+            }
+            return Schedulers.fromExecutorService(executorService, "jimmer-graphql-loader");
+        }
+        return Schedulers.newBoundedElastic(
+                properties.getThreadCap() != 0 ?
+                        properties.getThreadCap() :
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                properties.getQueuedTaskCap() != 0 ?
+                        properties.getQueuedTaskCap() :
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                "jimmer-graphql-loader"
+        );
+    }
+
     private static JSqlClientImplementor sqlClient(
             JSqlClient jSqlClient,
             KSqlClient kSqlClient
@@ -148,6 +239,11 @@ public class JimmerSpringGraphQLAutoConfiguration {
 
         @Override
         public Object get(DataFetchingEnvironment env) throws Exception {
+            ImmutableSpi spi = env.getSource();
+            // Already loaded by the fetcher of `DataFetchingEnvironments.createFetcher`
+            if (DataFetchingEnvironments.isLoaded(spi, prop, env.getSelectionSet())) {
+                return spi.__get(prop.getId());
+            }
             DataLoader<?, ?> dataLoader = env.getDataLoaderRegistry().getDataLoader(prop.toString());
             if (dataLoader == null) {
                 throw new IllegalStateException("No DataLoader for key '" + prop + "'");
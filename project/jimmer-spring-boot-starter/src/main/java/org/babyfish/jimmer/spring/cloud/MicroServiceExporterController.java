@@ -11,11 +11,13 @@ import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.sql.JSqlClient;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
-import org.babyfish.jimmer.sql.fetcher.compiler.FetcherCompiler;
+import org.babyfish.jimmer.sql.fetcher.compiler.CompiledFetcherCache;
 import org.babyfish.jimmer.sql.runtime.MicroServiceExporter;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.servlet.http.HttpServletResponse;
@@ -41,21 +43,45 @@ public class MicroServiceExporterController {
 
     public static final String FETCHER = "fetcher";
 
+    /**
+     * The request parameter which can replace {@link #FETCHER},
+     * its value is {@link CompiledFetcherCache#hash(String)} of the fetcher code.
+     * If the fetcher is not cached, the response status is 412(PRECONDITION_FAILED)
+     * and the client should retry with {@link #FETCHER}.
+     */
+    public static final String FETCHER_HASH = "fetcherHash";
+
     private final MicroServiceExporter exporter;
 
     private final ObjectMapper mapper;
 
+    private final CompiledFetcherCache fetcherCache;
+
     public MicroServiceExporterController(JSqlClient sqlClient, ObjectMapper mapper) {
+        this(sqlClient, mapper, new CompiledFetcherCache());
+    }
+
+    public MicroServiceExporterController(
+            JSqlClient sqlClient,
+            ObjectMapper mapper,
+            CompiledFetcherCache fetcherCache
+    ) {
         this.exporter = new MicroServiceExporter(sqlClient);
         this.mapper = mapper;
+        this.fetcherCache = fetcherCache;
+    }
+
+    public CompiledFetcherCache getFetcherCache() {
+        return fetcherCache;
     }
 
     @GetMapping(value = BY_IDS, produces = MediaType.APPLICATION_JSON_VALUE)
     public List<ImmutableSpi> findByIds(
             @RequestParam(IDS) String idArrStr,
-            @RequestParam(FETCHER) String fetcherStr
+            @RequestParam(value = FETCHER, required = false) String fetcherStr,
+            @RequestParam(value = FETCHER_HASH, required = false) String fetcherHash
     ) throws JsonProcessingException, IOException {
-        Fetcher<?> fetcher = FetcherCompiler.compile(fetcherStr);
+        Fetcher<?> fetcher = fetcher(fetcherStr, fetcherHash);
         Class<?> idType = fetcher.getImmutableType().getIdProp().getElementClass();
         List<?> ids = mapper.readValue(
                 idArrStr,
@@ -74,10 +100,11 @@ public class MicroServiceExporterController {
     public List<Tuple2<Object, ImmutableSpi>> findByAssociatedIds(
             @RequestParam(PROP) String prop,
             @RequestParam(TARGET_IDS) String targetIdArrStr,
-            @RequestParam(FETCHER) String fetcherStr,
+            @RequestParam(value = FETCHER, required = false) String fetcherStr,
+            @RequestParam(value = FETCHER_HASH, required = false) String fetcherHash,
             HttpServletResponse response
     ) throws Exception {
-        Fetcher<?> fetcher = FetcherCompiler.compile(fetcherStr);
+        Fetcher<?> fetcher = fetcher(fetcherStr, fetcherHash);
         ImmutableProp immutableProp = fetcher.getImmutableType().getProp(prop);
         Class<?> targetIdType = immutableProp.getTargetType().getIdProp().getElementClass();
         List<?> targetIds = mapper.readValue(
@@ -96,4 +123,24 @@ public class MicroServiceExporterController {
                 fetcher
         );
     }
+
+    private Fetcher<?> fetcher(String fetcherStr, String fetcherHash) {
+        if (fetcherStr != null) {
+            return fetcherCache.get(fetcherStr);
+        }
+        if (fetcherHash == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Either \"" + FETCHER + "\" or \"" + FETCHER_HASH + "\" must be specified"
+            );
+        }
+        Fetcher<?> fetcher = fetcherCache.getByHash(fetcherHash, null);
+        if (fetcher == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.PRECONDITION_FAILED,
+                    "The fetcher of \"" + FETCHER_HASH + "\" is not cached"
+            );
+        }
+        return fetcher;
+    }
 }
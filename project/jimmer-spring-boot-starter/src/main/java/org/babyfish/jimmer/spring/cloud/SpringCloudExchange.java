@@ -8,21 +8,41 @@ import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
+import org.babyfish.jimmer.sql.fetcher.compiler.CompiledFetcherCache;
 import org.babyfish.jimmer.sql.runtime.MicroServiceExchange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SpringCloudExchange implements MicroServiceExchange {
 
+    private static final int MAX_KNOWN_FETCHER_COUNT = 4096;
+
     private final RestTemplate restTemplate;
 
     private final ObjectMapper mapper;
 
+    private final boolean fetcherHashEnabled;
+
+    private final Set<String> knownFetcherKeys = ConcurrentHashMap.newKeySet();
+
     public SpringCloudExchange(RestTemplate restTemplate, ObjectMapper mapper) {
+        this(restTemplate, mapper, false);
+    }
+
+    /**
+     * @param fetcherHashEnabled If it is true, the fetcher code is sent only once for each
+     *                           micro service, and then only its hash is sent. It requires
+     *                           that the micro services support the request parameter
+     *                           {@link MicroServiceExporterController#FETCHER_HASH}.
+     */
+    public SpringCloudExchange(RestTemplate restTemplate, ObjectMapper mapper, boolean fetcherHashEnabled) {
         this.restTemplate = restTemplate;
         this.mapper = mapper;
+        this.fetcherHashEnabled = fetcherHashEnabled;
     }
 
     @Override
@@ -31,18 +51,13 @@ public class SpringCloudExchange implements MicroServiceExchange {
             Collection<?> ids,
             Fetcher<?> fetcher
     ) throws JsonProcessingException {
-        String json = restTemplate.getForObject(
-                "http://" +
-                        microServiceName +
-                        MicroServiceExporterController.BY_IDS +
-                        "?" +
-                        MicroServiceExporterController.IDS +
-                        "={ids}&" +
-                        MicroServiceExporterController.FETCHER +
-                        "={fetcher}",
-                String.class,
-                mapper.writeValueAsString(ids),
-                fetcher.toString(true)
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(MicroServiceExporterController.IDS, mapper.writeValueAsString(ids));
+        String json = get(
+                microServiceName,
+                MicroServiceExporterController.BY_IDS,
+                params,
+                fetcher
         );
         return mapper.readValue(
                 json,
@@ -60,21 +75,14 @@ public class SpringCloudExchange implements MicroServiceExchange {
             Collection<?> targetIds,
             Fetcher<?> fetcher
     ) throws JsonProcessingException {
-        String json = restTemplate.getForObject(
-                "http://" +
-                        microServiceName +
-                        MicroServiceExporterController.BY_ASSOCIATED_IDS +
-                        "?" +
-                        MicroServiceExporterController.PROP +
-                        "={prop}&" +
-                        MicroServiceExporterController.TARGET_IDS +
-                        "={targetIds}&" +
-                        MicroServiceExporterController.FETCHER +
-                        "={fetcher}",
-                String.class,
-                prop.getName(),
-                mapper.writeValueAsString(targetIds),
-                fetcher.toString(true)
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(MicroServiceExporterController.PROP, prop.getName());
+        params.put(MicroServiceExporterController.TARGET_IDS, mapper.writeValueAsString(targetIds));
+        String json = get(
+                microServiceName,
+                MicroServiceExporterController.BY_ASSOCIATED_IDS,
+                params,
+                fetcher
         );
         TypeFactory typeFactory = mapper.getTypeFactory();
         return mapper.readValue(
@@ -89,4 +97,54 @@ public class SpringCloudExchange implements MicroServiceExchange {
                 )
         );
     }
+
+    private String get(
+            String microServiceName,
+            String path,
+            Map<String, Object> params,
+            Fetcher<?> fetcher
+    ) {
+        String code = fetcher.toString(true);
+        if (!fetcherHashEnabled) {
+            return get(microServiceName, path, params, MicroServiceExporterController.FETCHER, code);
+        }
+        String hash = CompiledFetcherCache.hash(code);
+        String knownKey = microServiceName + ':' + hash;
+        if (knownFetcherKeys.contains(knownKey)) {
+            try {
+                return get(microServiceName, path, params, MicroServiceExporterController.FETCHER_HASH, hash);
+            } catch (HttpClientErrorException ex) {
+                if (ex.getStatusCode() != HttpStatus.PRECONDITION_FAILED) {
+                    throw ex;
+                }
+                // The fetcher is evicted or the request is handled by another instance
+                knownFetcherKeys.remove(knownKey);
+            }
+        }
+        String json = get(microServiceName, path, params, MicroServiceExporterController.FETCHER, code);
+        if (knownFetcherKeys.size() >= MAX_KNOWN_FETCHER_COUNT) {
+            knownFetcherKeys.clear();
+        }
+        knownFetcherKeys.add(knownKey);
+        return json;
+    }
+
+    private String get(
+            String microServiceName,
+            String path,
+            Map<String, Object> params,
+            String fetcherParamName,
+            String fetcherParamValue
+    ) {
+        Map<String, Object> variables = new LinkedHashMap<>(params);
+        variables.put(fetcherParamName, fetcherParamValue);
+        StringBuilder builder = new StringBuilder();
+        builder.append("http://").append(microServiceName).append(path);
+        char separator = '?';
+        for (String name : variables.keySet()) {
+            builder.append(separator).append(name).append("={").append(name).append('}');
+            separator = '&';
+        }
+        return restTemplate.getForObject(builder.toString(), String.class, variables);
+    }
 }
@@ -0,0 +1,175 @@
+package org.babyfish.jimmer.spring.graphql;
+
+import graphql.GraphQLContext;
+import org.dataloader.BatchLoaderEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Executes the blocking batch loaders of jimmer for spring-graphql.
+ *
+ * <ul>
+ *     <li>Nothing is executed until the returned mono is subscribed,
+ *     and the JDBC work is always executed by the scheduler, never
+ *     by the reactor or event-loop thread which subscribes it</li>
+ *     <li>The batches of one GraphQL request are executed with limited
+ *     concurrency, others wait in a queue without holding any thread</li>
+ * </ul>
+ *
+ * <p>Because the loaders are executed by the threads of the scheduler,
+ * they do not share the spring transaction and the connection bound to
+ * the thread which executes the GraphQL request. Each batch uses its own
+ * connection, so it cannot see the uncommitted changes of that request
+ * and is not affected by its rollback.</p>
+ */
+public class BatchLoaderExecutor {
+
+    private static final String LIMITER_KEY = BatchLoaderExecutor.class.getName() + ".limiter";
+
+    private final Scheduler scheduler;
+
+    private final int maxConcurrencyPerRequest;
+
+    private final BatchLoaderMetrics metrics = new BatchLoaderMetrics();
+
+    public BatchLoaderExecutor(Scheduler scheduler, int maxConcurrencyPerRequest) {
+        if (maxConcurrencyPerRequest < 1) {
+            throw new IllegalArgumentException("maxConcurrencyPerRequest must be greater than 0");
+        }
+        this.scheduler = scheduler;
+        this.maxConcurrencyPerRequest = maxConcurrencyPerRequest;
+    }
+
+    public BatchLoaderMetrics getMetrics() {
+        return metrics;
+    }
+
+    public <K, V> Mono<Map<K, V>> execute(
+            Set<K> keys,
+            BatchLoaderEnvironment env,
+            Function<Set<K>, Map<K, V>> loader
+    ) {
+        return Mono.create(sink -> {
+            long queuedTime = System.nanoTime();
+            AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onCancel(() -> cancelled.set(true));
+            limiter(env).submit(release -> {
+                Runnable task = () -> {
+                    if (cancelled.get()) {
+                        release.run();
+                        return;
+                    }
+                    long startTime = System.nanoTime();
+                    Map<K, V> map;
+                    try {
+                        map = loader.apply(keys);
+                    } catch (Throwable ex) {
+                        metrics.record(keys.size(), startTime - queuedTime, System.nanoTime() - startTime, true);
+                        release.run();
+                        sink.error(ex);
+                        return;
+                    }
+                    metrics.record(keys.size(), startTime - queuedTime, System.nanoTime() - startTime, false);
+                    release.run();
+                    sink.success(map);
+                };
+                try {
+                    scheduler.schedule(task);
+                } catch (RejectedExecutionException ex) {
+                    metrics.record(keys.size(), System.nanoTime() - queuedTime, 0L, true);
+                    sink.error(ex);
+                    return false;
+                }
+                return true;
+            });
+        });
+    }
+
+    /**
+     * Spring-graphql uses the GraphQL context of the request as the context
+     * of batch loader environment. If it is not available, there is no
+     * per-request concurrency limit.
+     */
+    private Limiter limiter(BatchLoaderEnvironment env) {
+        Object context = env.getContext();
+        if (context instanceof GraphQLContext) {
+            return ((GraphQLContext) context).computeIfAbsent(
+                    LIMITER_KEY,
+                    key -> new Limiter(maxConcurrencyPerRequest)
+            );
+        }
+        return new Limiter(maxConcurrencyPerRequest);
+    }
+
+    private interface LimitedTask {
+
+        /**
+         * @param release If the task is started, it must call this argument
+         *                exactly once when it is finished
+         * @return Whether the task is started, if not, it must not call the argument
+         */
+        boolean start(Runnable release);
+    }
+
+    private static class Limiter {
+
+        private final int maxConcurrency;
+
+        private final Queue<LimitedTask> waitingTasks = new ArrayDeque<>();
+
+        private int runningCount;
+
+        Limiter(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        void submit(LimitedTask task) {
+            synchronized (this) {
+                if (runningCount >= maxConcurrency) {
+                    waitingTasks.add(task);
+                    return;
+                }
+                runningCount++;
+            }
+            start(task);
+        }
+
+        private void release() {
+            LimitedTask next;
+            synchronized (this) {
+                next = waitingTasks.poll();
+                if (next == null) {
+                    runningCount--;
+                    return;
+                }
+            }
+            start(next);
+        }
+
+        /**
+         * The caller owns a running slot and hands it over to the task,
+         * if the task cannot be started, the slot is handed over to the
+         * next waiting task by loop rather than recursion, so that a
+         * long queue rejected by the scheduler cannot overflow the stack.
+         */
+        private void start(LimitedTask task) {
+            while (!task.start(this::release)) {
+                synchronized (this) {
+                    task = waitingTasks.poll();
+                    if (task == null) {
+                        runningCount--;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
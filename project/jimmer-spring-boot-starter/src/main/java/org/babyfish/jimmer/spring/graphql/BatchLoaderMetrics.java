@@ -0,0 +1,97 @@
+package org.babyfish.jimmer.spring.graphql;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of {@link BatchLoaderExecutor}, the queue time is the time
+ * between the subscription of batch and the start of its execution,
+ * includes the waiting for per-request concurrency and scheduler.
+ */
+public class BatchLoaderMetrics {
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong failedBatchCount = new AtomicLong();
+
+    private final AtomicLong keyCount = new AtomicLong();
+
+    private final AtomicLong queueNanos = new AtomicLong();
+
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    private final AtomicLong executionNanos = new AtomicLong();
+
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    BatchLoaderMetrics() {}
+
+    void record(int keyCount, long queueNanos, long executionNanos, boolean failed) {
+        this.batchCount.incrementAndGet();
+        if (failed) {
+            this.failedBatchCount.incrementAndGet();
+        }
+        this.keyCount.addAndGet(keyCount);
+        this.queueNanos.addAndGet(queueNanos);
+        this.maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+        this.executionNanos.addAndGet(executionNanos);
+        this.maxExecutionNanos.accumulateAndGet(executionNanos, Math::max);
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    public long getKeyCount() {
+        return keyCount.get();
+    }
+
+    public long getQueueNanos() {
+        return queueNanos.get();
+    }
+
+    public long getMaxQueueNanos() {
+        return maxQueueNanos.get();
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos.get();
+    }
+
+    public long getMaxExecutionNanos() {
+        return maxExecutionNanos.get();
+    }
+
+    public double getAverageQueueMillis() {
+        return average(queueNanos.get());
+    }
+
+    public double getAverageExecutionMillis() {
+        return average(executionNanos.get());
+    }
+
+    private double average(long nanos) {
+        long count = batchCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) / count;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLoaderMetrics{" +
+                "batchCount=" + batchCount +
+                ", failedBatchCount=" + failedBatchCount +
+                ", keyCount=" + keyCount +
+                ", queueNanos=" + queueNanos +
+                ", maxQueueNanos=" + maxQueueNanos +
+                ", executionNanos=" + executionNanos +
+                ", maxExecutionNanos=" + maxExecutionNanos +
+                '}';
+    }
+}
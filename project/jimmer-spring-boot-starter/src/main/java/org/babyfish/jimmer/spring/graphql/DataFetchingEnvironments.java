@@ -0,0 +1,121 @@
+package org.babyfish.jimmer.spring.graphql;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.sql.fetcher.Fetcher;
+import org.babyfish.jimmer.sql.fetcher.impl.FetcherImpl;
+
+import java.util.*;
+
+/**
+ * Translates the GraphQL selection set to jimmer fetcher, for example
+ *
+ * <pre>{@code
+ * @QueryMapping
+ * public List<Book> books(DataFetchingEnvironment env) {
+ *     return bookRepository.findAll(
+ *         DataFetchingEnvironments.createFetcher(Book.class, env)
+ *     );
+ * }
+ * }</pre>
+ *
+ * <p>Only the selected scalar columns are queried, and the selected
+ * associations are loaded by the batched object fetcher together with
+ * the root objects, so that the data loaders registered by
+ * {@link org.babyfish.jimmer.spring.cfg.JimmerSpringGraphQLAutoConfiguration}
+ * are not used for them.</p>
+ *
+ * <p>GraphQL fields which are not entity properties, such as the fields
+ * of schema mapping methods, and transient properties without resolver
+ * are ignored.</p>
+ */
+public class DataFetchingEnvironments {
+
+    private DataFetchingEnvironments() {}
+
+    public static <E> Fetcher<E> createFetcher(Class<E> entityType, DataFetchingEnvironment env) {
+        return createFetcher(entityType, env.getSelectionSet());
+    }
+
+    public static <E> Fetcher<E> createFetcher(Class<E> entityType, DataFetchingFieldSelectionSet selectionSet) {
+        return createFetcher(entityType, Collections.singletonList(selectionSet));
+    }
+
+    /**
+     * Whether the loaded value of entity property can be returned
+     * directly for the selection set, without data loader.
+     *
+     * <p>It is false if the property is not loaded, or the associated
+     * objects are loaded without all the selected properties, for example,
+     * the many-to-one association is loaded as id-only object.</p>
+     */
+    public static boolean isLoaded(ImmutableSpi spi, ImmutableProp prop, DataFetchingFieldSelectionSet selectionSet) {
+        if (!spi.__isLoaded(prop.getId())) {
+            return false;
+        }
+        if (!prop.isAssociation(TargetLevel.ENTITY)) {
+            return true;
+        }
+        Object value = spi.__get(prop.getId());
+        Object target;
+        if (value instanceof List<?>) {
+            List<?> list = (List<?>) value;
+            target = list.isEmpty() ? null : list.get(0);
+        } else {
+            target = value;
+        }
+        if (target == null) {
+            return true;
+        }
+        ImmutableSpi targetSpi = (ImmutableSpi) target;
+        ImmutableType targetType = targetSpi.__type();
+        for (SelectedField field : selectionSet.getImmediateFields()) {
+            ImmutableProp targetProp = targetType.getProps().get(field.getName());
+            if (targetProp != null && !isLoaded(targetSpi, targetProp, field.getSelectionSet())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Fetcher<E> createFetcher(
+            Class<E> entityType,
+            Collection<DataFetchingFieldSelectionSet> selectionSets
+    ) {
+        ImmutableType type = ImmutableType.get(entityType);
+        Map<String, List<DataFetchingFieldSelectionSet>> associationSelectionSetMap = new LinkedHashMap<>();
+        Fetcher<E> fetcher = new FetcherImpl<>(entityType);
+        for (DataFetchingFieldSelectionSet selectionSet : selectionSets) {
+            for (SelectedField field : selectionSet.getImmediateFields()) {
+                ImmutableProp prop = type.getProps().get(field.getName());
+                if (prop == null || prop.isId() || (prop.isTransient() && !prop.hasTransientResolver())) {
+                    continue;
+                }
+                if (prop.isAssociation(TargetLevel.ENTITY)) {
+                    // The same association can be selected by several aliases,
+                    // and the associations calculated by transient resolvers
+                    // are fetched with child fetcher too
+                    associationSelectionSetMap
+                            .computeIfAbsent(prop.getName(), it -> new ArrayList<>())
+                            .add(field.getSelectionSet());
+                } else {
+                    fetcher = fetcher.add(prop.getName());
+                }
+            }
+        }
+        for (Map.Entry<String, List<DataFetchingFieldSelectionSet>> e : associationSelectionSetMap.entrySet()) {
+            ImmutableProp prop = type.getProp(e.getKey());
+            fetcher = fetcher.add(
+                    prop.getName(),
+                    createFetcher((Class<Object>) prop.getTargetType().getJavaClass(), e.getValue())
+            );
+        }
+        return fetcher;
+    }
+}
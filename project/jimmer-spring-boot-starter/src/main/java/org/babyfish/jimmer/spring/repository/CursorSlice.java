@@ -0,0 +1,30 @@
+package org.babyfish.jimmer.spring.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * The slice of keyset pagination.
+ *
+ * <p>The {@link #getNextCursor()} is an opaque token which contains
+ * the sort key values of the last row, it can be sent to client and
+ * be used to query the next slice by {@link JRepository#slicer(int, String)}.</p>
+ */
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return The cursor of next slice, or null if this is the last slice
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
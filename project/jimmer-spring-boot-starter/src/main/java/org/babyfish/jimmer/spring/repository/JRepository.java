@@ -17,6 +17,7 @@ import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @NoRepositoryBean
@@ -36,6 +37,33 @@ public interface JRepository<E, ID> extends PagingAndSortingRepository<E, ID> {
 
     Pager pager(int pageIndex, int pageSize);
 
+    /**
+     * Unlike {@link #pager(Pageable)}, if no transaction is active,
+     * the count query is executed by the `countExecutor` with another
+     * connection, concurrently with the data query.
+     *
+     * <p>The request attributes of spring web are propagated to the count query,
+     * so filters can use request scoped beans. Other thread-bound context read by
+     * filters, such as custom thread locals or the security context, is not
+     * propagated; please propagate it by the executor, for example,
+     * `ThreadPoolTaskExecutor.setTaskDecorator`, or use {@link #pager(Pageable)}.</p>
+     */
+    Pager pager(Pageable pageable, Executor countExecutor);
+
+    /**
+     * See {@link #pager(Pageable, Executor)}
+     */
+    Pager pager(int pageIndex, int pageSize, Executor countExecutor);
+
+    /**
+     * Keyset pagination, see {@link ConfigurableRootQuery#seekAfter(List)}
+     *
+     * @param sliceSize The max row count of the slice
+     * @param cursor The {@link CursorSlice#getNextCursor()} of previous slice,
+     *               or null for the first slice
+     */
+    Slicer slicer(int sliceSize, String cursor);
+
     /*
      * For consumer
      */
@@ -106,6 +134,16 @@ public interface JRepository<E, ID> extends PagingAndSortingRepository<E, ID> {
     
     Page<E> findAll(Pageable pageable, Fetcher<E> fetcher);
 
+    /**
+     * Keyset pagination, the id is added to the end of sort
+     * if it is not sorted so that the order is unique.
+     * If fetcher is specified, it must fetch the sorted properties.
+     *
+     * @param cursor The {@link CursorSlice#getNextCursor()} of previous slice,
+     *               or null for the first slice
+     */
+    CursorSlice<E> findSlice(int sliceSize, String cursor, Fetcher<E> fetcher, Sort sort);
+
     @Override
     default boolean existsById(ID id) {
         return findNullable(id) != null;
@@ -220,4 +258,15 @@ public interface JRepository<E, ID> extends PagingAndSortingRepository<E, ID> {
 
         <T> Page<T> execute(ConfigurableRootQuery<?, T> query);
     }
+
+    interface Slicer {
+
+        /**
+         * @param query The query must select the entity of root table,
+         *              and its order by clause can only contain non-null
+         *              scalar properties of the root table, the last one
+         *              should be unique, such as id.
+         */
+        <T> CursorSlice<T> execute(ConfigurableRootQuery<?, T> query);
+    }
 }
@@ -18,6 +18,7 @@ import org.springframework.data.domain.Sort
 import org.springframework.data.repository.NoRepositoryBean
 import org.springframework.data.repository.PagingAndSortingRepository
 import java.util.*
+import java.util.concurrent.Executor
 import kotlin.reflect.KClass
 import kotlin.reflect.KProperty1
 
@@ -34,6 +35,21 @@ interface KRepository<E: Any, ID: Any> : PagingAndSortingRepository<E, ID> {
 
     fun pager(pageable: Pageable): Pager
 
+    /**
+     * Unlike [pager], if no transaction is active, the count query is
+     * executed by the [countExecutor] with another connection, concurrently
+     * with the data query.
+     *
+     * The request attributes of spring web are propagated to the count query,
+     * so filters can use request scoped beans. Other thread-bound context read by
+     * filters, such as custom thread locals or the security context, is not
+     * propagated; please propagate it by the executor, for example,
+     * `ThreadPoolTaskExecutor.setTaskDecorator`, or use [pager] without executor.
+     */
+    fun pager(pageIndex: Int, pageSize: Int, countExecutor: Executor): Pager
+
+    fun pager(pageable: Pageable, countExecutor: Executor): Pager
+
     fun findNullable(id: ID, fetcher: Fetcher<E>? = null): E?
 
     override fun findById(id: ID): Optional<E> =
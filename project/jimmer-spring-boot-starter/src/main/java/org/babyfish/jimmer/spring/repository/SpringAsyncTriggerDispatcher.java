@@ -0,0 +1,48 @@
+package org.babyfish.jimmer.spring.repository;
+
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous trigger dispatcher which starts the delivery after
+ * the spring transaction is committed, the events of rolled back
+ * transaction are discarded.
+ *
+ * <pre>{@code
+ * @Bean
+ * public Customizer triggerDispatcherCustomizer() {
+ *     return builder -> builder.setTriggerDispatcher(
+ *         new SpringAsyncTriggerDispatcher(executor, 10000, AsyncTriggerDispatcher.Ordering.ORDERED)
+ *     );
+ * }
+ * }</pre>
+ */
+public class SpringAsyncTriggerDispatcher extends AsyncTriggerDispatcher {
+
+    public SpringAsyncTriggerDispatcher(int maxPendingEventCount) {
+        super(maxPendingEventCount);
+    }
+
+    public SpringAsyncTriggerDispatcher(Executor executor, int maxPendingEventCount, Ordering defaultOrdering) {
+        super(executor, maxPendingEventCount, defaultOrdering);
+    }
+
+    @Override
+    protected void schedule(Runnable delivery) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delivery.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        delivery.run();
+                    }
+                }
+        );
+    }
+}
@@ -1,9 +1,15 @@
 package org.babyfish.jimmer.spring.repository.support;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.babyfish.jimmer.ImmutableObjects;
 import org.babyfish.jimmer.Input;
+import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.TypedProp;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.spring.repository.CursorSlice;
 import org.babyfish.jimmer.spring.repository.JRepository;
 import org.babyfish.jimmer.spring.repository.SpringOrders;
 import org.babyfish.jimmer.sql.Entity;
@@ -19,6 +25,7 @@ import org.babyfish.jimmer.sql.ast.query.MutableRootQuery;
 import org.babyfish.jimmer.sql.ast.query.Order;
 import org.babyfish.jimmer.sql.ast.table.Table;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
+import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.jetbrains.annotations.NotNull;
@@ -26,8 +33,12 @@ import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.*;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @NoRepositoryBean
@@ -91,12 +102,27 @@ public class JRepositoryImpl<E, ID> implements JRepository<E, ID> {
 
     @Override
     public Pager pager(Pageable pageable) {
-        return new PagerImpl(pageable.getPageNumber(), pageable.getPageSize());
+        return new PagerImpl(pageable.getPageNumber(), pageable.getPageSize(), null);
     }
 
     @Override
     public Pager pager(int pageIndex, int pageSize) {
-        return new PagerImpl(pageIndex, pageSize);
+        return new PagerImpl(pageIndex, pageSize, null);
+    }
+
+    @Override
+    public Pager pager(Pageable pageable, Executor countExecutor) {
+        return new PagerImpl(pageable.getPageNumber(), pageable.getPageSize(), countExecutor);
+    }
+
+    @Override
+    public Pager pager(int pageIndex, int pageSize, Executor countExecutor) {
+        return new PagerImpl(pageIndex, pageSize, countExecutor);
+    }
+
+    @Override
+    public Slicer slicer(int sliceSize, String cursor) {
+        return new SlicerImpl(sliceSize, cursor);
     }
 
     @Override
@@ -229,6 +255,26 @@ public class JRepositoryImpl<E, ID> implements JRepository<E, ID> {
         );
     }
 
+    @Override
+    public CursorSlice<E> findSlice(int sliceSize, String cursor, Fetcher<E> fetcher, Sort sort) {
+        MutableRootQueryImpl<Table<E>> query =
+                new MutableRootQueryImpl<>(
+                        sqlClient,
+                        immutableType,
+                        ExecutionPurpose.QUERY,
+                        false
+                );
+        Table<E> table = query.getTable();
+        query.orderBy(SpringOrders.toOrders(table, sort));
+        String idPropName = immutableType.getIdProp().getName();
+        if (sort.getOrderFor(idPropName) == null) {
+            query.orderBy(table.get(idPropName).asc());
+        }
+        return slicer(sliceSize, cursor).execute(
+                query.select(table.fetch(fetcher))
+        );
+    }
+
     @Override
     public long count() {
         return createQuery(null, EMPTY_SORTED_PROPS).count();
@@ -358,9 +404,12 @@ public class JRepositoryImpl<E, ID> implements JRepository<E, ID> {
 
         private final int pageSize;
 
-        PagerImpl(int pageIndex, int pageSize) {
+        private final Executor countExecutor;
+
+        PagerImpl(int pageIndex, int pageSize, Executor countExecutor) {
             this.pageIndex = pageIndex;
             this.pageSize = pageSize;
+            this.countExecutor = countExecutor;
         }
 
         @Override
@@ -372,14 +421,10 @@ public class JRepositoryImpl<E, ID> implements JRepository<E, ID> {
             if (offset > Integer.MAX_VALUE - pageSize) {
                 throw new IllegalArgumentException("offset is too big");
             }
-            int total = query.count();
-            List<T> content =
-                    query
-                            .limit(pageSize, offset)
-                            .execute();
             ConfigurableRootQueryImplementor<?, ?> queryImplementor = (ConfigurableRootQueryImplementor<?, ?>) query;
-            return new PageImpl<>(
-                    content,
+            return Utils.toPage(
+                    () -> query.limit(pageSize, offset).execute(),
+                    query::count,
                     PageRequest.of(
                             pageIndex,
                             pageSize,
@@ -388,8 +433,97 @@ public class JRepositoryImpl<E, ID> implements JRepository<E, ID> {
                                     queryImplementor.getSqlClient().getMetadataStrategy()
                             )
                     ),
-                    total
+                    countExecutor
             );
         }
     }
+
+    private static class SlicerImpl implements Slicer {
+
+        // Modules such as JavaTimeModule of the runtime classpath are registered
+        private static final ObjectMapper CURSOR_MAPPER =
+                new ObjectMapper().findAndRegisterModules();
+
+        private final int sliceSize;
+
+        private final String cursor;
+
+        SlicerImpl(int sliceSize, String cursor) {
+            if (sliceSize < 1 || sliceSize == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Illegal slice size: " + sliceSize);
+            }
+            this.sliceSize = sliceSize;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public <T> CursorSlice<T> execute(ConfigurableRootQuery<?, T> query) {
+            ConfigurableRootQueryImplementor<?, ?> queryImplementor = (ConfigurableRootQueryImplementor<?, ?>) query;
+            MetadataStrategy strategy = queryImplementor.getSqlClient().getMetadataStrategy();
+            List<Order> orders = queryImplementor.getOrders();
+            List<ImmutableProp> props = Utils.toKeysetProps(orders, strategy);
+            if (cursor != null) {
+                query = query.seekAfter(decodeCursor(cursor, props));
+            }
+            // Query one more row to know whether there is next slice
+            List<T> rows = query.limit(sliceSize + 1).execute();
+            String nextCursor = null;
+            if (rows.size() > sliceSize) {
+                rows = new ArrayList<>(rows.subList(0, sliceSize));
+                nextCursor = encodeCursor(rows.get(sliceSize - 1), props);
+            }
+            return new CursorSlice<>(
+                    rows,
+                    PageRequest.of(0, sliceSize, Utils.toSort(orders, strategy)),
+                    nextCursor
+            );
+        }
+
+        private static String encodeCursor(Object row, List<ImmutableProp> props) {
+            if (!(row instanceof ImmutableSpi)) {
+                throw new IllegalArgumentException(
+                        "Keyset pagination requires the query which selects entity, but the row is \"" +
+                                row +
+                                "\""
+                );
+            }
+            ImmutableSpi spi = (ImmutableSpi) row;
+            List<Object> values = new ArrayList<>(props.size());
+            for (ImmutableProp prop : props) {
+                if (!spi.__isLoaded(prop.getId())) {
+                    throw new IllegalArgumentException(
+                            "Keyset pagination requires the sorted property \"" +
+                                    prop +
+                                    "\" to be fetched"
+                    );
+                }
+                values.add(spi.__get(prop.getId()));
+            }
+            try {
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        CURSOR_MAPPER.writeValueAsBytes(values)
+                );
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Cannot create cursor from the values " + values, ex);
+            }
+        }
+
+        private static List<Object> decodeCursor(String cursor, List<ImmutableProp> props) {
+            try {
+                JsonNode node = CURSOR_MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+                if (!node.isArray() || node.size() != props.size()) {
+                    throw new IllegalArgumentException(
+                            "The cursor \"" + cursor + "\" does not match the order by clause"
+                    );
+                }
+                List<Object> values = new ArrayList<>(props.size());
+                for (int i = 0; i < props.size(); i++) {
+                    values.add(CURSOR_MAPPER.treeToValue(node.get(i), props.get(i).getElementClass()));
+                }
+                return values;
+            } catch (IOException | IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Illegal cursor \"" + cursor + "\"", ex);
+            }
+        }
+    }
 }
@@ -14,6 +14,7 @@ import org.babyfish.jimmer.sql.kt.ast.query.KConfigurableRootQuery
 import org.babyfish.jimmer.sql.kt.ast.query.impl.KConfigurableRootQueryImplementor
 import org.springframework.core.GenericTypeResolver
 import org.springframework.data.domain.*
+import java.util.concurrent.Executor
 import kotlin.reflect.KClass
 import kotlin.reflect.KProperty1
 
@@ -56,6 +57,12 @@ open class KRepositoryImpl<E: Any, ID: Any> (
     override fun pager(pageable: Pageable): KRepository.Pager =
         PagerImpl(pageable.pageNumber, pageable.pageSize)
 
+    override fun pager(pageIndex: Int, pageSize: Int, countExecutor: Executor): KRepository.Pager =
+        PagerImpl(pageIndex, pageSize, countExecutor)
+
+    override fun pager(pageable: Pageable, countExecutor: Executor): KRepository.Pager =
+        PagerImpl(pageable.pageNumber, pageable.pageSize, countExecutor)
+
     override fun findNullable(id: ID, fetcher: Fetcher<E>?): E? =
         if (fetcher !== null) {
             sql.entities.findById(fetcher, id)
@@ -172,7 +179,8 @@ open class KRepositoryImpl<E: Any, ID: Any> (
 
     private class PagerImpl(
         private val pageIndex: Int,
-        private val pageSize: Int
+        private val pageSize: Int,
+        private val countExecutor: Executor? = null
     ) : KRepository.Pager {
 
         override fun <T> execute(query: KConfigurableRootQuery<*, T>): Page<T> {
@@ -181,13 +189,10 @@ open class KRepositoryImpl<E: Any, ID: Any> (
             }
             val offset = pageIndex * pageSize
             require(offset <= Int.MAX_VALUE - pageSize) { "offset is too big" }
-            val total = query.count()
-            val content = query
-                .limit(pageSize, offset)
-                .execute()
             val queryImplementor = query as KConfigurableRootQueryImplementor<*, *>
-            return PageImpl(
-                content,
+            return Utils.toPage(
+                { query.limit(pageSize, offset).execute() },
+                { query.count() },
                 PageRequest.of(
                     pageIndex,
                     pageSize,
@@ -196,7 +201,7 @@ open class KRepositoryImpl<E: Any, ID: Any> (
                         queryImplementor.javaSqlClient.metadataStrategy
                     )
                 ),
-                total.toLong()
+                countExecutor
             )
         }
     }
@@ -1,6 +1,8 @@
 package org.babyfish.jimmer.spring.repository.support;
 
+import org.babyfish.jimmer.meta.EmbeddedLevel;
 import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.TargetLevel;
 import org.babyfish.jimmer.spring.repository.SpringConnectionManager;
 import org.babyfish.jimmer.spring.repository.SpringTransientResolverProvider;
 import org.babyfish.jimmer.sql.JSqlClient;
@@ -15,15 +17,32 @@ import org.babyfish.jimmer.sql.meta.EmbeddedColumns;
 import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.runtime.ConnectionManager;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 public class Utils {
 
+    private static final boolean REQUEST_CONTEXT_PRESENT = ClassUtils.isPresent(
+            "org.springframework.web.context.request.RequestContextHolder",
+            Utils.class.getClassLoader()
+    );
+
     private Utils() {}
 
     public static <E> Collection<E> toCollection(Iterable<E> iterable) {
@@ -107,6 +126,126 @@ public class Utils {
         return Sort.by(springOrders);
     }
 
+    /**
+     * Returns the properties whose values are the sort key of keyset pagination,
+     * nullable properties are rejected because `null` cannot be compared by
+     * the seek predicate.
+     */
+    public static List<ImmutableProp> toKeysetProps(List<Order> orders, MetadataStrategy strategy) {
+        if (orders == null || orders.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires the query with order by clause");
+        }
+        List<ImmutableProp> props = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (order.getExpression() instanceof PropExpression<?>) {
+                PropExpressionImplementor<?> propExpr = (PropExpressionImplementor<?>) order.getExpression();
+                ImmutableProp prop = propExpr.getProp();
+                if (prop.isNullable()) {
+                    throw new IllegalArgumentException(
+                            "Keyset pagination requires that the properties of order by clause " +
+                                    "are not nullable, but the property \"" +
+                                    prop +
+                                    "\" is nullable, please sort by non-null properties " +
+                                    "or use offset pagination"
+                    );
+                }
+                if (prefix(propExpr.getTable()) == null &&
+                        propExpr.getPartial(strategy) == null &&
+                        prop.isScalar(TargetLevel.OBJECT) &&
+                        !prop.isEmbedded(EmbeddedLevel.SCALAR)) {
+                    props.add(prop);
+                    continue;
+                }
+            }
+            throw new IllegalArgumentException(
+                    "Keyset pagination requires that the order by clause only contains " +
+                            "the simple scalar properties of root table, but \"" +
+                            order.getExpression() +
+                            "\" is found"
+            );
+        }
+        return props;
+    }
+
+    /**
+     * Executes the data query of page, then the count query.
+     *
+     * <ul>
+     *     <li>The count query is skipped if the data query returns a short page,
+     *     because the total row count can be deduced from it</li>
+     *     <li>If the `countExecutor` is specified and no transaction is active,
+     *     the count query is executed by it with another connection, concurrently
+     *     with the data query. The request attributes of spring web are propagated
+     *     to it so that filters can use request scoped beans, other thread-bound
+     *     context is not propagated</li>
+     * </ul>
+     */
+    public static <T> Page<T> toPage(
+            Supplier<List<T>> dataSupplier,
+            IntSupplier countSupplier,
+            Pageable pageable,
+            Executor countExecutor
+    ) {
+        CompletableFuture<Integer> countFuture = null;
+        if (countExecutor != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            Supplier<Integer> asyncCountSupplier = REQUEST_CONTEXT_PRESENT ?
+                    RequestContexts.propagate(countSupplier) :
+                    countSupplier::getAsInt;
+            countFuture = CompletableFuture.supplyAsync(asyncCountSupplier, countExecutor);
+        }
+        List<T> content = dataSupplier.get();
+        int offset = (int) pageable.getOffset();
+        long total;
+        if (content.size() < pageable.getPageSize() && (offset == 0 || !content.isEmpty())) {
+            if (countFuture != null) {
+                countFuture.cancel(false);
+            }
+            total = offset + content.size();
+        } else if (countFuture != null) {
+            try {
+                total = countFuture.join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw ex;
+            }
+        } else {
+            total = countSupplier.getAsInt();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Isolated from {@link Utils} because spring web is optional
+     */
+    private static class RequestContexts {
+
+        static Supplier<Integer> propagate(IntSupplier countSupplier) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                return countSupplier::getAsInt;
+            }
+            return () -> {
+                RequestAttributes oldAttributes = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(attributes);
+                try {
+                    return countSupplier.getAsInt();
+                } finally {
+                    if (oldAttributes != null) {
+                        RequestContextHolder.setRequestAttributes(oldAttributes);
+                    } else {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                }
+            };
+        }
+    }
+
     private static String prefix(Table<?> table) {
         ImmutableProp prop = table instanceof TableProxy<?> ?
                 ((TableProxy<?>) table).__prop() :
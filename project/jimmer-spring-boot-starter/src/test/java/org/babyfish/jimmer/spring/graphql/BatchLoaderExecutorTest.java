@@ -0,0 +1,134 @@
+package org.babyfish.jimmer.spring.graphql;
+
+import graphql.GraphQLContext;
+import org.dataloader.BatchLoaderEnvironment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+public class BatchLoaderExecutorTest {
+
+    private ManualScheduler scheduler;
+
+    private BatchLoaderEnvironment env;
+
+    private List<Object> results;
+
+    private List<Throwable> errors;
+
+    @BeforeEach
+    public void initialize() {
+        scheduler = new ManualScheduler();
+        env = BatchLoaderEnvironment
+                .newBatchLoaderEnvironment()
+                .context(GraphQLContext.newContext().build())
+                .build();
+        results = new ArrayList<>();
+        errors = new ArrayList<>();
+    }
+
+    @Test
+    public void testConcurrencyLimit() {
+        BatchLoaderExecutor executor = new BatchLoaderExecutor(scheduler, 2);
+        for (long id = 1; id <= 3; id++) {
+            execute(executor, id);
+        }
+
+        // The third batch waits without being scheduled
+        Assertions.assertEquals(2, scheduler.tasks.size());
+        scheduler.runNext();
+        Assertions.assertEquals(2, scheduler.tasks.size());
+        scheduler.runNext();
+        scheduler.runNext();
+        Assertions.assertTrue(scheduler.tasks.isEmpty());
+        Assertions.assertEquals(
+                Arrays.asList(
+                        Collections.singletonMap(1L, "Value-1"),
+                        Collections.singletonMap(2L, "Value-2"),
+                        Collections.singletonMap(3L, "Value-3")
+                ),
+                results
+        );
+        Assertions.assertEquals(3, executor.getMetrics().getBatchCount());
+        Assertions.assertEquals(0, executor.getMetrics().getFailedBatchCount());
+    }
+
+    @Test
+    public void testRejection() {
+        BatchLoaderExecutor executor = new BatchLoaderExecutor(scheduler, 1);
+        scheduler.rejecting = true;
+        execute(executor, 1L);
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertTrue(errors.get(0) instanceof RejectedExecutionException);
+
+        // The slot of the rejected batch has been released
+        scheduler.rejecting = false;
+        execute(executor, 2L);
+        Assertions.assertEquals(1, scheduler.tasks.size());
+        scheduler.runNext();
+        Assertions.assertEquals(Collections.singletonList(Collections.singletonMap(2L, "Value-2")), results);
+        Assertions.assertEquals(1, executor.getMetrics().getFailedBatchCount());
+    }
+
+    @Test
+    public void testLongQueueRejectedByScheduler() {
+        BatchLoaderExecutor executor = new BatchLoaderExecutor(scheduler, 1);
+        execute(executor, 0L);
+        int waitingCount = 100_000;
+        for (long id = 1; id <= waitingCount; id++) {
+            execute(executor, id);
+        }
+        Assertions.assertEquals(1, scheduler.tasks.size());
+
+        // All the waiting batches are rejected one by one without stack overflow
+        scheduler.rejecting = true;
+        scheduler.runNext();
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(waitingCount, errors.size());
+
+        scheduler.rejecting = false;
+        execute(executor, -1L);
+        Assertions.assertEquals(1, scheduler.tasks.size());
+    }
+
+    private void execute(BatchLoaderExecutor executor, long id) {
+        executor
+                .execute(
+                        Collections.singleton(id),
+                        env,
+                        keys -> Collections.singletonMap(keys.iterator().next(), "Value-" + id)
+                )
+                .subscribe(results::add, errors::add);
+    }
+
+    private static class ManualScheduler implements Scheduler {
+
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        boolean rejecting;
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            if (rejecting) {
+                throw new RejectedExecutionException();
+            }
+            tasks.add(task);
+            return () -> {};
+        }
+
+        @Override
+        public Worker createWorker() {
+            return Schedulers.immediate().createWorker();
+        }
+
+        void runNext() {
+            tasks.remove().run();
+        }
+    }
+}
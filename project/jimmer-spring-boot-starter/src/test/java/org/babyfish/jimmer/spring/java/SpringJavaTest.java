@@ -1,9 +1,19 @@
 package org.babyfish.jimmer.spring.java;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
 import org.babyfish.jimmer.client.meta.Metadata;
 import org.babyfish.jimmer.spring.AbstractTest;
 import org.babyfish.jimmer.spring.cfg.JimmerProperties;
+import org.babyfish.jimmer.spring.cfg.JimmerSpringGraphQLAutoConfiguration;
 import org.babyfish.jimmer.spring.cfg.MetadataCondition;
 import org.babyfish.jimmer.spring.cfg.SqlClientConfig;
 import org.babyfish.jimmer.spring.client.JavaFeignController;
@@ -14,13 +24,16 @@ import org.babyfish.jimmer.spring.java.bll.resolver.BookStoreNewestBooksResolver
 import org.babyfish.jimmer.spring.java.dal.BookRepository;
 import org.babyfish.jimmer.spring.datasource.DataSources;
 import org.babyfish.jimmer.spring.datasource.TxCallback;
+import org.babyfish.jimmer.spring.graphql.DataFetchingEnvironments;
 import org.babyfish.jimmer.spring.java.dal.BookStoreRepository;
 import org.babyfish.jimmer.spring.java.model.*;
 import org.babyfish.jimmer.spring.model.SortUtils;
 import org.babyfish.jimmer.spring.repository.EnableJimmerRepositories;
 import org.babyfish.jimmer.spring.repository.config.JimmerRepositoryConfigExtension;
 import org.babyfish.jimmer.spring.repository.support.JimmerRepositoryFactoryBean;
+import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.runtime.*;
+import org.dataloader.DataLoaderRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Assertions;
@@ -44,6 +57,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 import org.springframework.jdbc.support.JdbcTransactionManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -65,6 +81,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(properties = {
         "jimmer.client.ts.path=/my-ts.zip",
@@ -80,12 +97,36 @@ import java.util.List;
 @AutoConfigurationPackage
 @EnableJimmerRepositories
 @EnableConfigurationProperties(JimmerProperties.class)
-@Import(SqlClientConfig.class)
+@Import({SqlClientConfig.class, JimmerSpringGraphQLAutoConfiguration.class})
 public class SpringJavaTest extends AbstractTest {
 
     private final static List<String> TRANSACTION_EVENTS = new ArrayList<>();
 
-    private final static List<String> SQL_STATEMENTS = new ArrayList<>();
+    private final static List<String> SQL_STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    private static final String GRAPHQL_SCHEMA =
+            "type Query {\n" +
+                    "    books(name: String): [Book!]!\n" +
+                    "    bookStores: [BookStore!]!\n" +
+                    "}\n" +
+                    "type BookStore {\n" +
+                    "    id: ID!\n" +
+                    "    name: String!\n" +
+                    "    books: [Book!]!\n" +
+                    "    newestBooks: [Book!]!\n" +
+                    "}\n" +
+                    "type Book {\n" +
+                    "    id: ID!\n" +
+                    "    name: String!\n" +
+                    "    edition: Int!\n" +
+                    "    store: BookStore\n" +
+                    "    authors: [Author!]!\n" +
+                    "}\n" +
+                    "type Author {\n" +
+                    "    id: ID!\n" +
+                    "    firstName: String!\n" +
+                    "    lastName: String!\n" +
+                    "}\n";
 
     @BeforeAll
     public static void beforeAll() {
@@ -164,6 +205,11 @@ public class SpringJavaTest extends AbstractTest {
             return new BookStoreNewestBooksResolver(bookStoreRepository);
         }
 
+        @Bean
+        public BatchLoaderRegistry batchLoaderRegistry() {
+            return new DefaultBatchLoaderRegistry();
+        }
+
         @Bean
         public MockMvc mockMvc(WebApplicationContext ctx) {
             return webAppContextSetup(ctx).build();
@@ -209,6 +255,12 @@ public class SpringJavaTest extends AbstractTest {
     @Autowired
     private JimmerProperties jimmerProperties;
 
+    @Autowired
+    private BatchLoaderRegistry batchLoaderRegistry;
+
+    @Autowired
+    private RuntimeWiringConfigurer jimmerRuntimeWiringConfigurer;
+
     @Test
     public void testProperties() {
         Assertions.assertEquals(
@@ -232,11 +284,11 @@ public class SpringJavaTest extends AbstractTest {
         assertTransactionEvents();
         Page<Book> page = bookRepository.findAll(0, 10, BookProps.NAME.desc());
         assertSQLs(
-                "select count(tb_1_.ID) from BOOK tb_1_",
                 "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
                         "from BOOK tb_1_ " +
                         "order by tb_1_.NAME desc " +
-                        "limit ?"
+                        "limit ?",
+                "select count(tb_1_.ID) from BOOK tb_1_"
         );
         Assertions.assertEquals(12, page.getTotalElements());
         Assertions.assertEquals(2, page.getTotalPages());
@@ -267,11 +319,11 @@ public class SpringJavaTest extends AbstractTest {
 
                 Page<Book> page = bookRepository.findAll(0, 10, BookProps.NAME.desc());
                 assertSQLs(
-                        "select count(tb_1_.ID) from BOOK tb_1_",
                         "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
                                 "from BOOK tb_1_ " +
                                 "order by tb_1_.NAME desc " +
-                                "limit ?"
+                                "limit ?",
+                        "select count(tb_1_.ID) from BOOK tb_1_"
                 );
                 Assertions.assertEquals(12, page.getTotalElements());
                 Assertions.assertEquals(2, page.getTotalPages());
@@ -306,11 +358,11 @@ public class SpringJavaTest extends AbstractTest {
         assertTransactionEvents();
         Page<Book> page = bookRepository.findAll(0, 10, sort);
         assertSQLs(
-                "select count(tb_1_.ID) from BOOK tb_1_",
                 "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
                         "from BOOK tb_1_ " +
                         "order by tb_1_.NAME asc, tb_1_.EDITION desc " +
-                        "limit ?"
+                        "limit ?",
+                "select count(tb_1_.ID) from BOOK tb_1_"
         );
         Assertions.assertEquals(12, page.getTotalElements());
         Assertions.assertEquals(2, page.getTotalPages());
@@ -334,11 +386,11 @@ public class SpringJavaTest extends AbstractTest {
         assertTransactionEvents();
         Page<Book> page = bookRepository.findAll(pageable);
         assertSQLs(
-                "select count(tb_1_.ID) from BOOK tb_1_",
                 "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
                         "from BOOK tb_1_ " +
                         "order by tb_1_.NAME desc " +
-                        "limit ?"
+                        "limit ?",
+                "select count(tb_1_.ID) from BOOK tb_1_"
         );
         Assertions.assertEquals(12, page.getTotalElements());
         Assertions.assertEquals(2, page.getTotalPages());
@@ -353,6 +405,25 @@ public class SpringJavaTest extends AbstractTest {
         assertTransactionEvents("connect", "connect");
     }
 
+    @Test
+    public void testLastPageWithoutCount() {
+
+        Pageable pageable = PageRequest.of(1, 10, SortUtils.toSort(BookProps.NAME.desc()));
+
+        assertTransactionEvents();
+        Page<Book> page = bookRepository.findAll(pageable);
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
+                        "from BOOK tb_1_ " +
+                        "order by tb_1_.NAME desc " +
+                        "limit ? offset ?"
+        );
+        Assertions.assertEquals(2, page.getContent().size());
+        Assertions.assertEquals(12, page.getTotalElements());
+        Assertions.assertEquals(2, page.getTotalPages());
+        assertTransactionEvents("connect");
+    }
+
     @Test
     public void testFindByNameOrderByNameAscEditionDesc() {
         List<Book> books = bookRepository.findByNameOrderByNameAscEditionDesc(
@@ -427,11 +498,6 @@ public class SpringJavaTest extends AbstractTest {
                 "O'REILLY"
         );
         assertSQLs(
-                "select count(tb_1_.ID) " +
-                        "from BOOK tb_1_ " +
-                        "inner join BOOK_STORE tb_2_ on tb_1_.STORE_ID = tb_2_.ID " +
-                        "where lower(tb_1_.NAME) like ? " +
-                        "and tb_2_.NAME = ?",
                 "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE " +
                         "from BOOK tb_1_ " +
                         "inner join BOOK_STORE tb_2_ on tb_1_.STORE_ID = tb_2_.ID " +
@@ -442,7 +508,12 @@ public class SpringJavaTest extends AbstractTest {
                 "select tb_2_.BOOK_ID, tb_1_.ID, tb_1_.FIRST_NAME, tb_1_.LAST_NAME, tb_1_.GENDER " +
                         "from AUTHOR tb_1_ " +
                         "inner join BOOK_AUTHOR_MAPPING tb_2_ on tb_1_.ID = tb_2_.AUTHOR_ID " +
-                        "where tb_2_.BOOK_ID in (?, ?)"
+                        "where tb_2_.BOOK_ID in (?, ?)",
+                "select count(tb_1_.ID) " +
+                        "from BOOK tb_1_ " +
+                        "inner join BOOK_STORE tb_2_ on tb_1_.STORE_ID = tb_2_.ID " +
+                        "where lower(tb_1_.NAME) like ? " +
+                        "and tb_2_.NAME = ?"
         );
         assertJson(
                 "[" +
@@ -617,6 +688,148 @@ public class SpringJavaTest extends AbstractTest {
         );
     }
 
+    @Test
+    public void testGraphQLFetcherPrunesScalars() {
+        Map<String, Object> data = executeGraphQL(
+                "{ books(name: \"GraphQL in Action\") { id name edition } }",
+                null
+        );
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.NAME = ? " +
+                        "order by tb_1_.NAME asc, tb_1_.EDITION desc"
+        );
+        assertJson(
+                "{books=[" +
+                        "--->{id=780bdf07-05af-48bf-9be9-f8c65236fecc, name=GraphQL in Action, edition=3}, " +
+                        "--->{id=e37a8344-73bb-4b23-ba76-82eac11f03e6, name=GraphQL in Action, edition=2}, " +
+                        "--->{id=a62f7aa3-9490-4612-98b5-98aae0e77120, name=GraphQL in Action, edition=1}" +
+                        "]}",
+                data
+        );
+    }
+
+    @Test
+    public void testGraphQLFetcherMergesAliasedAssociations() {
+        Map<String, Object> data = executeGraphQL(
+                "{ books(name: \"GraphQL in Action\") { edition s1: store { id } s2: store { name } } }",
+                null
+        );
+        // Both aliases are loaded by the fetcher, no data loader is used
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.EDITION, tb_1_.STORE_ID " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.NAME = ? " +
+                        "order by tb_1_.NAME asc, tb_1_.EDITION desc",
+                "select tb_1_.ID, tb_1_.NAME " +
+                        "from BOOK_STORE tb_1_ " +
+                        "where tb_1_.ID = ?"
+        );
+        assertJson(
+                "{books=[" +
+                        "--->{edition=3, s1={id=2fa3955e-3e83-49b9-902e-0465c109c779}, s2={name=MANNING}}, " +
+                        "--->{edition=2, s1={id=2fa3955e-3e83-49b9-902e-0465c109c779}, s2={name=MANNING}}, " +
+                        "--->{edition=1, s1={id=2fa3955e-3e83-49b9-902e-0465c109c779}, s2={name=MANNING}}" +
+                        "]}",
+                data
+        );
+    }
+
+    @Test
+    public void testGraphQLFetcherWithTransientResolver() {
+        Map<String, Object> data = executeGraphQL(
+                "{ bookStores { name newestBooks { name } } }",
+                null
+        );
+        // The calculated association is loaded by the fetcher, no data loader is used
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.NAME from BOOK_STORE tb_1_",
+                "select tb_1_.ID, tb_2_.ID " +
+                        "from BOOK_STORE tb_1_ " +
+                        "inner join BOOK tb_2_ on tb_1_.ID = tb_2_.STORE_ID " +
+                        "where (tb_2_.NAME, tb_2_.EDITION) in (" +
+                        "--->select tb_3_.NAME, max(tb_3_.EDITION) " +
+                        "--->from BOOK tb_3_ " +
+                        "--->where tb_3_.STORE_ID in (?, ?) " +
+                        "--->group by tb_3_.NAME" +
+                        ")",
+                "select tb_1_.ID, tb_1_.NAME " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.ID in (?, ?, ?, ?)"
+        );
+        assertJson(
+                "{bookStores=[" +
+                        "--->{name=O'REILLY, newestBooks=[" +
+                        "--->--->{name=Learning GraphQL}, " +
+                        "--->--->{name=Effective TypeScript}, " +
+                        "--->--->{name=Programming TypeScript}" +
+                        "--->]}, " +
+                        "--->{name=MANNING, newestBooks=[" +
+                        "--->--->{name=GraphQL in Action}" +
+                        "--->]}" +
+                        "]}",
+                data
+        );
+    }
+
+    @Test
+    public void testGraphQLDataLoaderForIdOnlyReference() {
+        Map<String, Object> data = executeGraphQL(
+                "{ books(name: \"GraphQL in Action\") { edition store { name } } }",
+                BookFetcher.$.edition().store()
+        );
+        // The id-only store is not enough, so it is loaded by data loader
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.EDITION, tb_1_.STORE_ID " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.NAME = ? " +
+                        "order by tb_1_.NAME asc, tb_1_.EDITION desc",
+                "select tb_1_.ID, tb_1_.NAME " +
+                        "from BOOK_STORE tb_1_ " +
+                        "where tb_1_.ID = ?"
+        );
+        assertJson(
+                "{books=[" +
+                        "--->{edition=3, store={name=MANNING}}, " +
+                        "--->{edition=2, store={name=MANNING}}, " +
+                        "--->{edition=1, store={name=MANNING}}" +
+                        "]}",
+                data
+        );
+    }
+
+    @Test
+    public void testGraphQLDataLoaderForPartiallyLoadedList() {
+        Map<String, Object> data = executeGraphQL(
+                "{ books(name: \"GraphQL in Action\") { edition authors { firstName lastName } } }",
+                BookFetcher.$.edition().authors(AuthorFetcher.$.firstName())
+        );
+        // The authors are loaded without `lastName`, so they are loaded again by data loader
+        assertSQLs(
+                "select tb_1_.ID, tb_1_.EDITION " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.NAME = ? " +
+                        "order by tb_1_.NAME asc, tb_1_.EDITION desc",
+                "select tb_2_.BOOK_ID, tb_1_.ID, tb_1_.FIRST_NAME " +
+                        "from AUTHOR tb_1_ " +
+                        "inner join BOOK_AUTHOR_MAPPING tb_2_ on tb_1_.ID = tb_2_.AUTHOR_ID " +
+                        "where tb_2_.BOOK_ID in (?, ?, ?)",
+                "select tb_2_.BOOK_ID, tb_1_.ID, tb_1_.FIRST_NAME, tb_1_.LAST_NAME, tb_1_.GENDER " +
+                        "from AUTHOR tb_1_ " +
+                        "inner join BOOK_AUTHOR_MAPPING tb_2_ on tb_1_.ID = tb_2_.AUTHOR_ID " +
+                        "where tb_2_.BOOK_ID in (?, ?, ?)"
+        );
+        assertJson(
+                "{books=[" +
+                        "--->{edition=3, authors=[{firstName=Samer, lastName=Buna}]}, " +
+                        "--->{edition=2, authors=[{firstName=Samer, lastName=Buna}]}, " +
+                        "--->{edition=1, authors=[{firstName=Samer, lastName=Buna}]}" +
+                        "]}",
+                data
+        );
+    }
+
     @Test
     public void testDownloadTypescript() throws Exception {
         mvc.perform(get("/my-ts.zip"))
@@ -631,6 +844,45 @@ public class SpringJavaTest extends AbstractTest {
                 .andExpect(content().contentTypeCompatibleWith("application/zip"));
     }
 
+    /**
+     * Executes the query without the schema files and the web layer of spring-graphql,
+     * the root fields use {@link DataFetchingEnvironments#createFetcher(Class, DataFetchingEnvironment)}
+     * unless `bookFetcher` is specified.
+     */
+    private Map<String, Object> executeGraphQL(String query, @Nullable Fetcher<Book> bookFetcher) {
+        RuntimeWiring.Builder wiringBuilder = RuntimeWiring.newRuntimeWiring();
+        jimmerRuntimeWiringConfigurer.configure(wiringBuilder);
+        wiringBuilder.type("Query", typeBuilder -> typeBuilder
+                .dataFetcher("books", env ->
+                        bookRepository.findByNameOrderByNameAscEditionDesc(
+                                env.getArgument("name"),
+                                bookFetcher != null ?
+                                        bookFetcher :
+                                        DataFetchingEnvironments.createFetcher(Book.class, env)
+                        )
+                )
+                .dataFetcher("bookStores", env ->
+                        bookStoreRepository.findAll(
+                                DataFetchingEnvironments.createFetcher(BookStore.class, env)
+                        )
+                )
+        );
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse(GRAPHQL_SCHEMA),
+                wiringBuilder.build()
+        );
+        DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+        batchLoaderRegistry.registerDataLoaders(dataLoaderRegistry, GraphQLContext.newContext().build());
+        ExecutionResult result = GraphQL.newGraphQL(schema).build().execute(
+                ExecutionInput
+                        .newExecutionInput(query)
+                        .dataLoaderRegistry(dataLoaderRegistry)
+                        .build()
+        );
+        Assertions.assertEquals(Collections.emptyList(), result.getErrors());
+        return result.getData();
+    }
+
     private static void assertTransactionEvents(String ... events) {
         try {
             Assertions.assertEquals(Arrays.asList(events), TRANSACTION_EVENTS);
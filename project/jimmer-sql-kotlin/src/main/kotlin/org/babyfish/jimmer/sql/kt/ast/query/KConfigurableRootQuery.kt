@@ -22,9 +22,29 @@ interface KConfigurableRootQuery<E: Any, R> : KTypedRootQuery<R> {
     @NewChain
     fun limit(limit: Int, offset: Int = 0): KConfigurableRootQuery<E, R>
 
+    /**
+     * Keyset(seek) pagination,
+     * see [org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery.seekAfter]
+     */
+    @NewChain
+    fun seekAfter(sortKeyValues: List<Any>): KConfigurableRootQuery<E, R>
+
     @NewChain
     fun withoutSortingAndPaging(): KConfigurableRootQuery<E, R>
 
     @NewChain
     fun forUpdate(forUpdate: Boolean = true): KConfigurableRootQuery<E, R>
+
+    /**
+     * Specifies the JDBC fetch size of `forEach`,
+     * see [org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery.fetchSize]
+     */
+    @NewChain
+    fun fetchSize(fetchSize: Int): KConfigurableRootQuery<E, R>
+
+    /**
+     * Returns a lazy stream which must be closed,
+     * see [org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery.stream]
+     */
+    fun stream(con: Connection, batchSize: Int = -1): java.util.stream.Stream<R>
 }
@@ -10,6 +10,7 @@ import org.babyfish.jimmer.sql.ast.table.Table
 import org.babyfish.jimmer.sql.kt.ast.query.KConfigurableRootQuery
 import org.babyfish.jimmer.sql.kt.ast.query.KMutableRootQuery
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor
+import java.sql.Connection
 import java.util.function.BiFunction
 
 internal class KConfigurableRootQueryImpl<E: Any, R>(
@@ -29,18 +30,30 @@ internal class KConfigurableRootQueryImpl<E: Any, R>(
         return KConfigurableRootQueryImpl(javaQuery.reselect(javaBlock))
     }
 
+    override fun count(con: Connection?): Int =
+        javaQuery.count(con)
+
     override fun distinct(): KConfigurableRootQuery<E, R> =
         KConfigurableRootQueryImpl(javaQuery.distinct())
 
     override fun limit(limit: Int, offset: Int): KConfigurableRootQuery<E, R> =
         KConfigurableRootQueryImpl(javaQuery.limit(limit, offset))
 
+    override fun seekAfter(sortKeyValues: List<Any>): KConfigurableRootQuery<E, R> =
+        KConfigurableRootQueryImpl(javaQuery.seekAfter(sortKeyValues))
+
     override fun withoutSortingAndPaging(): KConfigurableRootQuery<E, R> =
         KConfigurableRootQueryImpl(javaQuery.withoutSortingAndPaging())
 
     override fun forUpdate(forUpdate: Boolean): KConfigurableRootQuery<E, R> =
         KConfigurableRootQueryImpl(javaQuery.forUpdate(forUpdate))
 
+    override fun fetchSize(fetchSize: Int): KConfigurableRootQuery<E, R> =
+        KConfigurableRootQueryImpl(javaQuery.fetchSize(fetchSize))
+
+    override fun stream(con: Connection, batchSize: Int): java.util.stream.Stream<R> =
+        javaQuery.stream(con, batchSize)
+
     override val javaOrders: List<Order>
         get() = (javaQuery as ConfigurableRootQueryImplementor<*, *>).orders
 
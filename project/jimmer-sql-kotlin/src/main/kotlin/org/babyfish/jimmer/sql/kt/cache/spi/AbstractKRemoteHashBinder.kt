@@ -11,13 +11,17 @@ abstract class AbstractKRemoteHashBinder<K, V>(
     type: ImmutableType?,
     prop: ImmutableProp?,
     duration: Duration,
-    randomPercent: Int
+    randomPercent: Int,
+    binary: Boolean = false,
+    refreshAheadBeta: Double = 0.0
 ) : AbstractRemoteHashBinder<K, V>(
     objectMapper,
     type,
     prop,
     duration,
-    randomPercent
+    randomPercent,
+    binary,
+    refreshAheadBeta
 ) {
 
     abstract override fun read(keys: Collection<String>, hashKey: String): List<ByteArray?>
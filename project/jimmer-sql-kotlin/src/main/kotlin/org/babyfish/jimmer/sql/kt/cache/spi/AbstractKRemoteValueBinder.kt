@@ -11,13 +11,17 @@ abstract class AbstractKRemoteValueBinder<K, V>(
     type: ImmutableType?,
     prop: ImmutableProp?,
     duration: Duration,
-    randomPercent: Int
+    randomPercent: Int,
+    binary: Boolean = false,
+    refreshAheadBeta: Double = 0.0
 ) : AbstractRemoteValueBinder<K, V>(
     objectMapper,
     type,
     prop,
     duration,
-    randomPercent
+    randomPercent,
+    binary,
+    refreshAheadBeta
 ) {
 
     abstract override fun read(keys: Collection<String>): List<ByteArray?>
@@ -11,7 +11,9 @@ import org.babyfish.jimmer.sql.cache.Cache
 import org.babyfish.jimmer.sql.cache.CacheAbandonedCallback
 import org.babyfish.jimmer.sql.cache.CacheConfig
 import org.babyfish.jimmer.sql.cache.CacheFactory
+import org.babyfish.jimmer.sql.cache.CacheMetrics
 import org.babyfish.jimmer.sql.dialect.Dialect
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher
 import org.babyfish.jimmer.sql.event.TriggerType
 import org.babyfish.jimmer.sql.kt.KSqlClient
 import org.babyfish.jimmer.sql.kt.cfg.impl.JavaCustomizer
@@ -137,6 +139,13 @@ class KSqlClientDsl internal constructor(
         javaBuilder.setTriggerType(triggerType)
     }
 
+    /**
+     * see [JSqlClient.Builder.setTriggerDispatcher]
+     */
+    fun setTriggerDispatcher(dispatcher: AsyncTriggerDispatcher?) {
+        javaBuilder.setTriggerDispatcher(dispatcher)
+    }
+
     fun addFilters(vararg filters: KFilter<*>) {
         javaBuilder.addFilters(filters.map { it.toJavaFilter() })
     }
@@ -242,6 +251,45 @@ class KSqlClientDsl internal constructor(
         javaBuilder.setOffsetOptimizingThreshold(threshold)
     }
 
+    /**
+     * The default JDBC fetch size of `forEach`,
+     * see [JSqlClient.Builder.setDefaultFetchSize]
+     */
+    fun setDefaultFetchSize(size: Int) {
+        javaBuilder.setDefaultFetchSize(size)
+    }
+
+    /**
+     * Pads `in` lists to the next power of two,
+     * see [JSqlClient.Builder.setInListPaddingEnabled]
+     */
+    fun setInListPaddingEnabled(enabled: Boolean) {
+        javaBuilder.setInListPaddingEnabled(enabled)
+    }
+
+    /**
+     * Caches the rendered SQL of root queries by their shapes,
+     * see [JSqlClient.Builder.setSqlTemplateCache]
+     */
+    fun setSqlTemplateCache(sqlTemplateCache: SqlTemplateCache?) {
+        javaBuilder.setSqlTemplateCache(sqlTemplateCache)
+    }
+
+    /**
+     * Allows the object fetcher to load independent associations in parallel,
+     * see [JSqlClient.Builder.setFetcherExecutor]
+     */
+    fun setFetcherExecutor(fetcherExecutor: java.util.concurrent.Executor?) {
+        javaBuilder.setFetcherExecutor(fetcherExecutor)
+    }
+
+    /**
+     * see [JSqlClient.Builder.setFetcherMaxConcurrency]
+     */
+    fun setFetcherMaxConcurrency(maxConcurrency: Int) {
+        javaBuilder.setFetcherMaxConcurrency(maxConcurrency)
+    }
+
     fun setMicroServiceName(microServiceName: String) {
         javaBuilder.setMicroServiceName(microServiceName)
     }
@@ -313,6 +361,10 @@ class KSqlClientDsl internal constructor(
         fun setAbandonedCallback(callback: CacheAbandonedCallback?) {
             javaCfg.setAbandonedCallback(callback);
         }
+
+        fun setMetrics(metrics: CacheMetrics?) {
+            javaCfg.setMetrics(metrics)
+        }
     }
 
     internal fun buildKSqlClient(): KSqlClient =
@@ -3,11 +3,14 @@ package org.babyfish.jimmer.sql.kt.meta
 import org.babyfish.jimmer.kt.toImmutableProp
 import org.babyfish.jimmer.meta.TargetLevel
 import org.babyfish.jimmer.sql.kt.ast.table.*
+import org.babyfish.jimmer.sql.kt.model.Primitive
 import org.babyfish.jimmer.sql.kt.model.classic.book.Book
 import org.babyfish.jimmer.sql.kt.model.classic.store.BookStore
+import org.babyfish.jimmer.sql.kt.model.embedded.Point
 import org.babyfish.jimmer.sql.kt.model.microservice.Order
 import org.babyfish.jimmer.sql.kt.model.microservice.OrderItem
 import org.babyfish.jimmer.sql.kt.model.microservice.Product
+import org.babyfish.jimmer.sql.runtime.EntityRowReader
 import kotlin.reflect.KClass
 import kotlin.reflect.KProperty1
 import kotlin.reflect.jvm.javaMethod
@@ -92,8 +95,40 @@ class KCodeGeneratorTest {
         notGenerated(MS_PRODUCT_PROPS, Product::orderItems, KNonNullTableEx::class)
     }
 
+    @Test
+    fun testRowReader() {
+        rowReaderGenerated(Book::class)
+        rowReaderGenerated(BookStore::class)
+        rowReaderGenerated(Primitive::class)
+        rowReaderNotGenerated(Point::class)
+    }
+
     companion object {
 
+        @JvmStatic
+        fun rowReaderGenerated(type: KClass<*>) {
+            val rowReaderClass = rowReaderClass(type)
+                ?: fail("There is no row reader for \"${type.qualifiedName}\"")
+            if (!EntityRowReader::class.java.isAssignableFrom(rowReaderClass)) {
+                fail("The row reader \"${rowReaderClass.name}\" is not an entity row reader")
+            }
+        }
+
+        @JvmStatic
+        fun rowReaderNotGenerated(type: KClass<*>) {
+            rowReaderClass(type)?.let {
+                fail("The row reader \"${it.name}\" should not be generated")
+            }
+        }
+
+        @JvmStatic
+        fun rowReaderClass(type: KClass<*>): Class<*>? =
+            try {
+                Class.forName("${type.java.name}Draft\$RowReader")
+            } catch (ex: ClassNotFoundException) {
+                null
+            }
+
         @JvmStatic
         fun <E: Any> generated(generated: Generated<E>, prop: KProperty1<E, *>, vararg parameterTypes: KClass<*>) {
             for (name in names(prop)) {
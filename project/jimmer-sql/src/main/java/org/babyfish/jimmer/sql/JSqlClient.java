@@ -14,6 +14,7 @@ import org.babyfish.jimmer.sql.ast.table.spi.TableProxy;
 import org.babyfish.jimmer.sql.cache.CacheConfig;
 import org.babyfish.jimmer.sql.cache.CacheDisableConfig;
 import org.babyfish.jimmer.sql.cache.Caches;
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher;
 import org.babyfish.jimmer.sql.event.TriggerType;
 import org.babyfish.jimmer.sql.event.Triggers;
 import org.babyfish.jimmer.sql.event.binlog.BinLog;
@@ -277,6 +278,80 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setOffsetOptimizingThreshold(int threshold);
 
+        /**
+         * The default JDBC fetch size of `Query.forEach`,
+         * it can be overridden by `ConfigurableRootQuery.fetchSize`.
+         *
+         * <p>By default, MySQL and Postgres drivers buffer the whole result set in memory,
+         * specify it to stream large result sets, the dialect decides how to apply it.</p>
+         *
+         * @param size The fetch size, 0 means the default behavior of JDBC driver
+         */
+        @OldChain
+        Builder setDefaultFetchSize(int size);
+
+        /**
+         * If it is enabled, the `in` lists of query are padded to the next
+         * power of two by repeating the last value, for example,
+         * `in(?, ?, ?)` becomes `in(?, ?, ?, ?)`.
+         *
+         * <p>Both object fetchers and user queries often use `in` lists whose size
+         * changes with the data, padding makes them share a few SQL strings so that
+         * the statement caches of JDBC driver and database can be reused.
+         * Lists larger than 512 are not padded.</p>
+         */
+        @OldChain
+        Builder setInListPaddingEnabled(boolean enabled);
+
+        /**
+         * Caches the rendered SQL of root queries by their shapes,
+         * please see {@link SqlTemplateCache}.
+         *
+         * <p>It is disabled by default, a cache can only be shared by
+         * the sql clients with the same dialect and formatter.</p>
+         */
+        @OldChain
+        Builder setSqlTemplateCache(SqlTemplateCache sqlTemplateCache);
+
+        /**
+         * Allows the object fetcher to load independent associations in parallel.
+         *
+         * <p>By default, all the associations of an object fetcher are loaded one by one
+         * by the connection of the current query. If an executor is specified,
+         * sibling associations which are waiting to be loaded are submitted to it together,
+         * each of them is loaded by its own connection borrowed from the
+         * {@link ConnectionManager}, and the results are merged into the fetched objects
+         * by the calling thread in the declaration order of the fetcher, so the result
+         * is same with the sequential mode.</p>
+         *
+         * <p>Because the extra connections are not the connection of the current query,
+         * uncommitted changes of the current transaction are invisible to them.
+         * Please only enable it for read-only scenarios.</p>
+         *
+         * <p>For Java 21 or later, {@code Executors.newVirtualThreadPerTaskExecutor()}
+         * is a good choice.</p>
+         *
+         * @param fetcherExecutor The executor used to load associations in parallel,
+         *                        null means disabling parallel fetching(default behavior).
+         */
+        @OldChain
+        Builder setFetcherExecutor(java.util.concurrent.Executor fetcherExecutor);
+
+        /**
+         * The maximum number of chunks which are loaded by the fetcher executor
+         * at the same time, it is shared by all the queries of this sql client,
+         * so it also limits the extra connections borrowed by parallel fetching.
+         *
+         * <p>When an association has too many keys to be loaded by one batch,
+         * its chunks are loaded in parallel too. If the limit is reached,
+         * the remaining chunks are loaded by the calling thread.</p>
+         *
+         * <p>This option only takes effect when {@link #setFetcherExecutor(java.util.concurrent.Executor)}
+         * is configured, the default value is 8.</p>
+         */
+        @OldChain
+        Builder setFetcherMaxConcurrency(int maxConcurrency);
+
         /**
          * Under normal circumstances, users do not need to set the entity manager.
          *
@@ -291,6 +366,17 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setTriggerType(TriggerType triggerType);
 
+        /**
+         * Deliver the events of transaction triggers asynchronously
+         * instead of calling the listeners by the thread executing the mutation.
+         *
+         * <p>This option can only be used when the trigger type is
+         * {@link TriggerType#TRANSACTION_ONLY}, please see
+         * {@link AsyncTriggerDispatcher} to know more.</p>
+         */
+        @OldChain
+        Builder setTriggerDispatcher(AsyncTriggerDispatcher dispatcher);
+
         @OldChain
         Builder addFilters(Filter<?>... filters);
 
@@ -10,6 +10,7 @@ import org.babyfish.jimmer.sql.ast.impl.query.MutableSubQueryImpl;
 import org.babyfish.jimmer.sql.ast.query.MutableSubQuery;
 import org.babyfish.jimmer.sql.ast.table.TableEx;
 import org.babyfish.jimmer.sql.ast.table.spi.TableProxy;
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher;
 import org.babyfish.jimmer.sql.event.TriggerType;
 import org.babyfish.jimmer.sql.event.Triggers;
 import org.babyfish.jimmer.sql.event.TriggersImpl;
@@ -21,6 +22,7 @@ import org.babyfish.jimmer.sql.filter.FilterConfig;
 import org.babyfish.jimmer.sql.filter.Filters;
 import org.babyfish.jimmer.sql.filter.impl.BuiltinFiltersImpl;
 import org.babyfish.jimmer.sql.filter.impl.FilterManager;
+import org.babyfish.jimmer.sql.fetcher.impl.LimitedExecutor;
 import org.babyfish.jimmer.sql.loader.graphql.Loaders;
 import org.babyfish.jimmer.sql.loader.graphql.impl.LoadersImpl;
 import org.babyfish.jimmer.sql.association.meta.AssociationType;
@@ -45,6 +47,8 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Type;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 
 class JSqlClientImpl implements JSqlClientImplementor {
@@ -63,6 +67,10 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
     private final Map<Class<?>, IdGenerator> idGeneratorMap;
 
+    // Pooled sequence id generators created from `@GeneratedValue`,
+    // they belong to this sql client because their pools come from its database
+    private final ConcurrentMap<Class<?>, IdGenerator> pooledIdGeneratorMap;
+
     private final ScalarProviderManager scalarProviderManager;
 
     private final int defaultBatchSize;
@@ -71,6 +79,14 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
     private final int offsetOptimizingThreshold;
 
+    private final int defaultFetchSize;
+
+    private final boolean inListPaddingEnabled;
+
+    private final SqlTemplateCache sqlTemplateCache;
+
+    private final java.util.concurrent.Executor fetcherExecutor;
+
     private final EntitiesImpl entities;
 
     private final EntityManager entityManager;
@@ -81,6 +97,8 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
     private final Triggers transactionTriggers;
 
+    private final AsyncTriggerDispatcher triggerDispatcher;
+
     private final MetadataStrategy metadataStrategy;
 
     private final BinLog binLog;
@@ -107,15 +125,21 @@ class JSqlClientImpl implements JSqlClientImplementor {
             List<String> executorContextPrefixes,
             SqlFormatter sqlFormatter,
             Map<Class<?>, IdGenerator> idGeneratorMap,
+            ConcurrentMap<Class<?>, IdGenerator> pooledIdGeneratorMap,
             ScalarProviderManager scalarProviderManager,
             int defaultBatchSize,
             int defaultListBatchSize,
             int offsetOptimizingThreshold,
+            int defaultFetchSize,
+            boolean inListPaddingEnabled,
+            SqlTemplateCache sqlTemplateCache,
+            java.util.concurrent.Executor fetcherExecutor,
             EntitiesImpl entities,
             EntityManager entityManager,
             Caches caches,
             Triggers triggers,
             Triggers transactionTriggers,
+            AsyncTriggerDispatcher triggerDispatcher,
             MetadataStrategy metadataStrategy,
             BinLog binLog,
             FilterManager filterManager,
@@ -140,10 +164,15 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         null;
         this.sqlFormatter = sqlFormatter;
         this.idGeneratorMap = idGeneratorMap;
+        this.pooledIdGeneratorMap = pooledIdGeneratorMap;
         this.scalarProviderManager = scalarProviderManager;
         this.defaultBatchSize = defaultBatchSize;
         this.defaultListBatchSize = defaultListBatchSize;
         this.offsetOptimizingThreshold = offsetOptimizingThreshold;
+        this.defaultFetchSize = defaultFetchSize;
+        this.inListPaddingEnabled = inListPaddingEnabled;
+        this.sqlTemplateCache = sqlTemplateCache;
+        this.fetcherExecutor = fetcherExecutor;
         this.entities =
                 entities != null ?
                         entities.forSqlClient(this) :
@@ -155,6 +184,7 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         CachesImpl.of(triggers, entityManager, microServiceName, null);
         this.triggers = triggers;
         this.transactionTriggers = transactionTriggers;
+        this.triggerDispatcher = triggerDispatcher;
         this.metadataStrategy = metadataStrategy;
         this.binLog = binLog;
         this.filterManager = filterManager;
@@ -222,6 +252,19 @@ class JSqlClientImpl implements JSqlClientImplementor {
             userIdGenerator = idGeneratorMap.get(null);
             if (userIdGenerator == null) {
                 userIdGenerator = ImmutableType.get(entityType).getIdGenerator(metadataStrategy);
+                if (userIdGenerator instanceof SequenceIdGenerator &&
+                        ((SequenceIdGenerator) userIdGenerator).getAllocationSize() > 1) {
+                    // The generator of metadata is shared by all sql clients,
+                    // so it cannot hold the pool of ids reserved from this database
+                    SequenceIdGenerator metadataIdGenerator = (SequenceIdGenerator) userIdGenerator;
+                    userIdGenerator = pooledIdGeneratorMap.computeIfAbsent(
+                            entityType,
+                            it -> new SequenceIdGenerator(
+                                    metadataIdGenerator.getSequenceName(),
+                                    metadataIdGenerator.getAllocationSize()
+                            )
+                    );
+                }
             }
         }
         return userIdGenerator;
@@ -242,6 +285,26 @@ class JSqlClientImpl implements JSqlClientImplementor {
         return offsetOptimizingThreshold;
     }
 
+    @Override
+    public int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
+    @Override
+    public SqlTemplateCache getSqlTemplateCache() {
+        return sqlTemplateCache;
+    }
+
+    @Override
+    public java.util.concurrent.Executor getFetcherExecutor() {
+        return fetcherExecutor;
+    }
+
     @Override
     public <T extends TableProxy<?>> MutableRootQuery<T> createQuery(T table) {
         if (table instanceof TableEx<?>) {
@@ -311,6 +374,11 @@ class JSqlClientImpl implements JSqlClientImplementor {
         return TriggerType.BOTH;
     }
 
+    @Override
+    public AsyncTriggerDispatcher getTriggerDispatcher() {
+        return triggerDispatcher;
+    }
+
     @Override
     public Triggers getTriggers() {
         return triggers;
@@ -387,15 +455,21 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 executorContextPrefixes,
                 sqlFormatter,
                 idGeneratorMap,
+                pooledIdGeneratorMap,
                 scalarProviderManager,
                 defaultBatchSize,
                 defaultListBatchSize,
                 offsetOptimizingThreshold,
+                defaultFetchSize,
+                inListPaddingEnabled,
+                sqlTemplateCache,
+                fetcherExecutor,
                 entities,
                 entityManager,
                 new CachesImpl((CachesImpl) caches, cfg),
                 triggers,
                 transactionTriggers,
+                triggerDispatcher,
                 metadataStrategy,
                 binLog,
                 filterManager,
@@ -424,15 +498,21 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 executorContextPrefixes,
                 sqlFormatter,
                 idGeneratorMap,
+                pooledIdGeneratorMap,
                 scalarProviderManager,
                 defaultBatchSize,
                 defaultListBatchSize,
                 offsetOptimizingThreshold,
+                defaultFetchSize,
+                inListPaddingEnabled,
+                sqlTemplateCache,
+                fetcherExecutor,
                 entities,
                 entityManager,
                 caches,
                 triggers,
                 transactionTriggers,
+                triggerDispatcher,
                 metadataStrategy,
                 binLog,
                 cfg.getFilterManager(),
@@ -456,15 +536,21 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 executorContextPrefixes,
                 sqlFormatter,
                 idGeneratorMap,
+                pooledIdGeneratorMap,
                 scalarProviderManager,
                 defaultBatchSize,
                 defaultListBatchSize,
                 offsetOptimizingThreshold,
+                defaultFetchSize,
+                inListPaddingEnabled,
+                sqlTemplateCache,
+                fetcherExecutor,
                 entities,
                 entityManager,
                 caches,
                 triggers,
                 transactionTriggers,
+                triggerDispatcher,
                 metadataStrategy,
                 binLog,
                 filterManager,
@@ -554,6 +640,16 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
         private int offsetOptimizingThreshold = Integer.MAX_VALUE;
 
+        private int defaultFetchSize;
+
+        private boolean inListPaddingEnabled;
+
+        private SqlTemplateCache sqlTemplateCache;
+
+        private java.util.concurrent.Executor fetcherExecutor;
+
+        private int fetcherMaxConcurrency = 8;
+
         private EntityManager userEntityManager;
 
         private EntityManager defaultEntityManager;
@@ -566,6 +662,8 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
         private Triggers transactionTriggers;
 
+        private AsyncTriggerDispatcher triggerDispatcher;
+
         private final List<Filter<?>> filters = new ArrayList<>();
 
         private final Set<Filter<?>> disabledFilters = new HashSet<>();
@@ -818,6 +916,47 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        @OldChain
+        public Builder setDefaultFetchSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("size cannot be less than 0");
+            }
+            defaultFetchSize = size;
+            return this;
+        }
+
+        @Override
+        @OldChain
+        public Builder setInListPaddingEnabled(boolean enabled) {
+            inListPaddingEnabled = enabled;
+            return this;
+        }
+
+        @Override
+        @OldChain
+        public Builder setSqlTemplateCache(SqlTemplateCache sqlTemplateCache) {
+            this.sqlTemplateCache = sqlTemplateCache;
+            return this;
+        }
+
+        @Override
+        @OldChain
+        public Builder setFetcherExecutor(java.util.concurrent.Executor fetcherExecutor) {
+            this.fetcherExecutor = fetcherExecutor;
+            return this;
+        }
+
+        @Override
+        @OldChain
+        public Builder setFetcherMaxConcurrency(int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency cannot be less than 1");
+            }
+            this.fetcherMaxConcurrency = maxConcurrency;
+            return this;
+        }
+
         @Override
         @OldChain
         public Builder setEntityManager(EntityManager entityManager) {
@@ -852,6 +991,12 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public Builder setTriggerDispatcher(AsyncTriggerDispatcher dispatcher) {
+            this.triggerDispatcher = dispatcher;
+            return this;
+        }
+
         @Override
         public Builder addFilters(Filter<?>... filters) {
             return addFilters(Arrays.asList(filters));
@@ -1005,6 +1150,11 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         "The `microServiceExchange` must be configured when `microServiceName` is configured"
                 );
             }
+            if (triggerDispatcher != null && triggerType != TriggerType.TRANSACTION_ONLY) {
+                throw new IllegalStateException(
+                        "The `triggerDispatcher` can only be configured when `triggerType` is `TRANSACTION_ONLY`"
+                );
+            }
             FilterManager filterManager = createFilterManager();
             validateAssociations(filterManager);
             createTriggersIfNecessary();
@@ -1040,15 +1190,23 @@ class JSqlClientImpl implements JSqlClientImplementor {
                     executorContextPrefixes,
                     sqlFormatter,
                     idGeneratorMap,
+                    new ConcurrentHashMap<>(),
                     new ScalarProviderManager(typeScalarProviderMap, propScalarProviderMap, defaultEnumStrategy, dialect),
                     defaultBatchSize,
                     defaultListBatchSize,
                     offsetOptimizingThreshold,
+                    defaultFetchSize,
+                    inListPaddingEnabled,
+                    sqlTemplateCache,
+                    fetcherExecutor != null ?
+                            new LimitedExecutor(fetcherExecutor, fetcherMaxConcurrency) :
+                            null,
                     null,
                     entityManager(),
                     caches,
                     triggers,
                     transactionTriggers,
+                    triggerDispatcher,
                     metadataStrategy,
                     binLog,
                     filterManager,
@@ -14,6 +14,9 @@ import java.util.List;
 
 class InCollectionPredicate extends AbstractPredicate {
 
+    // Oracle does not support more than 1000 expressions in a list
+    private static final int MAX_PADDED_SIZE = 1000;
+
     private Expression<?> expression;
 
     private Collection<?> values;
@@ -43,19 +46,41 @@ class InCollectionPredicate extends AbstractPredicate {
             builder.sql(negative ? "1 = 1" : "1 = 0");
         } else {
             renderChild((Ast) expression, builder);
-            builder.sql(negative ? " not in " : " in ").enter(SqlBuilder.ScopeType.LIST);
             Collection<?> convertedValues = this.convertedValues;
             if (convertedValues == null) {
                 convertedValues = Literals.convert(values, expression, builder.getAstContext().getSqlClient());
                 this.convertedValues = convertedValues;
             }
+            // Padding is unnecessary because the array variable
+            // makes the SQL independent of the list size
+            if (builder.arrayVariable(convertedValues, negative)) {
+                return;
+            }
+            builder.sql(negative ? " not in " : " in ").enter(SqlBuilder.ScopeType.LIST);
+            Object lastValue = null;
             for (Object value : convertedValues) {
                 builder.separator().variable(value);
+                lastValue = value;
+            }
+            if (builder.getAstContext().getSqlClient().isInListPaddingEnabled()) {
+                // Repeat the last value so that lists of similar sizes
+                // share the same SQL, `in` and `not in` are not affected
+                for (int i = paddedSize(convertedValues.size()) - convertedValues.size(); i > 0; --i) {
+                    builder.separator().variable(lastValue);
+                }
             }
             builder.leave();
         }
     }
 
+    static int paddedSize(int size) {
+        if (size <= 1) {
+            return size;
+        }
+        int paddedSize = Integer.highestOneBit(size - 1) << 1;
+        return paddedSize <= MAX_PADDED_SIZE ? paddedSize : size;
+    }
+
     @Override
     public int precedence() {
         return 0;
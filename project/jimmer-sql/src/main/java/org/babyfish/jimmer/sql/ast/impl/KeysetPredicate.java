@@ -0,0 +1,159 @@
+package org.babyfish.jimmer.sql.ast.impl;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.ast.Expression;
+import org.babyfish.jimmer.sql.ast.Predicate;
+import org.babyfish.jimmer.sql.ast.query.Order;
+import org.babyfish.jimmer.sql.ast.query.OrderMode;
+import org.babyfish.jimmer.sql.ast.table.spi.PropExpressionImplementor;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.runtime.SqlBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The predicate of keyset pagination which selects the rows
+ * after the sort key values of the last row of previous page.
+ */
+public class KeysetPredicate extends AbstractPredicate {
+
+    private final List<Expression<?>> expressions;
+
+    private final List<Expression<?>> literals;
+
+    private final boolean desc;
+
+    private KeysetPredicate(List<Expression<?>> expressions, List<Expression<?>> literals, boolean desc) {
+        this.expressions = expressions;
+        this.literals = literals;
+        this.desc = desc;
+    }
+
+    /**
+     * Create the predicate, `(a, b, c) > (?, ?, ?)` is used if all the orders have
+     * the same direction and the dialect supports row value comparison, otherwise
+     * `a > ? or a = ? and (b > ? or b = ? and c > ?)` is used.
+     */
+    public static Predicate of(List<Order> orders, List<?> values, Dialect dialect) {
+        if (orders.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires order by clause");
+        }
+        if (orders.size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "Keyset pagination requires " +
+                            orders.size() +
+                            " sort key value(s) matching the order by clause, but " +
+                            values.size() +
+                            " value(s) are specified"
+            );
+        }
+        validateOrders(orders);
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                throw new IllegalArgumentException(
+                        "Keyset pagination does not support null sort key value, " +
+                                "but the value of \"" +
+                                orders.get(i).getExpression() +
+                                "\" is null"
+                );
+            }
+        }
+        boolean sameDirection = true;
+        for (Order order : orders) {
+            if (order.getOrderMode() != orders.get(0).getOrderMode()) {
+                sameDirection = false;
+                break;
+            }
+        }
+        if (orders.size() > 1 && sameDirection && dialect.isTupleComparisonSupported()) {
+            List<Expression<?>> expressions = new ArrayList<>(orders.size());
+            List<Expression<?>> literals = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                Expression<?> expression = orders.get(i).getExpression();
+                Expression<?> literal = Literals.any(values.get(i));
+                Literals.bind(literal, expression);
+                expressions.add(expression);
+                literals.add(literal);
+            }
+            return new KeysetPredicate(
+                    expressions,
+                    literals,
+                    orders.get(0).getOrderMode() == OrderMode.DESC
+            );
+        }
+        int lastIndex = orders.size() - 1;
+        Predicate predicate = after(orders.get(lastIndex), values.get(lastIndex));
+        for (int i = lastIndex - 1; i >= 0; --i) {
+            Order order = orders.get(i);
+            Object value = values.get(i);
+            predicate = CompositePredicate.or(
+                    after(order, value),
+                    CompositePredicate.and(
+                            new ComparisonPredicate.Eq(order.getExpression(), Literals.any(value)),
+                            predicate
+                    )
+            );
+        }
+        return predicate;
+    }
+
+    /**
+     * Rejects the nullable properties of order by clause, the rows whose
+     * sort key is null cannot be selected by the comparison of seek predicate,
+     * so they would be skipped silently.
+     */
+    public static void validateOrders(List<Order> orders) {
+        for (Order order : orders) {
+            if (order.getExpression() instanceof PropExpressionImplementor<?>) {
+                ImmutableProp prop = ((PropExpressionImplementor<?>) order.getExpression()).getProp();
+                if (prop.isNullable()) {
+                    throw new IllegalArgumentException(
+                            "Keyset pagination requires that the properties of order by clause " +
+                                    "are not nullable, but the property \"" +
+                                    prop +
+                                    "\" is nullable, please sort by non-null properties " +
+                                    "or use offset pagination"
+                    );
+                }
+            }
+        }
+    }
+
+    private static Predicate after(Order order, Object value) {
+        if (order.getOrderMode() == OrderMode.DESC) {
+            return new ComparisonPredicate.Lt(order.getExpression(), Literals.any(value));
+        }
+        return new ComparisonPredicate.Gt(order.getExpression(), Literals.any(value));
+    }
+
+    @Override
+    public void accept(@NotNull AstVisitor visitor) {
+        for (Expression<?> expression : expressions) {
+            ((Ast) expression).accept(visitor);
+        }
+    }
+
+    @Override
+    public void renderTo(@NotNull SqlBuilder builder) {
+        builder.enter(SqlBuilder.ScopeType.TUPLE);
+        for (Expression<?> expression : expressions) {
+            builder.separator();
+            renderChild((Ast) expression, builder);
+        }
+        builder.leave();
+        builder.sql(desc ? " < " : " > ");
+        builder.enter(SqlBuilder.ScopeType.TUPLE);
+        for (Expression<?> literal : literals) {
+            builder.separator();
+            ((Ast) literal).renderTo(builder);
+        }
+        builder.leave();
+    }
+
+    @Override
+    public int precedence() {
+        return ExpressionPrecedences.COMPARISON;
+    }
+}
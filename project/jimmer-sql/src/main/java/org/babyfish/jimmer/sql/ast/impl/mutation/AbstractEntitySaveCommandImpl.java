@@ -71,6 +71,8 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
 
         private boolean pessimisticLock;
 
+        private int batchSize;
+
         Data(JSqlClientImplementor sqlClient) {
             this.sqlClient = sqlClient;
             this.triggers = sqlClient.getTriggerType() == TriggerType.BINLOG_ONLY ?
@@ -85,6 +87,7 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
             this.appendOnlySet = new HashSet<>();
             this.dissociateActionMap = new LinkedHashMap<>();
             this.pessimisticLock = false;
+            this.batchSize = 0;
         }
 
         Data(Data base) {
@@ -101,6 +104,7 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
             this.appendOnlySet = base.appendOnlySet;
             this.dissociateActionMap = new LinkedHashMap<>(base.dissociateActionMap);
             this.pessimisticLock = base.pessimisticLock;
+            this.batchSize = base.batchSize;
             this.frozen = false;
         }
 
@@ -151,6 +155,10 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
             return pessimisticLock;
         }
 
+        int getBatchSize() {
+            return batchSize;
+        }
+
         @Override
         public Cfg setMode(SaveMode mode) {
             validate();
@@ -260,6 +268,16 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
             return this;
         }
 
+        @Override
+        public Cfg setBatchSize(int batchSize) {
+            validate();
+            if (batchSize < 0) {
+                throw new IllegalArgumentException("batchSize cannot be negative");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
         @Override
         public Cfg setDeleteMode(DeleteMode mode) {
             this.deleteMode = Objects.requireNonNull(mode, "mode cannot be null");
@@ -287,6 +305,7 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
                     autoCheckingAll == data.autoCheckingAll &&
                     appendOnlyAll == data.appendOnlyAll &&
                     pessimisticLock == data.pessimisticLock &&
+                    batchSize == data.batchSize &&
                     sqlClient.equals(data.sqlClient) &&
                     Objects.equals(triggers, data.triggers) &&
                     mode == data.mode &&
@@ -313,7 +332,8 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
                     appendOnlyAll,
                     appendOnlySet,
                     dissociateActionMap,
-                    pessimisticLock
+                    pessimisticLock,
+                    batchSize
             );
         }
 
@@ -331,6 +351,7 @@ abstract class AbstractEntitySaveCommandImpl implements AbstractEntitySaveComman
                     ", autoCheckingSet=" + autoCheckingSet +
                     ", dissociateActionMap=" + dissociateActionMap +
                     ", pessimisticLock=" + pessimisticLock +
+                    ", batchSize=" + batchSize +
                     '}';
         }
 
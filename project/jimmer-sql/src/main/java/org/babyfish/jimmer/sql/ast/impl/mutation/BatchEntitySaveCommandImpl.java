@@ -1,6 +1,7 @@
 package org.babyfish.jimmer.sql.ast.impl.mutation;
 
 import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.runtime.DraftSpi;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.runtime.Internal;
 import org.babyfish.jimmer.sql.ast.mutation.*;
@@ -89,8 +90,12 @@ public class BatchEntitySaveCommandImpl<E>
                 ((ImmutableSpi) entities.iterator().next()).__type(),
                 entities,
                 list -> {
-                    for (Object o : list) {
-                        oldSimpleResults.add(saver.save((E)o));
+                    if (data.getBatchSize() > 1) {
+                        saver.saveAll((List<DraftSpi>) list);
+                    } else {
+                        for (Object o : list) {
+                            oldSimpleResults.add(saver.save((E) o));
+                        }
                     }
                 }
         );
@@ -98,10 +103,15 @@ public class BatchEntitySaveCommandImpl<E>
         List<SimpleSaveResult<E>> newSimpleResults = new ArrayList<>(size);
         int index = 0;
         for (E entity : entities) {
-            SimpleSaveResult<E> oldResult = oldSimpleResults.get(index);
+            // The statements of all roots are batched together,
+            // so the affected row counts of each root are unknown
+            Map<AffectedTable, Integer> resultAffectedRowCountMap =
+                    oldSimpleResults.isEmpty() ?
+                            Collections.emptyMap() :
+                            oldSimpleResults.get(index).getAffectedRowCountMap();
             newSimpleResults.add(
                     new SimpleSaveResult<>(
-                            oldResult.getAffectedRowCountMap(),
+                            resultAffectedRowCountMap,
                             entity,
                             (E)modifiedEntities.get(index)
                     )
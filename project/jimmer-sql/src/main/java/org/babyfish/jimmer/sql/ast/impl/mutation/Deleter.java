@@ -185,11 +185,8 @@ public class Deleter {
                 .sql(childType.getTableName(strategy))
                 .enter(SqlBuilder.ScopeType.WHERE)
                 .definition(null, definition, true)
-                .sql(" in ").enter(SqlBuilder.ScopeType.LIST);
-        for (Object id : ids) {
-            builder.separator().variable(id);
-        }
-        builder.leave().leave();
+                .inVariables(ids, false)
+                .leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
         List<Object> childIds = data
@@ -280,12 +277,8 @@ public class Deleter {
         builder
                 .enter(SqlBuilder.ScopeType.WHERE)
                 .definition(null, definition, true)
-                .sql(" in ")
-                .enter(SqlBuilder.ScopeType.LIST);
-        for (Object id : ids) {
-            builder.separator().variable(id);
-        }
-        builder.leave().leave();
+                .inVariables(ids, false)
+                .leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
         int affectedRowCount = data
@@ -324,12 +317,8 @@ public class Deleter {
                 .sql(type.getTableName(strategy))
                 .enter(SqlBuilder.ScopeType.WHERE)
                 .definition(null, definition, true)
-                .sql(" in ")
-                .enter(SqlBuilder.ScopeType.LIST);
-        for (Object id : ids) {
-            builder.separator().variable(id);
-        }
-        builder.leave().leave();
+                .inVariables(ids, false)
+                .leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
         int affectedRowCount = data
@@ -188,12 +188,8 @@ class MiddleTableOperator {
                 .sql(middleTable.getTableName())
                 .enter(SqlBuilder.ScopeType.WHERE)
                 .definition(null, middleTable.getColumnDefinition(), true)
-                .sql(" in ")
-                .enter(SqlBuilder.ScopeType.LIST);
-        for (Object sourceId : sourceIds) {
-            builder.separator().variable(sourceId);
-        }
-        builder.leave().leave();
+                .inVariables(sourceIds, false)
+                .leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
         List<Tuple2<Object, Object>> tuples = Selectors.select(
@@ -364,6 +360,87 @@ class MiddleTableOperator {
         return remove(sourceId, removingTargetIds) + addTargetIds(sourceId, addingTargetIds);
     }
 
+    /**
+     * Cross-source version of {@link #setTargetIds(Object, Collection)}.
+     *
+     * <p>The existing id pairs of all sources are loaded by chunked queries,
+     * the difference is computed in memory, and then the removed/added pairs
+     * are written by chunked tuple-`in` delete statements and multi-row insert
+     * statements, rather than one select/delete/insert triple per source.</p>
+     */
+    int setTargetIds(Map<Object, ? extends Collection<Object>> targetIdMap, int chunkSize) {
+
+        if (targetIdMap.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, Set<Object>> oldTargetIdMap = new HashMap<>();
+        List<Object> sourceIds = new ArrayList<>(targetIdMap.keySet());
+        for (int i = 0; i < sourceIds.size(); i += chunkSize) {
+            IdPairReader reader = getIdPairReader(
+                    sourceIds.subList(i, Math.min(i + chunkSize, sourceIds.size()))
+            );
+            while (reader.read()) {
+                oldTargetIdMap
+                        .computeIfAbsent(reader.sourceId(), it -> new LinkedHashSet<>())
+                        .add(reader.targetId());
+            }
+        }
+
+        List<Tuple2<Object, Object>> removedPairs = new ArrayList<>();
+        List<Tuple2<Object, Object>> addedPairs = new ArrayList<>();
+        for (Map.Entry<Object, ? extends Collection<Object>> e : targetIdMap.entrySet()) {
+            Object sourceId = e.getKey();
+            Set<Object> targetIds = e.getValue() instanceof Set<?> ?
+                    (Set<Object>) e.getValue() :
+                    new LinkedHashSet<>(e.getValue());
+            Set<Object> oldTargetIds = oldTargetIdMap.getOrDefault(sourceId, Collections.emptySet());
+            for (Object oldTargetId : oldTargetIds) {
+                if (!targetIds.contains(oldTargetId)) {
+                    removedPairs.add(new Tuple2<>(sourceId, oldTargetId));
+                }
+            }
+            for (Object targetId : targetIds) {
+                if (!oldTargetIds.contains(targetId)) {
+                    addedPairs.add(new Tuple2<>(sourceId, targetId));
+                }
+            }
+        }
+
+        int rowCount = 0;
+        for (int i = 0; i < removedPairs.size(); i += chunkSize) {
+            rowCount += remove(
+                    new TupleReader(removedPairs.subList(i, Math.min(i + chunkSize, removedPairs.size())))
+            );
+        }
+        return rowCount + add(addedPairs, chunkSize);
+    }
+
+    /**
+     * Cross-source version of {@link #addTargetIds(Object, Collection)},
+     * the id pairs are inserted by chunked multi-row insert statements.
+     */
+    int addTargetIds(Map<Object, ? extends Collection<Object>> targetIdMap, int chunkSize) {
+        List<Tuple2<Object, Object>> pairs = new ArrayList<>();
+        for (Map.Entry<Object, ? extends Collection<Object>> e : targetIdMap.entrySet()) {
+            Collection<Object> targetIds = e.getValue() instanceof Set<?> ?
+                    e.getValue() :
+                    new LinkedHashSet<>(e.getValue());
+            for (Object targetId : targetIds) {
+                pairs.add(new Tuple2<>(e.getKey(), targetId));
+            }
+        }
+        return add(pairs, chunkSize);
+    }
+
+    private int add(List<Tuple2<Object, Object>> pairs, int chunkSize) {
+        int rowCount = 0;
+        for (int i = 0; i < pairs.size(); i += chunkSize) {
+            rowCount += add(new TupleReader(pairs.subList(i, Math.min(i + chunkSize, pairs.size()))));
+        }
+        return rowCount;
+    }
+
     public int removeBySourceIds(Collection<Object> sourceIds) {
         if (trigger != null) {
             IdPairReader reader = getIdPairReader(sourceIds);
@@ -375,12 +452,8 @@ class MiddleTableOperator {
                 .sql(middleTable.getTableName())
                 .enter(SqlBuilder.ScopeType.WHERE)
                 .definition(null, middleTable.getColumnDefinition(), true)
-                .sql(" in ")
-                .enter(SqlBuilder.ScopeType.LIST);
-        for (Object id : sourceIds) {
-            builder.separator().variable(id);
-        }
-        builder.leave().leave();
+                .inVariables(sourceIds, false)
+                .leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
         return sqlClient
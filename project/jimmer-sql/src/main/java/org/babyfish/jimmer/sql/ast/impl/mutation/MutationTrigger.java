@@ -3,8 +3,11 @@ package org.babyfish.jimmer.sql.ast.impl.mutation;
 import org.babyfish.jimmer.ImmutableObjects;
 import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.runtime.DraftContext;
-import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.event.AssociationEvent;
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher;
+import org.babyfish.jimmer.sql.event.EntityEvent;
 import org.babyfish.jimmer.sql.event.Triggers;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -43,9 +46,14 @@ class MutationTrigger {
         }
     }
 
-    public void submit(JSqlClient sqlClient, Connection con) {
+    public void submit(JSqlClientImplementor sqlClient, Connection con) {
         if (!changedList.isEmpty()) {
             Triggers triggers = sqlClient.getTriggers(true);
+            AsyncTriggerDispatcher dispatcher = sqlClient.getTriggerDispatcher();
+            if (dispatcher != null) {
+                dispatcher.dispatch(triggers, events());
+                return;
+            }
             for (ChangedData changedData : this.changedList) {
                 if (changedData instanceof EntityChangedData) {
                     EntityChangedData data = (EntityChangedData) changedData;
@@ -62,6 +70,36 @@ class MutationTrigger {
         }
     }
 
+    private List<Object> events() {
+        List<Object> events = new ArrayList<>(changedList.size());
+        for (ChangedData changedData : this.changedList) {
+            if (changedData instanceof EntityChangedData) {
+                EntityChangedData data = (EntityChangedData) changedData;
+                events.add(
+                        new EntityEvent<>(
+                                data.oldEntity,
+                                ImmutableObjects.toLonely(data.newEntity),
+                                null,
+                                null
+                        )
+                );
+            } else {
+                AssociationChangedData data = (AssociationChangedData) changedData;
+                events.add(
+                        new AssociationEvent(
+                                data.prop,
+                                data.sourceId,
+                                data.detachedTargetId,
+                                data.attachedTargetId,
+                                null,
+                                null
+                        )
+                );
+            }
+        }
+        return events;
+    }
+
     private interface ChangedData {}
 
     private static class EntityChangedData implements ChangedData {
@@ -10,18 +10,21 @@ import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.runtime.Internal;
 import org.babyfish.jimmer.sql.*;
 import org.babyfish.jimmer.sql.ast.Expression;
+import org.babyfish.jimmer.sql.ast.Predicate;
 import org.babyfish.jimmer.sql.ast.PropExpression;
 import org.babyfish.jimmer.sql.ast.impl.AstContext;
 import org.babyfish.jimmer.sql.ast.impl.query.Queries;
 import org.babyfish.jimmer.sql.ast.mutation.AffectedTable;
 import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
 import org.babyfish.jimmer.sql.ast.mutation.SimpleSaveResult;
+import org.babyfish.jimmer.sql.ast.query.MutableRootQuery;
 import org.babyfish.jimmer.sql.ast.table.Table;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
 import org.babyfish.jimmer.sql.dialect.Dialect;
 import org.babyfish.jimmer.sql.dialect.OracleDialect;
 import org.babyfish.jimmer.sql.dialect.PostgresDialect;
+import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.impl.FetcherImpl;
 import org.babyfish.jimmer.sql.meta.*;
 import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
@@ -29,6 +32,8 @@ import org.babyfish.jimmer.sql.runtime.*;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 class Saver {
 
@@ -48,6 +53,18 @@ class Saver {
 
     private boolean triggerSubmitted;
 
+    /**
+     * Whether the JDBC driver reports the affected row count of each statement
+     * of `executeBatch`, some drivers only return `SUCCESS_NO_INFO`.
+     * It is learned from the executed batches, before that, it is considered
+     * as not reported.
+     */
+    private static final Map<String, Boolean> BATCH_ROW_COUNT_REPORTED_MAP = new ConcurrentHashMap<>();
+
+    private Batch batch;
+
+    private Map<ImmutableProp, MiddleTableBatch> middleTableBatchMap;
+
     Saver(
             AbstractEntitySaveCommandImpl.Data data,
             Connection con,
@@ -81,6 +98,7 @@ class Saver {
         this.triggerSubmitImmediately = this.trigger != null;
         this.affectedRowCountMap = base.affectedRowCountMap;
         this.path = base.path.to(prop);
+        this.batch = base.batch;
     }
 
     @SuppressWarnings("unchecked")
@@ -100,6 +118,50 @@ class Saver {
         return new SimpleSaveResult<>(affectedRowCountMap, entity, newEntity);
     }
 
+    /**
+     * Save aggregate roots with JDBC statement batching.
+     *
+     * <p>Unlike {@link #save(Object)}, this method is divided into three phases</p>
+     * <ol>
+     *     <li>Save the parent objects of all roots, load the existing rows of all roots
+     *     by a few chunked queries and decide how to save each root,
+     *     the insert/update statements of roots are not executed but collected</li>
+     *     <li>Execute the collected statements, statements with same SQL are sent by
+     *     one `executeBatch`, and the generated ids are written back into the drafts</li>
+     *     <li>Save the child objects of all roots, the many-to-many associations
+     *     of all roots are not changed one by one but merged and diffed together,
+     *     so that their middle tables are modified by a few chunked statements</li>
+     * </ol>
+     */
+    public void saveAll(List<DraftSpi> draftSpis) {
+        if (trigger != null) {
+            Internal.currentDraftContext().addDisposer(trigger::prepareSubmit);
+        }
+        batch = new Batch(data.getBatchSize());
+        try {
+            ObjectType[] objectTypes = new ObjectType[draftSpis.size()];
+            for (DraftSpi draftSpi : draftSpis) {
+                saveAssociations(draftSpi, ObjectType.EXISTING, true);
+            }
+            preloadExisting(draftSpis);
+            int index = 0;
+            for (DraftSpi draftSpi : draftSpis) {
+                objectTypes[index++] = saveSelf(draftSpi);
+            }
+            flushBatch();
+            batch = null;
+            middleTableBatchMap = new LinkedHashMap<>();
+            index = 0;
+            for (DraftSpi draftSpi : draftSpis) {
+                saveAssociations(draftSpi, objectTypes[index++], false);
+            }
+            flushMiddleTableBatches();
+        } finally {
+            batch = null;
+            middleTableBatchMap = null;
+        }
+    }
+
     public void submitTrigger() {
         if (trigger != null && !triggerSubmitted) {
             trigger.submit(data.getSqlClient(), con);
@@ -268,7 +330,15 @@ class Saver {
                 MiddleTableOperator middleTableOperator = MiddleTableOperator.tryGet(
                     data.getSqlClient(), con, prop, trigger
                 );
-                if (middleTableOperator != null) {
+                if (middleTableOperator != null && middleTableBatchMap != null) {
+                    middleTableBatchMap
+                            .computeIfAbsent(prop, it -> new MiddleTableBatch(middleTableOperator))
+                            .add(
+                                    currentId,
+                                    associatedObjectIds,
+                                    currentObjectType == ObjectType.NEW || data.isAppendOnly(prop)
+                            );
+                } else if (middleTableOperator != null) {
                     int rowCount;
                     if (currentObjectType == ObjectType.NEW || data.isAppendOnly(prop)) {
                         rowCount = middleTableOperator.addTargetIds(
@@ -358,7 +428,7 @@ class Saver {
 
     private ObjectType saveSelf(DraftSpi draftSpi) {
 
-        if (cache.isSaved(draftSpi)) {
+        if (cache.isSaved(draftSpi) || (batch != null && batch.pendingDrafts.containsKey(draftSpi))) {
             return ObjectType.EXISTING;
         }
 
@@ -445,26 +515,14 @@ class Saver {
                                 "without id because id generator is not specified"
                 );
             } else if (idGenerator instanceof SequenceIdGenerator) {
-                String sql = data.getSqlClient().getDialect().getSelectIdFromSequenceSql(
-                        ((SequenceIdGenerator)idGenerator).getSequenceName()
-                );
-                id = data.getSqlClient().getExecutor().execute(
-                        new Executor.Args<>(
-                                data.getSqlClient(),
-                                con,
-                                sql,
-                                Collections.emptyList(),
-                                data.getSqlClient().getSqlFormatter().isPretty() ? Collections.emptyList() : null,
-                                ExecutionPurpose.MUTATE,
-                                null,
-                                stmt -> {
-                                    try (ResultSet rs = stmt.executeQuery()) {
-                                        rs.next();
-                                        return rs.getObject(1);
-                                    }
-                                }
-                        )
-                );
+                SequenceIdGenerator sequenceIdGenerator = (SequenceIdGenerator) idGenerator;
+                if (sequenceIdGenerator.getAllocationSize() > 1) {
+                    id = sequenceIdGenerator.allocate(
+                            () -> ((Number) selectSequenceValue(sequenceIdGenerator)).longValue()
+                    );
+                } else {
+                    id = selectSequenceValue(sequenceIdGenerator);
+                }
                 setDraftId(draftSpi, id);
             } else if (idGenerator instanceof UserIdGenerator) {
                 id = ((UserIdGenerator<?>)idGenerator).generate(type.getJavaClass());
@@ -563,7 +621,9 @@ class Saver {
         if (generateKeys) {
             Dialect dialect = data.getSqlClient().getDialect();
             if (dialect instanceof PostgresDialect) {
-                builder.sql(" returning ").sql(type.getIdProp().<SingleColumn>getStorage(strategy).getName());
+                if (!isBatchable()) {
+                    builder.sql(" returning ").sql(type.getIdProp().<SingleColumn>getStorage(strategy).getName());
+                }
             } else if (dialect instanceof OracleDialect) {
                 throw new ExecutionException(
                         "\"" +
@@ -574,6 +634,13 @@ class Saver {
         }
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
+        if (isBatchable()) {
+            addBatch(sqlResult, draftSpi, true, generateKeys, null);
+            if (!generateKeys) {
+                cache.save(draftSpi, true);
+            }
+            return;
+        }
         Object insertedResult = data.getSqlClient().getExecutor().execute(
                 new Executor.Args<>(
                         data.getSqlClient(),
@@ -613,6 +680,29 @@ class Saver {
         cache.save(draftSpi, true);
     }
 
+    private Object selectSequenceValue(SequenceIdGenerator idGenerator) {
+        String sql = data.getSqlClient().getDialect().getSelectIdFromSequenceSql(
+                idGenerator.getSequenceName()
+        );
+        return data.getSqlClient().getExecutor().execute(
+                new Executor.Args<>(
+                        data.getSqlClient(),
+                        con,
+                        sql,
+                        Collections.emptyList(),
+                        data.getSqlClient().getSqlFormatter().isPretty() ? Collections.emptyList() : null,
+                        ExecutionPurpose.MUTATE,
+                        null,
+                        stmt -> {
+                            try (ResultSet rs = stmt.executeQuery()) {
+                                rs.next();
+                                return rs.getObject(1);
+                            }
+                        }
+                )
+        );
+    }
+
     private boolean update(DraftSpi draftSpi, boolean excludeKeyProps) {
 
         callInterceptor(draftSpi, false);
@@ -716,6 +806,13 @@ class Saver {
         builder.leave();
 
         Tuple3<String, List<Object>, List<Integer>> sqlResult = builder.build();
+        // The optimistic lock cannot be checked if the driver does not report the
+        // row count of each statement of batch, so such rows are updated one by one
+        if (isBatchable() && (version == null || isBatchRowCountReported())) {
+            addBatch(sqlResult, draftSpi, false, false, version);
+            cache.save(draftSpi, true);
+            return true;
+        }
         int rowCount = data.getSqlClient().getExecutor().execute(
                 new Executor.Args<>(
                         data.getSqlClient(),
@@ -788,6 +885,20 @@ class Saver {
         if (cached != null) {
             return cached;
         }
+        if (batch != null && !batch.pendingKeys.isEmpty()) {
+            TypedKey key = TypedKey.of(example, data.getKeyProps(example.__type()), false);
+            if (key != null && batch.pendingKeys.contains(key)) {
+                // The object with same key is being inserted by statement batching
+                flushBatch();
+                cached = cache.find(example, requiresKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        if (batch != null && batch.existingMap.containsKey(example)) {
+            return batch.existingMap.get(example);
+        }
 
         ImmutableType type = example.__type();
         Collection<ImmutableProp> actualKeyProps = actualKeyProps(example, requiresKey);
@@ -924,6 +1035,10 @@ class Saver {
     }
 
     private void setDraftId(DraftSpi spi, Object id) {
+        setDraftId(spi, id, path);
+    }
+
+    private static void setDraftId(DraftSpi spi, Object id, SavePath path) {
         ImmutableType type = spi.__type();
         ImmutableProp idProp = type.getIdProp();
         Object convertedId = Converters.tryConvert(id, idProp.getElementClass());
@@ -946,9 +1061,531 @@ class Saver {
         );
     }
 
+    /**
+     * Load the existing rows of aggregate roots by chunked `IN` queries
+     * so that {@link #find(DraftSpi)} of roots does not need to query database
+     * row by row.
+     *
+     * <p>Roots whose id/key cannot be decided now(for example, the key contains
+     * parent object without id) and keys matching several rows are skipped,
+     * they are still handled by {@link #find(DraftSpi)}</p>
+     */
+    private void preloadExisting(List<DraftSpi> draftSpis) {
+        if (draftSpis.isEmpty() || data.getMode() == SaveMode.INSERT_ONLY) {
+            return;
+        }
+        ImmutableType type = draftSpis.get(0).__type();
+        ImmutableProp idProp = type.getIdProp();
+        Set<ImmutableProp> keyProps = data.getKeyProps(type);
+        if (keyProps == null) {
+            keyProps = Collections.emptySet();
+        }
+        Map<Object, List<DraftSpi>> idMap = new LinkedHashMap<>();
+        Map<List<Object>, List<DraftSpi>> keyMap = new LinkedHashMap<>();
+        for (DraftSpi draftSpi : draftSpis) {
+            if (cache.isSaved(draftSpi)) {
+                continue;
+            }
+            Object id = draftSpi.__isLoaded(idProp.getId()) ? draftSpi.__get(idProp.getId()) : null;
+            if (id != null) {
+                if (trigger != null || data.getMode() != SaveMode.UPDATE_ONLY) {
+                    idMap.computeIfAbsent(id, it -> new ArrayList<>()).add(draftSpi);
+                }
+            } else if (!keyProps.isEmpty()) {
+                List<Object> key = keyValues(draftSpi, keyProps);
+                if (key != null) {
+                    keyMap.computeIfAbsent(key, it -> new ArrayList<>()).add(draftSpi);
+                }
+            }
+        }
+        int chunkSize = data.getBatchSize();
+        if (!idMap.isEmpty()) {
+            Map<Object, ImmutableSpi> rowMap = new HashMap<>();
+            List<Object> ids = new ArrayList<>(idMap.keySet());
+            for (int i = 0; i < ids.size(); i += chunkSize) {
+                List<Object> chunk = ids.subList(i, Math.min(i + chunkSize, ids.size()));
+                List<ImmutableSpi> rows = queryExisting(type, keyProps, (q, table) -> {
+                    q.where(table.<Expression<Object>>get(idProp.getName()).in(chunk));
+                });
+                for (ImmutableSpi row : rows) {
+                    rowMap.put(row.__get(idProp.getId()), cache.save(row, false));
+                }
+            }
+            for (Map.Entry<Object, List<DraftSpi>> e : idMap.entrySet()) {
+                ImmutableSpi row = rowMap.get(e.getKey());
+                for (DraftSpi draftSpi : e.getValue()) {
+                    batch.existingMap.put(draftSpi, row);
+                }
+            }
+        }
+        if (!keyMap.isEmpty()) {
+            List<ImmutableProp> keyPropList = new ArrayList<>(keyProps);
+            // Rows with null key values cannot be matched by `in`, group keys by null positions
+            Map<Long, List<List<Object>>> nullMaskKeyMap = new LinkedHashMap<>();
+            for (List<Object> key : keyMap.keySet()) {
+                long nullMask = 0;
+                for (int i = 0; i < key.size(); i++) {
+                    if (key.get(i) == null) {
+                        nullMask |= 1L << i;
+                    }
+                }
+                nullMaskKeyMap.computeIfAbsent(nullMask, it -> new ArrayList<>()).add(key);
+            }
+            Map<List<Object>, ImmutableSpi> rowMap = new HashMap<>();
+            Set<List<Object>> ambiguousKeys = new HashSet<>();
+            for (Map.Entry<Long, List<List<Object>>> e : nullMaskKeyMap.entrySet()) {
+                long nullMask = e.getKey();
+                List<List<Object>> keys = e.getValue();
+                for (int i = 0; i < keys.size(); i += chunkSize) {
+                    List<List<Object>> chunk = keys.subList(i, Math.min(i + chunkSize, keys.size()));
+                    List<ImmutableSpi> rows = queryExisting(type, keyProps, (q, table) -> {
+                        List<Expression<Object>> nonNullExprs = new ArrayList<>();
+                        List<Integer> nonNullIndices = new ArrayList<>();
+                        for (int keyIndex = 0; keyIndex < keyPropList.size(); keyIndex++) {
+                            Expression<Object> expr = keyExpression(table, keyPropList.get(keyIndex));
+                            if ((nullMask & (1L << keyIndex)) != 0) {
+                                q.where(expr.isNull());
+                            } else {
+                                nonNullExprs.add(expr);
+                                nonNullIndices.add(keyIndex);
+                            }
+                        }
+                        if (nonNullExprs.size() == 1) {
+                            int keyIndex = nonNullIndices.get(0);
+                            List<Object> values = new ArrayList<>(chunk.size());
+                            for (List<Object> key : chunk) {
+                                values.add(key.get(keyIndex));
+                            }
+                            q.where(nonNullExprs.get(0).in(values));
+                        } else if (nonNullExprs.size() > 1) {
+                            // Row value `in` is not supported by all databases
+                            Predicate[] predicates = new Predicate[chunk.size()];
+                            for (int keyNo = 0; keyNo < predicates.length; keyNo++) {
+                                List<Object> key = chunk.get(keyNo);
+                                Predicate[] eqs = new Predicate[nonNullExprs.size()];
+                                for (int j = 0; j < eqs.length; j++) {
+                                    eqs[j] = nonNullExprs.get(j).eq(key.get(nonNullIndices.get(j)));
+                                }
+                                predicates[keyNo] = Predicate.and(eqs);
+                            }
+                            q.where(Predicate.or(predicates));
+                        }
+                    });
+                    for (ImmutableSpi row : rows) {
+                        List<Object> key = keyValues(row, keyProps);
+                        if (key != null && !ambiguousKeys.contains(key)) {
+                            if (rowMap.containsKey(key)) {
+                                rowMap.remove(key);
+                                ambiguousKeys.add(key);
+                            } else {
+                                rowMap.put(key, cache.save(row, false));
+                            }
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<List<Object>, List<DraftSpi>> e : keyMap.entrySet()) {
+                if (!ambiguousKeys.contains(e.getKey())) {
+                    ImmutableSpi row = rowMap.get(e.getKey());
+                    for (DraftSpi draftSpi : e.getValue()) {
+                        batch.existingMap.put(draftSpi, row);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ImmutableSpi> queryExisting(
+            ImmutableType type,
+            Set<ImmutableProp> keyProps,
+            BiConsumer<MutableRootQuery<Table<?>>, Table<?>> filter
+    ) {
+        return Internal.requiresNewDraftContext(ctx -> {
+            List<ImmutableSpi> list = Queries.createQuery(data.getSqlClient(), type, ExecutionPurpose.MUTATE, true, (q, table) -> {
+                filter.accept(q, table);
+                if (trigger != null) {
+                    return q.select((Table<ImmutableSpi>)table);
+                }
+                Fetcher<ImmutableSpi> fetcher = IdAndKeyFetchers.getFetcher(type);
+                for (ImmutableProp keyProp : keyProps) {
+                    if (!type.getKeyProps().contains(keyProp)) {
+                        fetcher = fetcher.add(keyProp.getName());
+                    }
+                }
+                return q.select(((Table<ImmutableSpi>)table).fetch(fetcher));
+            }).forUpdate(data.isPessimisticLockRequired()).execute(con);
+            return ctx.resolveList(list);
+        });
+    }
+
+    private static Expression<Object> keyExpression(Table<?> table, ImmutableProp keyProp) {
+        if (keyProp.isReference(TargetLevel.ENTITY)) {
+            return table
+                    .<Table<?>>join(keyProp.getName())
+                    .get(keyProp.getTargetType().getIdProp().getName());
+        }
+        return table.get(keyProp.getName());
+    }
+
+    private static List<Object> keyValues(ImmutableSpi spi, Set<ImmutableProp> keyProps) {
+        List<Object> values = new ArrayList<>(keyProps.size());
+        for (ImmutableProp keyProp : keyProps) {
+            if (!spi.__isLoaded(keyProp.getId())) {
+                return null;
+            }
+            Object value = spi.__get(keyProp.getId());
+            if (value != null && keyProp.isReference(TargetLevel.ENTITY)) {
+                int targetIdPropId = keyProp.getTargetType().getIdProp().getId();
+                ImmutableSpi target = (ImmutableSpi) value;
+                if (!target.__isLoaded(targetIdPropId)) {
+                    return null;
+                }
+                value = target.__get(targetIdPropId);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private boolean isBatchable() {
+        return batch != null && path.getParent() == null;
+    }
+
+    private boolean isBatchRowCountReported() {
+        Boolean reported = batch.rowCountReported;
+        if (reported == null) {
+            if (!data.getSqlClient().getDialect().isBatchRowCountReported()) {
+                reported = false;
+            } else {
+                reported = BATCH_ROW_COUNT_REPORTED_MAP.get(driverKey());
+                if (reported == null) {
+                    // Not learned yet, the versioned rows are not batched until
+                    // an unversioned batch of this driver has been executed
+                    return false;
+                }
+            }
+            batch.rowCountReported = reported;
+        }
+        return reported;
+    }
+
+    private void learnBatchRowCountReported(int[] rowCounts) {
+        boolean reported = true;
+        for (int rowCount : rowCounts) {
+            if (rowCount == Statement.SUCCESS_NO_INFO) {
+                reported = false;
+                break;
+            }
+        }
+        if (reported && rowCounts.length < 2) {
+            // Some drivers only rewrite the batches with several statements,
+            // so the batch with one statement proves nothing
+            return;
+        }
+        batch.rowCountReported = reported;
+        BATCH_ROW_COUNT_REPORTED_MAP.put(driverKey(), reported);
+    }
+
+    private String driverKey() {
+        try {
+            DatabaseMetaData metaData = con.getMetaData();
+            return metaData.getDriverName() + ' ' + metaData.getDriverVersion();
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot get the JDBC driver information", ex);
+        }
+    }
+
+    private void addBatch(
+            Tuple3<String, List<Object>, List<Integer>> sqlResult,
+            DraftSpi draftSpi,
+            boolean insert,
+            boolean generateKeys,
+            Integer version
+    ) {
+        String sql = sqlResult.get_1();
+        BatchGroup group = batch.groupMap.computeIfAbsent(
+                sql,
+                it -> new BatchGroup(sql, sqlResult.get_3(), insert, generateKeys)
+        );
+        TypedKey key = null;
+        if (generateKeys) {
+            key = TypedKey.of(draftSpi, data.getKeyProps(draftSpi.__type()), false);
+            if (key != null) {
+                batch.pendingKeys.add(key);
+            }
+            batch.pendingDrafts.put(draftSpi, null);
+        }
+        group.rows.add(new BatchRow(draftSpi, sqlResult.get_2(), version, key, path));
+        if (group.rows.size() >= batch.batchSize) {
+            batch.groupMap.remove(sql);
+            executeBatch(group);
+        }
+    }
+
+    private void flushBatch() {
+        Batch batch = this.batch;
+        if (batch == null || batch.groupMap.isEmpty()) {
+            return;
+        }
+        List<BatchGroup> groups = new ArrayList<>(batch.groupMap.values());
+        batch.groupMap.clear();
+        for (BatchGroup group : groups) {
+            executeBatch(group);
+        }
+    }
+
+    private void executeBatch(BatchGroup group) {
+        JSqlClientImplementor sqlClient = data.getSqlClient();
+        Dialect dialect = sqlClient.getDialect();
+        List<BatchRow> rows = group.rows;
+        ImmutableType type = rows.get(0).draftSpi.__type();
+        StatementFactory statementFactory = null;
+        if (group.generateKeys) {
+            if (dialect instanceof PostgresDialect) {
+                String idColumnName = type
+                        .getIdProp()
+                        .<SingleColumn>getStorage(sqlClient.getMetadataStrategy())
+                        .getName();
+                statementFactory = (c, s) -> c.prepareStatement(s, new String[] { idColumnName });
+            } else {
+                statementFactory = (c, s) -> c.prepareStatement(s, Statement.RETURN_GENERATED_KEYS);
+            }
+        }
+        Tuple2<int[], List<Object>> result = sqlClient.getExecutor().execute(
+                new Executor.Args<Tuple2<int[], List<Object>>>(
+                        sqlClient,
+                        con,
+                        group.sql,
+                        rows.get(0).variables,
+                        group.variablePositions,
+                        ExecutionPurpose.MUTATE,
+                        statementFactory,
+                        stmt -> {
+                            // The variables of first row have been set by executor
+                            stmt.addBatch();
+                            int size = rows.size();
+                            List<java.sql.Array> arrays = new ArrayList<>();
+                            int[] rowCounts;
+                            try {
+                                for (int i = 1; i < size; i++) {
+                                    DefaultExecutor.setParameters(stmt, rows.get(i).variables, dialect, arrays);
+                                    stmt.addBatch();
+                                }
+                                rowCounts = stmt.executeBatch();
+                            } finally {
+                                DefaultExecutor.freeArrays(arrays);
+                            }
+                            List<Object> generatedIds = null;
+                            if (group.generateKeys) {
+                                generatedIds = new ArrayList<>(size);
+                                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                                    while (rs.next()) {
+                                        generatedIds.add(rs.getObject(1));
+                                    }
+                                }
+                            }
+                            return new Tuple2<>(rowCounts, generatedIds);
+                        }
+                )
+        );
+        int[] rowCounts = result.get_1();
+        List<Object> generatedIds = result.get_2();
+        if (rowCounts.length != 0) {
+            learnBatchRowCountReported(rowCounts);
+        }
+        if (generatedIds != null && generatedIds.size() != rows.size()) {
+            throw new ExecutionException(
+                    "Cannot save \"" +
+                            type +
+                            "\" by statement batching, " +
+                            rows.size() +
+                            " rows are inserted but the JDBC driver returns " +
+                            generatedIds.size() +
+                            " generated ids"
+            );
+        }
+        int affectedRowCount = 0;
+        int size = rows.size();
+        for (int i = 0; i < size; i++) {
+            BatchRow row = rows.get(i);
+            int rowCount = i < rowCounts.length ? rowCounts[i] : Statement.SUCCESS_NO_INFO;
+            if (rowCount == Statement.EXECUTE_FAILED) {
+                throw new ExecutionException(
+                        "Cannot save \"" +
+                                type +
+                                "\" by statement batching, the statement of the row whose path is \"" +
+                                row.path +
+                                "\" is failed"
+                );
+            }
+            if (rowCount == Statement.SUCCESS_NO_INFO) {
+                if (group.insert) {
+                    // The succeeded insert statement of one row always affects one row
+                    rowCount = 1;
+                } else if (row.version != null) {
+                    // The versioned rows are only batched when the row counts have been
+                    // reported by this driver, if it does not report them this time,
+                    // re-verify the version of the row which has been updated
+                    rowCount = isVersionIncreased(row) ? 1 : 0;
+                } else {
+                    // The affected row count of the succeeded update statement is unknown,
+                    // it is not counted rather than reported as a fabricated value
+                    continue;
+                }
+            }
+            if (group.insert) {
+                if (generatedIds != null) {
+                    setDraftId(row.draftSpi, generatedIds.get(i), row.path);
+                    cache.save(row.draftSpi, true);
+                    if (row.key != null) {
+                        batch.pendingKeys.remove(row.key);
+                    }
+                    batch.pendingDrafts.remove(row.draftSpi);
+                }
+            } else if (row.version != null) {
+                if (rowCount == 0) {
+                    throw new SaveException(
+                            SaveErrorCode.ILLEGAL_VERSION,
+                            row.path,
+                            "Cannot update the entity whose type is \"" +
+                                    type +
+                                    "\", id is \"" +
+                                    row.draftSpi.__get(type.getIdProp().getId()) +
+                                    "\" and version is \"" +
+                                    row.version +
+                                    "\""
+                    );
+                }
+                increaseDraftVersion(row.draftSpi);
+            }
+            affectedRowCount += rowCount;
+        }
+        addOutput(AffectedTable.of(type), affectedRowCount);
+    }
+
+    private boolean isVersionIncreased(BatchRow row) {
+        ImmutableType type = row.draftSpi.__type();
+        ImmutableProp idProp = type.getIdProp();
+        ImmutableProp versionProp = type.getVersionProp();
+        Object id = row.draftSpi.__get(idProp.getId());
+        List<Object> versions = Queries.createQuery(data.getSqlClient(), type, ExecutionPurpose.MUTATE, true, (q, table) -> {
+            q.where(table.<Expression<Object>>get(idProp.getName()).eq(id));
+            return q.select(table.<Expression<Object>>get(versionProp.getName()));
+        }).execute(con);
+        return !versions.isEmpty() &&
+                versions.get(0) != null &&
+                ((Number) versions.get(0)).intValue() == row.version + 1;
+    }
+
+    private void flushMiddleTableBatches() {
+        int chunkSize = data.getBatchSize();
+        for (Map.Entry<ImmutableProp, MiddleTableBatch> e : middleTableBatchMap.entrySet()) {
+            MiddleTableBatch middleTableBatch = e.getValue();
+            int rowCount =
+                    middleTableBatch.operator.setTargetIds(middleTableBatch.replacedMap, chunkSize) +
+                    middleTableBatch.operator.addTargetIds(middleTableBatch.appendedMap, chunkSize);
+            addOutput(AffectedTable.of(e.getKey()), rowCount);
+        }
+        middleTableBatchMap.clear();
+    }
+
     private enum ObjectType {
         UNKNOWN,
         NEW,
         EXISTING
     }
+
+    private static class Batch {
+
+        final int batchSize;
+
+        final Map<String, BatchGroup> groupMap = new LinkedHashMap<>();
+
+        final Set<TypedKey> pendingKeys = new HashSet<>();
+
+        final IdentityHashMap<DraftSpi, Object> pendingDrafts = new IdentityHashMap<>();
+
+        final IdentityHashMap<DraftSpi, ImmutableSpi> existingMap = new IdentityHashMap<>();
+
+        // Null means unknown
+        Boolean rowCountReported;
+
+        Batch(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    private static class BatchGroup {
+
+        final String sql;
+
+        final List<Integer> variablePositions;
+
+        final boolean insert;
+
+        final boolean generateKeys;
+
+        final List<BatchRow> rows = new ArrayList<>();
+
+        BatchGroup(String sql, List<Integer> variablePositions, boolean insert, boolean generateKeys) {
+            this.sql = sql;
+            this.variablePositions = variablePositions;
+            this.insert = insert;
+            this.generateKeys = generateKeys;
+        }
+    }
+
+    private static class MiddleTableBatch {
+
+        final MiddleTableOperator operator;
+
+        // Sources whose targets replace the existing ones
+        final Map<Object, Set<Object>> replacedMap = new LinkedHashMap<>();
+
+        // Sources whose targets are appended without checking existing ones
+        final Map<Object, Set<Object>> appendedMap = new LinkedHashMap<>();
+
+        MiddleTableBatch(MiddleTableOperator operator) {
+            this.operator = operator;
+        }
+
+        void add(Object sourceId, Set<Object> targetIds, boolean append) {
+            Set<Object> replacedTargetIds = replacedMap.get(sourceId);
+            if (replacedTargetIds != null) {
+                // Same root appears twice, the result is the same as sequential saving
+                if (!append) {
+                    replacedTargetIds.clear();
+                }
+                replacedTargetIds.addAll(targetIds);
+            } else if (append) {
+                appendedMap.computeIfAbsent(sourceId, it -> new LinkedHashSet<>()).addAll(targetIds);
+            } else {
+                // The appended targets have not been written yet, so they are simply discarded
+                appendedMap.remove(sourceId);
+                replacedMap.put(sourceId, new LinkedHashSet<>(targetIds));
+            }
+        }
+    }
+
+    private static class BatchRow {
+
+        final DraftSpi draftSpi;
+
+        final List<Object> variables;
+
+        final Integer version;
+
+        final TypedKey key;
+
+        final SavePath path;
+
+        BatchRow(DraftSpi draftSpi, List<Object> variables, Integer version, TypedKey key, SavePath path) {
+            this.draftSpi = draftSpi;
+            this.variables = variables;
+            this.version = version;
+            this.key = key;
+            this.path = path;
+        }
+    }
 }
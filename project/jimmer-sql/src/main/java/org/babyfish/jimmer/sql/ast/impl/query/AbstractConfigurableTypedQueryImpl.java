@@ -1,10 +1,12 @@
 package org.babyfish.jimmer.sql.ast.impl.query;
 
 import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.ast.Predicate;
 import org.babyfish.jimmer.sql.ast.Selection;
 import org.babyfish.jimmer.sql.ast.impl.Ast;
 import org.babyfish.jimmer.sql.ast.impl.AstContext;
 import org.babyfish.jimmer.sql.ast.impl.AstVisitor;
+import org.babyfish.jimmer.sql.ast.impl.KeysetPredicate;
 import org.babyfish.jimmer.sql.ast.impl.table.TableImplementor;
 import org.babyfish.jimmer.sql.ast.impl.table.TableProxies;
 import org.babyfish.jimmer.sql.ast.impl.table.TableSelection;
@@ -55,12 +57,17 @@ class AbstractConfigurableTypedQueryImpl implements TypedQueryImplementor {
         try {
             Selection<?> idOnlySelection = idOnlyPropExprByOffset();
             if (idOnlySelection != null) {
-                baseQuery.accept(visitor, Collections.singletonList(idOnlySelection), false);
+                baseQuery.accept(visitor, Collections.singletonList(idOnlySelection), false, seekPredicate());
             } else {
                 for (Selection<?> selection : data.getSelections()) {
                     Ast.from(selection, visitor.getAstContext()).accept(visitor);
                 }
-                baseQuery.accept(visitor, data.getOldSelections(), data.isWithoutSortingAndPaging());
+                baseQuery.accept(
+                        visitor,
+                        data.getOldSelections(),
+                        data.isWithoutSortingAndPaging(),
+                        seekPredicate()
+                );
             }
         } finally {
             astContext.popStatement();
@@ -141,7 +148,19 @@ class AbstractConfigurableTypedQueryImpl implements TypedQueryImplementor {
             }
         }
         builder.leave();
-        baseQuery.renderTo(builder, data.isWithoutSortingAndPaging());
+        baseQuery.renderTo(builder, data.isWithoutSortingAndPaging(), seekPredicate());
+    }
+
+    private Predicate seekPredicate() {
+        List<Object> seekValues = data.getSeekValues();
+        if (seekValues == null || data.isWithoutSortingAndPaging()) {
+            return null;
+        }
+        return KeysetPredicate.of(
+                baseQuery.getOrders(),
+                seekValues,
+                baseQuery.getSqlClient().getDialect()
+        );
     }
 
     private PropExpressionImplementor<?> idOnlyPropExprByOffset() {
@@ -1,16 +1,27 @@
 package org.babyfish.jimmer.sql.ast.impl.query;
 
+import org.babyfish.jimmer.meta.EmbeddedLevel;
+import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.sql.ast.Expression;
+import org.babyfish.jimmer.sql.ast.NumericExpression;
+import org.babyfish.jimmer.sql.ast.Predicate;
 import org.babyfish.jimmer.sql.ast.Selection;
 import org.babyfish.jimmer.sql.ast.impl.Ast;
 import org.babyfish.jimmer.sql.ast.impl.AstContext;
 import org.babyfish.jimmer.sql.ast.impl.AstVisitor;
+import org.babyfish.jimmer.sql.ast.impl.KeysetPredicate;
+import org.babyfish.jimmer.sql.ast.impl.table.FetcherSelectionImpl;
+import org.babyfish.jimmer.sql.ast.impl.table.TableImplementor;
+import org.babyfish.jimmer.sql.ast.impl.table.TableProxies;
+import org.babyfish.jimmer.sql.ast.impl.table.TableRowCountDestructive;
 import org.babyfish.jimmer.sql.ast.query.*;
 import org.babyfish.jimmer.sql.ast.table.Table;
+import org.babyfish.jimmer.sql.ast.table.spi.PropExpressionImplementor;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.babyfish.jimmer.sql.runtime.Selectors;
 import org.babyfish.jimmer.sql.runtime.SqlBuilder;
+import org.babyfish.jimmer.sql.runtime.SqlTemplateCache;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -19,6 +30,7 @@ import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         extends AbstractConfigurableTypedQueryImpl
@@ -72,6 +84,110 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         );
     }
 
+    /**
+     * Unlike the default implementation, the distinct flag of data query
+     * is not kept because `select distinct count(...)` is meaningless.
+     *
+     * <ul>
+     *     <li>If the data query selects the root entity and no join of the
+     *     where/order clauses can duplicate rows, `count(id)` is used</li>
+     *     <li>If the data query selects an entity otherwise,
+     *     `count(distinct id)` is used</li>
+     *     <li>If the data query selects a non-null property of the root entity,
+     *     `count(distinct expression)` is used</li>
+     *     <li>Otherwise, `count(distinct expression)` ignores NULL but
+     *     `select distinct expression` returns NULL as one row, so
+     *     `count(expression)` and `count(id)` are selected too, and one is
+     *     added when they are different</li>
+     * </ul>
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public int count(Connection con) {
+        TypedQueryData data = getData();
+        if (!data.isDistinct() || data.getOldSelections() != null || data.getSelections().size() != 1) {
+            return ConfigurableRootQuery.super.count(con);
+        }
+        Selection<?> selection = data.getSelections().get(0);
+        Table<?> table = null;
+        if (selection instanceof FetcherSelectionImpl<?>) {
+            table = ((FetcherSelectionImpl<?>) selection).getTable();
+        } else if (selection instanceof Table<?>) {
+            table = (Table<?>) selection;
+        }
+        NumericExpression<Long> countExpression;
+        if (table != null) {
+            countExpression = table.count(isRowDuplicable(table));
+        } else {
+            Expression<Object> expression = (Expression<Object>) selection;
+            countExpression = expression.count(true);
+            if (isNullable(expression)) {
+                ConfigurableRootQueryImpl<T, Tuple3<Long, Long, Long>> countQuery =
+                        (ConfigurableRootQueryImpl<T, Tuple3<Long, Long, Long>>) reselect(
+                                (q, t) -> q.select(countExpression, expression.count(), t.count())
+                        );
+                Tuple3<Long, Long, Long> tuple = new ConfigurableRootQueryImpl<>(
+                        countQuery.getData().withoutDistinct().withoutSortingAndPaging(),
+                        getBaseQuery()
+                )
+                        .execute(con)
+                        .get(0);
+                int count = tuple.get_1().intValue();
+                return tuple.get_2().longValue() != tuple.get_3().longValue() ? count + 1 : count;
+            }
+        }
+        ConfigurableRootQueryImpl<T, Long> countQuery =
+                (ConfigurableRootQueryImpl<T, Long>) reselect((q, t) -> q.select(countExpression));
+        return new ConfigurableRootQueryImpl<>(
+                countQuery.getData().withoutDistinct().withoutSortingAndPaging(),
+                getBaseQuery()
+        )
+                .execute(con)
+                .get(0)
+                .intValue();
+    }
+
+    private boolean isNullable(Expression<?> expression) {
+        if (!(expression instanceof PropExpressionImplementor<?>)) {
+            return true;
+        }
+        PropExpressionImplementor<?> propExpr = (PropExpressionImplementor<?>) expression;
+        ImmutableProp prop = propExpr.getProp();
+        if (prop.isNullable() || prop.isEmbedded(EmbeddedLevel.BOTH)) {
+            return true;
+        }
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        AstContext astContext = new AstContext(baseQuery.getSqlClient());
+        astContext.pushStatement(baseQuery);
+        try {
+            return TableProxies.resolve(propExpr.getTable(), astContext).getParent() != null;
+        } finally {
+            astContext.popStatement();
+        }
+    }
+
+    private boolean isRowDuplicable(Table<?> selectedTable) {
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        AstContext astContext = new AstContext(baseQuery.getSqlClient());
+        astContext.pushStatement(baseQuery);
+        try {
+            if (TableProxies.resolve(selectedTable, astContext).getParent() != null) {
+                return true;
+            }
+            RowDuplicationDetector detector = new RowDuplicationDetector(astContext);
+            Predicate predicate = baseQuery.getPredicate();
+            if (predicate != null) {
+                ((Ast) predicate).accept(detector);
+            }
+            for (Order order : baseQuery.getOrders()) {
+                ((Ast) order.getExpression()).accept(detector);
+            }
+            return detector.duplicable;
+        } finally {
+            astContext.popStatement();
+        }
+    }
+
     @Override
     public ConfigurableRootQuery<T, R> distinct() {
         TypedQueryData data = getData();
@@ -105,6 +221,28 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         );
     }
 
+    @Override
+    public ConfigurableRootQuery<T, R> seekAfter(List<?> sortKeyValues) {
+        List<Order> orders = getOrders();
+        if (orders.isEmpty()) {
+            throw new IllegalStateException("Keyset pagination requires order by clause");
+        }
+        if (sortKeyValues.size() != orders.size()) {
+            throw new IllegalArgumentException(
+                    "The order by clause has " +
+                            orders.size() +
+                            " expression(s), but " +
+                            sortKeyValues.size() +
+                            " sort key value(s) are specified"
+            );
+        }
+        KeysetPredicate.validateOrders(orders);
+        return new ConfigurableRootQueryImpl<>(
+                getData().seek(Collections.unmodifiableList(new ArrayList<>(sortKeyValues))),
+                getBaseQuery()
+        );
+    }
+
     @Override
     public ConfigurableRootQuery<T, R> withoutSortingAndPaging() {
         TypedQueryData data = getData();
@@ -129,6 +267,21 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         );
     }
 
+    @Override
+    public ConfigurableRootQuery<T, R> fetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("'fetchSize' can not be less than 0");
+        }
+        TypedQueryData data = getData();
+        if (data.getFetchSize() == fetchSize) {
+            return this;
+        }
+        return new ConfigurableRootQueryImpl<>(
+                data.fetchSize(fetchSize),
+                getBaseQuery()
+        );
+    }
+
     @Override
     public List<R> execute() {
         return getBaseQuery()
@@ -154,7 +307,7 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
             return Collections.emptyList();
         }
         JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
-        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(new SqlBuilder(new AstContext(sqlClient)));
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
         return Selectors.select(
                 sqlClient,
                 con,
@@ -196,7 +349,8 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
 
     private void forEachImpl(Connection con, int batchSize, Consumer<R> consumer) {
         JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
-        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(new SqlBuilder(new AstContext(sqlClient)));
+        int fetchSize = getData().getFetchSize();
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
         Selectors.forEach(
                 sqlClient,
                 con,
@@ -206,11 +360,51 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
                 getData().getSelections(),
                 getBaseQuery().getPurpose(),
                 batchSize,
+                fetchSize != 0 ? fetchSize : sqlClient.getDefaultFetchSize(),
                 consumer
         );
     }
 
-    private Tuple3<String, List<Object>, List<Integer>> preExecute(SqlBuilder builder) {
+    @Override
+    public Stream<R> stream(Connection con, int batchSize) {
+        if (con == null) {
+            throw new IllegalArgumentException("The connection of stream cannot be null");
+        }
+        TypedQueryData data = getData();
+        if (data.getLimit() == 0) {
+            return Stream.empty();
+        }
+        JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
+        int fetchSize = data.getFetchSize();
+        return Selectors.stream(
+                sqlClient,
+                con,
+                sqlResult.get_1(),
+                sqlResult.get_2(),
+                sqlResult.get_3(),
+                data.getSelections(),
+                getBaseQuery().getPurpose(),
+                batchSize > 0 ? batchSize : sqlClient.getDefaultBatchSize(),
+                fetchSize != 0 ? fetchSize : sqlClient.getDefaultFetchSize()
+        );
+    }
+
+    private Tuple3<String, List<Object>, List<Integer>> preExecute(JSqlClientImplementor sqlClient) {
+        SqlTemplateCache templateCache = sqlClient.getSqlTemplateCache();
+        if (templateCache == null) {
+            return render(new SqlBuilder(new AstContext(sqlClient)));
+        }
+        SqlBuilder shapeBuilder = SqlBuilder.forShape(new AstContext(sqlClient));
+        accept(new UseTableVisitor(shapeBuilder.getAstContext()));
+        renderTo(shapeBuilder);
+        return templateCache.get(
+                shapeBuilder.buildShape(),
+                () -> render(new SqlBuilder(new AstContext(sqlClient)))
+        );
+    }
+
+    private Tuple3<String, List<Object>, List<Integer>> render(SqlBuilder builder) {
         AstVisitor visitor = new UseTableVisitor(builder.getAstContext());
         accept(visitor);
         renderTo(builder);
@@ -252,6 +446,30 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         return getBaseQuery().getSqlClient();
     }
 
+    private static class RowDuplicationDetector extends AstVisitor {
+
+        boolean duplicable;
+
+        RowDuplicationDetector(AstContext astContext) {
+            super(astContext);
+        }
+
+        @Override
+        public boolean visitSubQuery(TypedSubQuery<?> subQuery) {
+            return false;
+        }
+
+        @Override
+        public void visitTableReference(TableImplementor<?> table, ImmutableProp prop) {
+            for (TableImplementor<?> t = table; t != null; t = t.getParent()) {
+                if (t.getDestructive() == TableRowCountDestructive.BREAK_REPEATABILITY) {
+                    duplicable = true;
+                    return;
+                }
+            }
+        }
+    }
+
     private static class ReselectValidator extends AstVisitor {
 
         ReselectValidator(AstContext astContext) {
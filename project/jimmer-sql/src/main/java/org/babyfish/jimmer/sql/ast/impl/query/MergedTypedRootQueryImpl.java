@@ -116,6 +116,7 @@ class MergedTypedRootQueryImpl<R> implements TypedRootQueryImplementor<R>, Typed
                 selections,
                 ExecutionPurpose.QUERY,
                 batchSize,
+                sqlClient.getDefaultFetchSize(),
                 consumer
         );
     }
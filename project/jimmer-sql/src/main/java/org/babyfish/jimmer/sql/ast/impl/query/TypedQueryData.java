@@ -31,6 +31,10 @@ class TypedQueryData {
 
     private final boolean forUpdate;
 
+    private final int fetchSize;
+
+    private final List<Object> seekValues;
+
     private PropExpressionImplementor<?> idOnlyExpression;
 
     private boolean idOnlyExpressionResolved;
@@ -43,6 +47,8 @@ class TypedQueryData {
         offset = 0;
         withoutSortingAndPaging = false;
         forUpdate = false;
+        fetchSize = 0;
+        seekValues = null;
     }
 
     private TypedQueryData(
@@ -52,7 +58,9 @@ class TypedQueryData {
             int limit,
             int offset,
             boolean withoutSortingAndPaging,
-            boolean forUpdate
+            boolean forUpdate,
+            int fetchSize,
+            List<Object> seekValues
     ) {
         this.selections = selections;
         this.oldSelections = oldSelections;
@@ -61,6 +69,8 @@ class TypedQueryData {
         this.offset = offset;
         this.withoutSortingAndPaging = withoutSortingAndPaging;
         this.forUpdate = forUpdate;
+        this.fetchSize = fetchSize;
+        this.seekValues = seekValues;
     }
 
     public List<Selection<?>> getSelections() {
@@ -91,6 +101,14 @@ class TypedQueryData {
         return forUpdate;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public List<Object> getSeekValues() {
+        return seekValues;
+    }
+
     public TypedQueryData reselect(List<Selection<?>> selections) {
         return new TypedQueryData(
                 processSelections(selections),
@@ -99,7 +117,9 @@ class TypedQueryData {
                 limit,
                 offset,
                 withoutSortingAndPaging,
-                forUpdate
+                forUpdate,
+                fetchSize,
+                seekValues
         );
     }
 
@@ -111,7 +131,23 @@ class TypedQueryData {
                 limit,
                 offset,
                 withoutSortingAndPaging,
-                forUpdate
+                forUpdate,
+                fetchSize,
+                seekValues
+        );
+    }
+
+    public TypedQueryData withoutDistinct() {
+        return new TypedQueryData(
+                selections,
+                oldSelections,
+                false,
+                limit,
+                offset,
+                withoutSortingAndPaging,
+                forUpdate,
+                fetchSize,
+                seekValues
         );
     }
 
@@ -123,7 +159,9 @@ class TypedQueryData {
                 limit,
                 offset,
                 withoutSortingAndPaging,
-                forUpdate
+                forUpdate,
+                fetchSize,
+                seekValues
         );
     }
 
@@ -135,7 +173,9 @@ class TypedQueryData {
                 limit,
                 offset,
                 true,
-                forUpdate
+                forUpdate,
+                fetchSize,
+                seekValues
         );
     }
 
@@ -147,7 +187,37 @@ class TypedQueryData {
                 limit,
                 offset,
                 withoutSortingAndPaging,
-                true
+                true,
+                fetchSize,
+                seekValues
+        );
+    }
+
+    public TypedQueryData fetchSize(int fetchSize) {
+        return new TypedQueryData(
+                selections,
+                oldSelections,
+                distinct,
+                limit,
+                offset,
+                withoutSortingAndPaging,
+                forUpdate,
+                fetchSize,
+                seekValues
+        );
+    }
+
+    public TypedQueryData seek(List<Object> seekValues) {
+        return new TypedQueryData(
+                selections,
+                oldSelections,
+                distinct,
+                limit,
+                offset,
+                withoutSortingAndPaging,
+                forUpdate,
+                fetchSize,
+                seekValues
         );
     }
 
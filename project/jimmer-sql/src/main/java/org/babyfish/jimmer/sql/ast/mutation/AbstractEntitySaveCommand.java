@@ -141,6 +141,28 @@ public interface AbstractEntitySaveCommand {
 
         @OldChain
         Cfg setDeleteMode(DeleteMode mode);
+
+        /**
+         * Enable JDBC statement batching for the aggregate roots of batch save command.
+         *
+         * <p>Insert/update statements of root objects with the same shape
+         * (same type and same loaded columns) are grouped and sent by
+         * `executeBatch`, at most `batchSize` rows per round trip.
+         * The existing rows of aggregate roots are loaded by chunked `IN` queries
+         * before saving, rather than one query per root.
+         * Associated objects are still saved one by one.</p>
+         *
+         * <p>In this mode, the affected row counts are only tracked for the whole
+         * command, so the simple results of {@link BatchSaveResult#getSimpleResults()}
+         * have empty affected row count maps. The update statements whose affected
+         * row counts are not reported by the JDBC driver(`SUCCESS_NO_INFO`) are not
+         * counted.</p>
+         *
+         * @param batchSize The max row count of each JDBC batch,
+         *                  0 or 1 means statement batching is disabled(default behavior)
+         */
+        @OldChain
+        Cfg setBatchSize(int batchSize);
     }
 
     interface KeyPropCfg<T> {
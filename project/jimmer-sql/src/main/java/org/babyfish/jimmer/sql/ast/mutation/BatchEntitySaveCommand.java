@@ -106,4 +106,9 @@ public interface BatchEntitySaveCommand<E>
     default BatchEntitySaveCommand<E> setDeleteMode(DeleteMode mode) {
         return configure(cfg -> cfg.setDeleteMode(mode));
     }
+
+    @NewChain
+    default BatchEntitySaveCommand<E> setBatchSize(int batchSize) {
+        return configure(cfg -> cfg.setBatchSize(batchSize));
+    }
 }
@@ -5,6 +5,7 @@ import org.babyfish.jimmer.sql.ast.table.Table;
 
 import java.sql.Connection;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 public interface ConfigurableRootQuery<T extends Table<?>, R> extends TypedRootQuery<R> {
 
@@ -44,6 +45,39 @@ public interface ConfigurableRootQuery<T extends Table<?>, R> extends TypedRootQ
     @NewChain
     ConfigurableRootQuery<T, R> limit(int limit, int offset);
 
+    /**
+     * Keyset(seek) pagination, only the rows after the specified sort key values are selected.
+     *
+     * <p>Unlike {@link #limit(int, int)} with offset, the database does not need
+     * to scan and discard the rows of previous pages, so the cost of a deep page
+     * is the same as the first page.</p>
+     *
+     * <pre>{@code
+     * List<Book> nextPage = sqlClient
+     *     .createQuery(table)
+     *     .orderBy(table.name(), table.id())
+     *     .select(table)
+     *     .seekAfter(Arrays.asList(lastBook.name(), lastBook.id()))
+     *     .limit(20)
+     *     .execute();
+     * }</pre>
+     *
+     * <p>If all the orders have the same direction and the dialect supports
+     * row value comparison, the predicate is rendered as `(a, b) > (?, ?)`,
+     * otherwise it is rendered as `a > ? or a = ? and b > ?`.</p>
+     *
+     * <p>The nullable properties cannot be used by the order by clause,
+     * because the rows whose sort key is null cannot be compared and would
+     * be skipped, {@link IllegalArgumentException} is thrown for them.</p>
+     *
+     * @param sortKeyValues The values of the expressions of order by clause
+     *                      of the last row of previous page, none of them can be null.
+     *                      The last expression of order by clause should be unique,
+     *                      such as id, otherwise rows may be skipped.
+     */
+    @NewChain
+    ConfigurableRootQuery<T, R> seekAfter(List<?> sortKeyValues);
+
     @NewChain
     ConfigurableRootQuery<T, R> withoutSortingAndPaging();
 
@@ -54,4 +88,39 @@ public interface ConfigurableRootQuery<T extends Table<?>, R> extends TypedRootQ
 
     @NewChain
     ConfigurableRootQuery<T, R> forUpdate(boolean forUpdate);
+
+    /**
+     * Specifies the JDBC fetch size of {@link #forEach(Connection, int, java.util.function.Consumer)}
+     * so that the rows can be streamed from database rather than buffered in memory,
+     * it overrides the `defaultFetchSize` of sql client.
+     *
+     * <p>The dialect decides how to apply it, for example, MySQL uses `Integer.MIN_VALUE`
+     * and Postgres disables auto-commit during the iteration</p>
+     *
+     * @param fetchSize The fetch size, 0 means using the default fetch size of sql client
+     */
+    @NewChain
+    ConfigurableRootQuery<T, R> fetchSize(int fetchSize);
+
+    default Stream<R> stream(Connection con) {
+        return stream(con, -1);
+    }
+
+    /**
+     * Returns a lazy stream of the query result.
+     *
+     * <p>Unlike {@link #execute(Connection)}, rows are read from the open result set
+     * when the stream is consumed, the object fetchers are executed for every
+     * `batchSize` rows, so short-circuiting operations such as `limit`
+     * do not load the whole result.</p>
+     *
+     * <p>The returned stream holds the JDBC statement, it must be closed
+     * by try-with-resources unless all of its rows are consumed.</p>
+     *
+     * @param con The connection used by the stream, it cannot be null
+     *            because it must stay open until the stream is closed.
+     * @param batchSize The row count of each chunk,
+     *                  non-positive value means the default batch size of sql client.
+     */
+    Stream<R> stream(Connection con, int batchSize);
 }
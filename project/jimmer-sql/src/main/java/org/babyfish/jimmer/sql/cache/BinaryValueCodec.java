@@ -0,0 +1,707 @@
+package org.babyfish.jimmer.sql.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.runtime.DraftSpi;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.runtime.Internal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The compact binary format of {@link ValueSerializer}.
+ *
+ * <pre>
+ * MAGIC(0x00) VERSION SHAPE(4 bytes) PAYLOAD
+ * </pre>
+ *
+ * <ul>
+ *     <li>MAGIC: JSON text and the null marker never start with 0x00,
+ *     so the binary format and the JSON format can be distinguished
+ *     by the first byte, and both of them can always be read.</li>
+ *     <li>SHAPE: the checksum of the property layout of the cached type
+ *     or property, values written by an application with another
+ *     version of the entity model are treated as cache misses.</li>
+ *     <li>Object: the bitmap of loaded properties followed by the values
+ *     of them, property names are not written. Nullable properties
+ *     have a presence byte.</li>
+ *     <li>Integers, ids and lengths are written as variable-length
+ *     integers, scalar types without a binary form are written as
+ *     length-prefixed JSON.</li>
+ * </ul>
+ */
+class BinaryValueCodec {
+
+    static final byte MAGIC = 0;
+
+    static final byte VERSION = 1;
+
+    private static final int HEADER_SIZE = 6;
+
+    private static final Map<Class<?>, Codec> SCALAR_CODEC_MAP;
+
+    private final ObjectMapper mapper;
+
+    private final Map<ImmutableType, Layout> layoutMap = new LinkedHashMap<>();
+
+    private final Codec rootCodec;
+
+    private final int shape;
+
+    BinaryValueCodec(ImmutableType type, ImmutableProp prop, ObjectMapper mapper) {
+        this.mapper = mapper;
+        StringBuilder builder = new StringBuilder();
+        if (prop == null) {
+            rootCodec = new ObjectCodec(type);
+            builder.append(type);
+        } else if (prop.isAssociation(TargetLevel.ENTITY)) {
+            ImmutableProp targetIdProp = prop.getTargetType().getIdProp();
+            Codec idCodec = scalarCodec(targetIdProp);
+            rootCodec = prop.isReferenceList(TargetLevel.OBJECT) ? new ListCodec(idCodec) : idCodec;
+            builder.append(prop).append("->").append(targetIdProp.getGenericType().getTypeName());
+        } else {
+            rootCodec = propCodec(prop);
+            builder.append(prop).append(':').append(prop.getGenericType().getTypeName());
+        }
+        // Layouts of all the reachable types are created here,
+        // so that this object is immutable after construction
+        Deque<ImmutableType> pendingTypes = new ArrayDeque<>();
+        if (prop == null) {
+            pendingTypes.add(type);
+        } else if (!prop.isAssociation(TargetLevel.ENTITY) && prop.isAssociation(TargetLevel.OBJECT)) {
+            pendingTypes.add(prop.getTargetType());
+        }
+        while (!pendingTypes.isEmpty()) {
+            ImmutableType pendingType = pendingTypes.removeFirst();
+            if (layoutMap.containsKey(pendingType)) {
+                continue;
+            }
+            Layout layout = new Layout(pendingType);
+            layoutMap.put(pendingType, layout);
+            builder.append('{');
+            for (ImmutableProp layoutProp : layout.props) {
+                builder
+                        .append(layoutProp.getName())
+                        .append(':')
+                        .append(layoutProp.getGenericType().getTypeName())
+                        .append(layoutProp.isNullable() ? "?" : "")
+                        .append(';');
+                if (layoutProp.isAssociation(TargetLevel.OBJECT)) {
+                    pendingTypes.add(layoutProp.getTargetType());
+                }
+            }
+            builder.append('}');
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        shape = (int) crc32.getValue();
+    }
+
+    static boolean isBinary(byte[] bytes) {
+        return bytes.length != 0 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * @return The encoded bytes, or null if the value cannot be
+     * represented by this format, for example, the runtime type of
+     * a polymorphic association is not its declared type.
+     */
+    byte[] encode(Object value) {
+        Output out = new Output();
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.writeInt(shape);
+        try {
+            rootCodec.write(out, value);
+        } catch (UnsupportedValueException ex) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return Whether the bytes were written by the same format version
+     * and the same entity model, otherwise, they must be ignored.
+     */
+    boolean isCompatible(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+            return false;
+        }
+        Input in = new Input(bytes, 2);
+        return in.readInt() == shape;
+    }
+
+    /**
+     * Must be called in a draft context if the root is an object,
+     * the returned object is a draft that must be resolved by that context.
+     */
+    Object decode(byte[] bytes) {
+        try {
+            return rootCodec.read(new Input(bytes, HEADER_SIZE));
+        } catch (SerializationException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new SerializationException(ex);
+        }
+    }
+
+    private Codec propCodec(ImmutableProp prop) {
+        if (prop.isReferenceList(TargetLevel.OBJECT)) {
+            return new ListCodec(new ObjectCodec(prop.getTargetType()));
+        }
+        if (prop.isReference(TargetLevel.OBJECT)) {
+            return new ObjectCodec(prop.getTargetType());
+        }
+        if (prop.isScalarList()) {
+            return new JsonCodec(prop);
+        }
+        return scalarCodec(prop);
+    }
+
+    private Codec scalarCodec(ImmutableProp prop) {
+        Class<?> javaClass = prop.getReturnClass();
+        Codec codec = SCALAR_CODEC_MAP.get(javaClass);
+        if (codec != null) {
+            return codec;
+        }
+        if (javaClass.isEnum()) {
+            return new EnumCodec(javaClass);
+        }
+        return new JsonCodec(prop);
+    }
+
+    private class Layout {
+
+        final ImmutableProp[] props;
+
+        final Codec[] codecs;
+
+        Layout(ImmutableType type) {
+            List<ImmutableProp> props = new ArrayList<>();
+            for (ImmutableProp prop : type.getProps().values()) {
+                // Views and formula properties based on other properties are not stored
+                if (prop.isMutable() &&
+                        prop.getIdViewBaseProp() == null &&
+                        prop.getManyToManyViewBaseProp() == null) {
+                    props.add(prop);
+                }
+            }
+            this.props = props.toArray(new ImmutableProp[0]);
+            this.codecs = new Codec[this.props.length];
+            for (int i = 0; i < this.props.length; i++) {
+                this.codecs[i] = propCodec(this.props[i]);
+            }
+        }
+    }
+
+    private interface Codec {
+
+        void write(Output out, Object value);
+
+        Object read(Input in);
+    }
+
+    private class ObjectCodec implements Codec {
+
+        private final ImmutableType type;
+
+        ObjectCodec(ImmutableType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void write(Output out, Object value) {
+            ImmutableSpi spi = (ImmutableSpi) value;
+            if (spi.__type() != type) {
+                throw UnsupportedValueException.INSTANCE;
+            }
+            Layout layout = layoutMap.get(type);
+            ImmutableProp[] props = layout.props;
+            byte[] bitmap = new byte[(props.length + 7) / 8];
+            for (int i = 0; i < props.length; i++) {
+                int propId = props[i].getId();
+                if (spi.__isLoaded(propId) && spi.__isVisible(propId)) {
+                    bitmap[i >> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(bitmap);
+            for (int i = 0; i < props.length; i++) {
+                if ((bitmap[i >> 3] & (1 << (i & 7))) == 0) {
+                    continue;
+                }
+                ImmutableProp prop = props[i];
+                Object propValue = spi.__get(prop.getId());
+                if (prop.isNullable()) {
+                    out.write(propValue != null ? 1 : 0);
+                    if (propValue == null) {
+                        continue;
+                    }
+                } else if (propValue == null) {
+                    throw UnsupportedValueException.INSTANCE;
+                }
+                layout.codecs[i].write(out, propValue);
+            }
+        }
+
+        @Override
+        public Object read(Input in) {
+            Layout layout = layoutMap.get(type);
+            ImmutableProp[] props = layout.props;
+            byte[] bitmap = in.readBytes((props.length + 7) / 8);
+            return Internal.produce(type, null, draft -> {
+                for (int i = 0; i < props.length; i++) {
+                    if ((bitmap[i >> 3] & (1 << (i & 7))) == 0) {
+                        continue;
+                    }
+                    ImmutableProp prop = props[i];
+                    Object propValue;
+                    if (prop.isNullable() && in.read() == 0) {
+                        propValue = null;
+                    } else {
+                        propValue = layout.codecs[i].read(in);
+                    }
+                    ((DraftSpi) draft).__set(prop.getId(), propValue);
+                }
+            });
+        }
+    }
+
+    private static class ListCodec implements Codec {
+
+        private final Codec elementCodec;
+
+        ListCodec(Codec elementCodec) {
+            this.elementCodec = elementCodec;
+        }
+
+        @Override
+        public void write(Output out, Object value) {
+            List<?> list = (List<?>) value;
+            out.writeUnsigned(list.size());
+            for (Object element : list) {
+                if (element == null) {
+                    throw UnsupportedValueException.INSTANCE;
+                }
+                elementCodec.write(out, element);
+            }
+        }
+
+        @Override
+        public Object read(Input in) {
+            int size = (int) in.readUnsigned();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(elementCodec.read(in));
+            }
+            return list;
+        }
+    }
+
+    private static class EnumCodec implements Codec {
+
+        private final Class<?> enumClass;
+
+        EnumCodec(Class<?> enumClass) {
+            this.enumClass = enumClass;
+        }
+
+        @Override
+        public void write(Output out, Object value) {
+            // Name is used because the ordinal is changed by reordering the constants
+            out.writeString(((Enum<?>) value).name());
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        public Object read(Input in) {
+            return Enum.valueOf((Class) enumClass, in.readString());
+        }
+    }
+
+    private class JsonCodec implements Codec {
+
+        private final JavaType javaType;
+
+        JsonCodec(ImmutableProp prop) {
+            this.javaType = mapper.getTypeFactory().constructType(prop.getGenericType());
+        }
+
+        @Override
+        public void write(Output out, Object value) {
+            byte[] bytes;
+            try {
+                bytes = mapper.writeValueAsBytes(value);
+            } catch (IOException ex) {
+                throw new SerializationException(ex);
+            }
+            out.writeUnsigned(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public Object read(Input in) {
+            byte[] bytes = in.readBytes((int) in.readUnsigned());
+            try {
+                return mapper.readValue(bytes, javaType);
+            } catch (IOException ex) {
+                throw new SerializationException(ex);
+            }
+        }
+    }
+
+    private static class UnsupportedValueException extends RuntimeException {
+
+        static final UnsupportedValueException INSTANCE = new UnsupportedValueException();
+
+        private UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class Output {
+
+        private byte[] buf = new byte[64];
+
+        private int size;
+
+        void write(int b) {
+            ensureCapacity(1);
+            buf[size++] = (byte) b;
+        }
+
+        void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            buf[size++] = (byte) (value >>> 24);
+            buf[size++] = (byte) (value >>> 16);
+            buf[size++] = (byte) (value >>> 8);
+            buf[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeUnsigned(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length);
+            write(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensureCapacity(int count) {
+            if (size + count > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + count));
+            }
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] buf;
+
+        private int pos;
+
+        Input(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        int read() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Unexpected end of binary cache value");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        byte[] readBytes(int count) {
+            if (count < 0 || pos + count > buf.length) {
+                throw new IllegalArgumentException("Unexpected end of binary cache value");
+            }
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + count);
+            pos += count;
+            return bytes;
+        }
+
+        int readInt() {
+            return (read() << 24) | (read() << 16) | (read() << 8) | read();
+        }
+
+        long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed variable-length integer of binary cache value");
+        }
+
+        long readSigned() {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            return new String(readBytes((int) readUnsigned()), StandardCharsets.UTF_8);
+        }
+    }
+
+    static {
+        Map<Class<?>, Codec> map = new HashMap<>();
+        Codec booleanCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.write((Boolean) value ? 1 : 0);
+            }
+            @Override
+            public Object read(Input in) {
+                return in.read() != 0;
+            }
+        };
+        Codec byteCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.write((Byte) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return (byte) in.read();
+            }
+        };
+        Codec shortCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeSigned((Short) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return (short) in.readSigned();
+            }
+        };
+        Codec intCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeSigned((Integer) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return (int) in.readSigned();
+            }
+        };
+        Codec longCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeSigned((Long) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return in.readSigned();
+            }
+        };
+        Codec charCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeUnsigned((Character) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return (char) in.readUnsigned();
+            }
+        };
+        Codec floatCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeInt(Float.floatToIntBits((Float) value));
+            }
+            @Override
+            public Object read(Input in) {
+                return Float.intBitsToFloat(in.readInt());
+            }
+        };
+        Codec doubleCodec = new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeLong(Double.doubleToLongBits((Double) value));
+            }
+            @Override
+            public Object read(Input in) {
+                return Double.longBitsToDouble(in.readLong());
+            }
+        };
+        map.put(boolean.class, booleanCodec);
+        map.put(Boolean.class, booleanCodec);
+        map.put(byte.class, byteCodec);
+        map.put(Byte.class, byteCodec);
+        map.put(short.class, shortCodec);
+        map.put(Short.class, shortCodec);
+        map.put(int.class, intCodec);
+        map.put(Integer.class, intCodec);
+        map.put(long.class, longCodec);
+        map.put(Long.class, longCodec);
+        map.put(char.class, charCodec);
+        map.put(Character.class, charCodec);
+        map.put(float.class, floatCodec);
+        map.put(Float.class, floatCodec);
+        map.put(double.class, doubleCodec);
+        map.put(Double.class, doubleCodec);
+        map.put(String.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeString((String) value);
+            }
+            @Override
+            public Object read(Input in) {
+                return in.readString();
+            }
+        });
+        map.put(byte[].class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                byte[] bytes = (byte[]) value;
+                out.writeUnsigned(bytes.length);
+                out.write(bytes);
+            }
+            @Override
+            public Object read(Input in) {
+                return in.readBytes((int) in.readUnsigned());
+            }
+        });
+        map.put(UUID.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                UUID uuid = (UUID) value;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            @Override
+            public Object read(Input in) {
+                return new UUID(in.readLong(), in.readLong());
+            }
+        });
+        map.put(BigInteger.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                byte[] bytes = ((BigInteger) value).toByteArray();
+                out.writeUnsigned(bytes.length);
+                out.write(bytes);
+            }
+            @Override
+            public Object read(Input in) {
+                return new BigInteger(in.readBytes((int) in.readUnsigned()));
+            }
+        });
+        map.put(BigDecimal.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                BigDecimal decimal = (BigDecimal) value;
+                byte[] bytes = decimal.unscaledValue().toByteArray();
+                out.writeSigned(decimal.scale());
+                out.writeUnsigned(bytes.length);
+                out.write(bytes);
+            }
+            @Override
+            public Object read(Input in) {
+                int scale = (int) in.readSigned();
+                return new BigDecimal(new BigInteger(in.readBytes((int) in.readUnsigned())), scale);
+            }
+        });
+        map.put(java.util.Date.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeSigned(((java.util.Date) value).getTime());
+            }
+            @Override
+            public Object read(Input in) {
+                return new java.util.Date(in.readSigned());
+            }
+        });
+        map.put(Instant.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                Instant instant = (Instant) value;
+                out.writeSigned(instant.getEpochSecond());
+                out.writeUnsigned(instant.getNano());
+            }
+            @Override
+            public Object read(Input in) {
+                long seconds = in.readSigned();
+                return Instant.ofEpochSecond(seconds, in.readUnsigned());
+            }
+        });
+        map.put(LocalDate.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeSigned(((LocalDate) value).toEpochDay());
+            }
+            @Override
+            public Object read(Input in) {
+                return LocalDate.ofEpochDay(in.readSigned());
+            }
+        });
+        map.put(LocalTime.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                out.writeUnsigned(((LocalTime) value).toNanoOfDay());
+            }
+            @Override
+            public Object read(Input in) {
+                return LocalTime.ofNanoOfDay(in.readUnsigned());
+            }
+        });
+        map.put(LocalDateTime.class, new Codec() {
+            @Override
+            public void write(Output out, Object value) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                out.writeSigned(dateTime.toLocalDate().toEpochDay());
+                out.writeUnsigned(dateTime.toLocalTime().toNanoOfDay());
+            }
+            @Override
+            public Object read(Input in) {
+                LocalDate date = LocalDate.ofEpochDay(in.readSigned());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readUnsigned()));
+            }
+        });
+        SCALAR_CODEC_MAP = map;
+    }
+}
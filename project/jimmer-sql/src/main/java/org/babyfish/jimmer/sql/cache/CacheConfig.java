@@ -30,6 +30,10 @@ public class CacheConfig {
 
     private CacheAbandonedCallback abandonedCallback;
 
+    private CacheInvalidationBroadcaster invalidationBroadcaster;
+
+    private CacheMetrics metrics;
+
     public CacheConfig(EntityManager entityManager, String microServiceName) {
         this.entityManager = entityManager;
         this.microServiceName = microServiceName;
@@ -185,6 +189,27 @@ public class CacheConfig {
         return this;
     }
 
+    /**
+     * Broadcasts the evicted keys of all caches to other nodes, so that
+     * the {@link org.babyfish.jimmer.sql.cache.chain.LocalBinder}s of other nodes
+     * can be evicted too.
+     */
+    @OldChain
+    public CacheConfig setInvalidationBroadcaster(CacheInvalidationBroadcaster broadcaster) {
+        this.invalidationBroadcaster = broadcaster;
+        return this;
+    }
+
+    /**
+     * Records hits, misses, loading, evictions and payload sizes of all caches.
+     * If it is not set, caches are not measured.
+     */
+    @OldChain
+    public CacheConfig setMetrics(CacheMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     Caches build(Triggers triggers) {
         for (ImmutableProp prop : propCacheMap.keySet()) {
             if (prop.isAssociation(TargetLevel.PERSISTENT) && !objectCacheMap.containsKey(prop.getTargetType())) {
@@ -202,7 +227,9 @@ public class CacheConfig {
                 objectCacheMap,
                 propCacheMap,
                 operator,
-                abandonedCallback
+                abandonedCallback,
+                invalidationBroadcaster,
+                metrics
         );
     }
 
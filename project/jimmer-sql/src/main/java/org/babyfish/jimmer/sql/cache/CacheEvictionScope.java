@@ -0,0 +1,76 @@
+package org.babyfish.jimmer.sql.cache;
+
+import java.util.*;
+
+/**
+ * Defers the cache evictions caused by triggers of current thread,
+ * the keys are merged and each cache is evicted by one
+ * {@link Cache#deleteAll(Collection, Object)} when the scope is finished.
+ *
+ * <p>It is used by bulk event sources such as binlog ingestion,
+ * where thousands of events evicting the same cache are fired together.
+ * Evictions executed by {@link CacheOperator} are not deferred.</p>
+ */
+public class CacheEvictionScope {
+
+    private static final ThreadLocal<CacheEvictionScope> SCOPE_LOCAL = new ThreadLocal<>();
+
+    // Cache -> Reason -> Keys
+    private final Map<LocatedCache<Object, ?>, Map<Object, Set<Object>>> keyMap = new LinkedHashMap<>();
+
+    private CacheEvictionScope() {}
+
+    /**
+     * Execute the block and evict the collected keys after it.
+     * If this method is called recursively, the inner call joins the outer scope.
+     */
+    public static void execute(Runnable block) {
+        if (SCOPE_LOCAL.get() != null) {
+            block.run();
+            return;
+        }
+        CacheEvictionScope scope = new CacheEvictionScope();
+        SCOPE_LOCAL.set(scope);
+        try {
+            block.run();
+        } finally {
+            SCOPE_LOCAL.remove();
+            scope.flush();
+        }
+    }
+
+    /**
+     * @return Whether the key is collected by the scope of current thread,
+     * false means there is no scope and the caller must evict it immediately.
+     */
+    static boolean add(LocatedCache<Object, ?> cache, Object key, Object reason) {
+        CacheEvictionScope scope = SCOPE_LOCAL.get();
+        if (scope == null) {
+            return false;
+        }
+        scope.keyMap
+                .computeIfAbsent(cache, it -> new LinkedHashMap<>())
+                .computeIfAbsent(reason, it -> new LinkedHashSet<>())
+                .add(key);
+        return true;
+    }
+
+    private void flush() {
+        RuntimeException exception = null;
+        for (Map.Entry<LocatedCache<Object, ?>, Map<Object, Set<Object>>> e : keyMap.entrySet()) {
+            for (Map.Entry<Object, Set<Object>> e2 : e.getValue().entrySet()) {
+                try {
+                    e.getKey().deleteAll(e2.getValue(), e2.getKey());
+                } catch (RuntimeException ex) {
+                    // Other caches must still be evicted
+                    if (exception == null) {
+                        exception = ex;
+                    }
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
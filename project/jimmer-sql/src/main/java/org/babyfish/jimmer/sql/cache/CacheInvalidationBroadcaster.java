@@ -0,0 +1,57 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the evicted keys of located caches to other nodes of the cluster.
+ *
+ * <p>When a local binder such as Caffeine is in front of a shared binder
+ * such as Redis, the node which changes data evicts both of them,
+ * but other nodes still hold the stale data in their local binders.
+ * If this broadcaster is configured by {@link CacheConfig#setInvalidationBroadcaster},
+ * the evicted keys are published to other nodes, and they delete those keys
+ * from their caches with the reason {@link #REASON}, which is only accepted by
+ * {@link org.babyfish.jimmer.sql.cache.chain.LocalBinder}s of chain caches.</p>
+ *
+ * @see org.babyfish.jimmer.sql.cache.spi.AbstractCacheInvalidationBroadcaster
+ * @see LoopbackCacheInvalidationBroadcaster
+ */
+public interface CacheInvalidationBroadcaster {
+
+    /**
+     * The deletion reason of the evictions published by other nodes
+     */
+    String REASON = "invalidation-broadcast";
+
+    /**
+     * Publishes evicted keys to other nodes
+     *
+     * @param cacheName The name of located cache, please see {@link #cacheName(LocatedCache)}
+     * @param keys Evicted keys
+     */
+    void publish(@NotNull String cacheName, @NotNull Collection<?> keys);
+
+    /**
+     * Subscribes the evicted keys published by other nodes,
+     * each cache name can only be subscribed once.
+     *
+     * @param cacheName The name of located cache, please see {@link #cacheName(LocatedCache)}
+     * @param keyType The type of keys, it is used to deserialize the keys
+     * @param listener The listener accepts the evicted keys
+     */
+    void subscribe(
+            @NotNull String cacheName,
+            @NotNull Class<?> keyType,
+            @NotNull Consumer<Collection<?>> listener
+    );
+
+    static String cacheName(LocatedCache<?, ?> cache) {
+        if (cache.getProp() != null) {
+            return cache.getProp().toString();
+        }
+        return cache.getType().toString();
+    }
+}
@@ -11,6 +11,13 @@ public interface CacheLoader<K, V> {
 
     Map<K, V> loadAll(Collection<K> keys);
 
+    /**
+     * Invoked by chain cache before waiting for the keys which
+     * are missed by all binders but are being loaded by other threads,
+     * does nothing by default.
+     */
+    default void beforeWait(Collection<K> keys) {}
+
     static <K, V> CacheLoader<K, V> objectLoader(
             JSqlClient sqlClient,
             Connection con,
@@ -42,4 +42,9 @@ class CacheLoaderWrapper<K, V> implements CacheLoader<K, V> {
             return resolvedMap;
         });
     }
+
+    @Override
+    public void beforeWait(Collection<K> keys) {
+        raw.beforeWait(keys);
+    }
 }
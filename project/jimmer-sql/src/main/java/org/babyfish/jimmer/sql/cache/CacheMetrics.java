@@ -0,0 +1,53 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives the statistics of located caches.
+ *
+ * <p>All methods are empty by default, the derived class only needs
+ * to override the methods it is interested in.
+ * If no metrics is configured by {@link CacheConfig#setMetrics(CacheMetrics)},
+ * caches are not measured at all.</p>
+ *
+ * <p>The `cacheName` is the name of the entity type for object cache,
+ * or the name of the property for property cache,
+ * please see {@link CacheInvalidationBroadcaster#cacheName(LocatedCache)}</p>
+ */
+public interface CacheMetrics {
+
+    /**
+     * @param count The number of keys found in cache
+     */
+    default void recordHits(@NotNull String cacheName, int count) {}
+
+    /**
+     * @param count The number of keys which are not found in cache
+     *              and are loaded from database, including the keys
+     *              being loaded by other threads
+     */
+    default void recordMisses(@NotNull String cacheName, int count) {}
+
+    /**
+     * @param keyCount The number of keys loaded by one batch
+     * @param nanos The time of loading
+     */
+    default void recordLoad(@NotNull String cacheName, int keyCount, long nanos) {}
+
+    /**
+     * @param keyCount The number of deleted keys
+     * @param reason The reason passed to {@link Cache#deleteAll(java.util.Collection, Object)}
+     */
+    default void recordEviction(@NotNull String cacheName, int keyCount, @Nullable Object reason) {}
+
+    /**
+     * @param byteCount The size of one value serialized by {@link ValueSerializer}
+     */
+    default void recordSerialization(@NotNull String cacheName, int byteCount) {}
+
+    /**
+     * @param byteCount The size of one value deserialized by {@link ValueSerializer}
+     */
+    default void recordDeserialization(@NotNull String cacheName, int byteCount) {}
+}
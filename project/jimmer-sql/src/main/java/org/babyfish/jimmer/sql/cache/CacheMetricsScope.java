@@ -0,0 +1,49 @@
+package org.babyfish.jimmer.sql.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds the metrics of the located cache being accessed to the current thread,
+ * so that {@link ValueSerializer}s created by binders can report payload sizes.
+ */
+class CacheMetricsScope {
+
+    private static final ThreadLocal<CacheMetricsScope> SCOPE_LOCAL = new ThreadLocal<>();
+
+    private final CacheMetrics metrics;
+
+    private final String cacheName;
+
+    private CacheMetricsScope(CacheMetrics metrics, String cacheName) {
+        this.metrics = metrics;
+        this.cacheName = cacheName;
+    }
+
+    static <R> R execute(CacheMetrics metrics, String cacheName, Supplier<R> block) {
+        CacheMetricsScope oldScope = SCOPE_LOCAL.get();
+        SCOPE_LOCAL.set(new CacheMetricsScope(metrics, cacheName));
+        try {
+            return block.get();
+        } finally {
+            if (oldScope != null) {
+                SCOPE_LOCAL.set(oldScope);
+            } else {
+                SCOPE_LOCAL.remove();
+            }
+        }
+    }
+
+    static void recordSerialization(int byteCount) {
+        CacheMetricsScope scope = SCOPE_LOCAL.get();
+        if (scope != null) {
+            scope.metrics.recordSerialization(scope.cacheName, byteCount);
+        }
+    }
+
+    static void recordDeserialization(int byteCount) {
+        CacheMetricsScope scope = SCOPE_LOCAL.get();
+        if (scope != null) {
+            scope.metrics.recordDeserialization(scope.cacheName, byteCount);
+        }
+    }
+}
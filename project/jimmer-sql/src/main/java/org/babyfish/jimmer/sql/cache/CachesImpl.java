@@ -34,16 +34,39 @@ public class CachesImpl implements Caches {
             Map<ImmutableProp, Cache<?, ?>> propCacheMap,
             CacheOperator operator,
             CacheAbandonedCallback abandonedCallback
+    ) {
+        this(triggers, objectCacheMap, propCacheMap, operator, abandonedCallback, null, null);
+    }
+
+    public CachesImpl(
+            Triggers triggers,
+            Map<ImmutableType, Cache<?, ?>> objectCacheMap,
+            Map<ImmutableProp, Cache<?, ?>> propCacheMap,
+            CacheOperator operator,
+            CacheAbandonedCallback abandonedCallback,
+            CacheInvalidationBroadcaster broadcaster
+    ) {
+        this(triggers, objectCacheMap, propCacheMap, operator, abandonedCallback, broadcaster, null);
+    }
+
+    public CachesImpl(
+            Triggers triggers,
+            Map<ImmutableType, Cache<?, ?>> objectCacheMap,
+            Map<ImmutableProp, Cache<?, ?>> propCacheMap,
+            CacheOperator operator,
+            CacheAbandonedCallback abandonedCallback,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
     ) {
         Map<ImmutableType, LocatedCacheImpl<?, ?>> objectCacheWrapperMap = new LinkedHashMap<>();
         for (Map.Entry<ImmutableType, Cache<?, ?>> e : objectCacheMap.entrySet()) {
             ImmutableType type = e.getKey();
-            objectCacheWrapperMap.put(type, wrapObjectCache(triggers, e.getValue(), type));
+            objectCacheWrapperMap.put(type, wrapObjectCache(triggers, e.getValue(), type, broadcaster, metrics));
         }
         Map<ImmutableProp, LocatedCacheImpl<?, ?>> propCacheWrapperMap = new LinkedHashMap<>();
         for (Map.Entry<ImmutableProp, Cache<?, ?>> e : propCacheMap.entrySet()) {
             ImmutableProp prop = e.getKey();
-            propCacheWrapperMap.put(prop, wrapPropCache(triggers, e.getValue(), prop));
+            propCacheWrapperMap.put(prop, wrapPropCache(triggers, e.getValue(), prop, broadcaster, metrics));
         }
         this.triggers = triggers;
         this.objectCacheMap = objectCacheWrapperMap;
@@ -110,22 +133,27 @@ public class CachesImpl implements Caches {
     private LocatedCacheImpl<?, ?> wrapObjectCache(
             Triggers triggers,
             Cache<?, ?> cache,
-            ImmutableType type
+            ImmutableType type,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
     ) {
         if (cache == null) {
             return null;
         }
         LocatedCacheImpl<Object, Object> wrapper = LocatedCacheImpl.wrap(
                 (Cache<Object, Object>) cache,
-                type
+                type,
+                broadcaster,
+                metrics
         );
+        subscribe(broadcaster, wrapper, type);
         triggers.addEntityListener(type, e -> {
             ImmutableSpi oldEntity = (ImmutableSpi) e.getOldEntity();
             if (oldEntity != null) {
                 Object id = e.getId();
                 if (operator != null) {
                     operator.delete(wrapper, id, e.getReason());
-                } else {
+                } else if (!CacheEvictionScope.add(wrapper, id, e.getReason())) {
                     wrapper.delete(id, e.getReason());
                 }
             }
@@ -137,7 +165,9 @@ public class CachesImpl implements Caches {
     private LocatedCacheImpl<?, ?> wrapPropCache(
             Triggers triggers,
             Cache<?, ?> cache,
-            ImmutableProp prop
+            ImmutableProp prop,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
     ) {
         if (!prop.getDeclaringType().isEntity()) {
             throw new IllegalArgumentException("\"" + prop + "\" is not declared in entity");
@@ -147,14 +177,17 @@ public class CachesImpl implements Caches {
         }
         LocatedCacheImpl<Object, Object> wrapper = LocatedCacheImpl.wrap(
                 (Cache<Object, Object>) cache,
-                prop
+                prop,
+                broadcaster,
+                metrics
         );
+        subscribe(broadcaster, wrapper, prop.getDeclaringType());
         if (prop.isAssociation(TargetLevel.PERSISTENT)) {
             triggers.addAssociationListener(prop, e -> {
                 Object id = e.getSourceId();
                 if (operator != null) {
                     operator.delete(wrapper, id, e.getReason());
-                } else {
+                } else if (!CacheEvictionScope.add(wrapper, id, e.getReason())) {
                     wrapper.delete(id, e.getReason());
                 }
             });
@@ -162,6 +195,24 @@ public class CachesImpl implements Caches {
         return wrapper;
     }
 
+    @SuppressWarnings("unchecked")
+    private static void subscribe(
+            CacheInvalidationBroadcaster broadcaster,
+            LocatedCacheImpl<Object, Object> wrapper,
+            ImmutableType keyOwnerType
+    ) {
+        if (broadcaster != null) {
+            broadcaster.subscribe(
+                    CacheInvalidationBroadcaster.cacheName(wrapper),
+                    keyOwnerType.getIdProp().getElementClass(),
+                    keys -> wrapper.deleteAll(
+                            (Collection<Object>) keys,
+                            CacheInvalidationBroadcaster.REASON
+                    )
+            );
+        }
+    }
+
     public static Caches of(
             Triggers triggers,
             EntityManager entityManager,
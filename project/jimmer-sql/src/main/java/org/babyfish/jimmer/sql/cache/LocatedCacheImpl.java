@@ -9,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
@@ -22,7 +23,23 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
 
     private final ImmutableProp prop;
 
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    protected final CacheMetrics metrics;
+
+    private final String metricsName;
+
     public LocatedCacheImpl(Cache<K, V> raw, ImmutableType type, ImmutableProp prop) {
+        this(raw, type, prop, null, null);
+    }
+
+    public LocatedCacheImpl(
+            Cache<K, V> raw,
+            ImmutableType type,
+            ImmutableProp prop,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
+    ) {
         if ((type == null) == (prop == null)) {
             throw new IllegalArgumentException("The nullity of type and prop must be different");
         }
@@ -34,33 +51,60 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
         this.raw = Objects.requireNonNull(raw, "raw cannot be null");
         this.type = type;
         this.prop = prop;
+        this.broadcaster = broadcaster;
+        this.metrics = metrics;
+        this.metricsName = metrics != null ? CacheInvalidationBroadcaster.cacheName(this) : null;
     }
 
     public static <K, V> LocatedCacheImpl<K, V> wrap(
             Cache<K, V> cache,
             ImmutableType type
     ) {
-        return wrap(cache, type, null);
+        return wrap(cache, type, null, null, null);
     }
 
     public static <K, V> LocatedCacheImpl<K, V> wrap(
             Cache<K, V> cache,
             ImmutableProp prop
     ) {
-        return wrap(cache, null, prop);
+        return wrap(cache, null, prop, null, null);
+    }
+
+    public static <K, V> LocatedCacheImpl<K, V> wrap(
+            Cache<K, V> cache,
+            ImmutableType type,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
+    ) {
+        return wrap(cache, type, null, broadcaster, metrics);
+    }
+
+    public static <K, V> LocatedCacheImpl<K, V> wrap(
+            Cache<K, V> cache,
+            ImmutableProp prop,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
+    ) {
+        return wrap(cache, null, prop, broadcaster, metrics);
     }
 
     private static <K, V> LocatedCacheImpl<K, V> wrap(
             Cache<K, V> cache,
             ImmutableType type,
-            ImmutableProp prop
+            ImmutableProp prop,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
     ) {
         if (cache == null) {
             return null;
         }
         if (cache instanceof LocatedCache<?, ?>) {
             LocatedCacheImpl<K, V> wrapper = (LocatedCacheImpl<K, V>) cache;
-            if (wrapper.type == type && wrapper.prop.equals(prop)) {
+            if (wrapper.type == type &&
+                    Objects.equals(wrapper.prop, prop) &&
+                    wrapper.broadcaster == broadcaster &&
+                    wrapper.metrics == metrics
+            ) {
                 return wrapper;
             }
             cache = ((LocatedCacheImpl<K, V>) cache).raw;
@@ -69,10 +113,12 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
             return new ParameterizedLocatedCacheImpl<>(
                     (Cache.Parameterized<K, V>)cache,
                     type,
-                    prop
+                    prop,
+                    broadcaster,
+                    metrics
             );
         }
-        return new LocatedCacheImpl<>(cache, type, prop);
+        return new LocatedCacheImpl<>(cache, type, prop, broadcaster, metrics);
     }
 
     public static <K, V> LocatedCache<K, V> export(LocatedCache<K, V> cacheWrapper) {
@@ -107,7 +153,9 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
     @Override
     public Map<K, V> getAll(@NotNull Collection<K> keys, @NotNull CacheEnvironment<K, V> env) {
         return loading(() -> {
-            Map<K, V> valueMap = raw.getAll(keys, env);
+            Map<K, V> valueMap = metrics == null ?
+                    raw.getAll(keys, env) :
+                    measure(keys, env, it -> raw.getAll(keys, it));
             for (V value : valueMap.values()) {
                 validateResult(value);
             }
@@ -118,6 +166,13 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
     @Override
     public void deleteAll(@NotNull Collection<K> keys, @Nullable Object reason) {
         raw.deleteAll(keys, reason);
+        if (metrics != null) {
+            metrics.recordEviction(metricsName, keys.size(), reason);
+        }
+        // The evictions published by other nodes are not published again
+        if (broadcaster != null && !CacheInvalidationBroadcaster.REASON.equals(reason)) {
+            broadcaster.publish(CacheInvalidationBroadcaster.cacheName(this), keys);
+        }
     }
 
     protected <R> R loading(Supplier<R> block) {
@@ -138,6 +193,51 @@ class LocatedCacheImpl<K, V> implements LocatedCache<K, V> {
         }
     }
 
+    /**
+     * Counts the distinct keys passed to the loader or waited by the chain
+     * as misses, other distinct keys as hits. The loader of the environment
+     * is replaced, so that the loading of any cache implementation can be measured.
+     */
+    protected Map<K, V> measure(
+            Collection<K> keys,
+            CacheEnvironment<K, V> env,
+            Function<CacheEnvironment<K, V>, Map<K, V>> block
+    ) {
+        CacheLoader<K, V> loader = env.getLoader();
+        Set<K> missedKeySet = new HashSet<>();
+        CacheEnvironment<K, V> measuredEnv = new CacheEnvironment<>(
+                env.getSqlClient(),
+                env.getConnection(),
+                new CacheLoader<K, V>() {
+                    @Override
+                    public Map<K, V> loadAll(Collection<K> missedKeys) {
+                        long start = System.nanoTime();
+                        Map<K, V> loadedMap = loader.loadAll(missedKeys);
+                        metrics.recordLoad(metricsName, missedKeys.size(), System.nanoTime() - start);
+                        missedKeySet.addAll(missedKeys);
+                        return loadedMap;
+                    }
+
+                    @Override
+                    public void beforeWait(Collection<K> waitedKeys) {
+                        loader.beforeWait(waitedKeys);
+                        missedKeySet.addAll(waitedKeys);
+                    }
+                },
+                false
+        );
+        Map<K, V> valueMap = CacheMetricsScope.execute(
+                metrics,
+                metricsName,
+                () -> block.apply(measuredEnv)
+        );
+        int keyCount = keys instanceof Set<?> ? keys.size() : new HashSet<>(keys).size();
+        int missCount = Math.min(missedKeySet.size(), keyCount);
+        metrics.recordHits(metricsName, keyCount - missCount);
+        metrics.recordMisses(metricsName, missCount);
+        return valueMap;
+    }
+
     @SuppressWarnings("unchecked")
     protected void validateResult(Object result) {
         if (result == null) {
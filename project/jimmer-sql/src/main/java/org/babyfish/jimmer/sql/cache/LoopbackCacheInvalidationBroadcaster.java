@@ -0,0 +1,51 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.sql.cache.spi.AbstractCacheInvalidationBroadcaster;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory broadcaster which simulates several nodes in one JVM, for test.
+ *
+ * <pre>{@code
+ * LoopbackCacheInvalidationBroadcaster node1 = new LoopbackCacheInvalidationBroadcaster();
+ * LoopbackCacheInvalidationBroadcaster node2 = new LoopbackCacheInvalidationBroadcaster(node1);
+ * }</pre>
+ */
+public class LoopbackCacheInvalidationBroadcaster extends AbstractCacheInvalidationBroadcaster {
+
+    private final List<LoopbackCacheInvalidationBroadcaster> group;
+
+    /**
+     * Creates the first node of a new group, messages are sent immediately.
+     */
+    public LoopbackCacheInvalidationBroadcaster() {
+        this(null, Duration.ZERO, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a node joining the group of another node, messages are sent immediately.
+     */
+    public LoopbackCacheInvalidationBroadcaster(LoopbackCacheInvalidationBroadcaster peer) {
+        this(peer, Duration.ZERO, Integer.MAX_VALUE);
+    }
+
+    public LoopbackCacheInvalidationBroadcaster(
+            LoopbackCacheInvalidationBroadcaster peer,
+            Duration flushDelay,
+            int maxBatchSize
+    ) {
+        super(null, flushDelay, maxBatchSize);
+        this.group = peer != null ? peer.group : new CopyOnWriteArrayList<>();
+        this.group.add(this);
+    }
+
+    @Override
+    protected void send(byte[] message) {
+        for (LoopbackCacheInvalidationBroadcaster node : group) {
+            node.receive(message);
+        }
+    }
+}
@@ -14,6 +14,16 @@ class ParameterizedLocatedCacheImpl<K, V> extends LocatedCacheImpl<K, V> impleme
         super(raw, type, prop);
     }
 
+    public ParameterizedLocatedCacheImpl(
+            Cache.Parameterized<K, V> raw,
+            ImmutableType type,
+            ImmutableProp prop,
+            CacheInvalidationBroadcaster broadcaster,
+            CacheMetrics metrics
+    ) {
+        super(raw, type, prop, broadcaster, metrics);
+    }
+
     @Override
     public @NotNull Map<K, V> getAll(
             @NotNull Collection<K> keys,
@@ -21,7 +31,10 @@ class ParameterizedLocatedCacheImpl<K, V> extends LocatedCacheImpl<K, V> impleme
             @NotNull CacheEnvironment<K, V> env
     ) {
         return loading(() -> {
-            Map<K, V> valueMap = ((Cache.Parameterized<K, V>)raw).getAll(keys, parameterMap, env);
+            Cache.Parameterized<K, V> parameterizedRaw = (Cache.Parameterized<K, V>) raw;
+            Map<K, V> valueMap = metrics == null ?
+                    parameterizedRaw.getAll(keys, parameterMap, env) :
+                    measure(keys, env, it -> parameterizedRaw.getAll(keys, parameterMap, it));
             for (V value : valueMap.values()) {
                 validateResult(value);
             }
@@ -19,33 +19,61 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
 
+/**
+ * Serializer of remote cache values.
+ *
+ * <p>By default, values are serialized as JSON. If `binary` is specified,
+ * values are serialized by a compact binary format without property names,
+ * and the values which cannot be represented by that format are still
+ * serialized as JSON.</p>
+ *
+ * <p>Both formats can always be deserialized, so for rolling upgrade,
+ * deploy the version which can read the binary format to all the
+ * applications before enabling `binary` for any of them. Binary values
+ * written by an application with a different entity model are treated
+ * as cache misses by the batch deserialization methods.</p>
+ */
 public class ValueSerializer<T> {
 
     private static final byte[] NULL_BYTES = "<null>".getBytes(StandardCharsets.UTF_8);
 
+    private static final Object MISS = new Object();
+
     private final ObjectMapper mapper;
 
     private final JavaType valueType;
 
     private final boolean requireNewDraftContext;
 
+    private final BinaryValueCodec binaryCodec;
+
+    private final boolean binary;
+
     public ValueSerializer(@NotNull ImmutableType type) {
-        this(type, null, null);
+        this(type, null, null, false);
     }
 
     public ValueSerializer(@NotNull ImmutableProp prop) {
-        this(null, prop, null);
+        this(null, prop, null, false);
     }
 
     public ValueSerializer(@NotNull ImmutableType type, ObjectMapper mapper) {
-        this(type, null, mapper);
+        this(type, null, mapper, false);
     }
 
     public ValueSerializer(@NotNull ImmutableProp prop, ObjectMapper mapper) {
-        this(null, prop, mapper);
+        this(null, prop, mapper, false);
+    }
+
+    public ValueSerializer(@NotNull ImmutableType type, ObjectMapper mapper, boolean binary) {
+        this(type, null, mapper, binary);
     }
 
-    private ValueSerializer(ImmutableType type, ImmutableProp prop, ObjectMapper mapper) {
+    public ValueSerializer(@NotNull ImmutableProp prop, ObjectMapper mapper, boolean binary) {
+        this(null, prop, mapper, binary);
+    }
+
+    private ValueSerializer(ImmutableType type, ImmutableProp prop, ObjectMapper mapper, boolean binary) {
         if ((type == null) == (prop == null)) {
             throw new IllegalArgumentException("Internal bug: nullity of type and prop must be different");
         }
@@ -76,6 +104,8 @@ public class ValueSerializer<T> {
             this.valueType = SimpleType.constructUnsafe(prop.getElementClass());
         }
         this.requireNewDraftContext = type != null;
+        this.binaryCodec = new BinaryValueCodec(type, prop, clonedMapper);
+        this.binary = binary;
     }
 
     @NotNull
@@ -83,11 +113,16 @@ public class ValueSerializer<T> {
         if (value == null) {
             return NULL_BYTES.clone();
         }
-        try {
-            return mapper.writeValueAsBytes(value);
-        } catch (JsonProcessingException ex) {
-            throw new SerializationException(ex);
+        byte[] bytes = binary ? binaryCodec.encode(value) : null;
+        if (bytes == null) {
+            try {
+                bytes = mapper.writeValueAsBytes(value);
+            } catch (JsonProcessingException ex) {
+                throw new SerializationException(ex);
+            }
         }
+        CacheMetricsScope.recordSerialization(bytes.length);
+        return bytes;
     }
 
     @NotNull
@@ -108,11 +143,20 @@ public class ValueSerializer<T> {
         return serializedMap;
     }
 
+    @SuppressWarnings("unchecked")
     public T deserialize(byte[] value) {
+        Object deserializedValue;
         if (!requireNewDraftContext) {
-            return deserializeImpl(value, null);
+            deserializedValue = deserializeImpl(value, null);
+        } else {
+            deserializedValue = Internal.requiresNewDraftContext(ctx -> deserializeImpl(value, ctx));
         }
-        return Internal.requiresNewDraftContext(ctx -> deserializeImpl(value, ctx));
+        if (deserializedValue == MISS) {
+            throw new SerializationException(
+                    "The binary value was serialized by another format version or another entity model"
+            );
+        }
+        return (T) deserializedValue;
     }
 
     @NotNull
@@ -120,12 +164,12 @@ public class ValueSerializer<T> {
         Map<K, T> deserializedMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
         if (!requireNewDraftContext) {
             for (Map.Entry<K, byte[]> e : map.entrySet()) {
-                deserializedMap.put(e.getKey(), deserializeImpl(e.getValue(), null));
+                putDeserialized(deserializedMap, e.getKey(), deserializeImpl(e.getValue(), null));
             }
         } else {
             Internal.requiresNewDraftContext(ctx -> {
                 for (Map.Entry<K, byte[]> e : map.entrySet()) {
-                    deserializedMap.put(e.getKey(), deserializeImpl(e.getValue(), ctx));
+                    putDeserialized(deserializedMap, e.getKey(), deserializeImpl(e.getValue(), ctx));
                 }
                 return null;
             });
@@ -138,12 +182,12 @@ public class ValueSerializer<T> {
         Map<K2, T> deserializedMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
         if (!requireNewDraftContext) {
             for (Map.Entry<K1, byte[]> e : map.entrySet()) {
-                deserializedMap.put(keyMapper.apply(e.getKey()), deserializeImpl(e.getValue(), null));
+                putDeserialized(deserializedMap, keyMapper.apply(e.getKey()), deserializeImpl(e.getValue(), null));
             }
         } else {
             Internal.requiresNewDraftContext(ctx -> {
                 for (Map.Entry<K1, byte[]> e : map.entrySet()) {
-                    deserializedMap.put(keyMapper.apply(e.getKey()), deserializeImpl(e.getValue(), ctx));
+                    putDeserialized(deserializedMap, keyMapper.apply(e.getKey()), deserializeImpl(e.getValue(), ctx));
                 }
                 return null;
             });
@@ -161,7 +205,7 @@ public class ValueSerializer<T> {
                 K key = keyItr.next();
                 byte[] byteArr = byteArrItr.next();
                 if (byteArr != null) {
-                    deserializedMap.put(key, deserializeImpl(byteArr, null));
+                    putDeserialized(deserializedMap, key, deserializeImpl(byteArr, null));
                 }
             }
         } else {
@@ -172,7 +216,7 @@ public class ValueSerializer<T> {
                     K key = keyItr.next();
                     byte[] byteArr = byteArrItr.next();
                     if (byteArr != null) {
-                        deserializedMap.put(key, deserializeImpl(byteArr, ctx));
+                        putDeserialized(deserializedMap, key, deserializeImpl(byteArr, ctx));
                     }
                 }
                 return null;
@@ -181,16 +225,31 @@ public class ValueSerializer<T> {
         return deserializedMap;
     }
 
-    private T deserializeImpl(byte[] value, DraftContext ctx) {
+    private Object deserializeImpl(byte[] value, DraftContext ctx) {
         if (value == null || value.length == 0 || Arrays.equals(value, NULL_BYTES)) {
             return null;
         }
-        T deserializedValue;
-        try {
-            deserializedValue = mapper.readValue(value, valueType);
-        } catch (IOException ex) {
-            throw new SerializationException(ex);
+        CacheMetricsScope.recordDeserialization(value.length);
+        Object deserializedValue;
+        if (BinaryValueCodec.isBinary(value)) {
+            if (!binaryCodec.isCompatible(value)) {
+                return MISS;
+            }
+            deserializedValue = binaryCodec.decode(value);
+        } else {
+            try {
+                deserializedValue = mapper.readValue(value, valueType);
+            } catch (IOException ex) {
+                throw new SerializationException(ex);
+            }
         }
         return ctx != null ? ctx.resolveObject(deserializedValue) : deserializedValue;
     }
+
+    @SuppressWarnings("unchecked")
+    private static <K, T> void putDeserialized(Map<K, T> map, K key, Object deserializedValue) {
+        if (deserializedValue != MISS) {
+            map.put(key, (T) deserializedValue);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.babyfish.jimmer.sql.cache.chain;
 
 import org.babyfish.jimmer.sql.cache.Cache;
 import org.babyfish.jimmer.sql.cache.CacheEnvironment;
+import org.babyfish.jimmer.sql.cache.CacheInvalidationBroadcaster;
 import org.babyfish.jimmer.sql.cache.CacheLoader;
 import org.jetbrains.annotations.NotNull;
 
@@ -77,7 +78,9 @@ class ChainCacheImpl<K, V> implements Cache<K, V> {
         @Override
         public void deleteAll(@NotNull Collection<K> keys, Object reason) {
             next.deleteAll(keys, reason);
-            binder.deleteAll(keys, reason);
+            if (isDeletable(binder, reason)) {
+                binder.deleteAll(keys, binderReason(reason));
+            }
         }
     }
 
@@ -103,7 +106,9 @@ class ChainCacheImpl<K, V> implements Cache<K, V> {
                         missedKeys.add(key);
                     }
                 }
+                long loadingStartNanos = System.nanoTime();
                 Map<K, V> mapFromNext = next.loadAll(missedKeys);
+                long loadingNanos = System.nanoTime() - loadingStartNanos;
                 if (mapFromNext.size() < missedKeys.size()) {
                     mapFromNext = new HashMap<>(mapFromNext);
                     for (K missedKey : missedKeys) {
@@ -112,7 +117,7 @@ class ChainCacheImpl<K, V> implements Cache<K, V> {
                         }
                     }
                 }
-                binder.setAll(mapFromNext);
+                binder.setAll(mapFromNext, loadingNanos);
                 map.putAll(mapFromNext);
             }
             return map;
@@ -121,17 +126,21 @@ class ChainCacheImpl<K, V> implements Cache<K, V> {
         @Override
         public void deleteAll(@NotNull Collection<K> keys, Object reason) {
             next.deleteAll(keys, reason);
-            binder.deleteAll(keys, reason);
+            if (isDeletable(binder, reason)) {
+                binder.deleteAll(keys, binderReason(reason));
+            }
         }
     }
 
     protected static class TailNode<K, V> implements Node<K, V> {
 
+        protected final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
         @NotNull
         @Override
         public Map<K, V> loadAll(@NotNull Collection<K> keys) {
             CacheLoader<K, V> loader = currentCacheLoader();
-            return loader.loadAll(keys);
+            return singleFlight.loadAll(keys, Collections.emptySortedMap(), loader);
         }
 
         @Override
@@ -139,6 +148,18 @@ class ChainCacheImpl<K, V> implements Cache<K, V> {
         }
     }
 
+    /**
+     * The evictions published by other nodes are only applied to local binders,
+     * shared binders have been evicted by the node which published them.
+     */
+    protected static boolean isDeletable(Object binder, Object reason) {
+        return binder instanceof LocalBinder || !CacheInvalidationBroadcaster.REASON.equals(reason);
+    }
+
+    protected static Object binderReason(Object reason) {
+        return CacheInvalidationBroadcaster.REASON.equals(reason) ? null : reason;
+    }
+
     protected static <R> R usingCacheLoading(
             CacheLoader<?, ?> loader,
             Supplier<R> block
@@ -0,0 +1,13 @@
+package org.babyfish.jimmer.sql.cache.chain;
+
+/**
+ * Marker interface of the binders which store data in the memory
+ * of current JVM, for example, the binders based on Caffeine.
+ *
+ * <p>The evictions published by other nodes through
+ * {@link org.babyfish.jimmer.sql.cache.CacheInvalidationBroadcaster}
+ * are only applied to local binders, because the shared binders
+ * have already been evicted by the node which published them.</p>
+ */
+public interface LocalBinder {
+}
@@ -70,7 +70,7 @@ class ParameterizedChainCacheImpl<K, V> extends ChainCacheImpl<K, V> implements
         @Override
         public @NotNull Map<K, V> loadAll(@NotNull Collection<K> keys, @NotNull SortedMap<String, Object> parameterMap) {
             CacheLoader<K, V> loader = currentCacheLoader();
-            return loader.loadAll(keys);
+            return singleFlight.loadAll(keys, parameterMap, loader);
         }
     }
 
@@ -104,7 +104,9 @@ class ParameterizedChainCacheImpl<K, V> extends ChainCacheImpl<K, V> implements
         @Override
         public void deleteAll(@NotNull Collection<K> keys, Object reason) {
             next.deleteAll(keys, reason);
-            binder.deleteAll(keys, reason);
+            if (isDeletable(binder, reason)) {
+                binder.deleteAll(keys, binderReason(reason));
+            }
         }
     }
 
@@ -129,7 +131,11 @@ class ParameterizedChainCacheImpl<K, V> extends ChainCacheImpl<K, V> implements
                         missedKeys.add(key);
                     }
                 }
-                Map<K, V> mapFromNext = next.loadAll(missedKeys);
+                long loadingStartNanos = System.nanoTime();
+                Map<K, V> mapFromNext = next instanceof ParameterizedNode<?, ?> ?
+                        ((ParameterizedNode<K, V>) next).loadAll(missedKeys, parameterMap) :
+                        next.loadAll(missedKeys);
+                long loadingNanos = System.nanoTime() - loadingStartNanos;
                 if (mapFromNext.size() < missedKeys.size()) {
                     mapFromNext = new HashMap<>(mapFromNext);
                     for (K missedKey : missedKeys) {
@@ -138,7 +144,7 @@ class ParameterizedChainCacheImpl<K, V> extends ChainCacheImpl<K, V> implements
                         }
                     }
                 }
-                parameterizedBinder.setAll(mapFromNext, parameterMap);
+                parameterizedBinder.setAll(mapFromNext, parameterMap, loadingNanos);
                 map.putAll(mapFromNext);
             }
             return map;
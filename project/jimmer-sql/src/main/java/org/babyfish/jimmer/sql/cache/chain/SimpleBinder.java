@@ -11,6 +11,18 @@ public interface SimpleBinder<K, V> {
 
     void setAll(Map<K, V> map);
 
+    /**
+     * Called by the chain after the missed keys have been loaded
+     * from the next nodes.
+     *
+     * @param map The loaded values
+     * @param loadingNanos The time spent loading the missed keys
+     *                     from the next nodes, in nanoseconds
+     */
+    default void setAll(Map<K, V> map, long loadingNanos) {
+        setAll(map);
+    }
+
     void deleteAll(Collection<K> keys, Object reason);
 
     interface Parameterized<K, V> extends SimpleBinder<K, V> {
@@ -32,5 +44,22 @@ public interface SimpleBinder<K, V> {
                 Map<K, V> map,
                 SortedMap<String, Object> parameterMap
         );
+
+        /**
+         * Called by the chain after the missed keys have been loaded
+         * from the next nodes.
+         *
+         * @param map The loaded values
+         * @param parameterMap The parameters of the values
+         * @param loadingNanos The time spent loading the missed keys
+         *                     from the next nodes, in nanoseconds
+         */
+        default void setAll(
+                Map<K, V> map,
+                SortedMap<String, Object> parameterMap,
+                long loadingNanos
+        ) {
+            setAll(map, parameterMap);
+        }
     }
 }
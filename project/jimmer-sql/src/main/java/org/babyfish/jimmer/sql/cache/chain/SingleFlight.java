@@ -0,0 +1,161 @@
+package org.babyfish.jimmer.sql.cache.chain;
+
+import org.babyfish.jimmer.sql.cache.CacheLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces the concurrent loading of the same keys.
+ *
+ * <p>When a hot key expires, all the concurrent requests miss all
+ * the cache binders, only the first one loads it from the database,
+ * others wait for and share its result.</p>
+ *
+ * <p>Each caller loads the keys owned by itself before waiting
+ * for the keys owned by others. If a loader requires a key which is
+ * being loaded by the current thread, that key is loaded again
+ * rather than waiting for itself.</p>
+ *
+ * <p>Waiting is bounded. The loader of one thread can hand nested loading
+ * over to another thread, for example, the fetcher executor, and that nested
+ * loading can require a key owned by a thread which is waiting for it in turn.
+ * To break such cycle, the keys which are not loaded by other threads
+ * in time are loaded by the current thread.</p>
+ */
+class SingleFlight<K, V> {
+
+    private static final Object ABSENT = new Object();
+
+    static final long DEFAULT_WAIT_MILLIS = 1000;
+
+    private final ConcurrentMap<Object, Flight> flightMap = new ConcurrentHashMap<>();
+
+    private final long waitNanos;
+
+    SingleFlight() {
+        this(DEFAULT_WAIT_MILLIS);
+    }
+
+    SingleFlight(long waitMillis) {
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public Map<K, V> loadAll(
+            @NotNull Collection<K> keys,
+            @NotNull SortedMap<String, Object> parameterMap,
+            @NotNull CacheLoader<K, V> loader
+    ) {
+        Thread currentThread = Thread.currentThread();
+        Map<K, Flight> ownedFlightMap = new LinkedHashMap<>();
+        Set<K> reentrantKeys = new LinkedHashSet<>();
+        Map<K, Flight> waitedFlightMap = new LinkedHashMap<>();
+        for (K key : keys) {
+            Object flightKey = parameterMap.isEmpty() ?
+                    key :
+                    new AbstractMap.SimpleImmutableEntry<>(parameterMap, key);
+            Flight flight = new Flight(flightKey, currentThread);
+            Flight existingFlight = flightMap.putIfAbsent(flightKey, flight);
+            if (existingFlight == null) {
+                ownedFlightMap.put(key, flight);
+            } else if (existingFlight.owner == currentThread) {
+                reentrantKeys.add(key);
+            } else {
+                waitedFlightMap.put(key, existingFlight);
+            }
+        }
+        Map<K, V> resultMap = new LinkedHashMap<>((keys.size() * 4 + 2) / 3);
+        if (!ownedFlightMap.isEmpty()) {
+            Map<K, V> loadedMap;
+            try {
+                loadedMap = loader.loadAll(ownedFlightMap.keySet());
+            } catch (RuntimeException | Error ex) {
+                for (Flight flight : ownedFlightMap.values()) {
+                    flight.future.completeExceptionally(ex);
+                    flightMap.remove(flight.key, flight);
+                }
+                throw ex;
+            }
+            for (Map.Entry<K, Flight> e : ownedFlightMap.entrySet()) {
+                K key = e.getKey();
+                Flight flight = e.getValue();
+                flight.future.complete(loadedMap.containsKey(key) ? loadedMap.get(key) : ABSENT);
+                flightMap.remove(flight.key, flight);
+            }
+            resultMap.putAll(loadedMap);
+        }
+        if (!reentrantKeys.isEmpty()) {
+            resultMap.putAll(loader.loadAll(reentrantKeys));
+        }
+        if (!waitedFlightMap.isEmpty()) {
+            loader.beforeWait(waitedFlightMap.keySet());
+            beforeWait(waitedFlightMap.keySet());
+        }
+        Set<K> timeoutKeys = null;
+        long deadline = System.nanoTime() + waitNanos;
+        for (Map.Entry<K, Flight> e : waitedFlightMap.entrySet()) {
+            Object value;
+            try {
+                value = e.getValue().future.get(
+                        Math.max(deadline - System.nanoTime(), 0L),
+                        TimeUnit.NANOSECONDS
+                );
+            } catch (TimeoutException ex) {
+                if (timeoutKeys == null) {
+                    timeoutKeys = new LinkedHashSet<>();
+                }
+                timeoutKeys.add(e.getKey());
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new CompletionException(cause);
+            }
+            if (value != ABSENT) {
+                resultMap.put(e.getKey(), (V) value);
+            }
+        }
+        if (timeoutKeys != null) {
+            // The owners may be waiting for the current thread, load these keys by itself
+            resultMap.putAll(loader.loadAll(timeoutKeys));
+        }
+        return resultMap;
+    }
+
+    /**
+     * Invoked before the current thread starts waiting for the keys
+     * loaded by other threads, does nothing by default.
+     */
+    void beforeWait(Collection<K> keys) {}
+
+    private static class Flight {
+
+        final Object key;
+
+        final Thread owner;
+
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        Flight(Object key, Thread owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+    }
+}
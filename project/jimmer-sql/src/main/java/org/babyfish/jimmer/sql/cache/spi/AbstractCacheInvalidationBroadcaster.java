@@ -0,0 +1,250 @@
+package org.babyfish.jimmer.sql.cache.spi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.babyfish.jimmer.sql.cache.CacheInvalidationBroadcaster;
+import org.babyfish.jimmer.sql.cache.SerializationException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * The base class of broadcasters based on message channels.
+ *
+ * <p>Published keys are buffered, duplicated keys of the same cache
+ * are merged, and the buffer is sent as one message after `flushDelay`,
+ * or immediately when it contains `maxBatchSize` keys.
+ * If `flushDelay` is zero, each publication is sent immediately.</p>
+ *
+ * <p>The message is JSON which contains the id of the sender,
+ * so that the derived class does not need to filter the
+ * messages sent by itself.</p>
+ *
+ * <p>Each cache name can be subscribed only once, and a closed
+ * broadcaster rejects new publications.</p>
+ */
+public abstract class AbstractCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCacheInvalidationBroadcaster.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ObjectMapper objectMapper;
+
+    private final long flushDelayMillis;
+
+    private final int maxBatchSize;
+
+    private final Map<String, Subscription> subscriptionMap = new ConcurrentHashMap<>();
+
+    private Map<String, Set<Object>> bufferMap = new LinkedHashMap<>();
+
+    private int bufferSize;
+
+    private ScheduledExecutorService scheduler;
+
+    private boolean closed;
+
+    protected AbstractCacheInvalidationBroadcaster(
+            ObjectMapper objectMapper,
+            Duration flushDelay,
+            int maxBatchSize
+    ) {
+        if (flushDelay.isNegative()) {
+            throw new IllegalArgumentException("flushDelay cannot be negative");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize cannot be less than 1");
+        }
+        this.objectMapper = objectMapper != null ?
+                objectMapper :
+                new ObjectMapper().registerModule(new JavaTimeModule());
+        this.flushDelayMillis = flushDelay.toMillis();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public final void publish(@NotNull String cacheName, @NotNull Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Map<String, Set<Object>> flushedMap = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException(
+                        "Cannot publish the keys of \"" +
+                                cacheName +
+                                "\" because the broadcaster has been closed"
+                );
+            }
+            Set<Object> bufferedKeys = bufferMap.computeIfAbsent(cacheName, it -> new LinkedHashSet<>());
+            int oldBufferSize = bufferSize;
+            int oldKeyCount = bufferedKeys.size();
+            bufferedKeys.addAll(keys);
+            bufferSize += bufferedKeys.size() - oldKeyCount;
+            if (flushDelayMillis == 0 || bufferSize >= maxBatchSize) {
+                flushedMap = takeBuffer();
+            } else if (oldBufferSize == 0) {
+                scheduler().schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushedMap != null) {
+            sendMap(flushedMap);
+        }
+    }
+
+    @Override
+    public final void subscribe(
+            @NotNull String cacheName,
+            @NotNull Class<?> keyType,
+            @NotNull Consumer<Collection<?>> listener
+    ) {
+        if (subscriptionMap.putIfAbsent(cacheName, new Subscription(keyType, listener)) != null) {
+            throw new IllegalStateException(
+                    "The cache \"" +
+                            cacheName +
+                            "\" has already been subscribed"
+            );
+        }
+    }
+
+    /**
+     * Sends the buffered keys immediately
+     */
+    public final void flush() {
+        Map<String, Set<Object>> flushedMap;
+        synchronized (this) {
+            flushedMap = takeBuffer();
+        }
+        if (flushedMap != null) {
+            sendMap(flushedMap);
+        }
+    }
+
+    @Override
+    public void close() {
+        Map<String, Set<Object>> flushedMap;
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushedMap = takeBuffer();
+            scheduler = this.scheduler;
+            this.scheduler = null;
+        }
+        if (flushedMap != null) {
+            sendMap(flushedMap);
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Sends the message to other nodes
+     */
+    protected abstract void send(byte[] message);
+
+    /**
+     * Derived class calls this method when message is received,
+     * the messages sent by itself are ignored.
+     */
+    protected final void receive(byte[] message) {
+        JsonNode rootNode;
+        try {
+            rootNode = objectMapper.readTree(message);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        }
+        if (nodeId.equals(rootNode.path("sender").asText())) {
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> itr = rootNode.path("caches").fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> e = itr.next();
+            Subscription subscription = subscriptionMap.get(e.getKey());
+            if (subscription == null) {
+                continue;
+            }
+            List<Object> keys = new ArrayList<>(e.getValue().size());
+            for (JsonNode keyNode : e.getValue()) {
+                try {
+                    keys.add(objectMapper.treeToValue(keyNode, subscription.keyType));
+                } catch (IOException ex) {
+                    throw new SerializationException(ex);
+                }
+            }
+            subscription.listener.accept(keys);
+        }
+    }
+
+    private Map<String, Set<Object>> takeBuffer() {
+        if (bufferSize == 0) {
+            return null;
+        }
+        Map<String, Set<Object>> map = bufferMap;
+        bufferMap = new LinkedHashMap<>();
+        bufferSize = 0;
+        return map;
+    }
+
+    private void sendMap(Map<String, Set<Object>> map) {
+        ObjectNode rootNode = objectMapper.createObjectNode();
+        rootNode.put("sender", nodeId);
+        ObjectNode cachesNode = rootNode.putObject("caches");
+        for (Map.Entry<String, Set<Object>> e : map.entrySet()) {
+            ArrayNode keysNode = cachesNode.putArray(e.getKey());
+            for (Object key : e.getValue()) {
+                keysNode.addPOJO(key);
+            }
+        }
+        byte[] message;
+        try {
+            message = objectMapper.writeValueAsBytes(rootNode);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        }
+        try {
+            send(message);
+        } catch (RuntimeException ex) {
+            // The local eviction has been done, other nodes
+            // will be eventually consistent when their data expire
+            LOGGER.error("Cannot broadcast cache invalidation message", ex);
+        }
+    }
+
+    private ScheduledExecutorService scheduler() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            this.scheduler = scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jimmer-cache-invalidation-broadcaster");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private static class Subscription {
+
+        final Class<?> keyType;
+
+        final Consumer<Collection<?>> listener;
+
+        Subscription(Class<?> keyType, Consumer<Collection<?>> listener) {
+            this.keyType = keyType;
+            this.listener = listener;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.sql.cache.ValueSerializer;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -14,6 +15,11 @@ import java.util.stream.Collectors;
 
 abstract class AbstractRemoteBinder<K, V> {
 
+    // JSON, the null marker and the binary format of `ValueSerializer` never start with it
+    private static final byte ENVELOPE_MAGIC = 1;
+
+    private static final int ENVELOPE_HEADER_SIZE = 17;
+
     final ObjectMapper objectMapper;
 
     private final String keyPrefix;
@@ -24,12 +30,16 @@ abstract class AbstractRemoteBinder<K, V> {
 
     final ValueSerializer<V> valueSerializer;
 
+    private final double refreshAheadBeta;
+
     AbstractRemoteBinder(
             ObjectMapper objectMapper,
             ImmutableType type,
             ImmutableProp prop,
             Duration duration,
-            int randomPercent
+            int randomPercent,
+            boolean binary,
+            double refreshAheadBeta
     ) {
         if (objectMapper != null) {
             if (!objectMapper.getRegisteredModuleIds().contains(ImmutableModule.class.getName())) {
@@ -47,6 +57,10 @@ abstract class AbstractRemoteBinder<K, V> {
         if (randomPercent < 0 || randomPercent > 99) {
             throw new IllegalArgumentException("randomPercent must between 0 and 99");
         }
+        if (refreshAheadBeta < 0 || Double.isNaN(refreshAheadBeta) || Double.isInfinite(refreshAheadBeta)) {
+            throw new IllegalArgumentException("refreshAheadBeta must be a non-negative finite number");
+        }
+        this.refreshAheadBeta = refreshAheadBeta;
         if (type != null) {
             this.keyPrefix = getKeyPrefix(type);
         } else {
@@ -56,9 +70,9 @@ abstract class AbstractRemoteBinder<K, V> {
         minMills = millis - randomPercent * millis / 100;
         maxMillis = millis + randomPercent * millis / 100;
         if (type != null) {
-            valueSerializer = new ValueSerializer<>(type, objectMapper);
+            valueSerializer = new ValueSerializer<>(type, objectMapper, binary);
         } else {
-            valueSerializer = new ValueSerializer<>(prop, objectMapper);
+            valueSerializer = new ValueSerializer<>(prop, objectMapper, binary);
         }
     }
 
@@ -74,6 +88,75 @@ abstract class AbstractRemoteBinder<K, V> {
         return ThreadLocalRandom.current().nextLong(minMills, maxMillis);
     }
 
+    /**
+     * Opens the values written by refresh-ahead mode. If the value should be
+     * refreshed early, it is replaced by null so that the current caller
+     * treats it as a miss and reloads it, while other callers still use it.
+     *
+     * <p>The values are always opened even if refresh-ahead is disabled,
+     * so that this mode can be switched during rolling upgrade.</p>
+     */
+    List<byte[]> openValues(List<byte[]> values) {
+        List<byte[]> openedValues = new ArrayList<>(values.size());
+        long now = System.currentTimeMillis();
+        for (byte[] value : values) {
+            if (value == null || value.length < ENVELOPE_HEADER_SIZE || value[0] != ENVELOPE_MAGIC) {
+                openedValues.add(value);
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            buffer.get();
+            long writeMillis = buffer.getLong();
+            long deltaNanos = buffer.getLong();
+            if (refreshAheadBeta > 0 && shouldRefresh(now, writeMillis + minMills, deltaNanos)) {
+                openedValues.add(null);
+            } else {
+                openedValues.add(Arrays.copyOfRange(value, ENVELOPE_HEADER_SIZE, value.length));
+            }
+        }
+        return openedValues;
+    }
+
+    /**
+     * Adds the write time and the loading duration
+     * to the values if refresh-ahead is enabled
+     *
+     * @param deltaNanos The time spent by the chain loading the values in nanoseconds,
+     *                   it is 0 if the values are not written by the chain
+     */
+    Map<String, byte[]> closeValues(Map<String, byte[]> map, long deltaNanos) {
+        if (refreshAheadBeta == 0) {
+            return map;
+        }
+        long writeMillis = System.currentTimeMillis();
+        Map<String, byte[]> closedMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
+        for (Map.Entry<String, byte[]> e : map.entrySet()) {
+            byte[] value = e.getValue();
+            closedMap.put(
+                    e.getKey(),
+                    ByteBuffer
+                            .allocate(ENVELOPE_HEADER_SIZE + value.length)
+                            .put(ENVELOPE_MAGIC)
+                            .putLong(writeMillis)
+                            .putLong(deltaNanos)
+                            .put(value)
+                            .array()
+            );
+        }
+        return closedMap;
+    }
+
+    /**
+     * XFetch: the probability of refreshing increases as the expiration approaches,
+     * and entries that take longer to load are refreshed earlier.
+     */
+    private boolean shouldRefresh(long now, long expireMillis, long deltaNanos) {
+        double random = 1 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        // Fractional milliseconds, so that fast loaders still get a chance to refresh early
+        double deltaMillis = deltaNanos / 1_000_000.0;
+        return now - deltaMillis * refreshAheadBeta * Math.log(random) >= expireMillis;
+    }
+
     public final void deleteAll(Collection<K> keys, Object reason) {
         if (reason == null || reason.equals(this.reason())) {
             Collection<String> redisKeys = redisKeys(keys);
@@ -22,7 +22,44 @@ public abstract class AbstractRemoteHashBinder<K, V>
             Duration duration,
             int randomPercent
     ) {
-        super(objectMapper, type, prop, duration, randomPercent);
+        super(objectMapper, type, prop, duration, randomPercent, false, 0);
+    }
+
+    /**
+     * @param binary Whether the values are serialized by the compact binary format
+     *               instead of JSON, please see {@link org.babyfish.jimmer.sql.cache.ValueSerializer}
+     */
+    protected AbstractRemoteHashBinder(
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            ImmutableProp prop,
+            Duration duration,
+            int randomPercent,
+            boolean binary
+    ) {
+        super(objectMapper, type, prop, duration, randomPercent, binary, 0);
+    }
+
+    /**
+     * @param binary Whether the values are serialized by the compact binary format
+     *               instead of JSON, please see {@link org.babyfish.jimmer.sql.cache.ValueSerializer}
+     * @param refreshAheadBeta If it is positive, the write time and the loading duration
+     *                         are stored with the values, and the values are refreshed
+     *                         before they expire, with a probability which increases as
+     *                         the expiration approaches (XFetch). The larger the value,
+     *                         the earlier the refresh, 1.0 is a good default.
+     *                         If it is 0, refresh-ahead is disabled.
+     */
+    protected AbstractRemoteHashBinder(
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            ImmutableProp prop,
+            Duration duration,
+            int randomPercent,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, type, prop, duration, randomPercent, binary, refreshAheadBeta);
     }
 
     @Override
@@ -32,7 +69,12 @@ public abstract class AbstractRemoteHashBinder<K, V>
 
     @Override
     public final void setAll(Map<K, V> map) {
-        setAll(map, Collections.emptySortedMap());
+        setAll(map, Collections.emptySortedMap(), 0L);
+    }
+
+    @Override
+    public final void setAll(Map<K, V> map, long loadingNanos) {
+        setAll(map, Collections.emptySortedMap(), loadingNanos);
     }
 
     @Override
@@ -40,14 +82,23 @@ public abstract class AbstractRemoteHashBinder<K, V>
         Collection<String> redisKeys = redisKeys(keys);
         String hashKey = hashKey(parameterMap);
         List<byte[]> values = read(redisKeys, hashKey);
-        return valueSerializer.deserialize(keys, values);
+        return valueSerializer.deserialize(keys, openValues(values));
     }
 
     @Override
     public final void setAll(Map<K, V> map, SortedMap<String, Object> parameterMap) {
+        setAll(map, parameterMap, 0L);
+    }
+
+    @Override
+    public final void setAll(
+            Map<K, V> map,
+            SortedMap<String, Object> parameterMap,
+            long loadingNanos
+    ) {
         Map<String, byte[]> convertedMap = valueSerializer.serialize(map, this::redisKey);
         String hashKey = hashKey(parameterMap);
-        write(convertedMap, hashKey);
+        write(closeValues(convertedMap, loadingNanos), hashKey);
     }
 
     protected abstract List<byte[]> read(Collection<String> keys, String hashKey);
@@ -21,20 +21,62 @@ public abstract class AbstractRemoteValueBinder<K, V>
             Duration duration,
             int randomPercent
     ) {
-        super(objectMapper, type, prop, duration, randomPercent);
+        super(objectMapper, type, prop, duration, randomPercent, false, 0);
+    }
+
+    /**
+     * @param binary Whether the values are serialized by the compact binary format
+     *               instead of JSON, please see {@link org.babyfish.jimmer.sql.cache.ValueSerializer}
+     */
+    protected AbstractRemoteValueBinder(
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            ImmutableProp prop,
+            Duration duration,
+            int randomPercent,
+            boolean binary
+    ) {
+        super(objectMapper, type, prop, duration, randomPercent, binary, 0);
+    }
+
+    /**
+     * @param binary Whether the values are serialized by the compact binary format
+     *               instead of JSON, please see {@link org.babyfish.jimmer.sql.cache.ValueSerializer}
+     * @param refreshAheadBeta If it is positive, the write time and the loading duration
+     *                         are stored with the values, and the values are refreshed
+     *                         before they expire, with a probability which increases as
+     *                         the expiration approaches (XFetch). The larger the value,
+     *                         the earlier the refresh, 1.0 is a good default.
+     *                         If it is 0, refresh-ahead is disabled.
+     */
+    protected AbstractRemoteValueBinder(
+            ObjectMapper objectMapper,
+            ImmutableType type,
+            ImmutableProp prop,
+            Duration duration,
+            int randomPercent,
+            boolean binary,
+            double refreshAheadBeta
+    ) {
+        super(objectMapper, type, prop, duration, randomPercent, binary, refreshAheadBeta);
     }
 
     @Override
     public final Map<K, V> getAll(Collection<K> keys) {
         Collection<String> redisKeys = redisKeys(keys);
         List<byte[]> values = read(redisKeys);
-        return valueSerializer.deserialize(keys, values);
+        return valueSerializer.deserialize(keys, openValues(values));
     }
 
     @Override
     public final void setAll(Map<K, V> map) {
+        setAll(map, 0L);
+    }
+
+    @Override
+    public final void setAll(Map<K, V> map, long loadingNanos) {
         Map<String, byte[]> convertedMap = valueSerializer.serialize(map, this::redisKey);
-        write(convertedMap);
+        write(closeValues(convertedMap, loadingNanos));
     }
 
     protected abstract List<byte[]> read(Collection<String> keys);
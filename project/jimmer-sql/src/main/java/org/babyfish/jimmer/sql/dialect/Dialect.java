@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.JavaType;
 import org.babyfish.jimmer.sql.runtime.ExecutionException;
 import org.jetbrains.annotations.Nullable;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Types;
 
 public interface Dialect {
@@ -55,4 +58,78 @@ public interface Dialect {
     default int resolveUnknownJdbcType(Class<?> sqlType) {
         return Types.OTHER;
     }
+
+    /**
+     * Returns the SQL type name of array elements if this dialect
+     * supports `expr = any(?)` with an array parameter of the element type.
+     *
+     * <p>If it returns non-null value, `in` lists of single column are rendered
+     * as `= any(?)`(or `<> all(?)` for `not in`) with only one array parameter,
+     * so that the SQL does not change with the number of values.</p>
+     *
+     * @param elementType The jdbc type of the elements, after scalar providers are applied
+     * @return The type name for {@link java.sql.Connection#createArrayOf(String, Object[])},
+     *          or null if it is not supported
+     */
+    @Nullable
+    default String getArrayElementType(Class<?> elementType) {
+        return null;
+    }
+
+    /**
+     * Applies the fetch size of `Query.forEach` to the JDBC statement.
+     *
+     * @param fetchSize A positive integer
+     */
+    default void setFetchSize(PreparedStatement stmt, int fetchSize) throws SQLException {
+        stmt.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Whether no other statement can be executed by the connection
+     * while a result set read with the fetch size is still open.
+     *
+     * <p>If it returns true, `Query.forEach` and `ConfigurableRootQuery.stream`
+     * ignore the fetch size when the query has object fetchers, because the
+     * fetchers execute other statements before the result set is closed</p>
+     */
+    default boolean isFetchSizeExclusive(Connection con) throws SQLException {
+        return false;
+    }
+
+    /**
+     * Whether the JDBC driver ignores the fetch size and buffers the whole result set
+     * unless the auto-commit of the connection is disabled.
+     *
+     * <p>If it returns true, `Query.forEach` disables the auto-commit
+     * during the iteration when fetch size is specified</p>
+     */
+    default boolean isFetchSizeRequiresTransaction() {
+        return false;
+    }
+
+    /**
+     * Whether row value comparison such as `(a, b) > (?, ?)` is supported.
+     *
+     * <p>It is used by keyset pagination, if it returns false, the predicate
+     * is rendered as `a > ? or a = ? and b > ?`</p>
+     */
+    default boolean isTupleComparisonSupported() {
+        return false;
+    }
+
+    /**
+     * Whether the JDBC driver reports the affected row count of each statement
+     * of a batch instead of `Statement.SUCCESS_NO_INFO`.
+     *
+     * <p>Versioned entities are only saved by statement batching when it returns true
+     * and an unversioned batch of several statements has shown that the driver
+     * really reports them, because the optimistic lock cannot be checked without
+     * the row counts. If a batch reports `SUCCESS_NO_INFO` anyway, the driver is
+     * treated as not supporting it from then on, and the versions of its versioned
+     * rows are re-verified by query</p>
+     */
+    default boolean isBatchRowCountReported() {
+        return true;
+    }
 }
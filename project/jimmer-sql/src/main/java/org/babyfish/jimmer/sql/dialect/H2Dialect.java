@@ -6,4 +6,9 @@ public class H2Dialect extends DefaultDialect {
     public String getSelectIdFromSequenceSql(String sequenceName) {
         return "select nextval('" + sequenceName + "')";
     }
+
+    @Override
+    public boolean isTupleComparisonSupported() {
+        return true;
+    }
 }
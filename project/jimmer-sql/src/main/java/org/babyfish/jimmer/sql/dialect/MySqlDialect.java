@@ -1,10 +1,30 @@
 package org.babyfish.jimmer.sql.dialect;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 /**
  * For MySQL or TiDB
  */
 public class MySqlDialect implements Dialect {
 
+    private volatile Boolean cursorFetch;
+
+    /**
+     * Whether `useCursorFetch=true` is specified is resolved by the JDBC url
+     * of the first connection, a dialect instance belongs to one sql client,
+     * so it is resolved once per data source.
+     */
+    public MySqlDialect() {}
+
+    /**
+     * @param cursorFetch Whether `useCursorFetch=true` is specified by the JDBC url
+     */
+    public MySqlDialect(boolean cursorFetch) {
+        this.cursorFetch = cursorFetch;
+    }
+
     @Override
     public void paginate(PaginationContext ctx) {
         ctx
@@ -25,4 +45,41 @@ public class MySqlDialect implements Dialect {
     public boolean isDeletedAliasRequired() {
         return true;
     }
+
+    /**
+     * Unless `useCursorFetch=true` is specified by the JDBC url,
+     * MySQL driver ignores positive fetch size and only supports
+     * row-by-row streaming by `Integer.MIN_VALUE`.
+     *
+     * <p>Note, when row-by-row streaming is used, no other statements
+     * can be executed by the same connection before the result set is closed,
+     * see {@link #isFetchSizeExclusive(Connection)}</p>
+     */
+    @Override
+    public void setFetchSize(PreparedStatement stmt, int fetchSize) throws SQLException {
+        if (isCursorFetch(stmt.getConnection())) {
+            stmt.setFetchSize(fetchSize);
+        } else {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    @Override
+    public boolean isFetchSizeExclusive(Connection con) throws SQLException {
+        return !isCursorFetch(con);
+    }
+
+    private boolean isCursorFetch(Connection con) throws SQLException {
+        Boolean cursorFetch = this.cursorFetch;
+        if (cursorFetch == null) {
+            String url = con.getMetaData().getURL();
+            this.cursorFetch = cursorFetch = url != null && url.contains("useCursorFetch=true");
+        }
+        return cursorFetch;
+    }
+
+    @Override
+    public boolean isTupleComparisonSupported() {
+        return true;
+    }
 }
@@ -54,6 +54,12 @@ public class OracleDialect implements Dialect {
         return false;
     }
 
+    @Override
+    public boolean isBatchRowCountReported() {
+        // Drivers older than 12c return `SUCCESS_NO_INFO` for each statement
+        return false;
+    }
+
     @Override
     public @Nullable String getConstantTableName() {
         return "dual";
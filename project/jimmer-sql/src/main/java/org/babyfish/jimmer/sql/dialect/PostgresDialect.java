@@ -3,7 +3,9 @@ package org.babyfish.jimmer.sql.dialect;
 import com.fasterxml.jackson.databind.JavaType;
 import org.postgresql.util.PGobject;
 
+import java.math.BigDecimal;
 import java.sql.Types;
+import java.util.UUID;
 
 public class PostgresDialect extends DefaultDialect {
 
@@ -48,4 +50,37 @@ public class PostgresDialect extends DefaultDialect {
         }
         return Types.OTHER;
     }
+
+    @Override
+    public String getArrayElementType(Class<?> elementType) {
+        if (elementType == UUID.class) {
+            return "uuid";
+        }
+        if (elementType == String.class) {
+            return "text";
+        }
+        if (elementType == Long.class) {
+            return "int8";
+        }
+        if (elementType == Integer.class) {
+            return "int4";
+        }
+        if (elementType == Short.class) {
+            return "int2";
+        }
+        if (elementType == BigDecimal.class) {
+            return "numeric";
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isFetchSizeRequiresTransaction() {
+        return true;
+    }
+
+    @Override
+    public boolean isTupleComparisonSupported() {
+        return true;
+    }
 }
@@ -0,0 +1,387 @@
+package org.babyfish.jimmer.sql.event;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the events of transaction triggers asynchronously.
+ *
+ * <p>It is only used when the trigger type is {@link TriggerType#TRANSACTION_ONLY}.
+ * The events submitted by one mutation are buffered, duplicated events
+ * are coalesced(several changes of the same entity become one change
+ * from the first old entity to the last new entity; several attachments and
+ * detachments of the same association become the last one, or nothing if
+ * the last one reverts the first one), then they are grouped
+ * by entity type and each group is delivered to the listeners by one task
+ * of the executor.</p>
+ *
+ * <p>The delivery is started by {@link #schedule(Runnable)} which must be
+ * implemented by the derived class, it should start the delivery after the
+ * current transaction is committed and discard it after rollback, otherwise
+ * listeners may observe changes which are never committed. For spring,
+ * please use `org.babyfish.jimmer.spring.repository.SpringAsyncTriggerDispatcher`.</p>
+ *
+ * <p>Because the listeners are called after the mutation finished,
+ * the connection of {@link EntityEvent} and {@link AssociationEvent} is always null,
+ * listeners which need to change database in the same transaction
+ * cannot use this dispatcher.</p>
+ *
+ * <p>Back-pressure: when the count of pending events would exceed
+ * `maxPendingEventCount`, the events are delivered by the submitting thread.</p>
+ */
+public abstract class AsyncTriggerDispatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTriggerDispatcher.class);
+
+    private final Executor executor;
+
+    private final int maxPendingEventCount;
+
+    private final Ordering defaultOrdering;
+
+    private final Map<ImmutableType, Ordering> orderingMap = new ConcurrentHashMap<>();
+
+    private final Map<ImmutableType, Lane> laneMap = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingEventCount = new AtomicInteger();
+
+    private final AtomicInteger peakPendingEventCount = new AtomicInteger();
+
+    private final AtomicLong deliveredEventCount = new AtomicLong();
+
+    private final AtomicLong coalescedEventCount = new AtomicLong();
+
+    private final AtomicLong callerRunsCount = new AtomicLong();
+
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Create dispatcher with its own single daemon thread,
+     * events are delivered in the order of submission.
+     */
+    public AsyncTriggerDispatcher(int maxPendingEventCount) {
+        this(null, maxPendingEventCount, Ordering.ORDERED);
+    }
+
+    /**
+     * @param executor The executor to deliver events, if it is null,
+     *                 a single daemon thread owned by this dispatcher is used
+     * @param maxPendingEventCount The max count of events which are submitted but not delivered
+     * @param defaultOrdering The ordering of entity types which are not configured
+     *                        by {@link #setOrdering(Class, Ordering)}
+     */
+    public AsyncTriggerDispatcher(Executor executor, int maxPendingEventCount, Ordering defaultOrdering) {
+        if (maxPendingEventCount < 1) {
+            throw new IllegalArgumentException("maxPendingEventCount cannot be less than 1");
+        }
+        if (executor == null) {
+            this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jimmer-trigger-dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = this.ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.maxPendingEventCount = maxPendingEventCount;
+        this.defaultOrdering = Objects.requireNonNull(defaultOrdering, "defaultOrdering cannot be null");
+    }
+
+    public AsyncTriggerDispatcher setOrdering(Class<?> entityType, Ordering ordering) {
+        return setOrdering(ImmutableType.get(entityType), ordering);
+    }
+
+    public AsyncTriggerDispatcher setOrdering(ImmutableType entityType, Ordering ordering) {
+        if (!entityType.isEntity()) {
+            throw new IllegalArgumentException("\"" + entityType + "\" is not entity");
+        }
+        orderingMap.put(entityType, Objects.requireNonNull(ordering, "ordering cannot be null"));
+        return this;
+    }
+
+    /**
+     * Dispatch the events submitted by one mutation.
+     *
+     * @param triggers The triggers whose listeners receive the events
+     * @param events The elements are {@link EntityEvent} or {@link AssociationEvent}
+     */
+    public final void dispatch(Triggers triggers, List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<ImmutableType, List<Object>> groupMap = coalesce(events);
+        schedule(() -> {
+            for (Map.Entry<ImmutableType, List<Object>> e : groupMap.entrySet()) {
+                submit(triggers, e.getKey(), e.getValue());
+            }
+        });
+    }
+
+    /**
+     * Start the delivery of the events submitted by one mutation.
+     *
+     * <p>This method is called before the current transaction is committed,
+     * the implementation should run the delivery after commit and
+     * discard it after rollback. If there is no transaction, it can run
+     * the delivery immediately.</p>
+     */
+    protected abstract void schedule(Runnable delivery);
+
+    public int getPendingEventCount() {
+        return pendingEventCount.get();
+    }
+
+    public int getPeakPendingEventCount() {
+        return peakPendingEventCount.get();
+    }
+
+    public int getMaxPendingEventCount() {
+        return maxPendingEventCount;
+    }
+
+    public long getDeliveredEventCount() {
+        return deliveredEventCount.get();
+    }
+
+    /**
+     * The count of events which are merged into other events
+     */
+    public long getCoalescedEventCount() {
+        return coalescedEventCount.get();
+    }
+
+    /**
+     * The count of event groups delivered by the submitting thread
+     * because too many events are pending or the executor rejects the task
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    /**
+     * The count of listener invocations which throw exceptions
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private Map<ImmutableType, List<Object>> coalesce(List<?> events) {
+        Map<ImmutableType, Map<Object, Object>> map = new LinkedHashMap<>();
+        for (Object event : events) {
+            ImmutableType type;
+            Object key;
+            Object value = event;
+            if (event instanceof EntityEvent<?>) {
+                EntityEvent<?> entityEvent = (EntityEvent<?>) event;
+                type = entityEvent.getImmutableType();
+                key = entityEvent.getId();
+            } else if (event instanceof AssociationEvent) {
+                AssociationEvent associationEvent = (AssociationEvent) event;
+                type = associationEvent.getImmutableProp().getDeclaringType();
+                key = associationKey(associationEvent);
+            } else {
+                throw new IllegalArgumentException(
+                        "The event must be \"" +
+                                EntityEvent.class.getName() +
+                                "\" or \"" +
+                                AssociationEvent.class.getName() +
+                                "\""
+                );
+            }
+            Map<Object, Object> subMap = map.computeIfAbsent(type, it -> new LinkedHashMap<>());
+            Object existing = subMap.get(key);
+            if (existing != null) {
+                coalescedEventCount.incrementAndGet();
+                if (existing instanceof EntityEvent<?>) {
+                    value = merge((EntityEvent<?>) existing, (EntityEvent<?>) event);
+                    if (value == null) {
+                        subMap.remove(key);
+                        coalescedEventCount.incrementAndGet();
+                        continue;
+                    }
+                } else {
+                    // The kept event always has the type of the first change,
+                    // the same type is kept as the last event of the key,
+                    // the opposite type reverts the first change
+                    subMap.remove(key);
+                    if (((AssociationEvent) existing).getType() != ((AssociationEvent) event).getType()) {
+                        coalescedEventCount.incrementAndGet();
+                        continue;
+                    }
+                }
+            }
+            subMap.put(key, value);
+        }
+        Map<ImmutableType, List<Object>> groupMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
+        for (Map.Entry<ImmutableType, Map<Object, Object>> e : map.entrySet()) {
+            if (!e.getValue().isEmpty()) {
+                groupMap.put(e.getKey(), new ArrayList<>(e.getValue().values()));
+            }
+        }
+        return groupMap;
+    }
+
+    /**
+     * Only attachment and detachment are coalesced,
+     * other association events are delivered as they are.
+     */
+    private static Object associationKey(AssociationEvent event) {
+        switch (event.getType()) {
+            case ATTACH:
+                return Arrays.asList(event.getImmutableProp(), event.getSourceId(), event.getAttachedTargetId());
+            case DETACH:
+                return Arrays.asList(event.getImmutableProp(), event.getSourceId(), event.getDetachedTargetId());
+            default:
+                return new Object();
+        }
+    }
+
+    private static EntityEvent<?> merge(EntityEvent<?> first, EntityEvent<?> second) {
+        Object oldEntity = first.getOldEntity();
+        Object newEntity = second.getNewEntity();
+        if (oldEntity == null && newEntity == null) {
+            // Inserted and then deleted, nothing is changed
+            return null;
+        }
+        return new EntityEvent<>((ImmutableSpi) oldEntity, (ImmutableSpi) newEntity, null, second.getReason());
+    }
+
+    private void submit(Triggers triggers, ImmutableType type, List<Object> events) {
+        int size = events.size();
+        int pending = pendingEventCount.addAndGet(size);
+        if (pending > maxPendingEventCount) {
+            pendingEventCount.addAndGet(-size);
+            callerRunsCount.incrementAndGet();
+            deliver(triggers, events);
+            return;
+        }
+        peakPendingEventCount.accumulateAndGet(pending, Math::max);
+        Runnable task = () -> {
+            try {
+                deliver(triggers, events);
+            } finally {
+                pendingEventCount.addAndGet(-size);
+            }
+        };
+        Ordering ordering = orderingMap.getOrDefault(type, defaultOrdering);
+        if (ordering == Ordering.ORDERED) {
+            laneMap.computeIfAbsent(type, it -> new Lane()).add(task);
+        } else {
+            execute(task);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            callerRunsCount.incrementAndGet();
+            task.run();
+        }
+    }
+
+    private void deliver(Triggers triggers, List<Object> events) {
+        for (Object event : events) {
+            try {
+                if (event instanceof EntityEvent<?>) {
+                    EntityEvent<?> e = (EntityEvent<?>) event;
+                    triggers.fireEntityTableChange(e.getOldEntity(), e.getNewEntity(), null, e.getReason());
+                } else {
+                    AssociationEvent e = (AssociationEvent) event;
+                    if (e.getDetachedTargetId() == null) {
+                        triggers.fireMiddleTableInsert(
+                                e.getImmutableProp(),
+                                e.getSourceId(),
+                                e.getAttachedTargetId(),
+                                null,
+                                e.getReason()
+                        );
+                    } else {
+                        triggers.fireMiddleTableDelete(
+                                e.getImmutableProp(),
+                                e.getSourceId(),
+                                e.getDetachedTargetId(),
+                                null,
+                                e.getReason()
+                        );
+                    }
+                }
+            } catch (RuntimeException | Error ex) {
+                failureCount.incrementAndGet();
+                LOGGER.error("Failed to deliver the trigger event \"" + event + "\"", ex);
+            }
+        }
+        deliveredEventCount.addAndGet(events.size());
+    }
+
+    public enum Ordering {
+
+        /**
+         * Event groups of the entity type are delivered one by one
+         * in the order of submission, except the groups delivered
+         * by the submitting thread because of back-pressure
+         */
+        ORDERED,
+
+        /**
+         * Event groups of the entity type may be delivered concurrently
+         */
+        UNORDERED
+    }
+
+    /**
+     * Serial task queue of one entity type
+     */
+    private class Lane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        void add(Runnable task) {
+            tasks.add(task);
+            tryStart();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+            } finally {
+                running.set(false);
+            }
+            // A task may be added after the last `poll` but before `running` is reset
+            if (!tasks.isEmpty()) {
+                tryStart();
+            }
+        }
+
+        private void tryStart() {
+            if (running.compareAndSet(false, true)) {
+                execute(this);
+            }
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package org.babyfish.jimmer.sql.event.binlog;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.sql.association.meta.AssociationType;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
+import org.babyfish.jimmer.sql.cache.CacheEvictionScope;
 import org.babyfish.jimmer.sql.event.Triggers;
 import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.runtime.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.*;
+
 public class BinLog {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BinLog.class);
@@ -24,6 +29,8 @@ public class BinLog {
 
     private final Triggers triggers;
 
+    private final BinLogMetrics metrics = new BinLogMetrics();
+
     public BinLog(
             EntityManager entityManager,
             String microServiceName,
@@ -48,13 +55,8 @@ public class BinLog {
         if (isOldNull && isNewNull) {
             return;
         }
-        ImmutableType type = entityManager.getTypeByServiceAndTable(microServiceName, tableName, strategy);
+        ImmutableType type = resolveType(tableName);
         if (type == null) {
-            LOGGER.warn(
-                    "Illegal table name \"{}\" of micro service \"{}\", it is not managed by current entity manager",
-                    tableName,
-                    microServiceName
-            );
             return;
         }
         if (type instanceof AssociationType) {
@@ -88,4 +90,164 @@ public class BinLog {
             );
         }
     }
+
+    /**
+     * Accept a batch of binlog records, such as the records polled from
+     * kafka or the changes of one database transaction.
+     *
+     * <ul>
+     *     <li>Several changes of the same entity in the batch are merged into
+     *     one change from the first old data to the last new data</li>
+     *     <li>Duplicated changes of the same middle table row are merged,
+     *     the last one wins</li>
+     *     <li>The cache evictions caused by the fired events are merged and
+     *     executed by one batch deletion of each cache</li>
+     * </ul>
+     *
+     * <p>The order of events of different rows is not guaranteed,
+     * so this method should only be used when the listeners do not
+     * depend on the order of events in the same batch, for example,
+     * the listeners of cache eviction.</p>
+     */
+    public void acceptAll(Collection<BinLogRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long maxTimestamp = 0L;
+        Map<Object, Object> changeMap = new LinkedHashMap<>();
+        for (BinLogRecord record : records) {
+            maxTimestamp = Math.max(maxTimestamp, record.getTimestamp());
+            collect(record, changeMap);
+        }
+        CacheEvictionScope.execute(() -> {
+            for (Object change : changeMap.values()) {
+                if (change instanceof EntityChange) {
+                    EntityChange entityChange = (EntityChange) change;
+                    triggers.fireEntityTableChange(
+                            entityChange.oldEntity,
+                            entityChange.newEntity,
+                            null,
+                            entityChange.reason
+                    );
+                } else {
+                    AssociationChange associationChange = (AssociationChange) change;
+                    if (associationChange.inserted) {
+                        triggers.fireMiddleTableInsert(
+                                associationChange.prop,
+                                associationChange.sourceId,
+                                associationChange.targetId,
+                                null,
+                                associationChange.reason
+                        );
+                    } else {
+                        triggers.fireMiddleTableDelete(
+                                associationChange.prop,
+                                associationChange.sourceId,
+                                associationChange.targetId,
+                                null,
+                                associationChange.reason
+                        );
+                    }
+                }
+            }
+        });
+        metrics.record(
+                records.size(),
+                changeMap.size(),
+                System.nanoTime() - start,
+                maxTimestamp != 0L ? System.currentTimeMillis() - maxTimestamp : -1L
+        );
+    }
+
+    public BinLogMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void collect(BinLogRecord record, Map<Object, Object> changeMap) {
+        JsonNode oldData = record.getOldData();
+        JsonNode newData = record.getNewData();
+        boolean isOldNull = oldData == null || oldData.isNull();
+        boolean isNewNull = newData == null || newData.isNull();
+        if (isOldNull && isNewNull) {
+            return;
+        }
+        ImmutableType type = resolveType(record.getTableName());
+        if (type == null) {
+            return;
+        }
+        if (type instanceof AssociationType) {
+            AssociationType associationType = (AssociationType) type;
+            Tuple2<?, ?> idPair = binLogParser.parseIdPair(associationType, isOldNull ? newData : oldData);
+            ImmutableProp prop = associationType.getBaseProp();
+            changeMap.put(
+                    Arrays.asList(prop, idPair.get_1(), idPair.get_2()),
+                    new AssociationChange(prop, idPair.get_1(), idPair.get_2(), isOldNull, record.getReason())
+            );
+        } else {
+            ImmutableSpi oldEntity = binLogParser.parseEntity(type, oldData);
+            ImmutableSpi newEntity = binLogParser.parseEntity(type, newData);
+            int idPropId = type.getIdProp().getId();
+            Object id = (oldEntity != null ? oldEntity : newEntity).__get(idPropId);
+            List<Object> key = Arrays.asList(type, id);
+            EntityChange existing = (EntityChange) changeMap.get(key);
+            if (existing != null) {
+                oldEntity = existing.oldEntity;
+                if (oldEntity == null && newEntity == null) {
+                    // Inserted and then deleted in the same batch, nothing is changed
+                    changeMap.remove(key);
+                    return;
+                }
+            }
+            changeMap.put(key, new EntityChange(oldEntity, newEntity, record.getReason()));
+        }
+    }
+
+    private ImmutableType resolveType(String tableName) {
+        ImmutableType type = entityManager.getTypeByServiceAndTable(microServiceName, tableName, strategy);
+        if (type == null) {
+            LOGGER.warn(
+                    "Illegal table name \"{}\" of micro service \"{}\", it is not managed by current entity manager",
+                    tableName,
+                    microServiceName
+            );
+        }
+        return type;
+    }
+
+    private static class EntityChange {
+
+        final ImmutableSpi oldEntity;
+
+        final ImmutableSpi newEntity;
+
+        final String reason;
+
+        EntityChange(ImmutableSpi oldEntity, ImmutableSpi newEntity, String reason) {
+            this.oldEntity = oldEntity;
+            this.newEntity = newEntity;
+            this.reason = reason;
+        }
+    }
+
+    private static class AssociationChange {
+
+        final ImmutableProp prop;
+
+        final Object sourceId;
+
+        final Object targetId;
+
+        final boolean inserted;
+
+        final String reason;
+
+        AssociationChange(ImmutableProp prop, Object sourceId, Object targetId, boolean inserted, String reason) {
+            this.prop = prop;
+            this.sourceId = sourceId;
+            this.targetId = targetId;
+            this.inserted = inserted;
+            this.reason = reason;
+        }
+    }
 }
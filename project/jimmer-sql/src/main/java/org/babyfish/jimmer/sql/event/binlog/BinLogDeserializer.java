@@ -15,6 +15,7 @@ import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 
 class BinLogDeserializer extends StdDeserializer<Object> {
 
@@ -38,13 +39,27 @@ class BinLogDeserializer extends StdDeserializer<Object> {
     ) throws IOException {
         MetadataStrategy strategy = sqlClient.getMetadataStrategy();
         JsonNode node = jp.getCodec().readTree(jp);
+        return deserialize(
+                sqlClient,
+                immutableType,
+                node,
+                columnName -> immutableType.getPropChain(columnName, strategy)
+        );
+    }
+
+    static Object deserialize(
+            JSqlClientImplementor sqlClient,
+            ImmutableType immutableType,
+            JsonNode node,
+            Function<String, List<ImmutableProp>> propChainResolver
+    ) {
         return Internal.produce(immutableType, null, draft -> {
             Iterator<Map.Entry<String, JsonNode>> itr = node.fields();
             while (itr.hasNext()) {
                 Map.Entry<String, JsonNode> fieldEntry = itr.next();
                 String columnName = fieldEntry.getKey();
                 JsonNode childNode = fieldEntry.getValue();
-                List<ImmutableProp> chain = immutableType.getPropChain(columnName, strategy);
+                List<ImmutableProp> chain = propChainResolver.apply(columnName);
                 ValueParser.addEntityProp((DraftSpi) draft, chain, childNode, sqlClient);
             }
             for (ImmutableProp prop : immutableType.getProps().values()) {
@@ -0,0 +1,99 @@
+package org.babyfish.jimmer.sql.event.binlog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of {@link BinLog#acceptAll(java.util.Collection)}
+ */
+public class BinLogMetrics {
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong recordCount = new AtomicLong();
+
+    private final AtomicLong firedEventCount = new AtomicLong();
+
+    private final AtomicLong duplicateCount = new AtomicLong();
+
+    private final AtomicLong processingNanos = new AtomicLong();
+
+    private final AtomicLong lastLagMillis = new AtomicLong();
+
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    BinLogMetrics() {}
+
+    void record(int recordCount, int firedEventCount, long nanos, long lagMillis) {
+        this.batchCount.incrementAndGet();
+        this.recordCount.addAndGet(recordCount);
+        this.firedEventCount.addAndGet(firedEventCount);
+        this.duplicateCount.addAndGet(recordCount - firedEventCount);
+        this.processingNanos.addAndGet(nanos);
+        if (lagMillis >= 0) {
+            this.lastLagMillis.set(lagMillis);
+            this.maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+        }
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getRecordCount() {
+        return recordCount.get();
+    }
+
+    public long getFiredEventCount() {
+        return firedEventCount.get();
+    }
+
+    /**
+     * The count of records which are ignored or merged into
+     * other records of the same batch
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    public long getProcessingNanos() {
+        return processingNanos.get();
+    }
+
+    /**
+     * The lag between the newest record of the last batch
+     * and its ingestion, 0 if timestamps are unknown
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    /**
+     * Records processed per second of processing time,
+     * the time waiting for records is not included
+     */
+    public double getRecordsPerSecond() {
+        long nanos = processingNanos.get();
+        if (nanos == 0) {
+            return 0;
+        }
+        return recordCount.get() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BinLogMetrics{" +
+                "batchCount=" + batchCount +
+                ", recordCount=" + recordCount +
+                ", firedEventCount=" + firedEventCount +
+                ", duplicateCount=" + duplicateCount +
+                ", processingNanos=" + processingNanos +
+                ", lastLagMillis=" + lastLagMillis +
+                ", maxLagMillis=" + maxLagMillis +
+                '}';
+    }
+}
@@ -14,13 +14,13 @@ import org.babyfish.jimmer.sql.association.meta.AssociationProp;
 import org.babyfish.jimmer.sql.association.meta.AssociationType;
 import org.babyfish.jimmer.sql.ast.impl.util.EmbeddableObjects;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
-import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BinLogParser {
 
@@ -28,6 +28,10 @@ public class BinLogParser {
 
     private JSqlClientImplementor sqlClient;
 
+    // Raw column names of binlog are resolved only once for each type
+    private final Map<ImmutableType, Map<String, List<ImmutableProp>>> propChainCache =
+            new ConcurrentHashMap<>();
+
     public BinLogParser initialize(JSqlClientImplementor sqlClient) {
         return initialize(sqlClient, null);
     }
@@ -73,11 +77,21 @@ public class BinLogParser {
         return (T)parseEntity(type.getJavaClass(), json);
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T parseEntity(@NotNull ImmutableType type, JsonNode data) {
+        if (type instanceof AssociationType) {
+            throw new IllegalArgumentException("type cannot be AssociationType");
+        }
         if (data == null || data.isNull()) {
             return null;
         }
-        return parseEntity(type, data.toString());
+        // Build the object from the tree directly, rather than serializing it to be parsed again
+        return (T) BinLogDeserializer.deserialize(
+                sqlClient,
+                type,
+                data,
+                columnName -> propChain(type, columnName)
+        );
     }
 
     @SuppressWarnings("unchecked")
@@ -90,14 +104,12 @@ public class BinLogParser {
         Object sourceId = null;
         Object targetId = null;
 
-        MetadataStrategy strategy = sqlClient.getMetadataStrategy();
-
         if (sourceIdProp.isEmbedded(EmbeddedLevel.SCALAR)) {
             sourceId = Internal.produce(sourceIdProp.getTargetType(), null, draft -> {
                 Iterator<Map.Entry<String, JsonNode>> itr = data.fields();
                 while (itr.hasNext()) {
                     Map.Entry<String, JsonNode> e = itr.next();
-                    List<ImmutableProp> chain = associationType.getPropChain(e.getKey(), strategy);
+                    List<ImmutableProp> chain = propChain(associationType, e.getKey());
                     if (chain.get(0) == sourceProp) {
                         ValueParser.addEntityProp(
                                 (DraftSpi) draft,
@@ -122,7 +134,7 @@ public class BinLogParser {
                 Iterator<Map.Entry<String, JsonNode>> itr = data.fields();
                 while (itr.hasNext()) {
                     Map.Entry<String, JsonNode> e = itr.next();
-                    List<ImmutableProp> chain = associationType.getPropChain(e.getKey(), strategy);
+                    List<ImmutableProp> chain = propChain(associationType, e.getKey());
                     if (chain.get(0) == targetProp) {
                         ValueParser.addEntityProp(
                                 (DraftSpi) draft,
@@ -146,7 +158,7 @@ public class BinLogParser {
             Iterator<Map.Entry<String, JsonNode>> itr = data.fields();
             while (itr.hasNext()) {
                 Map.Entry<String, JsonNode> e = itr.next();
-                List<ImmutableProp> chain = associationType.getPropChain(e.getKey(), strategy);
+                List<ImmutableProp> chain = propChain(associationType, e.getKey());
                 ImmutableProp prop = chain.get(0);
                 if (prop == sourceProp) {
                     sourceId = ValueParser.parseSingleValue(
@@ -183,6 +195,17 @@ public class BinLogParser {
         return new Tuple2<>((S)sourceId, (T)targetId);
     }
 
+    private List<ImmutableProp> propChain(ImmutableType type, String columnName) {
+        Map<String, List<ImmutableProp>> chainMap =
+                propChainCache.computeIfAbsent(type, it -> new ConcurrentHashMap<>());
+        List<ImmutableProp> chain = chainMap.get(columnName);
+        if (chain == null) {
+            chain = type.getPropChain(columnName, sqlClient.getMetadataStrategy());
+            chainMap.put(columnName, chain);
+        }
+        return chain;
+    }
+
     public <S, T> Tuple2<S, T> parseIdPair(@NotNull AssociationType associationType, String json) {
         if (json == null || json.isEmpty()) {
             return null;
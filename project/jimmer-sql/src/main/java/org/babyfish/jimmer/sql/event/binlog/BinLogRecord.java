@@ -0,0 +1,69 @@
+package org.babyfish.jimmer.sql.event.binlog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One row change of binlog, used by {@link BinLog#acceptAll(java.util.Collection)}.
+ */
+public class BinLogRecord {
+
+    private final String tableName;
+
+    private final JsonNode oldData;
+
+    private final JsonNode newData;
+
+    private final String reason;
+
+    private final long timestamp;
+
+    public BinLogRecord(String tableName, JsonNode oldData, JsonNode newData) {
+        this(tableName, oldData, newData, null, 0L);
+    }
+
+    /**
+     * @param timestamp The epoch millis when the row is changed in database,
+     *                  it is used to measure the ingestion lag, 0 means unknown.
+     */
+    public BinLogRecord(String tableName, JsonNode oldData, JsonNode newData, String reason, long timestamp) {
+        if (tableName == null) {
+            throw new IllegalArgumentException("tableName cannot be null");
+        }
+        this.tableName = tableName;
+        this.oldData = oldData;
+        this.newData = newData;
+        this.reason = reason;
+        this.timestamp = timestamp;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public JsonNode getOldData() {
+        return oldData;
+    }
+
+    public JsonNode getNewData() {
+        return newData;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "BinLogRecord{" +
+                "tableName='" + tableName + '\'' +
+                ", oldData=" + oldData +
+                ", newData=" + newData +
+                ", reason='" + reason + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
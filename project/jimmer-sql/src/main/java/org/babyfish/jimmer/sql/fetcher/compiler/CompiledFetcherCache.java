@@ -0,0 +1,279 @@
+package org.babyfish.jimmer.sql.fetcher.compiler;
+
+import org.babyfish.jimmer.sql.fetcher.Fetcher;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded and thread-safe LRU cache of {@link FetcherCompiler#compile(String, ClassLoader)},
+ * the compiled fetchers are immutable so that they can be shared.
+ *
+ * <p>Each entry can be found by its code or by {@link #hash(String)} of its code,
+ * so that the client can send the short hash instead of the code when the code
+ * has been sent before. The hash is only calculated when the code is compiled.</p>
+ *
+ * <p>The class loaders are held weakly, the entries of a class loader which
+ * has been garbage collected are removed.</p>
+ */
+public class CompiledFetcherCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+
+    private final Map<Key, Entry> entryMap;
+
+    // Secondary index of `entryMap`, guarded by the lock of `entryMap`
+    private final Map<Key, Entry> hashIndex = new HashMap<>();
+
+    private final ReferenceQueue<ClassLoader> staleLoaderQueue = new ReferenceQueue<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public CompiledFetcherCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public CompiledFetcherCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.entryMap = new LinkedHashMap<Key, Entry>(16, .75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > CompiledFetcherCache.this.maxSize) {
+                    hashIndex.remove(eldest.getValue().hashKey);
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Fetcher<?> get(String code) {
+        return get(code, null);
+    }
+
+    /**
+     * Get the compiled fetcher, compile it if the code is not cached.
+     */
+    public Fetcher<?> get(String code, ClassLoader classLoader) {
+        Entry entry;
+        synchronized (entryMap) {
+            entry = entryMap.get(new Key(code, classLoader));
+        }
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            return entry.fetcher;
+        }
+        missCount.incrementAndGet();
+        // Compile without lock, it is harmless to compile the same code concurrently
+        Fetcher<?> fetcher = FetcherCompiler.compile(code, classLoader);
+        String hash = hash(code);
+        synchronized (entryMap) {
+            expungeStaleEntries();
+            Key codeKey = new Key(code, classLoader, staleLoaderQueue);
+            Entry existingEntry = entryMap.get(codeKey);
+            if (existingEntry != null) {
+                return existingEntry.fetcher;
+            }
+            entry = new Entry(codeKey, new Key(hash, classLoader, codeKey.loaderRef), fetcher);
+            entryMap.put(entry.codeKey, entry);
+            hashIndex.put(entry.hashKey, entry);
+        }
+        return fetcher;
+    }
+
+    /**
+     * Get the compiled fetcher by the hash of its code.
+     *
+     * @return The cached fetcher or null if it is not cached,
+     * in which case the client should send the code.
+     */
+    public Fetcher<?> getByHash(String hash, ClassLoader classLoader) {
+        Entry entry;
+        synchronized (entryMap) {
+            entry = hashIndex.get(new Key(hash, classLoader));
+            if (entry != null) {
+                // Touch the entry for LRU
+                entryMap.get(entry.codeKey);
+            }
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.fetcher;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        synchronized (entryMap) {
+            expungeStaleEntries();
+            return entryMap.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRate() {
+        long hit = hitCount.get();
+        long total = hit + missCount.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * The url-safe base64 text of the first 128 bits of SHA-256 of the code
+     */
+    public static String hash(String code) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new AssertionError("SHA-256 is not supported", ex);
+        }
+        byte[] bytes = digest.digest(code.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, 16));
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledFetcherCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = staleLoaderQueue.poll()) != null) {
+            Entry entry = entryMap.remove(((LoaderRef) ref).codeKey);
+            if (entry != null) {
+                hashIndex.remove(entry.hashKey);
+            }
+        }
+    }
+
+    /**
+     * The key of code or hash. The stored keys reference the class loader
+     * weakly, the temporary keys for lookup reference it strongly.
+     */
+    private static class Key {
+
+        final String text;
+
+        private final ClassLoader classLoader;
+
+        final LoaderRef loaderRef;
+
+        private final int hash;
+
+        Key(String text, ClassLoader classLoader) {
+            this.text = text;
+            this.classLoader = classLoader;
+            this.loaderRef = null;
+            this.hash = text.hashCode() * 31 + System.identityHashCode(classLoader);
+        }
+
+        Key(String text, ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            this.text = text;
+            this.classLoader = null;
+            this.loaderRef = classLoader != null ? new LoaderRef(classLoader, queue, this) : null;
+            this.hash = text.hashCode() * 31 + System.identityHashCode(classLoader);
+        }
+
+        Key(String text, ClassLoader classLoader, LoaderRef loaderRef) {
+            this.text = text;
+            this.classLoader = null;
+            this.loaderRef = loaderRef;
+            this.hash = text.hashCode() * 31 + System.identityHashCode(classLoader);
+        }
+
+        private boolean hasClassLoader() {
+            return classLoader != null || loaderRef != null;
+        }
+
+        private ClassLoader classLoader() {
+            if (classLoader != null) {
+                return classLoader;
+            }
+            return loaderRef != null ? loaderRef.get() : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            if (hash != key.hash || !text.equals(key.text) || hasClassLoader() != key.hasClassLoader()) {
+                return false;
+            }
+            if (!hasClassLoader()) {
+                return true;
+            }
+            // The cleared reference is only equal to its own key
+            ClassLoader classLoader = classLoader();
+            return classLoader != null && classLoader == key.classLoader();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class LoaderRef extends WeakReference<ClassLoader> {
+
+        final Key codeKey;
+
+        LoaderRef(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue, Key codeKey) {
+            super(classLoader, queue);
+            this.codeKey = codeKey;
+        }
+    }
+
+    private static class Entry {
+
+        final Key codeKey;
+
+        final Key hashKey;
+
+        final Fetcher<?> fetcher;
+
+        Entry(Key codeKey, Key hashKey, Fetcher<?> fetcher) {
+            this.codeKey = codeKey;
+            this.hashKey = hashKey;
+            this.fetcher = fetcher;
+        }
+    }
+}
@@ -5,13 +5,14 @@ import org.babyfish.jimmer.runtime.DraftSpi;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.Field;
 import org.babyfish.jimmer.sql.fetcher.RecursionStrategy;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.babyfish.jimmer.sql.runtime.ExecutionException;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.sql.Connection;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
 
 class FetcherContext {
@@ -91,6 +92,12 @@ class FetcherContext {
     }
 
     public void execute() {
+        java.util.concurrent.Executor fetcherExecutor = sqlClient.getFetcherExecutor();
+        ConnectionManager connectionManager = sqlClient.getSlaveConnectionManager(false);
+        if (fetcherExecutor != null && connectionManager != ConnectionManager.ILLEGAL) {
+            executeInParallel(fetcherExecutor, connectionManager);
+            return;
+        }
         while (!taskMap.isEmpty()) {
             Iterator<Map.Entry<Field, FetcherTask>> itr = taskMap.entrySet().iterator();
             Map.Entry<Field, FetcherTask> e = itr.next();
@@ -99,4 +106,70 @@ class FetcherContext {
             }
         }
     }
+
+    /**
+     * Each round takes chunks from the pending tasks, a task with too many keys
+     * contributes several chunks, at most `maxConcurrency + 1` chunks are taken.
+     * The first chunk is loaded by the current thread with the current connection,
+     * the others are loaded by the fetcher executor with their own connections.
+     * After all the chunks are loaded, they are merged into the drafts by the
+     * current thread in the order of tasks and keys, so that the draft context is
+     * never accessed by other threads and the result is deterministic.
+     */
+    private void executeInParallel(
+            java.util.concurrent.Executor fetcherExecutor,
+            ConnectionManager connectionManager
+    ) {
+        int maxChunkCount = fetcherExecutor instanceof LimitedExecutor ?
+                ((LimitedExecutor) fetcherExecutor).getMaxConcurrency() + 1 :
+                Integer.MAX_VALUE;
+        while (!taskMap.isEmpty()) {
+            List<FetcherTask.Chunk> chunks = new ArrayList<>();
+            for (FetcherTask task : taskMap.values()) {
+                while (chunks.size() < maxChunkCount && !task.isCompleted()) {
+                    FetcherTask.Chunk chunk = task.nextChunk(!chunks.isEmpty());
+                    if (chunk != null) {
+                        chunks.add(chunk);
+                    }
+                }
+            }
+            if (!chunks.isEmpty()) {
+                List<CompletableFuture<?>> futures = new ArrayList<>(chunks.size() - 1);
+                for (FetcherTask.Chunk chunk : chunks.subList(1, chunks.size())) {
+                    futures.add(
+                            CompletableFuture.runAsync(
+                                    () -> connectionManager.execute(c -> {
+                                        chunk.load(c);
+                                        return null;
+                                    }),
+                                    fetcherExecutor
+                            )
+                    );
+                }
+                chunks.get(0).load(null);
+                for (CompletableFuture<?> future : futures) {
+                    join(future);
+                }
+                for (FetcherTask.Chunk chunk : chunks) {
+                    chunk.complete();
+                }
+            }
+            taskMap.values().removeIf(FetcherTask::isCompleted);
+        }
+    }
+
+    private static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExecutionException("Failed to load associations in parallel", cause);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package org.babyfish.jimmer.sql.fetcher.impl;
 
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.TargetLevel;
 import org.babyfish.jimmer.runtime.DraftContext;
 import org.babyfish.jimmer.runtime.DraftSpi;
@@ -12,7 +14,6 @@ import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.sql.Connection;
 import java.util.*;
-import java.util.stream.Collectors;
 
 class FetcherTask {
 
@@ -62,8 +63,32 @@ class FetcherTask {
     }
 
     public boolean execute() {
+        Chunk chunk = nextChunk(false);
+        if (chunk != null) {
+            chunk.load(null);
+            chunk.complete();
+        }
+        return pendingMap.isEmpty();
+    }
+
+    public boolean isCompleted() {
+        return pendingMap.isEmpty();
+    }
+
+    /**
+     * Take the next batch of pending keys, the keys which can be
+     * resolved by the fetching cache are handled immediately.
+     *
+     * <p>This method must be called by the thread that owns the draft context.</p>
+     *
+     * @param detached If true, the loader of the returned chunk does not touch
+     *                 the drafts of current draft context so that it can be
+     *                 executed by another thread.
+     * @return The chunk need to be loaded, or null if there is nothing to load.
+     */
+    Chunk nextChunk(boolean detached) {
         if (pendingMap.isEmpty()) {
-            return true;
+            return null;
         }
         Map<Object, TaskData> handledMap;
         if (pendingMap.size() > batchSize) {
@@ -98,21 +123,56 @@ class FetcherTask {
                 handledEntryItr.remove();
             }
         }
-        if (!handledMap.isEmpty()) {
-            Map<ImmutableSpi, ?> loadedMap = dataLoader.load(
-                    handledMap
-                            .values()
-                            .stream()
-                            .map(it -> it.getDrafts().get(0))
-                            .collect(Collectors.toList())
-            );
-            for (Map.Entry<Object, TaskData> e : handledMap.entrySet()) {
-                TaskData taskData = e.getValue();
-                Object value = loadedMap.get(taskData.getDrafts().get(0));
-                afterLoad(taskData, value, true);
-            }
+        if (handledMap.isEmpty()) {
+            return null;
         }
-        return pendingMap.isEmpty();
+        List<ImmutableSpi> sources = new ArrayList<>(handledMap.size());
+        for (TaskData taskData : handledMap.values()) {
+            DraftSpi draft = taskData.getDrafts().get(0);
+            sources.add(detached ? detach(draft) : draft);
+        }
+        return new Chunk(handledMap, sources);
+    }
+
+    /**
+     * Create an immutable object which only contains the id and
+     * the foreign key of the draft, it is all the data loader needs.
+     */
+    private ImmutableSpi detach(DraftSpi draft) {
+        ImmutableProp prop = field.getProp();
+        ImmutableType type = draft.__type();
+        int idPropId = type.getIdProp().getId();
+        Object id = draft.__get(idPropId);
+        Object targetId;
+        boolean targetLoaded = prop.isColumnDefinition() && draft.__isLoaded(prop.getId());
+        if (targetLoaded) {
+            ImmutableSpi target = (ImmutableSpi) draft.__get(prop.getId());
+            targetId = target != null ?
+                    target.__get(prop.getTargetType().getIdProp().getId()) :
+                    null;
+        } else {
+            targetId = null;
+        }
+        return Internal.requiresNewDraftContext(ctx -> {
+            Object detached = Internal.produce(type, null, d -> {
+                DraftSpi spi = (DraftSpi) d;
+                spi.__set(idPropId, id);
+                if (targetLoaded) {
+                    spi.__set(
+                            prop.getId(),
+                            targetId == null ?
+                                    null :
+                                    Internal.produce(prop.getTargetType(), null, t -> {
+                                        ((DraftSpi) t).__set(
+                                                prop.getTargetType().getIdProp().getId(),
+                                                targetId
+                                        );
+                                    })
+                    );
+                }
+            });
+            return (ImmutableSpi) ctx.resolveObject(detached);
+        });
     }
 
     private boolean isLoaded(DraftSpi draft) {
@@ -203,6 +263,46 @@ class FetcherTask {
         }
     }
 
+    class Chunk {
+
+        private final Map<Object, TaskData> handledMap;
+
+        private final List<ImmutableSpi> sources;
+
+        private Map<ImmutableSpi, ?> loadedMap;
+
+        private Chunk(Map<Object, TaskData> handledMap, List<ImmutableSpi> sources) {
+            this.handledMap = handledMap;
+            this.sources = sources;
+        }
+
+        /**
+         * Load the associated objects.
+         *
+         * @param con The connection used by detached chunk,
+         *            null means using the data loader of the task
+         *            which is bound to the connection of the current query.
+         */
+        void load(Connection con) {
+            DataLoader loader = con != null ?
+                    new DataLoader(sqlClient, con, field) :
+                    dataLoader;
+            loadedMap = loader.load(sources);
+        }
+
+        /**
+         * Merge the loaded data into the drafts,
+         * must be called by the thread that owns the draft context.
+         */
+        void complete() {
+            int index = 0;
+            for (TaskData taskData : handledMap.values()) {
+                Object value = loadedMap.get(sources.get(index++));
+                afterLoad(taskData, value, true);
+            }
+        }
+    }
+
     private static class TaskData {
 
         private final Object key;
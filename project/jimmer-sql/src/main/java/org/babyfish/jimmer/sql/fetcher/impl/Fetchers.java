@@ -15,6 +15,25 @@ public class Fetchers {
 
     private Fetchers() {}
 
+    /**
+     * Whether {@link #fetch(JSqlClientImplementor, Connection, List, List)}
+     * executes other statements for the rows of these selections
+     */
+    public static boolean isFetchRequired(
+            JSqlClientImplementor sqlClient,
+            List<Selection<?>> selections
+    ) {
+        for (Selection<?> selection : selections) {
+            if (selection instanceof FetcherSelection<?>) {
+                Fetcher<?> fetcher = ((FetcherSelection<?>) selection).getFetcher();
+                if (!fetcher.isSimpleFetcher() || hasReferenceFilter(fetcher.getImmutableType(), sqlClient)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     public static void fetch(
             JSqlClientImplementor sqlClient,
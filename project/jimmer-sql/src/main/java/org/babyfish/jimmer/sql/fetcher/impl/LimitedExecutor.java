@@ -0,0 +1,55 @@
+package org.babyfish.jimmer.sql.fetcher.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Wraps the fetcher executor of a sql client so that at most `maxConcurrency`
+ * chunks are loaded by it at the same time, each of them holds a connection.
+ *
+ * <p>When the limit is reached, the task is executed by the calling thread
+ * instead of waiting, because the loading tasks can start nested object
+ * fetching which uses the same executor, waiting could be deadlock.</p>
+ */
+public final class LimitedExecutor implements Executor {
+
+    private final Executor raw;
+
+    private final int maxConcurrency;
+
+    private final Semaphore semaphore;
+
+    public LimitedExecutor(Executor raw, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency cannot be less than 1");
+        }
+        this.raw = raw;
+        this.maxConcurrency = maxConcurrency;
+        this.semaphore = new Semaphore(maxConcurrency);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!semaphore.tryAcquire()) {
+            command.run();
+            return;
+        }
+        try {
+            raw.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    semaphore.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            semaphore.release();
+            throw ex;
+        }
+    }
+}
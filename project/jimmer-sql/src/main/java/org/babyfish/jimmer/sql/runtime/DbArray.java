@@ -0,0 +1,46 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The array variable bound by {@link java.sql.Connection#createArrayOf(String, Object[])},
+ * it is used to render `in` lists as `= any(?)`.
+ */
+public class DbArray {
+
+    private final String elementType;
+
+    private final Object[] elements;
+
+    public DbArray(String elementType, Object[] elements) {
+        this.elementType = elementType;
+        this.elements = elements;
+    }
+
+    public String getElementType() {
+        return elementType;
+    }
+
+    public Object[] getElements() {
+        return elements;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(elementType) * 31 + Arrays.hashCode(elements);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DbArray dbArray = (DbArray) o;
+        return elementType.equals(dbArray.elementType) && Arrays.equals(elements, dbArray.elements);
+    }
+
+    @Override
+    public String toString() {
+        return elementType + Arrays.toString(elements);
+    }
+}
@@ -7,6 +7,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.*;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -22,23 +23,20 @@ public class DefaultExecutor implements Executor {
         String sql = args.sql;
         List<Object> variables = args.variables;
         Dialect dialect = args.sqlClient.getDialect();
+        List<java.sql.Array> arrays = new ArrayList<>();
         try (PreparedStatement stmt = args.statementFactory != null ?
                 args.statementFactory.preparedStatement(args.con, sql) :
                 args.con.prepareStatement(sql)
         ) {
-            int size = variables.size();
-            for (int index = 0; index < size; index++) {
-                Object variable = variables.get(index);
-                if (variable instanceof DbNull) {
-                    stmt.setNull(
-                            index + 1,
-                            toJdbcType(((DbNull)variable).getType(), dialect)
-                    );
-                } else {
-                    stmt.setObject(index + 1, variable);
-                }
+            if (args.fetchSize > 0) {
+                dialect.setFetchSize(stmt, args.fetchSize);
+            }
+            try {
+                setParameters(stmt, variables, dialect, arrays);
+                return args.block.apply(stmt);
+            } finally {
+                freeArrays(arrays);
             }
-            return args.block.apply(stmt);
         } catch (SQLException ex) {
             throw new ExecutionException(
                     "Cannot execute SQL statement: " +
@@ -50,7 +48,60 @@ public class DefaultExecutor implements Executor {
         }
     }
 
-    private int toJdbcType(Class<?> type, Dialect dialect) {
+    /**
+     * Binds variables to the parameters of prepared statement.
+     *
+     * <p>Statement batching binds the first row by the executor,
+     * and uses this method to bind the other rows before `addBatch`</p>
+     *
+     * @param arrays The JDBC arrays created for {@link DbArray} variables
+     *               are added into it, the caller must release them by
+     *               {@link #freeArrays(List)} after the statement is executed
+     */
+    public static void setParameters(
+            PreparedStatement stmt,
+            List<Object> variables,
+            Dialect dialect,
+            List<java.sql.Array> arrays
+    ) throws SQLException {
+        int size = variables.size();
+        for (int index = 0; index < size; index++) {
+            Object variable = variables.get(index);
+            if (variable instanceof DbNull) {
+                stmt.setNull(
+                        index + 1,
+                        toJdbcType(((DbNull)variable).getType(), dialect)
+                );
+            } else if (variable instanceof DbArray) {
+                DbArray array = (DbArray) variable;
+                java.sql.Array jdbcArray =
+                        stmt.getConnection().createArrayOf(array.getElementType(), array.getElements());
+                arrays.add(jdbcArray);
+                stmt.setArray(index + 1, jdbcArray);
+            } else {
+                stmt.setObject(index + 1, variable);
+            }
+        }
+    }
+
+    /**
+     * Releases the JDBC arrays created by {@link #setParameters(PreparedStatement, List, Dialect, List)}.
+     *
+     * <p>Failures are ignored because the statement has been executed,
+     * some drivers do not support it and release arrays with the connection.</p>
+     */
+    public static void freeArrays(List<java.sql.Array> arrays) {
+        for (java.sql.Array array : arrays) {
+            try {
+                array.free();
+            } catch (SQLException | RuntimeException ex) {
+                // Ignore
+            }
+        }
+        arrays.clear();
+    }
+
+    private static int toJdbcType(Class<?> type, Dialect dialect) {
         if (type == String.class) {
             return Types.VARCHAR;
         }
@@ -0,0 +1,37 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.runtime.DraftSpi;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the non-id columns of an entity row into the draft of that entity.
+ *
+ * <p>jimmer-apt and jimmer-ksp generate it as the nested class
+ * {@code RowReader} of each entity draft. The properties whose types
+ * are boolean, numeric primitives, their boxed types, String, BigDecimal
+ * or byte[] are read by the typed getters of {@link ResultSet} and
+ * assigned by the typed setters of the draft, so these cells are
+ * neither boxed nor dispatched through {@link Reader}. Other properties
+ * fall back to {@code readers}.</p>
+ *
+ * <p>This is the SPI of the generated code, not for user code.</p>
+ */
+public interface EntityRowReader {
+
+    /**
+     * @param draft The draft whose id has been set
+     * @param propIds The ids of the selected non-id properties, in column order
+     * @param readers The readers of the selected non-id properties, in column order
+     * @param rs The result set
+     * @param col The column cursor
+     */
+    void read(
+            DraftSpi draft,
+            int[] propIds,
+            Reader<?>[] readers,
+            ResultSet rs,
+            Reader.Col col
+    ) throws SQLException;
+}
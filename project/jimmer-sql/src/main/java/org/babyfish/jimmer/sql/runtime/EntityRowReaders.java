@@ -0,0 +1,49 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.impl.util.StaticCache;
+import org.babyfish.jimmer.meta.ImmutableType;
+
+import java.lang.reflect.InvocationTargetException;
+
+class EntityRowReaders {
+
+    private static final StaticCache<ImmutableType, EntityRowReader> CACHE =
+            new StaticCache<>(EntityRowReaders::create, true);
+
+    private EntityRowReaders() {}
+
+    /**
+     * @return The generated row reader of the entity type,
+     * or null if the draft is generated by an older version of jimmer-apt/jimmer-ksp.
+     */
+    static EntityRowReader get(ImmutableType type) {
+        return CACHE.get(type);
+    }
+
+    private static EntityRowReader create(ImmutableType type) {
+        if (!type.isEntity()) {
+            return null;
+        }
+        Class<?> javaClass = type.getJavaClass();
+        Class<?> rowReaderClass;
+        try {
+            rowReaderClass = Class.forName(
+                    javaClass.getName() + "Draft$RowReader",
+                    true,
+                    javaClass.getClassLoader()
+            );
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+        if (!EntityRowReader.class.isAssignableFrom(rowReaderClass)) {
+            return null;
+        }
+        try {
+            return (EntityRowReader) rowReaderClass.getConstructor().newInstance();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException ex) {
+            throw new AssertionError("Internal bug: Cannot create " + rowReaderClass.getName(), ex);
+        } catch (InvocationTargetException ex) {
+            throw new AssertionError("Internal bug: Cannot create " + rowReaderClass.getName(), ex.getTargetException());
+        }
+    }
+}
@@ -64,6 +64,15 @@ public interface Executor {
         @Nullable
         public final Long closingCursorId;
 
+        /**
+         * The fetch size of JDBC statement, 0 means the default behavior of JDBC driver.
+         *
+         * <p>It is only specified by `Query.forEach` so that the JDBC driver
+         * can stream the rows rather than buffering the whole result set,
+         * the executor should apply it by {@link org.babyfish.jimmer.sql.dialect.Dialect#setFetchSize}</p>
+         */
+        public final int fetchSize;
+
         public Args(
                 JSqlClientImplementor sqlClient,
                 Connection con,
@@ -84,6 +93,7 @@ public interface Executor {
             this.statementFactory = statementFactory;
             this.block = block;
             this.closingCursorId = null;
+            this.fetchSize = 0;
         }
 
         public Args(
@@ -107,6 +117,32 @@ public interface Executor {
             this.statementFactory = statementFactory;
             this.block = block;
             this.closingCursorId = closingCursorId;
+            this.fetchSize = 0;
+        }
+
+        public Args(
+                JSqlClientImplementor sqlClient,
+                Connection con,
+                String sql,
+                List<Object> variables,
+                @Nullable List<Integer> variablePositions,
+                ExecutionPurpose purpose,
+                StatementFactory statementFactory,
+                SqlFunction<PreparedStatement, R> block,
+                @Nullable Long closingCursorId,
+                int fetchSize
+        ) {
+            this.sqlClient = sqlClient;
+            this.con = con;
+            this.sql = sql;
+            this.variables = variables;
+            this.variablePositions = variablePositions;
+            this.purpose = purpose;
+            this.ctx = ExecutorContext.create(sqlClient);
+            this.statementFactory = statementFactory;
+            this.block = block;
+            this.closingCursorId = closingCursorId;
+            this.fetchSize = fetchSize;
         }
     }
 }
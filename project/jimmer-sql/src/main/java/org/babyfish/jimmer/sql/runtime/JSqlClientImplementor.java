@@ -8,6 +8,7 @@ import org.babyfish.jimmer.sql.JSqlClient;
 import org.babyfish.jimmer.sql.TransientResolver;
 import org.babyfish.jimmer.sql.cache.CacheDisableConfig;
 import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.event.AsyncTriggerDispatcher;
 import org.babyfish.jimmer.sql.event.TriggerType;
 import org.babyfish.jimmer.sql.filter.FilterConfig;
 import org.babyfish.jimmer.sql.meta.IdGenerator;
@@ -48,8 +49,21 @@ public interface JSqlClientImplementor extends JSqlClient {
 
     int getOffsetOptimizingThreshold();
 
+    int getDefaultFetchSize();
+
+    boolean isInListPaddingEnabled();
+
+    /**
+     * @return The cache of rendered SQL, null if it is disabled
+     */
+    SqlTemplateCache getSqlTemplateCache();
+
+    java.util.concurrent.Executor getFetcherExecutor();
+
     TriggerType getTriggerType();
 
+    AsyncTriggerDispatcher getTriggerDispatcher();
+
     TransientResolver<?, ?> getResolver(ImmutableProp prop);
 
     Class<? extends TransientResolverProvider> getResolverProviderClass();
@@ -13,31 +13,58 @@ class ObjectReader implements Reader<Object> {
 
     private final ImmutableType type;
 
+    private final int idPropId;
+
     private final Reader<?> idReader;
 
-    private final Map<ImmutableProp, Reader<?>> nonIdReaders;
+    private final int[] nonIdPropIds;
+
+    private final Reader<?>[] nonIdReaders;
+
+    private final EntityRowReader rowReader;
 
     ObjectReader(ImmutableType type, Reader<?> idReader, Map<ImmutableProp, Reader<?>> nonIdReaders) {
+        this(type, idReader, nonIdReaders, EntityRowReaders.get(type));
+    }
+
+    ObjectReader(
+            ImmutableType type,
+            Reader<?> idReader,
+            Map<ImmutableProp, Reader<?>> nonIdReaders,
+            EntityRowReader rowReader
+    ) {
         this.type = type;
+        this.idPropId = type.getIdProp().getId();
         this.idReader = idReader;
-        this.nonIdReaders = nonIdReaders;
+        int[] nonIdPropIds = new int[nonIdReaders.size()];
+        Reader<?>[] nonIdReaderArr = new Reader<?>[nonIdReaders.size()];
+        int index = 0;
+        for (Map.Entry<ImmutableProp, Reader<?>> e : nonIdReaders.entrySet()) {
+            nonIdPropIds[index] = e.getKey().getId();
+            nonIdReaderArr[index] = e.getValue();
+            index++;
+        }
+        this.nonIdPropIds = nonIdPropIds;
+        this.nonIdReaders = nonIdReaderArr;
+        this.rowReader = rowReader;
     }
 
     @Override
     public Object read(ResultSet rs, Col col) throws SQLException {
         Object id = idReader.read(rs, col);
         if (id == null) {
-            col.add(nonIdReaders.size());
+            col.add(nonIdPropIds.length);
             return null;
         }
         return Internal.produce(type, null, draft -> {
             DraftSpi spi = (DraftSpi) draft;
-            spi.__set(type.getIdProp().getId(), id);
-            for (Map.Entry<ImmutableProp, Reader<?>> e : nonIdReaders.entrySet()) {
-                ImmutableProp prop = e.getKey();
-                Reader<?> reader = e.getValue();
-                Object value = reader.read(rs, col);
-                spi.__set(prop.getId(), value);
+            spi.__set(idPropId, id);
+            if (rowReader != null) {
+                rowReader.read(spi, nonIdPropIds, nonIdReaders, rs, col);
+            } else {
+                for (int i = 0; i < nonIdPropIds.length; i++) {
+                    spi.__set(nonIdPropIds[i], nonIdReaders[i].read(rs, col));
+                }
             }
         });
     }
@@ -0,0 +1,242 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.ast.Selection;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.fetcher.impl.Fetchers;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * The lazy iterator of `ConfigurableRootQuery.stream`.
+ *
+ * <p>The query is executed by {@link Executor#execute(Executor.Args)} like other
+ * queries, so that custom executors can see it. However, the lifetime of the
+ * statement is controlled by the consumer of the stream, so the executor gets
+ * a statement whose `close()` is deferred until this iterator is closed.</p>
+ *
+ * <p>Rows are read in chunks of `batchSize`, each chunk is fully read
+ * from the result set before the object fetchers of it are executed,
+ * and the rows of it are returned after that.</p>
+ */
+class QueryIterator<R> implements Iterator<R>, AutoCloseable {
+
+    private final JSqlClientImplementor sqlClient;
+
+    private final Connection con;
+
+    private final String sql;
+
+    private final List<Object> variables;
+
+    private final List<Selection<?>> selections;
+
+    private final int batchSize;
+
+    private final long cursorId;
+
+    private final Reader<?> reader;
+
+    private final Reader.Col col = new Reader.Col();
+
+    private PreparedStatement statement;
+
+    private ResultSet resultSet;
+
+    private boolean autoCommitDisabled;
+
+    private List<R> chunk = Collections.emptyList();
+
+    private int index;
+
+    private boolean closed;
+
+    QueryIterator(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            String sql,
+            List<Object> variables,
+            List<Selection<?>> selections,
+            int batchSize,
+            int fetchSize,
+            long cursorId,
+            ExecutionPurpose purpose,
+            @Nullable List<Integer> variablePositions
+    ) {
+        this.sqlClient = sqlClient;
+        this.con = con;
+        this.sql = sql;
+        this.variables = variables;
+        this.selections = selections;
+        this.batchSize = batchSize;
+        this.cursorId = cursorId;
+        this.reader = Readers.createReader(sqlClient, selections);
+        Dialect dialect = sqlClient.getDialect();
+        Long oldCursorId = Cursors.setCurrentCursorId(cursorId);
+        try {
+            if (fetchSize > 0 && dialect.isFetchSizeRequiresTransaction() && con.getAutoCommit()) {
+                con.setAutoCommit(false);
+                autoCommitDisabled = true;
+            }
+            resultSet = sqlClient.getExecutor().execute(
+                    new Executor.Args<>(
+                            sqlClient,
+                            con,
+                            sql,
+                            variables,
+                            variablePositions,
+                            purpose,
+                            (c, s) -> {
+                                statement = c.prepareStatement(s);
+                                return deferClosing(statement);
+                            },
+                            PreparedStatement::executeQuery,
+                            null,
+                            fetchSize
+                    )
+            );
+        } catch (SQLException ex) {
+            close();
+            throw error(ex);
+        } catch (RuntimeException | Error ex) {
+            close();
+            throw ex;
+        } finally {
+            Cursors.setCurrentCursorId(oldCursorId);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < chunk.size()) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        readChunk();
+        return index < chunk.size();
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(index++);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SQLException exception = null;
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (SQLException ex) {
+            exception = ex;
+        }
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException ex) {
+            if (exception == null) {
+                exception = ex;
+            }
+        }
+        try {
+            if (autoCommitDisabled) {
+                // The cursor is read-only, changing auto-commit commits the temporary transaction
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            if (exception == null) {
+                exception = ex;
+            }
+        }
+        if (exception != null) {
+            throw error(exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readChunk() {
+        List<R> rows = new ArrayList<>();
+        boolean exhausted = false;
+        try {
+            while (rows.size() < batchSize) {
+                if (!resultSet.next()) {
+                    exhausted = true;
+                    break;
+                }
+                rows.add((R) reader.read(resultSet, col));
+                col.reset();
+            }
+        } catch (SQLException ex) {
+            close();
+            throw error(ex);
+        }
+        if (exhausted) {
+            // Release the cursor before fetching, some drivers cannot execute
+            // other statements by the connection with an active streaming result set
+            close();
+        }
+        if (!rows.isEmpty()) {
+            Long oldCursorId = Cursors.setCurrentCursorId(cursorId);
+            try {
+                Fetchers.fetch(sqlClient, con, selections, rows);
+            } catch (RuntimeException | Error ex) {
+                close();
+                throw ex;
+            } finally {
+                Cursors.setCurrentCursorId(oldCursorId);
+            }
+        }
+        chunk = rows;
+        index = 0;
+    }
+
+    /**
+     * The executor closes the statement when it returns,
+     * but the result set must be kept open for the consumer of stream,
+     * so the real statement is closed by {@link #close()}
+     */
+    private static PreparedStatement deferClosing(PreparedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                }
+        );
+    }
+
+    private ExecutionException error(SQLException ex) {
+        return new ExecutionException(
+                "Cannot execute SQL statement: " +
+                        sql +
+                        ", variables: " +
+                        variables,
+                ex
+        );
+    }
+}
@@ -6,10 +6,15 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Selectors {
 
@@ -64,8 +69,10 @@ public class Selectors {
             List<Selection<?>> selections,
             ExecutionPurpose purpose,
             int batchSize,
+            int fetchSize,
             Consumer<R> consumer
     ) {
+        int finalFetchSize = resolveFetchSize(sqlClient, con, selections, fetchSize);
         Executor executor = sqlClient.getExecutor();
         long cursorId = CURSOR_ID_SEQUENCE.incrementAndGet();
         Executor.Args<Void> args = new Executor.Args<>(
@@ -99,14 +106,104 @@ public class Selectors {
                     }
                     return null;
                 },
-                cursorId
+                cursorId,
+                finalFetchSize
         );
         executor.openCursor(cursorId, sql, variables, variablePositions, purpose, args.ctx, sqlClient);
         Long oldCursorId = Cursors.setCurrentCursorId(cursorId);
+        boolean autoCommitDisabled = false;
         try {
+            if (finalFetchSize > 0 && sqlClient.getDialect().isFetchSizeRequiresTransaction() && con.getAutoCommit()) {
+                con.setAutoCommit(false);
+                autoCommitDisabled = true;
+            }
             executor.execute(args);
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot change the auto-commit of connection", ex);
         } finally {
             Cursors.setCurrentCursorId(oldCursorId);
+            if (autoCommitDisabled) {
+                restoreAutoCommit(con);
+            }
         }
     }
+
+    /**
+     * Ignores the fetch size if the object fetchers cannot execute statements
+     * by the connection before the current result set is closed
+     */
+    private static int resolveFetchSize(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            List<Selection<?>> selections,
+            int fetchSize
+    ) {
+        if (fetchSize <= 0) {
+            return 0;
+        }
+        try {
+            if (sqlClient.getDialect().isFetchSizeExclusive(con) &&
+                    Fetchers.isFetchRequired(sqlClient, selections)) {
+                return 0;
+            }
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot get the metadata of connection", ex);
+        }
+        return fetchSize;
+    }
+
+    private static void restoreAutoCommit(Connection con) {
+        try {
+            // The cursor is read-only, changing auto-commit commits the temporary transaction
+            con.setAutoCommit(true);
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot restore the auto-commit of connection", ex);
+        }
+    }
+
+    /**
+     * Returns a lazy stream, the rows are read and fetched chunk by chunk
+     * when the stream is consumed.
+     *
+     * <p>The returned stream must be closed to release the JDBC statement,
+     * it is closed automatically when all the rows have been read.</p>
+     */
+    public static <R> Stream<R> stream(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            String sql,
+            List<Object> variables,
+            @Nullable List<Integer> variablePositions,
+            List<Selection<?>> selections,
+            ExecutionPurpose purpose,
+            int batchSize,
+            int fetchSize
+    ) {
+        Executor executor = sqlClient.getExecutor();
+        long cursorId = CURSOR_ID_SEQUENCE.incrementAndGet();
+        executor.openCursor(
+                cursorId,
+                sql,
+                variables,
+                variablePositions,
+                purpose,
+                ExecutorContext.create(sqlClient),
+                sqlClient
+        );
+        QueryIterator<R> itr = new QueryIterator<>(
+                sqlClient,
+                con,
+                sql,
+                variables,
+                selections,
+                batchSize,
+                resolveFetchSize(sqlClient, con, selections, fetchSize),
+                cursorId,
+                purpose,
+                variablePositions
+        );
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED), false)
+                .onClose(itr::close);
+    }
 }
@@ -17,6 +17,8 @@ import java.util.function.Function;
 
 public class SqlBuilder {
 
+    private static final String SHAPE_ORIGIN = "\u0000";
+
     private final AstContext ctx;
 
     private final SqlBuilder parent;
@@ -29,6 +31,9 @@ public class SqlBuilder {
 
     private final List<Integer> variablePositions;
 
+    // Non-null means only the shape of SQL is built, see `forShape`
+    private final List<Object> shapeTokens;
+
     private boolean indentRequired;
 
     private int childBuilderCount;
@@ -38,30 +43,55 @@ public class SqlBuilder {
     private Scope scope;
 
     public SqlBuilder(AstContext ctx) {
+        this(ctx, false);
+    }
+
+    private SqlBuilder(AstContext ctx, boolean shape) {
         this.ctx = ctx;
         this.parent = null;
-        this.formatter = ctx.getSqlClient().getSqlFormatter();
-        if (ctx.getSqlClient().getSqlFormatter().isPretty()) {
-            this.variablePositions = new ArrayList<>();
-        } else {
+        if (shape) {
+            this.formatter = SqlFormatter.SIMPLE;
             this.variablePositions = null;
+            this.shapeTokens = new ArrayList<>();
+        } else {
+            this.formatter = ctx.getSqlClient().getSqlFormatter();
+            if (formatter.isPretty()) {
+                this.variablePositions = new ArrayList<>();
+            } else {
+                this.variablePositions = null;
+            }
+            this.shapeTokens = null;
         }
     }
 
     private SqlBuilder(SqlBuilder parent) {
         this.ctx = parent.ctx;
         this.parent = parent;
-        this.formatter = ctx.getSqlClient().getSqlFormatter();
-        if (ctx.getSqlClient().getSqlFormatter().isPretty()) {
+        this.formatter = parent.formatter;
+        if (formatter.isPretty()) {
             this.variablePositions = new ArrayList<>();
         } else {
             this.variablePositions = null;
         }
+        this.shapeTokens = parent.shapeTokens != null ? new ArrayList<>() : null;
         for (SqlBuilder p = parent; p != null; p = p.parent) {
             p.childBuilderCount++;
         }
     }
 
+    /**
+     * Creates a builder which does not build the SQL text, but only records the
+     * sequence of the SQL tokens and collects the variables in the rendering order.
+     *
+     * <p>The tokens are the constant strings of AST nodes and the names of
+     * metadata, so recording them is cheaper than appending them and formatting
+     * the result. It is used by {@link SqlTemplateCache}, please see
+     * {@link #buildShape()}</p>
+     */
+    public static SqlBuilder forShape(AstContext ctx) {
+        return new SqlBuilder(ctx, true);
+    }
+
     public AstContext getAstContext() {
         return ctx;
     }
@@ -129,7 +159,7 @@ public class SqlBuilder {
         }
         space(part.before, forceInLine);
         preAppend();
-        builder.append(part.value);
+        append(part.value);
         space(part.after, forceInLine);
     }
 
@@ -144,12 +174,12 @@ public class SqlBuilder {
                     newLine();
                 } else {
                     preAppend();
-                    builder.append(' ');
+                    append(' ');
                 }
                 break;
             case ' ':
                 preAppend();
-                builder.append(' ');
+                append(' ');
                 break;
             case '\n':
                 if (!forceInLine && formatter.isPretty()) {
@@ -178,15 +208,31 @@ public class SqlBuilder {
         indentRequired = false;
         String indent = formatter.getIndent();
         for (int i = scope.depth; i > 0; --i) {
-            builder.append(indent);
+            append(indent);
         }
     }
 
     private void newLine() {
-        builder.append('\n');
+        append('\n');
         indentRequired = true;
     }
 
+    private void append(String token) {
+        if (shapeTokens != null) {
+            shapeTokens.add(token);
+        } else {
+            builder.append(token);
+        }
+    }
+
+    private void append(char token) {
+        if (shapeTokens != null) {
+            shapeTokens.add(token);
+        } else {
+            builder.append(token);
+        }
+    }
+
     public SqlBuilder definition(String tableAlias, ColumnDefinition definition) {
         return definition(tableAlias, definition, null);
     }
@@ -197,19 +243,25 @@ public class SqlBuilder {
         }
         preAppend();
         if (definition instanceof SingleColumn) {
-            builder.append(tableAlias).append('.').append(((SingleColumn)definition).getName());
+            append(tableAlias);
+            append('.');
+            append(((SingleColumn)definition).getName());
             if (asBlock != null) {
-                builder.append(" ").append(asBlock.apply(0));
+                append(" ");
+                append(asBlock.apply(0));
             }
         } else {
             int size = definition.size();
             for (int i = 0; i < size; i++) {
                 if (i != 0) {
-                    builder.append(", ");
+                    append(", ");
                 }
-                builder.append(tableAlias).append('.').append(definition.name(i));
+                append(tableAlias);
+                append('.');
+                append(definition.name(i));
                 if (asBlock != null) {
-                    builder.append(" ").append(asBlock.apply(i));
+                    append(" ");
+                    append(asBlock.apply(i));
                 }
             }
         }
@@ -230,16 +282,16 @@ public class SqlBuilder {
     public SqlBuilder definition(ColumnDefinition definition) {
         preAppend();
         if (definition instanceof SingleColumn) {
-            builder.append(((SingleColumn)definition).getName());
+            append(((SingleColumn)definition).getName());
         } else {
             boolean addComma = false;
             for (String columnName : definition) {
                 if (addComma) {
-                    builder.append(", ");
+                    append(", ");
                 } else {
                     addComma = true;
                 }
-                builder.append(columnName);
+                append(columnName);
             }
         }
         return this;
@@ -249,7 +301,8 @@ public class SqlBuilder {
         ColumnDefinition definition = prop.getStorage(getAstContext().getSqlClient().getMetadataStrategy());
         preAppend();
         if (definition instanceof SingleColumn) {
-            builder.append(((SingleColumn)definition).getName()).append(" = ");
+            append(((SingleColumn)definition).getName());
+            append(" = ");
             if (value != null) {
                 variable(value);
             } else {
@@ -267,9 +320,10 @@ public class SqlBuilder {
             int size = definition.size();
             for (int i = 0; i < size; i++) {
                 if (i != 0) {
-                    builder.append(", ");
+                    append(", ");
                 }
-                builder.append(definition.name(i)).append(" = ");
+                append(definition.name(i));
+                append(" = ");
                 Object subValue = subValues[i];
                 if (subValue != null) {
                     variable(subValue);
@@ -283,7 +337,7 @@ public class SqlBuilder {
 
     public SqlBuilder sql(String sql) {
         preAppend();
-        builder.append(sql);
+        append(sql);
         return this;
     }
 
@@ -291,7 +345,7 @@ public class SqlBuilder {
         preAppend();
         space('?');
         preAppend();
-        builder.append("from ");
+        append("from ");
         return this;
     }
 
@@ -299,7 +353,8 @@ public class SqlBuilder {
         preAppend();
         space('?');
         preAppend();
-        builder.append(joinType.name().toLowerCase()).append(" join ");
+        append(joinType.name().toLowerCase());
+        append(" join ");
         return this;
     }
 
@@ -307,9 +362,9 @@ public class SqlBuilder {
         space('?');
         preAppend();
         if (formatter.isPretty()) {
-            builder.append(formatter.getIndent());
+            append(formatter.getIndent());
         }
-        builder.append("on ");
+        append("on ");
         return this;
     }
 
@@ -464,33 +519,15 @@ public class SqlBuilder {
             }
         } else if (value instanceof DbNull) {
             preAppend();
-            builder.append('?');
+            append('?');
             variables.add(value);
             if (variablePositions != null) {
                 variablePositions.add(builder.length());
             }
         } else {
-            ScalarProvider<Object, Object> scalarProvider =
-                    ctx.getSqlClient().getScalarProvider((Class<Object>) value.getClass());
-            Object finalValue;
-            if (scalarProvider != null) {
-                try {
-                    finalValue = scalarProvider.toSql(value);
-                } catch (Exception ex) {
-                    throw new ExecutionException(
-                            "Cannot convert the jvm type \"" +
-                                    value +
-                                    "\" to the sql type \"" +
-                                    scalarProvider.getSqlType() +
-                                    "\"",
-                            ex
-                    );
-                }
-            } else {
-                finalValue = value;
-            }
+            Object finalValue = toSqlValue(value);
             preAppend();
-            builder.append('?');
+            append('?');
             variables.add(finalValue);
             if (variablePositions != null) {
                 variablePositions.add(builder.length());
@@ -499,6 +536,94 @@ public class SqlBuilder {
         return this;
     }
 
+    /**
+     * Renders ` in (?, ?, ...)` or ` not in (?, ?, ...)` for the single column
+     * rendered before. If the dialect supports arrays of the values, renders
+     * ` = any(?)` or ` <> all(?)` with only one array variable instead,
+     * please see {@link org.babyfish.jimmer.sql.dialect.Dialect#getArrayElementType(Class)}.
+     */
+    public SqlBuilder inVariables(Collection<?> values, boolean negative) {
+        if (!arrayVariable(values, negative)) {
+            sql(negative ? " not in " : " in ").enter(ScopeType.LIST);
+            for (Object value : values) {
+                separator().variable(value);
+            }
+            leave();
+        }
+        return this;
+    }
+
+    /**
+     * Renders ` = any(?)` or ` <> all(?)` if the dialect supports arrays of the values,
+     * otherwise, nothing is rendered.
+     *
+     * @return Whether the array variable is rendered
+     */
+    @SuppressWarnings("unchecked")
+    public boolean arrayVariable(Collection<?> values, boolean negative) {
+        validate();
+        if (values.isEmpty()) {
+            return false;
+        }
+        Object[] sqlValues = new Object[values.size()];
+        Class<?> elementType = null;
+        int index = 0;
+        for (Object value : values) {
+            if (value instanceof ImmutableSpi) {
+                ImmutableSpi spi = (ImmutableSpi) value;
+                if (!spi.__type().isEntity()) {
+                    return false;
+                }
+                value = spi.__get(spi.__type().getIdProp().getId());
+            }
+            if (value == null || value instanceof TupleImplementor || value instanceof ImmutableSpi) {
+                return false;
+            }
+            Object sqlValue = toSqlValue(value);
+            if (sqlValue == null || (elementType != null && elementType != sqlValue.getClass())) {
+                return false;
+            }
+            elementType = sqlValue.getClass();
+            sqlValues[index++] = sqlValue;
+        }
+        String elementTypeName = ctx.getSqlClient().getDialect().getArrayElementType(elementType);
+        if (elementTypeName == null) {
+            return false;
+        }
+        Object[] typedValues = (Object[]) java.lang.reflect.Array.newInstance(elementType, sqlValues.length);
+        System.arraycopy(sqlValues, 0, typedValues, 0, sqlValues.length);
+        sql(negative ? " <> all(" : " = any(");
+        preAppend();
+        append('?');
+        variables.add(new DbArray(elementTypeName, typedValues));
+        if (variablePositions != null) {
+            variablePositions.add(builder.length());
+        }
+        append(')');
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object toSqlValue(Object value) {
+        ScalarProvider<Object, Object> scalarProvider =
+                ctx.getSqlClient().getScalarProvider((Class<Object>) value.getClass());
+        if (scalarProvider == null) {
+            return value;
+        }
+        try {
+            return scalarProvider.toSql(value);
+        } catch (Exception ex) {
+            throw new ExecutionException(
+                    "Cannot convert the jvm type \"" +
+                            value +
+                            "\" to the sql type \"" +
+                            scalarProvider.getSqlType() +
+                            "\"",
+                    ex
+            );
+        }
+    }
+
     private void embeddedVariable(ImmutableSpi spi, EmbeddedPath parentPath) {
         enter(ScopeType.TUPLE);
         for (ImmutableProp prop : spi.__type().getProps().values()) {
@@ -582,7 +707,7 @@ public class SqlBuilder {
             finalValue = new DbNull(type);
         }
         preAppend();
-        builder.append('?');
+        append('?');
         variables.add(finalValue);
         if (variablePositions != null) {
             variablePositions.add(builder.length());
@@ -608,7 +733,7 @@ public class SqlBuilder {
         }
         validate();
         Tuple3<String, List<Object>, List<Integer>> result = new Tuple3<>(
-                builder.toString(),
+                shapeTokens != null ? SHAPE_ORIGIN : builder.toString(),
                 variables,
                 variablePositions
         );
@@ -618,7 +743,16 @@ public class SqlBuilder {
         SqlBuilder p = this.parent;
         if (p != null) {
             preAppend();
-            p.builder.append(result.get_1());
+            if (shapeTokens != null) {
+                p.shapeTokens.addAll(shapeTokens);
+                if (transformer != null) {
+                    // The transformed SQL only depends on the origin SQL
+                    // whose position is marked by `SHAPE_ORIGIN`
+                    p.shapeTokens.add(result.get_1());
+                }
+            } else {
+                p.builder.append(result.get_1());
+            }
             p.variables.addAll(result.get_2());
             if (p.variablePositions != null) {
                 p.variablePositions.addAll(result.get_3());
@@ -632,6 +766,26 @@ public class SqlBuilder {
         return result;
     }
 
+    /**
+     * Builds the shape of a builder created by {@link #forShape(AstContext)}.
+     *
+     * @return The shape which can be used as the key of the rendered SQL, and the variables.
+     */
+    public Tuple2<SqlShape, List<Object>> buildShape() {
+        if (shapeTokens == null) {
+            throw new IllegalStateException("The current builder is not created by `forShape`");
+        }
+        if (parent != null) {
+            throw new IllegalStateException("The shape can only be built by the root builder");
+        }
+        if (scope != null) {
+            throw new IllegalStateException("Internal bug: Did not leave all scopes");
+        }
+        validate();
+        terminated = true;
+        return new Tuple2<>(new SqlShape(shapeTokens.toArray()), variables);
+    }
+
     private void validate() {
         if (childBuilderCount != 0) {
             throw new IllegalStateException(
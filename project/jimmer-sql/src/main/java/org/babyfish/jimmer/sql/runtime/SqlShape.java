@@ -0,0 +1,65 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import java.util.Arrays;
+
+/**
+ * The structural fingerprint of a statement built by {@link SqlBuilder#forShape},
+ * it is the sequence of the SQL tokens rendered by the AST without the values
+ * of variables, so two statements with the same shape have the same SQL.
+ *
+ * <p>Most tokens are constant strings of AST nodes or names of metadata
+ * whose hash codes are cached, so that the comparison is cheap.</p>
+ */
+public final class SqlShape {
+
+    private final Object[] tokens;
+
+    private final int hash;
+
+    SqlShape(Object[] tokens) {
+        this.tokens = tokens;
+        this.hash = Arrays.hashCode(tokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SqlShape other = (SqlShape) o;
+        if (hash != other.hash) {
+            return false;
+        }
+        Object[] tokens = this.tokens;
+        Object[] otherTokens = other.tokens;
+        int len = tokens.length;
+        if (len != otherTokens.length) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            Object token = tokens[i];
+            Object otherToken = otherTokens[i];
+            if (token != otherToken && (token == null || !token.equals(otherToken))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Object token : tokens) {
+            builder.append(token);
+        }
+        return "SqlShape{" + builder + '}';
+    }
+}
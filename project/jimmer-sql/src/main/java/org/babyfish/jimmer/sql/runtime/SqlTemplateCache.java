@@ -0,0 +1,158 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
+import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded and thread-safe LRU cache of the rendered SQL of root queries,
+ * it is keyed by {@link SqlShape}, the structural fingerprint of query.
+ *
+ * <p>The AST is still walked by {@link SqlBuilder#forShape} to get the shape
+ * and the variables in rendering order. When the shape is cached, the SQL
+ * text, its formatting and the variable positions are not built again,
+ * and the same SQL string instance is reused. When it is not cached,
+ * the query is rendered as usual, so a miss costs an extra walk.</p>
+ *
+ * <p>Please enable {@link org.babyfish.jimmer.sql.JSqlClient.Builder#setInListPaddingEnabled(boolean)}
+ * as well, otherwise each size of `in` list is a different shape.</p>
+ */
+public class SqlTemplateCache {
+
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private final int maxSize;
+
+    private final Map<SqlShape, Template> templateMap;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    public SqlTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize The max count of cached shapes
+     */
+    public SqlTemplateCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize cannot be less than 1");
+        }
+        this.maxSize = maxSize;
+        this.templateMap = new LinkedHashMap<SqlShape, Template>(16, .75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SqlShape, Template> eldest) {
+                if (size() > SqlTemplateCache.this.maxSize) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param shape The shape and the variables built by {@link SqlBuilder#buildShape()}
+     * @param renderer Renders the query if the shape is not cached
+     * @return The SQL, variables and variable positions, like {@link SqlBuilder#build()}
+     */
+    public Tuple3<String, List<Object>, List<Integer>> get(
+            Tuple2<SqlShape, List<Object>> shape,
+            Supplier<Tuple3<String, List<Object>, List<Integer>>> renderer
+    ) {
+        List<Object> variables = shape.get_2();
+        Template template;
+        synchronized (templateMap) {
+            template = templateMap.get(shape.get_1());
+        }
+        if (template != null) {
+            if (template.variableCount != variables.size()) {
+                throw new IllegalStateException(
+                        "Internal bug: the variable count of the cached SQL \"" +
+                                template.sql +
+                                "\" is " +
+                                template.variableCount +
+                                ", but the variable count of the shape is " +
+                                variables.size()
+                );
+            }
+            hitCount.increment();
+            return new Tuple3<>(template.sql, variables, template.variablePositions);
+        }
+        missCount.increment();
+        // Render without lock, it is harmless to render the same shape concurrently
+        Tuple3<String, List<Object>, List<Integer>> result = renderer.get();
+        template = new Template(
+                result.get_1(),
+                result.get_2().size(),
+                result.get_3() != null ? Collections.unmodifiableList(result.get_3()) : null
+        );
+        synchronized (templateMap) {
+            templateMap.put(shape.get_1(), template);
+        }
+        return result;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        synchronized (templateMap) {
+            return templateMap.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlTemplateCache{" +
+                "maxSize=" + maxSize +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    private static class Template {
+
+        final String sql;
+
+        final int variableCount;
+
+        final List<Integer> variablePositions;
+
+        Template(String sql, int variableCount, List<Integer> variablePositions) {
+            this.sql = sql;
+            this.variableCount = variableCount;
+            this.variablePositions = variablePositions;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An executor which reuses prepared statements with the same SQL
+ * during the lifetime of a connection.
+ *
+ * <p>The statements are cached by connection, a connection is only
+ * cached when it is borrowed from the connection manager wrapped by
+ * {@link #wrap(ConnectionManager)}, and all the statements of it are
+ * closed when that {@link ConnectionManager#execute(Function)} finishes.</p>
+ *
+ * <pre>{@code
+ * StatementCachingExecutor executor = new StatementCachingExecutor(64);
+ * JSqlClient sqlClient = JSqlClient
+ *     .newBuilder()
+ *     .setExecutor(executor)
+ *     .setConnectionManager(executor.wrap(connectionManager))
+ *     ...
+ *     .build();
+ * }</pre>
+ *
+ * <p>Statements created by a custom {@link StatementFactory}, such as
+ * the statements returning generated keys, and statements
+ * with fetch size are not cached.</p>
+ */
+public class StatementCachingExecutor implements Executor {
+
+    private final int maxSize;
+
+    private final Map<Connection, StatementCache> cacheMap =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize The max count of cached statements of each connection
+     */
+    public StatementCachingExecutor(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize cannot be less than 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public ConnectionManager wrap(ConnectionManager connectionManager) {
+        return new ConnectionManager() {
+            @Override
+            public <R> R execute(Function<Connection, R> block) {
+                return connectionManager.execute(con -> {
+                    if (cacheMap.containsKey(con)) {
+                        // Nested execution shares the connection of outer execution
+                        return block.apply(con);
+                    }
+                    StatementCache cache = new StatementCache();
+                    cacheMap.put(con, cache);
+                    try {
+                        return block.apply(con);
+                    } finally {
+                        cacheMap.remove(con);
+                        cache.close();
+                    }
+                });
+            }
+        };
+    }
+
+    @Override
+    public <R> R execute(@NotNull Args<R> args) {
+        StatementCache cache = args.statementFactory == null && args.fetchSize == 0 ?
+                cacheMap.get(args.con) :
+                null;
+        if (cache == null) {
+            return DefaultExecutor.INSTANCE.execute(args);
+        }
+        String sql = args.sql;
+        List<Object> variables = args.variables;
+        Dialect dialect = args.sqlClient.getDialect();
+        PreparedStatement stmt = cache.remove(sql);
+        List<java.sql.Array> arrays = new ArrayList<>();
+        boolean reusable = false;
+        try {
+            if (stmt != null) {
+                hitCount.increment();
+                stmt.clearParameters();
+            } else {
+                missCount.increment();
+                stmt = args.con.prepareStatement(sql);
+            }
+            DefaultExecutor.setParameters(stmt, variables, dialect, arrays);
+            R result = args.block.apply(stmt);
+            reusable = true;
+            return result;
+        } catch (SQLException ex) {
+            throw new ExecutionException(
+                    "Cannot execute SQL statement: " +
+                            sql +
+                            ", variables: " +
+                            variables,
+                    ex
+            );
+        } finally {
+            DefaultExecutor.freeArrays(arrays);
+            if (stmt != null) {
+                if (reusable) {
+                    cache.put(sql, stmt);
+                } else {
+                    closeQuietly(stmt);
+                }
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCachingExecutor{" +
+                "maxSize=" + maxSize +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ex) {
+            // Ignore, the statement is discarded
+        }
+    }
+
+    /**
+     * The statements being executed are removed from the cache,
+     * so that the nested execution with the same SQL, for example,
+     * the object fetcher of `Query.forEach`, never uses the statement
+     * whose result set is still open.
+     */
+    private class StatementCache {
+
+        private final LinkedHashMap<String, PreparedStatement> statementMap =
+                new LinkedHashMap<String, PreparedStatement>(16, .75F, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > maxSize) {
+                            evictionCount.increment();
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        PreparedStatement remove(String sql) {
+            return statementMap.remove(sql);
+        }
+
+        void put(String sql, PreparedStatement stmt) {
+            PreparedStatement conflictStmt = statementMap.put(sql, stmt);
+            if (conflictStmt != null) {
+                closeQuietly(conflictStmt);
+            }
+        }
+
+        void close() {
+            for (PreparedStatement stmt : statementMap.values()) {
+                closeQuietly(stmt);
+            }
+            statementMap.clear();
+        }
+    }
+}
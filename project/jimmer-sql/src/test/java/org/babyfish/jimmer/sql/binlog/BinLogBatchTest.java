@@ -0,0 +1,173 @@
+package org.babyfish.jimmer.sql.binlog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.Cache;
+import org.babyfish.jimmer.sql.cache.CacheEnvironment;
+import org.babyfish.jimmer.sql.cache.CacheFactory;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.event.binlog.BinLog;
+import org.babyfish.jimmer.sql.event.binlog.BinLogMetrics;
+import org.babyfish.jimmer.sql.event.binlog.BinLogRecord;
+import org.babyfish.jimmer.sql.model.BookProps;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class BinLogBatchTest extends AbstractTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private List<String> deleteMessages;
+
+    private BinLog binLog;
+
+    @BeforeEach
+    public void initialize() {
+        deleteMessages = new ArrayList<>();
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient(it -> {
+            it.setCaches(cfg -> {
+                cfg.setCacheFactory(
+                        new CacheFactory() {
+                            @Override
+                            public @Nullable Cache<?, ?> createObjectCache(@NotNull ImmutableType type) {
+                                return new RecordingCache<>(type.getJavaClass().getSimpleName());
+                            }
+
+                            @Override
+                            public @Nullable Cache<?, List<?>> createAssociatedIdListCache(@NotNull ImmutableProp prop) {
+                                if (prop == BookProps.AUTHORS.unwrap()) {
+                                    return new RecordingCache<>("Book.authors");
+                                }
+                                return null;
+                            }
+                        }
+                );
+            });
+        });
+        binLog = sqlClient.getBinLog();
+    }
+
+    @Test
+    public void testMaxwellReplay() throws IOException {
+        binLog.acceptAll(maxwellRecords("binlog/maxwell-books.jsonl"));
+        Assertions.assertEquals(
+                Arrays.asList(
+                        "BookStore" + Collections.singletonList(oreillyId),
+                        "Book" + Arrays.asList(learningGraphQLId1, learningGraphQLId2),
+                        "Book.authors" + Collections.singletonList(learningGraphQLId1)
+                ),
+                deleteMessages
+        );
+        BinLogMetrics metrics = binLog.getMetrics();
+        Assertions.assertEquals(1, metrics.getBatchCount());
+        Assertions.assertEquals(7, metrics.getRecordCount());
+        Assertions.assertEquals(5, metrics.getFiredEventCount());
+        Assertions.assertEquals(2, metrics.getDuplicateCount());
+        Assertions.assertTrue(metrics.getMaxLagMillis() > 0);
+    }
+
+    @Test
+    public void testInsertAndDeleteInSameBatch() throws IOException {
+        String id = "\"id\":\"" + oreillyId + "\"";
+        binLog.acceptAll(
+                Arrays.asList(
+                        new BinLogRecord(
+                                "book_store",
+                                null,
+                                MAPPER.readTree("{" + id + ", \"name\":\"A\", \"version\":0}")
+                        ),
+                        new BinLogRecord(
+                                "book_store",
+                                MAPPER.readTree("{" + id + ", \"name\":\"A\", \"version\":0}"),
+                                null
+                        )
+                )
+        );
+        Assertions.assertEquals(Collections.emptyList(), deleteMessages);
+        Assertions.assertEquals(0, binLog.getMetrics().getFiredEventCount());
+    }
+
+    /**
+     * Replays the JSON lines of maxwell, the `old` of update only
+     * contains the changed columns so that it is merged with `data`
+     */
+    private static List<BinLogRecord> maxwellRecords(String resource) throws IOException {
+        List<BinLogRecord> records = new ArrayList<>();
+        try (InputStream in = BinLogBatchTest.class.getClassLoader().getResourceAsStream(resource)) {
+            Assertions.assertNotNull(in, "No resource \"" + resource + "\"");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                JsonNode node = MAPPER.readTree(line);
+                JsonNode data = node.get("data");
+                JsonNode oldData;
+                JsonNode newData;
+                switch (node.get("type").asText()) {
+                    case "insert":
+                        oldData = null;
+                        newData = data;
+                        break;
+                    case "delete":
+                        oldData = data;
+                        newData = null;
+                        break;
+                    default:
+                        ObjectNode merged = data.deepCopy();
+                        merged.setAll((ObjectNode) node.get("old"));
+                        oldData = merged;
+                        newData = data;
+                        break;
+                }
+                records.add(
+                        new BinLogRecord(
+                                node.get("table").asText(),
+                                oldData,
+                                newData,
+                                null,
+                                node.get("ts").asLong() * 1000L
+                        )
+                );
+            }
+        }
+        return records;
+    }
+
+    private class RecordingCache<V> implements Cache<Object, V> {
+
+        private final String name;
+
+        RecordingCache(String name) {
+            this.name = name;
+        }
+
+        @NotNull
+        @Override
+        public Map<Object, V> getAll(@NotNull Collection<Object> keys, @NotNull CacheEnvironment<Object, V> env) {
+            return env.getLoader().loadAll(keys);
+        }
+
+        @Override
+        public void deleteAll(@NotNull Collection<Object> keys, @Nullable Object reason) {
+            deleteMessages.add(name + new ArrayList<>(keys));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.chain.ChainCacheBuilder;
+import org.babyfish.jimmer.sql.cache.chain.LocalBinder;
+import org.babyfish.jimmer.sql.cache.chain.SimpleBinder;
+import org.babyfish.jimmer.sql.event.TriggersImpl;
+import org.babyfish.jimmer.sql.model.Book;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+public class CacheInvalidationBroadcasterTest {
+
+    private static final ImmutableType BOOK_TYPE = ImmutableType.get(Book.class);
+
+    private static final UUID ID_1 = UUID.fromString("a62f7aa3-9490-4612-98b5-98aae0e77120");
+
+    private static final UUID ID_2 = UUID.fromString("2fa3955e-3e83-49b9-902e-0465c109c779");
+
+    @Test
+    public void testLocalBindersOfOtherNodesAreEvicted() {
+        Map<Object, Object> sharedMap = new HashMap<>();
+        LoopbackCacheInvalidationBroadcaster broadcaster1 = new LoopbackCacheInvalidationBroadcaster();
+        LoopbackCacheInvalidationBroadcaster broadcaster2 = new LoopbackCacheInvalidationBroadcaster(broadcaster1);
+        MapBinder local1 = new LocalMapBinder();
+        MapBinder local2 = new LocalMapBinder();
+        MapBinder shared1 = new MapBinder(sharedMap);
+        MapBinder shared2 = new MapBinder(sharedMap);
+        Caches caches1 = createCaches(local1, shared1, broadcaster1);
+        Caches caches2 = createCaches(local2, shared2, broadcaster2);
+        for (MapBinder binder : Arrays.asList(local1, local2, shared1)) {
+            binder.map.put(ID_1, "Book-1");
+            binder.map.put(ID_2, "Book-2");
+        }
+
+        caches1.getObjectCache(BOOK_TYPE).delete(ID_1);
+
+        Assertions.assertEquals(Collections.singleton(ID_2), local1.map.keySet());
+        Assertions.assertEquals(Collections.singleton(ID_2), local2.map.keySet());
+        Assertions.assertEquals(Collections.singleton(ID_2), sharedMap.keySet());
+        Assertions.assertEquals(Collections.singletonList(ID_1), shared1.deletedKeys);
+        // The shared binder has been evicted by node1
+        Assertions.assertEquals(Collections.emptyList(), shared2.deletedKeys);
+    }
+
+    @Test
+    public void testBatch() {
+        List<Collection<?>> received = new ArrayList<>();
+        LoopbackCacheInvalidationBroadcaster broadcaster1 =
+                new LoopbackCacheInvalidationBroadcaster(null, Duration.ofHours(1), 2);
+        LoopbackCacheInvalidationBroadcaster broadcaster2 =
+                new LoopbackCacheInvalidationBroadcaster(broadcaster1);
+        broadcaster2.subscribe("books", UUID.class, received::add);
+
+        broadcaster1.publish("books", Collections.singleton(ID_1));
+        broadcaster1.publish("books", Collections.singleton(ID_1));
+        Assertions.assertTrue(received.isEmpty());
+
+        broadcaster1.publish("books", Collections.singleton(ID_2));
+        Assertions.assertEquals(
+                Collections.singletonList(Arrays.asList(ID_1, ID_2)),
+                received
+        );
+        broadcaster1.close();
+    }
+
+    @Test
+    public void testDuplicatedSubscription() {
+        LoopbackCacheInvalidationBroadcaster broadcaster = new LoopbackCacheInvalidationBroadcaster();
+        broadcaster.subscribe("books", UUID.class, keys -> {});
+        IllegalStateException ex = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> broadcaster.subscribe("books", UUID.class, keys -> {})
+        );
+        Assertions.assertEquals("The cache \"books\" has already been subscribed", ex.getMessage());
+    }
+
+    @Test
+    public void testPublishAfterClose() {
+        List<Collection<?>> received = new ArrayList<>();
+        LoopbackCacheInvalidationBroadcaster broadcaster1 =
+                new LoopbackCacheInvalidationBroadcaster(null, Duration.ofHours(1), 10);
+        LoopbackCacheInvalidationBroadcaster broadcaster2 =
+                new LoopbackCacheInvalidationBroadcaster(broadcaster1);
+        broadcaster2.subscribe("books", UUID.class, received::add);
+
+        broadcaster1.publish("books", Collections.singleton(ID_1));
+        broadcaster1.close();
+        Assertions.assertEquals(
+                Collections.singletonList(Collections.singletonList(ID_1)),
+                received
+        );
+
+        IllegalStateException ex = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> broadcaster1.publish("books", Collections.singleton(ID_2))
+        );
+        Assertions.assertEquals(
+                "Cannot publish the keys of \"books\" because the broadcaster has been closed",
+                ex.getMessage()
+        );
+    }
+
+    private static Caches createCaches(
+            MapBinder localBinder,
+            MapBinder sharedBinder,
+            CacheInvalidationBroadcaster broadcaster
+    ) {
+        Cache<Object, Object> cache = new ChainCacheBuilder<Object, Object>()
+                .add(localBinder)
+                .add(sharedBinder)
+                .build();
+        return new CachesImpl(
+                new TriggersImpl(),
+                Collections.<ImmutableType, Cache<?, ?>>singletonMap(BOOK_TYPE, cache),
+                Collections.emptyMap(),
+                null,
+                null,
+                broadcaster
+        );
+    }
+
+    private static class MapBinder implements SimpleBinder<Object, Object> {
+
+        final Map<Object, Object> map;
+
+        final List<Object> deletedKeys = new ArrayList<>();
+
+        MapBinder() {
+            this(new HashMap<>());
+        }
+
+        MapBinder(Map<Object, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Map<Object, Object> getAll(Collection<Object> keys) {
+            Map<Object, Object> resultMap = new HashMap<>();
+            for (Object key : keys) {
+                if (map.containsKey(key)) {
+                    resultMap.put(key, map.get(key));
+                }
+            }
+            return resultMap;
+        }
+
+        @Override
+        public void setAll(Map<Object, Object> map) {
+            this.map.putAll(map);
+        }
+
+        @Override
+        public void deleteAll(Collection<Object> keys, Object reason) {
+            deletedKeys.addAll(keys);
+            map.keySet().removeAll(keys);
+        }
+    }
+
+    private static class LocalMapBinder extends MapBinder implements LocalBinder {}
+}
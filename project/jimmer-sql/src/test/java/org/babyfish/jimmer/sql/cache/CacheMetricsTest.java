@@ -0,0 +1,178 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.common.CacheImpl;
+import org.babyfish.jimmer.sql.model.BookStore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.babyfish.jimmer.sql.common.Constants.oreillyId;
+
+public class CacheMetricsTest extends AbstractTest {
+
+    private static final String CACHE_NAME = ImmutableType.get(BookStore.class).toString();
+
+    @Test
+    public void testMetrics() {
+        MetricsImpl metrics = new MetricsImpl();
+        JSqlClient sqlClient = getSqlClient(builder -> {
+            builder.setCaches(cfg -> {
+                cfg.setCacheFactory(
+                        new CacheFactory() {
+                            @Override
+                            public Cache<?, ?> createObjectCache(@NotNull ImmutableType type) {
+                                return new CacheImpl<>(type);
+                            }
+                        }
+                );
+                cfg.setMetrics(metrics);
+            });
+        });
+        jdbc(con -> {
+            for (int i = 0; i < 2; i++) {
+                Assertions.assertNotNull(
+                        sqlClient.getEntities().forConnection(con).findById(BookStore.class, oreillyId)
+                );
+            }
+        });
+        sqlClient.getCaches().getObjectCache(BookStore.class).delete(oreillyId, "test");
+        Assertions.assertEquals(
+                "[" +
+                        "load:1, " +
+                        "serialize, " +
+                        "hit:0, " +
+                        "miss:1, " +
+                        "deserialize, " +
+                        "hit:1, " +
+                        "miss:0, " +
+                        "evict:1:test" +
+                        "]",
+                metrics.records.toString()
+        );
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        MetricsImpl metrics = new MetricsImpl();
+        JSqlClient sqlClient = getSqlClient(metrics, new CacheImpl<>(ImmutableType.get(BookStore.class)));
+        jdbc(con -> {
+            Cache<Object, BookStore> cache = sqlClient.getCaches().getObjectCache(BookStore.class);
+            cache.getAll(
+                    Arrays.asList(oreillyId, oreillyId),
+                    new CacheEnvironment<>(
+                            sqlClient,
+                            con,
+                            CacheLoader.objectLoader(sqlClient, con, BookStore.class),
+                            true
+                    )
+            );
+        });
+        Assertions.assertEquals(
+                "[load:1, serialize, hit:0, miss:1]",
+                metrics.records.toString()
+        );
+    }
+
+    @Test
+    public void testWaitedKeysAreMisses() {
+        MetricsImpl metrics = new MetricsImpl();
+        // Like chain cache, whose keys are being loaded by other threads
+        Cache<Object, BookStore> waitingCache = new Cache<Object, BookStore>() {
+            @NotNull
+            @Override
+            public Map<Object, BookStore> getAll(
+                    @NotNull Collection<Object> keys,
+                    @NotNull CacheEnvironment<Object, BookStore> env
+            ) {
+                env.getLoader().beforeWait(keys);
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public void deleteAll(@NotNull Collection<Object> keys, @Nullable Object reason) {}
+        };
+        JSqlClient sqlClient = getSqlClient(metrics, waitingCache);
+        jdbc(con -> {
+            Cache<Object, BookStore> cache = sqlClient.getCaches().getObjectCache(BookStore.class);
+            cache.getAll(
+                    Collections.singleton(oreillyId),
+                    new CacheEnvironment<>(
+                            sqlClient,
+                            con,
+                            CacheLoader.objectLoader(sqlClient, con, BookStore.class),
+                            true
+                    )
+            );
+        });
+        Assertions.assertEquals(
+                "[hit:0, miss:1]",
+                metrics.records.toString()
+        );
+    }
+
+    private JSqlClient getSqlClient(CacheMetrics metrics, Cache<?, ?> objectCache) {
+        return getSqlClient(builder -> {
+            builder.setCaches(cfg -> {
+                cfg.setCacheFactory(
+                        new CacheFactory() {
+                            @Override
+                            public Cache<?, ?> createObjectCache(@NotNull ImmutableType type) {
+                                return type.getJavaClass() == BookStore.class ? objectCache : null;
+                            }
+                        }
+                );
+                cfg.setMetrics(metrics);
+            });
+        });
+    }
+
+    private static class MetricsImpl implements CacheMetrics {
+
+        final List<String> records = new ArrayList<>();
+
+        @Override
+        public void recordHits(@NotNull String cacheName, int count) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            records.add("hit:" + count);
+        }
+
+        @Override
+        public void recordMisses(@NotNull String cacheName, int count) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            records.add("miss:" + count);
+        }
+
+        @Override
+        public void recordLoad(@NotNull String cacheName, int keyCount, long nanos) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            Assertions.assertTrue(nanos >= 0);
+            records.add("load:" + keyCount);
+        }
+
+        @Override
+        public void recordEviction(@NotNull String cacheName, int keyCount, @Nullable Object reason) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            records.add("evict:" + keyCount + ':' + reason);
+        }
+
+        @Override
+        public void recordSerialization(@NotNull String cacheName, int byteCount) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            Assertions.assertTrue(byteCount > 0);
+            records.add("serialize");
+        }
+
+        @Override
+        public void recordDeserialization(@NotNull String cacheName, int byteCount) {
+            Assertions.assertEquals(CACHE_NAME, cacheName);
+            Assertions.assertTrue(byteCount > 0);
+            records.add("deserialize");
+        }
+    }
+}
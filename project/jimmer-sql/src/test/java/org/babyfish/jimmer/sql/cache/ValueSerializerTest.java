@@ -0,0 +1,79 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.model.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+public class ValueSerializerTest {
+
+    private static final UUID BOOK_ID = UUID.fromString("a62f7aa3-9490-4612-98b5-98aae0e77120");
+
+    private static final UUID STORE_ID = UUID.fromString("2fa3955e-3e83-49b9-902e-0465c109c779");
+
+    private static final UUID AUTHOR_ID = UUID.fromString("fd6bb6cf-336d-416c-8005-1ae11a6694b5");
+
+    @Test
+    public void testBinaryObject() {
+        Book book = BookDraft.$.produce(draft -> {
+            draft.setId(BOOK_ID);
+            draft.setName("GraphQL in Action");
+            draft.setEdition(3);
+            draft.setPrice(new BigDecimal("80.00"));
+            draft.applyStore(store -> store.setId(STORE_ID));
+            draft.addIntoAuthors(author -> {
+                author.setId(AUTHOR_ID);
+                author.setFirstName("Samer");
+                author.setLastName("Buna");
+                author.setGender(Gender.MALE);
+            });
+        });
+        ValueSerializer<Book> jsonSerializer =
+                new ValueSerializer<>(ImmutableType.get(Book.class));
+        ValueSerializer<Book> binarySerializer =
+                new ValueSerializer<>(ImmutableType.get(Book.class), null, true);
+
+        byte[] jsonBytes = jsonSerializer.serialize(book);
+        byte[] binaryBytes = binarySerializer.serialize(book);
+        Assertions.assertEquals(0, binaryBytes[0]);
+        Assertions.assertTrue(binaryBytes.length < jsonBytes.length);
+
+        // Both formats can be read by both serializers
+        Assertions.assertEquals(book.toString(), binarySerializer.deserialize(binaryBytes).toString());
+        Assertions.assertEquals(book.toString(), jsonSerializer.deserialize(binaryBytes).toString());
+        Assertions.assertEquals(book.toString(), binarySerializer.deserialize(jsonBytes).toString());
+
+        Assertions.assertNull(binarySerializer.deserialize(binarySerializer.serialize(null)));
+    }
+
+    @Test
+    public void testBinaryAssociatedIds() {
+        ImmutableProp prop = ImmutableType.get(Book.class).getProp("authors");
+        ValueSerializer<List<UUID>> serializer = new ValueSerializer<>(prop, null, true);
+        List<UUID> ids = Arrays.asList(AUTHOR_ID, STORE_ID);
+        byte[] bytes = serializer.serialize(ids);
+        Assertions.assertEquals(0, bytes[0]);
+        Assertions.assertEquals(ids, serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void testIncompatibleShape() {
+        ValueSerializer<BookStore> storeSerializer =
+                new ValueSerializer<>(ImmutableType.get(BookStore.class), null, true);
+        ValueSerializer<Book> bookSerializer =
+                new ValueSerializer<>(ImmutableType.get(Book.class), null, true);
+        byte[] bytes = storeSerializer.serialize(
+                BookStoreDraft.$.produce(store -> store.setId(STORE_ID).setName("MANNING"))
+        );
+        Map<String, Book> map = bookSerializer.deserialize(
+                Collections.singletonList("key"),
+                Collections.singletonList(bytes)
+        );
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertThrows(SerializationException.class, () -> bookSerializer.deserialize(bytes));
+    }
+}
@@ -0,0 +1,149 @@
+package org.babyfish.jimmer.sql.cache.chain;
+
+import org.babyfish.jimmer.sql.cache.CacheLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentLoading() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        SingleFlight<Long, String> singleFlight = new SingleFlight<Long, String>() {
+            @Override
+            void beforeWait(Collection<Long> keys) {
+                waiting.countDown();
+            }
+        };
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Long, String>[] results = new Map[2];
+        Thread owner = new Thread(() -> {
+            results[0] = singleFlight.loadAll(
+                    Arrays.asList(1L, 2L),
+                    Collections.emptySortedMap(),
+                    keys -> {
+                        loadCount.incrementAndGet();
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                        // Key 2 does not exist
+                        return Collections.singletonMap(1L, "Value-1");
+                    }
+            );
+        });
+        owner.start();
+        started.await();
+        List<Long> waitedKeys = new ArrayList<>();
+        Thread waiter = new Thread(() -> {
+            results[1] = singleFlight.loadAll(
+                    Arrays.asList(1L, 2L),
+                    Collections.emptySortedMap(),
+                    new CacheLoader<Long, String>() {
+                        @Override
+                        public Map<Long, String> loadAll(Collection<Long> keys) {
+                            loadCount.incrementAndGet();
+                            return Collections.singletonMap(1L, "Other-1");
+                        }
+
+                        @Override
+                        public void beforeWait(Collection<Long> keys) {
+                            waitedKeys.addAll(keys);
+                        }
+                    }
+            );
+        });
+        waiter.start();
+        waiting.await();
+        release.countDown();
+        owner.join();
+        waiter.join();
+        Assertions.assertEquals(1, loadCount.get());
+        Assertions.assertEquals(Arrays.asList(1L, 2L), waitedKeys);
+        Assertions.assertEquals(Collections.singletonMap(1L, "Value-1"), results[0]);
+        Assertions.assertEquals(Collections.singletonMap(1L, "Value-1"), results[1]);
+    }
+
+    @Test
+    public void testBoundedWaiting() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(50);
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread owner = new Thread(() -> {
+            singleFlight.loadAll(
+                    Collections.singleton(1L),
+                    Collections.emptySortedMap(),
+                    keys -> {
+                        loadCount.incrementAndGet();
+                        started.countDown();
+                        try {
+                            // For example, waits for the fetcher executor which waits for the next caller
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                        return Collections.singletonMap(1L, "Value-1");
+                    }
+            );
+        });
+        owner.start();
+        started.await();
+        try {
+            // Loads the key by itself after the bounded waiting
+            Map<Long, String> map = singleFlight.loadAll(
+                    Collections.singleton(1L),
+                    Collections.emptySortedMap(),
+                    keys -> {
+                        loadCount.incrementAndGet();
+                        return Collections.singletonMap(1L, "Other-1");
+                    }
+            );
+            Assertions.assertEquals(Collections.singletonMap(1L, "Other-1"), map);
+            Assertions.assertEquals(2, loadCount.get());
+        } finally {
+            release.countDown();
+            owner.join();
+        }
+    }
+
+    @Test
+    public void testDifferentParameters() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        SortedMap<String, Object> parameterMap = new TreeMap<>();
+        parameterMap.put("tenant", "a");
+        Map<Long, String> map = singleFlight.loadAll(
+                Collections.singleton(1L),
+                Collections.emptySortedMap(),
+                keys -> singleFlight.loadAll(
+                        keys,
+                        parameterMap,
+                        nestedKeys -> Collections.singletonMap(1L, "Value-1-a")
+                )
+        );
+        Assertions.assertEquals(Collections.singletonMap(1L, "Value-1-a"), map);
+    }
+
+    @Test
+    public void testReentrantLoading() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        Map<Long, String> map = singleFlight.loadAll(
+                Collections.singleton(1L),
+                Collections.emptySortedMap(),
+                keys -> singleFlight.loadAll(
+                        keys,
+                        Collections.emptySortedMap(),
+                        nestedKeys -> Collections.singletonMap(1L, "Value-1")
+                )
+        );
+        Assertions.assertEquals(Collections.singletonMap(1L, "Value-1"), map);
+    }
+}
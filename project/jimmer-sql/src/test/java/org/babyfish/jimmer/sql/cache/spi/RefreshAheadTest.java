@@ -0,0 +1,147 @@
+package org.babyfish.jimmer.sql.cache.spi;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.cache.Cache;
+import org.babyfish.jimmer.sql.cache.CacheEnvironment;
+import org.babyfish.jimmer.sql.cache.chain.ChainCacheBuilder;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.model.Book;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public class RefreshAheadTest {
+
+    private static final ImmutableProp STORE_PROP = ImmutableType.get(Book.class).getProp("store");
+
+    private static final UUID BOOK_ID = UUID.fromString("a62f7aa3-9490-4612-98b5-98aae0e77120");
+
+    private static final UUID STORE_ID = UUID.fromString("2fa3955e-3e83-49b9-902e-0465c109c779");
+
+    @Test
+    public void testValueIsKeptBeforeRefreshTime() {
+        MapBinder binder = new MapBinder(Duration.ofHours(1), 1.0);
+        binder.setAll(Collections.singletonMap(BOOK_ID, STORE_ID));
+        Assertions.assertEquals(
+                Collections.singletonMap(BOOK_ID, STORE_ID),
+                binder.getAll(Collections.singleton(BOOK_ID))
+        );
+    }
+
+    @Test
+    public void testValueIsRefreshedWhenExpirationArrives() {
+        // The estimated expiration is the write time, so refresh is always required
+        MapBinder binder = new MapBinder(Duration.ZERO, 1.0);
+        binder.setAll(Collections.singletonMap(BOOK_ID, STORE_ID));
+        Assertions.assertEquals(
+                Collections.emptyMap(),
+                binder.getAll(Collections.singleton(BOOK_ID))
+        );
+        // Still in the remote cache for other callers
+        Assertions.assertEquals(1, binder.valueMap.size());
+    }
+
+    @Test
+    public void testValueWrittenByRefreshAheadCanBeReadWithoutIt() {
+        MapBinder writer = new MapBinder(Duration.ZERO, 1.0);
+        MapBinder reader = new MapBinder(Duration.ZERO, 0);
+        writer.setAll(Collections.singletonMap(BOOK_ID, STORE_ID));
+        reader.valueMap.putAll(writer.valueMap);
+        Assertions.assertEquals(
+                Collections.singletonMap(BOOK_ID, STORE_ID),
+                reader.getAll(Collections.singleton(BOOK_ID))
+        );
+    }
+
+    @Test
+    public void testLoadingDurationIsPassedByChain() {
+        MapBinder binder = new MapBinder(Duration.ofHours(1), 1.0);
+        // A partial miss must not affect the next write
+        binder.getAll(Collections.singleton(BOOK_ID));
+        binder.setAll(Collections.singletonMap(BOOK_ID, STORE_ID));
+        Assertions.assertEquals(0L, deltaNanos(binder.valueMap.values().iterator().next()));
+        binder.setAll(Collections.singletonMap(BOOK_ID, STORE_ID), TimeUnit.MILLISECONDS.toNanos(1500L));
+        Assertions.assertEquals(
+                TimeUnit.MILLISECONDS.toNanos(1500L),
+                deltaNanos(binder.valueMap.values().iterator().next())
+        );
+    }
+
+    @Test
+    public void testSubMillisecondLoadingDurationIsKept() {
+        MapBinder binder = new MapBinder(Duration.ofHours(1), 1.0);
+        Cache<UUID, UUID> cache = new ChainCacheBuilder<UUID, UUID>().add(binder).build();
+        AbstractTest.jdbc(con -> {
+            // The loader returns immediately, so the loading takes less than 1 millisecond
+            CacheEnvironment<UUID, UUID> env = new CacheEnvironment<>(
+                    JSqlClient.newBuilder().build(),
+                    con,
+                    keys -> Collections.singletonMap(BOOK_ID, STORE_ID),
+                    false
+            );
+            Assertions.assertEquals(
+                    Collections.singletonMap(BOOK_ID, STORE_ID),
+                    cache.getAll(Collections.singleton(BOOK_ID), env)
+            );
+        });
+        long deltaNanos = deltaNanos(binder.valueMap.values().iterator().next());
+        Assertions.assertTrue(deltaNanos > 0L);
+        Assertions.assertTrue(deltaNanos < TimeUnit.MILLISECONDS.toNanos(1000L));
+    }
+
+    @Test
+    public void testSubMillisecondLoadingDurationCanRefreshEarly() {
+        // The loading took 0.5 milliseconds, it is still considered
+        // when the beta is large enough, instead of being truncated to 0
+        MapBinder binder = new MapBinder(Duration.ofSeconds(1), 1_000_000_000.0);
+        binder.setAll(Collections.singletonMap(BOOK_ID, STORE_ID), 500_000L);
+        Assertions.assertEquals(
+                Collections.emptyMap(),
+                binder.getAll(Collections.singleton(BOOK_ID))
+        );
+    }
+
+    private static long deltaNanos(byte[] value) {
+        // Magic byte, write time, loading duration
+        return ByteBuffer.wrap(value, 9, 8).getLong();
+    }
+
+    private static class MapBinder extends AbstractRemoteValueBinder<UUID, UUID> {
+
+        final Map<String, byte[]> valueMap = new HashMap<>();
+
+        MapBinder(Duration duration, double refreshAheadBeta) {
+            super(null, null, STORE_PROP, duration, 0, false, refreshAheadBeta);
+        }
+
+        @Override
+        protected List<byte[]> read(Collection<String> keys) {
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(valueMap.get(key));
+            }
+            return values;
+        }
+
+        @Override
+        protected void write(Map<String, byte[]> map) {
+            valueMap.putAll(map);
+        }
+
+        @Override
+        protected void delete(Collection<String> keys) {
+            valueMap.keySet().removeAll(keys);
+        }
+
+        @Override
+        protected String reason() {
+            return "map";
+        }
+    }
+}
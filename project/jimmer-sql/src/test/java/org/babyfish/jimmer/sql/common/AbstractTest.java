@@ -62,7 +62,7 @@ public class AbstractTest {
 
     private LambdaClient lambdaClient = new LambdaClient(getSqlClient());
 
-    private List<Execution> executions = new ArrayList<>();
+    private List<Execution> executions = Collections.synchronizedList(new ArrayList<>());
 
     private class ExecutorImpl implements Executor {
 
@@ -0,0 +1,135 @@
+package org.babyfish.jimmer.sql.event;
+
+import org.babyfish.jimmer.sql.model.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class AsyncTriggerDispatcherTest {
+
+    private TriggersImpl triggers;
+
+    private List<String> events;
+
+    private List<Runnable> tasks;
+
+    @BeforeEach
+    public void initialize() {
+        triggers = new TriggersImpl();
+        events = new ArrayList<>();
+        tasks = new ArrayList<>();
+        triggers.addEntityListener(BookStore.class, e -> {
+            events.add(e.getOldEntity().name() + "->" + e.getNewEntity().name());
+        });
+        triggers.addAssociationListener(BookProps.AUTHORS, e -> {
+            events.add(e.getSourceId() + "+" + e.getAttachedTargetId());
+        });
+    }
+
+    @Test
+    public void testCoalesceAndDeliverAsynchronously() {
+        AsyncTriggerDispatcher dispatcher =
+                new ImmediateDispatcher(tasks::add, 100, AsyncTriggerDispatcher.Ordering.UNORDERED);
+        dispatcher.dispatch(
+                triggers,
+                Arrays.asList(
+                        storeEvent("A", "B"),
+                        attachEvent(),
+                        storeEvent("B", "C"),
+                        attachEvent()
+                )
+        );
+        Assertions.assertTrue(events.isEmpty());
+        Assertions.assertEquals(2, tasks.size());
+        Assertions.assertEquals(2, dispatcher.getPendingEventCount());
+        Assertions.assertEquals(2, dispatcher.getCoalescedEventCount());
+
+        tasks.forEach(Runnable::run);
+        Assertions.assertEquals(
+                Arrays.asList("A->C", learningGraphQLId1 + "+" + alexId),
+                events
+        );
+        Assertions.assertEquals(0, dispatcher.getPendingEventCount());
+        Assertions.assertEquals(2, dispatcher.getPeakPendingEventCount());
+        Assertions.assertEquals(2, dispatcher.getDeliveredEventCount());
+    }
+
+    @Test
+    public void testOrderedType() {
+        AsyncTriggerDispatcher dispatcher =
+                new ImmediateDispatcher(tasks::add, 100, AsyncTriggerDispatcher.Ordering.ORDERED);
+        dispatcher.dispatch(triggers, Collections.singletonList(storeEvent("A", "B")));
+        dispatcher.dispatch(triggers, Collections.singletonList(storeEvent("B", "C")));
+
+        // Groups of same type share one serial task
+        Assertions.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assertions.assertEquals(Arrays.asList("A->B", "B->C"), events);
+    }
+
+    @Test
+    public void testBackPressure() {
+        AsyncTriggerDispatcher dispatcher =
+                new ImmediateDispatcher(tasks::add, 1, AsyncTriggerDispatcher.Ordering.UNORDERED);
+        dispatcher.dispatch(triggers, Arrays.asList(storeEvent("A", "B"), attachEvent()));
+
+        // The second group is delivered by the calling thread
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertEquals(Collections.singletonList(learningGraphQLId1 + "+" + alexId), events);
+        Assertions.assertEquals(1, dispatcher.getCallerRunsCount());
+
+        tasks.get(0).run();
+        Assertions.assertEquals(Arrays.asList(learningGraphQLId1 + "+" + alexId, "A->B"), events);
+    }
+
+    @Test
+    public void testAssociationKeepsLastChange() {
+        AsyncTriggerDispatcher dispatcher =
+                new ImmediateDispatcher(tasks::add, 100, AsyncTriggerDispatcher.Ordering.UNORDERED);
+        dispatcher.dispatch(triggers, Arrays.asList(attachEvent(), detachEvent(), attachEvent()));
+        dispatcher.dispatch(triggers, Arrays.asList(detachEvent(), attachEvent()));
+
+        // The second mutation reverts itself, nothing is delivered
+        Assertions.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assertions.assertEquals(Collections.singletonList(learningGraphQLId1 + "+" + alexId), events);
+        Assertions.assertEquals(4, dispatcher.getCoalescedEventCount());
+    }
+
+    private static EntityEvent<BookStore> storeEvent(String oldName, String newName) {
+        return new EntityEvent<>(
+                BookStoreDraft.$.produce(store -> store.setId(oreillyId).setName(oldName)),
+                BookStoreDraft.$.produce(store -> store.setId(oreillyId).setName(newName)),
+                null,
+                null
+        );
+    }
+
+    private static AssociationEvent attachEvent() {
+        return new AssociationEvent(BookProps.AUTHORS.unwrap(), learningGraphQLId1, null, alexId, null, null);
+    }
+
+    private static AssociationEvent detachEvent() {
+        return new AssociationEvent(BookProps.AUTHORS.unwrap(), learningGraphQLId1, alexId, null, null, null);
+    }
+
+    private static class ImmediateDispatcher extends AsyncTriggerDispatcher {
+
+        ImmediateDispatcher(Executor executor, int maxPendingEventCount, Ordering defaultOrdering) {
+            super(executor, maxPendingEventCount, defaultOrdering);
+        }
+
+        @Override
+        protected void schedule(Runnable delivery) {
+            delivery.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.babyfish.jimmer.sql.fetcher;
 
+import org.babyfish.jimmer.sql.fetcher.compiler.CompiledFetcherCache;
 import org.babyfish.jimmer.sql.fetcher.compiler.FetcherCompileException;
 import org.babyfish.jimmer.sql.fetcher.compiler.FetcherCompiler;
 import org.babyfish.jimmer.sql.model.*;
@@ -152,4 +153,42 @@ public class CompilerTest {
                 ex.getMessage()
         );
     }
+
+    @Test
+    public void testCache() {
+        String bookCode = BookFetcher.$.allScalarFields().toString(true);
+        String authorCode = AuthorFetcher.$.allScalarFields().toString(true);
+        String storeCode = BookStoreFetcher.$.allScalarFields().toString(true);
+        CompiledFetcherCache cache = new CompiledFetcherCache(2);
+
+        Fetcher<?> bookFetcher = cache.get(bookCode);
+        Assertions.assertEquals(bookCode, bookFetcher.toString(true));
+        Assertions.assertSame(bookFetcher, cache.get(bookCode));
+        Assertions.assertSame(bookFetcher, cache.getByHash(CompiledFetcherCache.hash(bookCode), null));
+        Assertions.assertNull(cache.getByHash(CompiledFetcherCache.hash(authorCode), null));
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+
+        cache.get(authorCode);
+        cache.get(bookCode);
+        cache.get(storeCode);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertNull(cache.getByHash(CompiledFetcherCache.hash(authorCode), null));
+        Assertions.assertSame(bookFetcher, cache.get(bookCode));
+    }
+
+    @Test
+    public void testCacheByClassLoader() {
+        String bookCode = BookFetcher.$.allScalarFields().toString(true);
+        ClassLoader classLoader = CompilerTest.class.getClassLoader();
+        CompiledFetcherCache cache = new CompiledFetcherCache();
+
+        Fetcher<?> bookFetcher = cache.get(bookCode, classLoader);
+        Assertions.assertNull(cache.getByHash(CompiledFetcherCache.hash(bookCode), null));
+        Assertions.assertSame(bookFetcher, cache.getByHash(CompiledFetcherCache.hash(bookCode), classLoader));
+        Assertions.assertNotSame(bookFetcher, cache.get(bookCode));
+        Assertions.assertSame(bookFetcher, cache.get(bookCode, classLoader));
+        Assertions.assertEquals(2, cache.size());
+    }
 }
@@ -0,0 +1,96 @@
+package org.babyfish.jimmer.sql.fetcher;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.babyfish.jimmer.sql.runtime.ExecutionException;
+import org.h2.Driver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+public class ParallelFetchingTest extends AbstractTest {
+
+    @Test
+    public void testSameResultAsSequentialFetching() {
+        assertSameResultAsSequentialFetching(0, 8);
+    }
+
+    @Test
+    public void testChunksOfSameAssociation() {
+        // Each association is split into several chunks, and the concurrency is limited
+        assertSameResultAsSequentialFetching(2, 2);
+    }
+
+    private void assertSameResultAsSequentialFetching(int batchSize, int maxConcurrency) {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Book> sequentialBooks = new ArrayList<>();
+            List<Book> parallelBooks = new ArrayList<>();
+            jdbc(con -> {
+                sequentialBooks.addAll(query(getSqlClient(), con, batchSize));
+            });
+            int sequentialExecutionCount = getExecutions().size();
+            clearExecutions();
+            JSqlClient parallelSqlClient = getSqlClient(it -> {
+                it.setConnectionManager(
+                        new ConnectionManager() {
+                            @Override
+                            public <R> R execute(Function<Connection, R> block) {
+                                try (Connection con = new Driver().connect(JDBC_URL, null)) {
+                                    return block.apply(con);
+                                } catch (SQLException ex) {
+                                    throw new ExecutionException("Cannot open connection", ex);
+                                }
+                            }
+                        }
+                );
+                it.setFetcherExecutor(executorService);
+                it.setFetcherMaxConcurrency(maxConcurrency);
+            });
+            jdbc(con -> {
+                parallelBooks.addAll(query(parallelSqlClient, con, batchSize));
+            });
+            Assertions.assertEquals(sequentialExecutionCount, getExecutions().size());
+            Assertions.assertEquals(sequentialBooks.toString(), parallelBooks.toString());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static List<Book> query(JSqlClient sqlClient, Connection con, int batchSize) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name(), table.edition())
+                .select(
+                        table.fetch(
+                                BookFetcher.$
+                                        .name()
+                                        .edition()
+                                        .store(
+                                                BookStoreFetcher.$
+                                                        .name(),
+                                                it -> it.batch(batchSize)
+                                        )
+                                        .authors(
+                                                AuthorFetcher.$
+                                                        .firstName()
+                                                        .lastName(),
+                                                it -> it.batch(batchSize).filter(args -> {
+                                                    args.orderBy(args.getTable().firstName());
+                                                })
+                                        )
+                        )
+                )
+                .execute(con);
+    }
+}
@@ -7,10 +7,16 @@ import org.babyfish.jimmer.sql.dialect.H2Dialect;
 import org.babyfish.jimmer.sql.dialect.MySqlDialect;
 import org.babyfish.jimmer.sql.dialect.PostgresDialect;
 import org.babyfish.jimmer.sql.meta.IdentityIdGenerator;
+import org.babyfish.jimmer.sql.meta.SequenceIdGenerator;
 import org.babyfish.jimmer.sql.model.TreeNode;
 import org.babyfish.jimmer.sql.model.TreeNodeDraft;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class DatabaseAutoIdTest extends AbstractMutationTest {
 
     @Test
@@ -38,6 +44,68 @@ public class DatabaseAutoIdTest extends AbstractMutationTest {
         );
     }
 
+    @Test
+    public void testPooledSequenceByH2() {
+        // The `INCREMENT BY` of sequence must be equal to `allocationSize`
+        jdbc(con -> {
+            con
+                    .createStatement()
+                    .executeUpdate("alter sequence tree_node_id_seq restart with 100 increment by 10");
+        });
+        try {
+            SequenceIdGenerator idGenerator = new SequenceIdGenerator("tree_node_id_seq", 10);
+            List<TreeNode> treeNodes = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                String name = "Node-" + i;
+                treeNodes.add(
+                        TreeNodeDraft.$.produce(treeNode -> {
+                            treeNode.setName(name);
+                        })
+                );
+            }
+            executeAndExpectResult(
+                    getSqlClient(
+                            it -> it
+                                    .setDialect(new H2Dialect())
+                                    .setIdGenerator(TreeNode.class, idGenerator)
+                    ).getEntities().batchSaveCommand(
+                            treeNodes
+                    ).configure(it -> it.setMode(SaveMode.INSERT_ONLY)),
+                    ctx -> {
+                        for (int i = 0; i < 12; i++) {
+                            // The second block starts from 110 because sequence is incremented by 10
+                            long id = i < 10 ? 100L + i : 110L + i - 10;
+                            if (i % 10 == 0) {
+                                ctx.statement(it -> {
+                                    it.sql("select nextval('tree_node_id_seq')");
+                                });
+                            }
+                            String name = "Node-" + i;
+                            ctx.statement(it -> {
+                                it.sql("insert into TREE_NODE(NODE_ID, NAME) values(?, ?)");
+                                it.variables(id, name);
+                            });
+                        }
+                        for (int i = 0; i < 12; i++) {
+                            long id = i < 10 ? 100L + i : 110L + i - 10;
+                            String name = "Node-" + i;
+                            ctx.entity(it -> {
+                                it.modified("{\"id\":" + id + ",\"name\":\"" + name + "\"}");
+                            });
+                        }
+                    }
+            );
+            Assertions.assertEquals(2, idGenerator.getRefillCount());
+            Assertions.assertEquals(12, idGenerator.getAllocatedCount());
+        } finally {
+            jdbc(con -> {
+                con
+                        .createStatement()
+                        .executeUpdate("alter sequence tree_node_id_seq restart with 100 increment by 1");
+            });
+        }
+    }
+
     @Test
     public void testSequenceByPostgres() {
 
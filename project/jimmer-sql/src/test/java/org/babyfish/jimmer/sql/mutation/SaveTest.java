@@ -2,12 +2,15 @@ package org.babyfish.jimmer.sql.mutation;
 
 import org.babyfish.jimmer.sql.DissociateAction;
 import org.babyfish.jimmer.sql.ast.mutation.AffectedTable;
+import org.babyfish.jimmer.sql.ast.mutation.BatchSaveResult;
 import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
 import org.babyfish.jimmer.sql.ast.mutation.SimpleSaveResult;
 import org.babyfish.jimmer.sql.common.AbstractMutationTest;
 import static org.babyfish.jimmer.sql.common.Constants.*;
 
 import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.model.hr.Department;
+import org.babyfish.jimmer.sql.model.hr.DepartmentDraft;
 import org.babyfish.jimmer.sql.model.inheritance.Administrator;
 import org.babyfish.jimmer.sql.model.inheritance.AdministratorMetadata;
 import org.babyfish.jimmer.sql.model.inheritance.AdministratorMetadataDraft;
@@ -870,6 +873,188 @@ public class SaveTest extends AbstractMutationTest {
         );
     }
 
+    @Test
+    public void testBatchSaveByStatementBatching() {
+        setAutoIds(TreeNode.class, 100L, 101L, 102L);
+        executeAndExpectResult(
+                getSqlClient()
+                        .getEntities()
+                        .batchSaveCommand(
+                                Arrays.asList(
+                                        TreeNodeDraft.$.produce(node -> {
+                                            node.setName("batch-node-1").setParent((TreeNode) null);
+                                        }),
+                                        TreeNodeDraft.$.produce(node -> {
+                                            node.setName("batch-node-2").setParent((TreeNode) null);
+                                        }),
+                                        TreeNodeDraft.$.produce(node -> {
+                                            node.setName("batch-node-3").setParent((TreeNode) null);
+                                        })
+                                )
+                        )
+                        .setBatchSize(10),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql(
+                                "select tb_1_.NODE_ID, tb_1_.NAME, tb_1_.PARENT_ID " +
+                                        "from TREE_NODE tb_1_ " +
+                                        "where tb_1_.NAME in (?, ?, ?) and tb_1_.PARENT_ID is null");
+                        it.variables("batch-node-1", "batch-node-2", "batch-node-3");
+                    });
+                    ctx.statement(it -> {
+                        it.sql("insert into TREE_NODE(NODE_ID, NAME, PARENT_ID) values(?, ?, ?)");
+                        it.variables(100L, "batch-node-1", new DbNull(long.class));
+                    });
+                    ctx.totalRowCount(3);
+                    ctx.rowCount(AffectedTable.of(TreeNode.class), 3);
+                    ctx.entity(it -> {
+                        it.original("{\"name\":\"batch-node-1\",\"parent\":null}");
+                        it.modified(
+                                "{\"id\":100,\"name\":\"batch-node-1\",\"parent\":null}"
+                        );
+                    });
+                    ctx.entity(it -> {
+                        it.modified(
+                                "{\"id\":101,\"name\":\"batch-node-2\",\"parent\":null}"
+                        );
+                    });
+                    ctx.entity(it -> {
+                        it.modified(
+                                "{\"id\":102,\"name\":\"batch-node-3\",\"parent\":null}"
+                        );
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testAffectedRowCountsByStatementBatching() {
+        setAutoIds(TreeNode.class, 100L, 101L);
+        jdbc(null, true, con -> {
+            BatchSaveResult<TreeNode> result = getSqlClient()
+                    .getEntities()
+                    .batchSaveCommand(
+                            Arrays.asList(
+                                    TreeNodeDraft.$.produce(node -> {
+                                        node.setName("batch-node-1").setParent((TreeNode) null);
+                                    }),
+                                    TreeNodeDraft.$.produce(node -> {
+                                        node.setName("batch-node-2").setParent((TreeNode) null);
+                                    })
+                            )
+                    )
+                    .setMode(SaveMode.INSERT_ONLY)
+                    .setBatchSize(10)
+                    .execute(con);
+            Assertions.assertEquals(2, result.getTotalAffectedRowCount());
+            // The counts of each root are unknown in statement batching mode
+            for (SimpleSaveResult<TreeNode> simpleResult : result.getSimpleResults()) {
+                Assertions.assertTrue(simpleResult.getAffectedRowCountMap().isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void testBatchInsertIdentityByStatementBatching() {
+        executeAndExpectResult(
+                getSqlClient()
+                        .getEntities()
+                        .batchSaveCommand(
+                                Arrays.asList(
+                                        DepartmentDraft.$.produce(department -> {
+                                            department.setName("Develop");
+                                        }),
+                                        DepartmentDraft.$.produce(department -> {
+                                            department.setName("Test");
+                                        }),
+                                        DepartmentDraft.$.produce(department -> {
+                                            department.setName("Operation");
+                                        })
+                                )
+                        )
+                        .setMode(SaveMode.INSERT_ONLY)
+                        .setBatchSize(10),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql("insert into DEPARTMENT(NAME) values(?)");
+                        it.variables("Develop");
+                    });
+                    ctx.totalRowCount(3);
+                    ctx.rowCount(AffectedTable.of(Department.class), 3);
+                    ctx.entity(it -> {
+                        it.original("{\"name\":\"Develop\"}");
+                        it.modified("{\"id\":100,\"name\":\"Develop\"}");
+                    });
+                    ctx.entity(it -> {
+                        it.modified("{\"id\":101,\"name\":\"Test\"}");
+                    });
+                    ctx.entity(it -> {
+                        it.modified("{\"id\":102,\"name\":\"Operation\"}");
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testBatchSaveManyToManyByStatementBatching() {
+        executeAndExpectResult(
+                getSqlClient()
+                        .getEntities()
+                        .batchSaveCommand(
+                                Arrays.asList(
+                                        BookDraft.$.produce(book -> {
+                                            book.setId(learningGraphQLId1);
+                                            book.addIntoAuthors(author -> author.setId(alexId));
+                                            book.addIntoAuthors(author -> author.setId(danId));
+                                        }),
+                                        BookDraft.$.produce(book -> {
+                                            book.setId(learningGraphQLId2);
+                                            book.addIntoAuthors(author -> author.setId(eveId));
+                                        })
+                                )
+                        )
+                        .setMode(SaveMode.UPDATE_ONLY)
+                        .setBatchSize(10),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql("select BOOK_ID, AUTHOR_ID from BOOK_AUTHOR_MAPPING where BOOK_ID in (?, ?)");
+                        it.variables(learningGraphQLId1, learningGraphQLId2);
+                    });
+                    ctx.statement(it -> {
+                        it.sql("delete from BOOK_AUTHOR_MAPPING where (BOOK_ID, AUTHOR_ID) in ((?, ?), (?, ?))");
+                        it.variables(learningGraphQLId1, eveId, learningGraphQLId2, alexId);
+                    });
+                    ctx.statement(it -> {
+                        it.sql("insert into BOOK_AUTHOR_MAPPING(BOOK_ID, AUTHOR_ID) values(?, ?)");
+                        it.variables(learningGraphQLId1, danId);
+                    });
+                    ctx.totalRowCount(3);
+                    ctx.rowCount(AffectedTable.of(BookProps.AUTHORS), 3);
+                    ctx.entity(it -> {
+                        it.modified(
+                                "{" +
+                                        "\"id\":\"e110c564-23cc-4811-9e81-d587a13db634\"," +
+                                        "\"authors\":[" +
+                                        "{\"id\":\"1e93da94-af84-44f4-82d1-d8a9fd52ea94\"}," +
+                                        "{\"id\":\"c14665c8-c689-4ac7-b8cc-6f065b8d835d\"}" +
+                                        "]" +
+                                        "}"
+                        );
+                    });
+                    ctx.entity(it -> {
+                        it.modified(
+                                "{" +
+                                        "\"id\":\"b649b11b-1161-4ad2-b261-af0112fdd7c8\"," +
+                                        "\"authors\":[" +
+                                        "{\"id\":\"fd6bb6cf-336d-416c-8005-1ae11a6694b5\"}" +
+                                        "]" +
+                                        "}"
+                        );
+                    });
+                }
+        );
+    }
+
     @Test
     public void testSaveNullParent() {
         SaveException ex = Assertions.assertThrows(SaveException.class, () -> {
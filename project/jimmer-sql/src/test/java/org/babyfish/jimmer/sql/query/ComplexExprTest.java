@@ -5,12 +5,18 @@ import org.babyfish.jimmer.sql.ast.Predicate;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
 import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
 import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.DbArray;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
 
 public class ComplexExprTest extends AbstractQueryTest {
 
@@ -110,6 +116,68 @@ public class ComplexExprTest extends AbstractQueryTest {
         );
     }
 
+    @Test
+    public void testTupleInListWithPadding() {
+        executeAndExpect(
+                getLambdaClient(it -> it.setInListPaddingEnabled(true)).createQuery(BookTable.class, (q, book) -> {
+                    q.where(
+                            Expression.tuple(book.name(), book.edition()).in(
+                                    Arrays.asList(
+                                            new Tuple2<>("Learning GraphQL", 3),
+                                            new Tuple2<>("Effective TypeScript", 2),
+                                            new Tuple2<>("GraphQL in Action", 1)
+                                    )
+                            )
+                    );
+                    return q.select(book.id());
+                }),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where (tb_1_.NAME, tb_1_.EDITION) in ((?, ?), (?, ?), (?, ?), (?, ?))"
+                    );
+                    ctx.variables(
+                            "Learning GraphQL", 3,
+                            "Effective TypeScript", 2,
+                            "GraphQL in Action", 1,
+                            "GraphQL in Action", 1
+                    );
+                }
+        );
+    }
+
+    @Test
+    public void testInListAsArray() {
+        executeAndExpect(
+                getLambdaClient(it -> it.setDialect(new ArrayH2Dialect())).createQuery(BookTable.class, (q, book) -> {
+                    q.where(
+                            book.id().in(
+                                    Arrays.asList(learningGraphQLId1, learningGraphQLId2)
+                            )
+                    );
+                    q.where(
+                            book.id().notIn(
+                                    Collections.singletonList(learningGraphQLId3)
+                            )
+                    );
+                    return q.select(book.id());
+                }),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.ID = any(?) " +
+                                    "and tb_1_.ID <> all(?)"
+                    );
+                    ctx.variables(
+                            new DbArray("uuid", new UUID[] { learningGraphQLId1, learningGraphQLId2 }),
+                            new DbArray("uuid", new UUID[] { learningGraphQLId3 })
+                    );
+                }
+        );
+    }
+
     @Test
     public void testSimpleCase() {
         executeAndExpect(
@@ -169,4 +237,12 @@ public class ComplexExprTest extends AbstractQueryTest {
                 }
         );
     }
+
+    private static class ArrayH2Dialect extends H2Dialect {
+
+        @Override
+        public String getArrayElementType(Class<?> elementType) {
+            return elementType == UUID.class ? "uuid" : null;
+        }
+    }
 }
@@ -1,11 +1,20 @@
 package org.babyfish.jimmer.sql.query;
 
+import org.babyfish.jimmer.sql.JSqlClient;
 import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
 import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.DefaultExecutor;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class CursorTest extends AbstractQueryTest {
 
@@ -152,4 +161,144 @@ public class CursorTest extends AbstractQueryTest {
                 }
         );
     }
+
+    @Test
+    public void cursorWithFetchSize() {
+        List<Integer> fetchSizes = new ArrayList<>();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDefaultFetchSize(10);
+            it.setExecutor(
+                    new Executor() {
+                        @Override
+                        public <R> R execute(@NotNull Args<R> args) {
+                            fetchSizes.add(args.fetchSize);
+                            return DefaultExecutor.INSTANCE.execute(args);
+                        }
+                    }
+            );
+        });
+        BookTable table = BookTable.$;
+        List<String> names = new ArrayList<>();
+        jdbc(con -> {
+            sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(table.name())
+                    .forEach(con, names::add);
+            sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(table.name())
+                    .fetchSize(2)
+                    .forEach(con, names::add);
+            sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(table.name())
+                    .execute(con);
+        });
+        Assertions.assertEquals(Arrays.asList(10, 2, 0), fetchSizes);
+        Assertions.assertEquals(
+                "[Effective TypeScript, GraphQL in Action, Learning GraphQL, Programming TypeScript, " +
+                        "Effective TypeScript, GraphQL in Action, Learning GraphQL, Programming TypeScript]",
+                names.toString()
+        );
+    }
+
+    @Test
+    public void cursorWithExclusiveFetchSize() {
+        List<Integer> fetchSizes = new ArrayList<>();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(
+                    new H2Dialect() {
+                        @Override
+                        public boolean isFetchSizeExclusive(Connection con) {
+                            return true;
+                        }
+                    }
+            );
+            it.setDefaultFetchSize(10);
+            it.setExecutor(
+                    new Executor() {
+                        @Override
+                        public <R> R execute(@NotNull Args<R> args) {
+                            fetchSizes.add(args.fetchSize);
+                            return DefaultExecutor.INSTANCE.execute(args);
+                        }
+                    }
+            );
+        });
+        BookTable table = BookTable.$;
+        List<Book> books = new ArrayList<>();
+        jdbc(con -> {
+            sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(table)
+                    .forEach(con, books::add);
+            sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(
+                            table.fetch(
+                                    BookFetcher.$
+                                            .name()
+                                            .store(BookStoreFetcher.$.name())
+                            )
+                    )
+                    .forEach(con, books::add);
+        });
+        // The fetch size is ignored when the object fetcher executes other statements
+        Assertions.assertEquals(Arrays.asList(10, 0, 0), fetchSizes);
+        Assertions.assertEquals(8, books.size());
+    }
+
+    @Test
+    public void stream() {
+        BookTable table = BookTable.$;
+        List<Book> books = new ArrayList<>();
+        jdbc(con -> {
+            try (Stream<Book> stream = getSqlClient()
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name())
+                    .select(
+                            table.fetch(
+                                    BookFetcher.$
+                                            .name()
+                                            .store(BookStoreFetcher.$.name())
+                                    )
+                    )
+                    .stream(con, 2)
+            ) {
+                stream.limit(3).forEach(books::add);
+            }
+        });
+        Assertions.assertEquals(
+                "[" +
+                        "{\"id\":\"9eded40f-6d2e-41de-b4e7-33a28b11c8b6\",\"name\":\"Effective TypeScript\"," +
+                        "\"store\":{\"id\":\"d38c10da-6be8-4924-b9b9-5e81899612a0\",\"name\":\"O'REILLY\"}}, " +
+                        "{\"id\":\"780bdf07-05af-48bf-9be9-f8c65236fecc\",\"name\":\"GraphQL in Action\"," +
+                        "\"store\":{\"id\":\"2fa3955e-3e83-49b9-902e-0465c109c779\",\"name\":\"MANNING\"}}, " +
+                        "{\"id\":\"64873631-5d82-4bae-8eb8-72dd955bfc56\",\"name\":\"Learning GraphQL\"," +
+                        "\"store\":{\"id\":\"d38c10da-6be8-4924-b9b9-5e81899612a0\",\"name\":\"O'REILLY\"}}" +
+                        "]",
+                books.toString()
+        );
+        // The query is executed by the executor too,
+        // the 4th book is never read, so only 2 chunks are fetched
+        Assertions.assertEquals(3, getExecutions().size());
+        Assertions.assertEquals(
+                "select tb_1_.ID, tb_1_.NAME, tb_1_.STORE_ID " +
+                        "from BOOK tb_1_ " +
+                        "where tb_1_.EDITION = ? " +
+                        "order by tb_1_.NAME asc",
+                getExecutions().get(0).getSql()
+        );
+    }
 }
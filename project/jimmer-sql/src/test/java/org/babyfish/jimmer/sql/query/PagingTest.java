@@ -4,6 +4,7 @@ import org.babyfish.jimmer.sql.JoinType;
 import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
 import org.babyfish.jimmer.sql.dialect.MySqlDialect;
 import org.babyfish.jimmer.sql.dialect.OracleDialect;
 import org.babyfish.jimmer.sql.model.*;
@@ -12,8 +13,11 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
 public class PagingTest extends AbstractQueryTest {
 
     @Test
@@ -238,6 +242,91 @@ public class PagingTest extends AbstractQueryTest {
         });
     }
 
+    @Test
+    public void testDistinctCountWithoutDuplicableJoin() {
+
+        ConfigurableRootQuery<BookTable, Book> query = getLambdaClient().createQuery(BookTable.class, (q, book) -> {
+            q.where(book.store().name().eq("MANNING"));
+            q.orderBy(book.name());
+            return q.select(book);
+        }).distinct();
+
+        connectAndExpect(
+                query::count,
+                ctx -> {
+                    ctx.sql(
+                            "select count(tb_1_.ID) " +
+                                    "from BOOK tb_1_ " +
+                                    "inner join BOOK_STORE tb_2_ on tb_1_.STORE_ID = tb_2_.ID " +
+                                    "where tb_2_.NAME = ?"
+                    );
+                    ctx.variables("MANNING");
+                    ctx.rows(Collections.singletonList(3));
+                }
+        );
+    }
+
+    @Test
+    public void testDistinctCountWithDuplicableJoin() {
+
+        ConfigurableRootQuery<BookTable, Book> query = getLambdaClient().createQuery(BookTable.class, (q, book) -> {
+            q.where(book.asTableEx().authors().id().in(Arrays.asList(alexId, eveId)));
+            q.orderBy(book.name());
+            return q.select(book);
+        }).distinct();
+
+        connectAndExpect(
+                query::count,
+                ctx -> {
+                    ctx.sql(
+                            "select count(distinct tb_1_.ID) " +
+                                    "from BOOK tb_1_ " +
+                                    "inner join BOOK_AUTHOR_MAPPING tb_2_ on tb_1_.ID = tb_2_.BOOK_ID " +
+                                    "where tb_2_.AUTHOR_ID in (?, ?)"
+                    );
+                    ctx.variables(alexId, eveId);
+                    ctx.rows(Collections.singletonList(3));
+                }
+        );
+    }
+
+    @Test
+    public void testDistinctCountOfExpression() {
+
+        ConfigurableRootQuery<BookTable, String> query = getLambdaClient().createQuery(BookTable.class, (q, book) -> {
+            q.orderBy(book.name());
+            return q.select(book.name());
+        }).distinct();
+
+        connectAndExpect(
+                query::count,
+                ctx -> {
+                    ctx.sql("select count(distinct tb_1_.NAME) from BOOK tb_1_");
+                    ctx.rows(Collections.singletonList(4));
+                }
+        );
+    }
+
+    @Test
+    public void testDistinctCountOfNullableExpression() {
+
+        ConfigurableRootQuery<BookStoreTable, String> query = getLambdaClient().createQuery(BookStoreTable.class, (q, store) -> {
+            q.orderBy(store.website());
+            return q.select(store.website());
+        }).distinct();
+
+        connectAndExpect(
+                query::count,
+                ctx -> {
+                    ctx.sql(
+                            "select count(distinct tb_1_.WEBSITE), count(tb_1_.WEBSITE), count(tb_1_.ID) " +
+                                    "from BOOK_STORE tb_1_"
+                    );
+                    ctx.rows(Collections.singletonList(1));
+                }
+        );
+    }
+
     @Test
     public void testMySqlDialect() {
         executeAndExpect(
@@ -309,6 +398,92 @@ public class PagingTest extends AbstractQueryTest {
         );
     }
 
+    @Test
+    public void testSeekAfter() {
+        executeAndExpect(
+                getLambdaClient().createQuery(BookTable.class, (q, book) -> {
+                    q.orderBy(book.name().asc(), book.edition().desc());
+                    return q.select(book.name(), book.edition());
+                }).seekAfter(Arrays.asList("GraphQL in Action", 2)).limit(2),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.NAME > ? or tb_1_.NAME = ? and tb_1_.EDITION < ? " +
+                                    "order by tb_1_.NAME asc, tb_1_.EDITION desc " +
+                                    "limit ?"
+                    );
+                    ctx.variables("GraphQL in Action", "GraphQL in Action", 2, 2);
+                    ctx.rows(
+                            Arrays.asList(
+                                    new Tuple2<>("GraphQL in Action", 1),
+                                    new Tuple2<>("Learning GraphQL", 3)
+                            )
+                    );
+                }
+        );
+    }
+
+    @Test
+    public void testSeekAfterByTupleComparison() {
+        executeAndExpect(
+                getLambdaClient(
+                        it -> it.setDialect(new H2Dialect())
+                ).createQuery(BookTable.class, (q, book) -> {
+                    q.orderBy(book.name().desc(), book.edition().desc());
+                    return q.select(book.name(), book.edition());
+                }).seekAfter(Arrays.asList("GraphQL in Action", 2)).limit(2),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "where (tb_1_.NAME, tb_1_.EDITION) < (?, ?) " +
+                                    "order by tb_1_.NAME desc, tb_1_.EDITION desc " +
+                                    "limit ?"
+                    );
+                    ctx.variables("GraphQL in Action", 2, 2);
+                    ctx.rows(
+                            Arrays.asList(
+                                    new Tuple2<>("GraphQL in Action", 1),
+                                    new Tuple2<>("Effective TypeScript", 3)
+                            )
+                    );
+                }
+        );
+    }
+
+    @Test
+    public void testSeekAfterWithIllegalValues() {
+        ConfigurableRootQuery<BookTable, Book> query = getLambdaClient().createQuery(BookTable.class, (q, book) -> {
+            q.orderBy(book.name(), book.id());
+            return q.select(book);
+        });
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> query.seekAfter(Arrays.asList("GraphQL in Action"))
+        );
+    }
+
+    @Test
+    public void testSeekAfterNullableProp() {
+        ConfigurableRootQuery<BookStoreTable, BookStore> query =
+                getLambdaClient().createQuery(BookStoreTable.class, (q, store) -> {
+                    q.orderBy(store.website(), store.id());
+                    return q.select(store);
+                });
+        IllegalArgumentException ex = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> query.seekAfter(Arrays.asList("http://www.manning.com", manningId))
+        );
+        Assertions.assertEquals(
+                "Keyset pagination requires that the properties of order by clause " +
+                        "are not nullable, but the property " +
+                        "\"org.babyfish.jimmer.sql.model.BookStore.website\" is nullable, " +
+                        "please sort by non-null properties or use offset pagination",
+                ex.getMessage()
+        );
+    }
+
     @Test
     public void testDoubleLimit() {
         AuthorTable author = AuthorTable.$;
@@ -0,0 +1,118 @@
+package org.babyfish.jimmer.sql.query;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.SqlTemplateCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public class SqlTemplateCacheTest extends AbstractQueryTest {
+
+    private final SqlTemplateCache cache = new SqlTemplateCache(2);
+
+    private final JSqlClient sqlClient = getSqlClient(it -> {
+        it.setSqlTemplateCache(cache);
+        it.setInListPaddingEnabled(true);
+    });
+
+    @Test
+    public void testSameShape() {
+        BookTable table = BookTable.$;
+        for (int edition = 1; edition <= 2; edition++) {
+            int finalEdition = edition;
+            executeAndExpect(
+                    sqlClient
+                            .createQuery(table)
+                            .where(table.edition().eq(finalEdition))
+                            .where(table.price().ge(new BigDecimal(50)))
+                            .orderBy(table.name())
+                            .select(table.name())
+                            .limit(2, 1),
+                    ctx -> {
+                        ctx.sql(
+                                "select tb_1_.NAME " +
+                                        "from BOOK tb_1_ " +
+                                        "where tb_1_.EDITION = ? and tb_1_.PRICE >= ? " +
+                                        "order by tb_1_.NAME asc " +
+                                        "limit ? offset ?"
+                        );
+                        ctx.variables(finalEdition, new BigDecimal(50), 2, 1);
+                    }
+            );
+        }
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testPaddedInList() {
+        BookTable table = BookTable.$;
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.name().in(Arrays.asList("A", "B", "C")))
+                        .select(table.edition()),
+                ctx -> {
+                    ctx.sql("select tb_1_.EDITION from BOOK tb_1_ where tb_1_.NAME in (?, ?, ?, ?)");
+                    ctx.variables("A", "B", "C", "C");
+                }
+        );
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.name().in(Arrays.asList("D", "E", "F", "G")))
+                        .select(table.edition()),
+                ctx -> {
+                    ctx.sql("select tb_1_.EDITION from BOOK tb_1_ where tb_1_.NAME in (?, ?, ?, ?)");
+                    ctx.variables("D", "E", "F", "G");
+                }
+        );
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testDifferentShapes() {
+        BookTable table = BookTable.$;
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.edition().eq(1))
+                        .select(table.name()),
+                ctx -> {
+                    ctx.sql("select tb_1_.NAME from BOOK tb_1_ where tb_1_.EDITION = ?");
+                    ctx.variables(1);
+                }
+        );
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.edition().ne(1))
+                        .select(table.name()),
+                ctx -> {
+                    ctx.sql("select tb_1_.NAME from BOOK tb_1_ where tb_1_.EDITION <> ?");
+                    ctx.variables(1);
+                }
+        );
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.edition().eq(1))
+                        .select(table.name())
+                        .distinct(),
+                ctx -> {
+                    ctx.sql("select distinct tb_1_.NAME from BOOK tb_1_ where tb_1_.EDITION = ?");
+                    ctx.variables(1);
+                }
+        );
+        Assertions.assertEquals(3, cache.getMissCount());
+        Assertions.assertEquals(0, cache.getHitCount());
+        // The cache is bounded
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+    }
+}
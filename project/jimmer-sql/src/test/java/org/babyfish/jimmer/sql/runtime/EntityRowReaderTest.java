@@ -0,0 +1,84 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EntityRowReaderTest extends AbstractTest {
+
+    @Test
+    public void testGeneratedRowReader() {
+        Assertions.assertTrue(
+                EntityRowReaders.get(ImmutableType.get(Book.class)) instanceof BookDraft.RowReader
+        );
+        Assertions.assertTrue(
+                EntityRowReaders.get(ImmutableType.get(BookStore.class)) instanceof BookStoreDraft.RowReader
+        );
+    }
+
+    @Test
+    public void testSameRowsAsReaders() {
+        jdbc(con -> {
+            String sql = "select ID, NAME, EDITION, PRICE, STORE_ID from BOOK order by NAME, EDITION";
+            List<Object> generatedRows = read(con, sql, true);
+            List<Object> rows = read(con, sql, false);
+            Assertions.assertEquals(12, generatedRows.size());
+            Assertions.assertEquals(rows.toString(), generatedRows.toString());
+        });
+    }
+
+    @Test
+    public void testNullOfNonNullProp() {
+        jdbc(con -> {
+            String sql = "select ID, NAME, cast(null as int), PRICE, STORE_ID from BOOK";
+            IllegalArgumentException generatedEx = Assertions.assertThrows(
+                    IllegalArgumentException.class,
+                    () -> read(con, sql, true)
+            );
+            IllegalArgumentException ex = Assertions.assertThrows(
+                    IllegalArgumentException.class,
+                    () -> read(con, sql, false)
+            );
+            Assertions.assertEquals(ex.getMessage(), generatedEx.getMessage());
+        });
+    }
+
+    private List<Object> read(Connection con, String sql, boolean generated) throws SQLException {
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient();
+        ImmutableType type = ImmutableType.get(Book.class);
+        Map<ImmutableProp, Reader<?>> nonIdReaderMap = new LinkedHashMap<>();
+        for (String propName : new String[] { "name", "edition", "price", "store" }) {
+            ImmutableProp prop = type.getProp(propName);
+            nonIdReaderMap.put(prop, sqlClient.getReader(prop));
+        }
+        Reader<?> reader = new ObjectReader(
+                type,
+                sqlClient.getReader(type.getIdProp()),
+                nonIdReaderMap,
+                generated ? EntityRowReaders.get(type) : null
+        );
+        List<Object> rows = new ArrayList<>();
+        try (PreparedStatement stmt = con.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                Reader.Col col = new Reader.Col();
+                while (rs.next()) {
+                    rows.add(reader.read(rs, col));
+                    col.reset();
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,66 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.h2.Driver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class StatementCachingExecutorTest extends AbstractTest {
+
+    @Test
+    public void testReuseStatements() {
+        StatementCachingExecutor executor = new StatementCachingExecutor(1);
+        ConnectionManager connectionManager = executor.wrap(
+                new ConnectionManager() {
+                    @Override
+                    public <R> R execute(Function<Connection, R> block) {
+                        try (Connection con = new Driver().connect(JDBC_URL, null)) {
+                            return block.apply(con);
+                        } catch (SQLException ex) {
+                            throw new ExecutionException("Cannot open connection", ex);
+                        }
+                    }
+                }
+        );
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setExecutor(executor);
+            it.setConnectionManager(connectionManager);
+        });
+        BookTable table = BookTable.$;
+        List<String> names = new ArrayList<>();
+        connectionManager.execute(con -> {
+            for (int edition = 1; edition <= 3; edition++) {
+                names.addAll(
+                        sqlClient
+                                .createQuery(table)
+                                .where(table.edition().eq(edition))
+                                .where(table.name().eq("GraphQL in Action"))
+                                .select(table.name())
+                                .execute(con)
+                );
+            }
+            // Different SQL evicts the only cached statement
+            sqlClient.createQuery(table).select(table.count()).execute(con);
+            return null;
+        });
+        Assertions.assertEquals(3, names.size());
+        Assertions.assertEquals(2, executor.getHitCount());
+        Assertions.assertEquals(2, executor.getMissCount());
+        Assertions.assertEquals(1, executor.getEvictionCount());
+        Assertions.assertEquals(0.5, executor.getHitRatio());
+
+        // Statements are not cached outside of the wrapped connection manager
+        jdbc(con -> {
+            sqlClient.createQuery(table).select(table.count()).execute(con);
+        });
+        Assertions.assertEquals(2, executor.getMissCount());
+    }
+}
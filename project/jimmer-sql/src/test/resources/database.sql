@@ -507,7 +507,7 @@ insert into animal(id, name) values(1, 'Trigger'), (2, 'Lion');
 
 
 create table department(
-    id bigint not null,
+    id bigint generated by default as identity(start with 100) not null,
     name varchar(20) not null
 );
 alter table department
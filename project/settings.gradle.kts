@@ -8,3 +8,4 @@ include("jimmer-ksp")
 include("jimmer-sql-kotlin")
 include("jimmer-client")
 include("jimmer-spring-boot-starter")
+include("jimmer-benchmark")